@@ -2,11 +2,15 @@ package org.example;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 
 public class UserProjectMicroService {
     public static void main(String[] args) {
-        SpringApplication.run(UserProjectMicroService.class, args);
+        SpringApplication application = new SpringApplication(UserProjectMicroService.class);
+        // Шаги запуска (создание бинов, обработка конфигурации) доступны на /actuator/startup
+        application.setApplicationStartup(new BufferingApplicationStartup(4096));
+        application.run(args);
     }
-}
\ No newline at end of file
+}
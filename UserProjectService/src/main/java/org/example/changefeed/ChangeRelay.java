@@ -0,0 +1,259 @@
+package org.example.changefeed;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.config.ChangeFeedProperties;
+import org.example.event.ChangesPublishedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ретранслятор исходящих изменений: публикует зафиксированные записи change_outbox в ленту изменений.
+ *
+ * Публикация назначает записям позиции change_offset, следующие за последней позицией ленты, в порядке
+ * записи (по идентификатору). Транзакция может зафиксироваться позже транзакции, начатой после нее, поэтому
+ * позиция назначается при публикации, а не при записи: клиент, читающий ленту после позиции, не пропускает
+ * изменения, зафиксированные с опозданием. Строка change_feed_position блокируется на время публикации,
+ * поэтому позиции назначает один ретранслятор за раз и они строго возрастают.
+ *
+ * Ретранслятор также удаляет изменения по сроку хранения и уплотняет ленту: опубликованное изменение старше
+ * change-feed.compaction-lag удаляется, если для того же ключа есть более позднее изменение.
+ * Пропускная способность и задержка публикации публикуются в метриках actuator (change.feed.*).
+ */
+@Component
+public class ChangeRelay implements SmartLifecycle, MeterBinder {
+
+    private static final String LOCK_POSITION =
+            "SELECT last_offset FROM change_feed_position WHERE id = 1 FOR UPDATE";
+    private static final String ASSIGN_OFFSETS = "MERGE INTO change_outbox c USING (" +
+            "SELECT id, ? + ROW_NUMBER() OVER (ORDER BY id) AS change_offset FROM change_outbox " +
+            "WHERE change_offset IS NULL ORDER BY id FETCH FIRST ? ROWS ONLY) p ON c.id = p.id " +
+            "WHEN MATCHED THEN UPDATE SET change_offset = p.change_offset, published_at = ?";
+    private static final String OLDEST_PUBLISHED =
+            "SELECT MIN(created_at) FROM change_outbox WHERE change_offset > ? AND change_offset <= ?";
+    private static final String UPDATE_POSITION = "UPDATE change_feed_position SET last_offset = ? WHERE id = 1";
+    private static final String LAST_EXPIRED =
+            "SELECT MAX(change_offset) FROM change_outbox WHERE published_at < ?";
+    private static final String DELETE_EXPIRED = "DELETE FROM change_outbox WHERE change_offset <= ?";
+    private static final String UPDATE_TRUNCATED =
+            "UPDATE change_feed_position SET truncated_through = ? WHERE id = 1 AND truncated_through < ?";
+    private static final String DELETE_SUPERSEDED = "DELETE FROM change_outbox c WHERE c.published_at < ? " +
+            "AND EXISTS (SELECT 1 FROM change_outbox n " +
+            "WHERE n.change_key = c.change_key AND n.change_offset > c.change_offset)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ChangeFeedProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final AtomicLong lastOffset = new AtomicLong();
+    private volatile boolean running;
+    private Counter published;
+    private Counter expired;
+    private Counter compacted;
+    private Counter failures;
+    private Timer relayTimer;
+    private Timer publishDelay;
+
+    public ChangeRelay(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                       ChangeFeedProperties properties, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Публикует одну порцию неопубликованных изменений (не больше change-feed.batch-size) в одной транзакции.
+     * После фиксации публикуется {@link ChangesPublishedEvent} с диапазоном назначенных позиций.
+     *
+     * @return количество опубликованных изменений
+     */
+    public int relayPending() {
+        long start = System.nanoTime();
+        long[] after = new long[1];
+        Integer count = transactionTemplate.execute(status -> {
+            long last = jdbcTemplate.queryForObject(LOCK_POSITION, Long.class);
+            after[0] = last;
+            Instant now = Instant.now();
+            int assigned = jdbcTemplate.update(ASSIGN_OFFSETS, last, properties.getBatchSize(), Timestamp.from(now));
+            if (assigned > 0) {
+                jdbcTemplate.update(UPDATE_POSITION, last + assigned);
+                Timestamp oldest = jdbcTemplate.queryForObject(OLDEST_PUBLISHED, Timestamp.class,
+                        last, last + assigned);
+                if (publishDelay != null) {
+                    publishDelay.record(Duration.between(oldest.toInstant(), now));
+                }
+            }
+            lastOffset.set(last + assigned);
+            return assigned;
+        });
+        if (relayTimer != null) {
+            relayTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            published.increment(count);
+        }
+        if (count > 0) {
+            eventPublisher.publishEvent(new ChangesPublishedEvent(after[0], after[0] + count));
+        }
+        return count;
+    }
+
+    /**
+     * Удаляет опубликованные изменения, опубликованные раньше указанного момента.
+     * Позиция последнего удаленного изменения запоминается: чтение ленты с более ранней позиции невозможно.
+     *
+     * @param publishedBefore граница срока хранения
+     * @return количество удаленных изменений
+     */
+    public int expire(Instant publishedBefore) {
+        Integer count = transactionTemplate.execute(status -> {
+            Long through = jdbcTemplate.queryForObject(LAST_EXPIRED, Long.class, Timestamp.from(publishedBefore));
+            if (through == null) {
+                return 0;
+            }
+            int deleted = jdbcTemplate.update(DELETE_EXPIRED, through);
+            jdbcTemplate.update(UPDATE_TRUNCATED, through, through);
+            return deleted;
+        });
+        if (expired != null) {
+            expired.increment(count);
+        }
+        return count;
+    }
+
+    /**
+     * Уплотняет ленту: удаляет изменения, опубликованные раньше указанного момента,
+     * если для того же ключа есть более позднее изменение. Последнее изменение каждого ключа сохраняется,
+     * поэтому клиент, читающий ленту с начала, получает итоговое состояние каждой сущности и связи.
+     * Связи удаленных пользователей и проектов записываются отдельными удалениями, поэтому их прежние
+     * добавления тоже вытесняются.
+     *
+     * @param publishedBefore граница возраста уплотняемых изменений
+     * @return количество удаленных изменений
+     */
+    public int compact(Instant publishedBefore) {
+        Integer count = transactionTemplate.execute(status ->
+                jdbcTemplate.update(DELETE_SUPERSEDED, Timestamp.from(publishedBefore)));
+        if (compacted != null) {
+            compacted.increment(count);
+        }
+        return count;
+    }
+
+    /**
+     * Запускает публикацию вне очереди, например после фиксации транзакции с изменениями.
+     * Повторные вызовы до начала публикации объединяются.
+     */
+    public void wakeUp() {
+        if (running && wakeUpPending.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                wakeUpPending.set(false);
+                relayAll();
+            });
+        }
+    }
+
+    /**
+     * Публикует порции, пока есть неопубликованные изменения.
+     */
+    private void relayAll() {
+        try {
+            while (relayPending() == properties.getBatchSize()) {
+                // Порция заполнена целиком: возможно, есть еще неопубликованные изменения
+            }
+        } catch (RuntimeException e) {
+            // Изменения останутся неопубликованными до следующего запуска
+            recordFailure();
+        }
+    }
+
+    private void maintain() {
+        try {
+            Instant now = Instant.now();
+            expire(now.minus(properties.getRetention()));
+            compact(now.minus(properties.getCompactionLag()));
+        } catch (RuntimeException e) {
+            // Удаление повторится при следующем запуске
+            recordFailure();
+        }
+    }
+
+    private void recordFailure() {
+        if (failures != null) {
+            failures.increment();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        long relayInterval = properties.getRelayInterval().toMillis();
+        long maintenanceInterval = properties.getMaintenanceInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::relayAll, 0, relayInterval, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::maintain, maintenanceInterval, maintenanceInterval,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        // Без прерывания потока: прерывание операции H2 с файловой базой закрывает файл базы данных
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        published = Counter.builder("change.feed.published")
+                .description("Changes published to the change feed by the outbox relay")
+                .register(registry);
+        expired = Counter.builder("change.feed.expired")
+                .description("Published changes removed after the retention period")
+                .register(registry);
+        compacted = Counter.builder("change.feed.compacted")
+                .description("Published changes removed by compaction because a later change has the same key")
+                .register(registry);
+        failures = Counter.builder("change.feed.relay.failures")
+                .description("Failed relay or maintenance runs")
+                .register(registry);
+        relayTimer = Timer.builder("change.feed.relay")
+                .description("Duration of one relay batch")
+                .register(registry);
+        publishDelay = Timer.builder("change.feed.relay.delay")
+                .description("Time from writing the oldest change of a batch to its publication")
+                .register(registry);
+        Gauge.builder("change.feed.offset", lastOffset, AtomicLong::get)
+                .description("Last offset assigned by the outbox relay")
+                .register(registry);
+    }
+}
@@ -0,0 +1,343 @@
+package org.example.changefeed;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.config.ChangeStreamProperties;
+import org.example.event.ChangesPublishedEvent;
+import org.example.model.ChangeEntityType;
+import org.example.model.ChangeFeedPage;
+import org.example.model.ChangeView;
+import org.example.repository.OutboxRepository;
+import org.example.service.ChangeFeedService;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Поток изменений Server-Sent Events для страниц, которые должны обновляться без полной перезагрузки.
+ *
+ * События берутся из ленты изменений после их публикации {@link ChangeRelay}, поэтому порядок и позиции
+ * совпадают с /api/changes: позиция изменения передается как идентификатор события, и браузер,
+ * переподключаясь, присылает ее в заголовке Last-Event-ID. Пропущенные изменения отправляются из ленты
+ * перед новыми; если их больше, чем помещается в буфер, или они удалены по сроку хранения, отправляется
+ * событие reset и соединение закрывается - клиент загружает данные заново.
+ *
+ * У каждого подписчика свой ограниченный буфер, события отправляет отдельная задача подписчика,
+ * поэтому медленный клиент не задерживает ретранслятор и остальных подписчиков. Подписчик, переполнивший
+ * буфер, отключается; это происходит и с успевающими подписчиками, если одна порция ленты больше буфера
+ * (например, при импорте), - после переподключения они загружают данные заново.
+ * Периодический комментарий-пульс проходит через тот же буфер: он поддерживает соединение через прокси
+ * и обнаруживает отключившихся и зависших клиентов.
+ */
+@Component
+public class ChangeStream implements SmartLifecycle, MeterBinder {
+
+    private final OutboxRepository outboxRepository;
+    private final ChangeFeedService changeFeedService;
+    private final ChangeStreamProperties properties;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    /**
+     * Упорядочивает рассылку новых изменений и регистрацию подписчиков с отправкой пропущенных изменений,
+     * чтобы подписчик не потерял изменения, опубликованные между чтением ленты и регистрацией.
+     */
+    private final Lock dispatchLock = new ReentrantLock();
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-stream-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running;
+    private Counter sent;
+    private Counter evicted;
+
+    public ChangeStream(OutboxRepository outboxRepository, ChangeFeedService changeFeedService,
+                        ChangeStreamProperties properties) {
+        this.outboxRepository = outboxRepository;
+        this.changeFeedService = changeFeedService;
+        this.properties = properties;
+        AtomicInteger threadNumber = new AtomicInteger();
+        // Запись зависшему клиенту блокирует поток до таймаута соединения, поэтому пул не ограничен:
+        // у подписчика не больше одной задачи отправки, и зависший клиент не занимает потоки остальных
+        this.senders = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "change-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Подписывает клиента на изменения.
+     *
+     * @param projectId   идентификатор проекта: изменения других проектов и их участников не отправляются;
+     *                    null - изменения всех проектов
+     * @param lastEventId позиция последнего полученного клиентом изменения (заголовок Last-Event-ID)
+     *                    или null для новой подписки
+     * @return поток событий
+     */
+    public SseEmitter subscribe(Long projectId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        subscribe(emitter, projectId, lastEventId);
+        return emitter;
+    }
+
+    void subscribe(SseEmitter emitter, Long projectId, Long lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter, projectId, properties.getBufferSize());
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onError(error -> close(subscriber));
+        emitter.onTimeout(() -> {
+            close(subscriber);
+            emitter.complete();
+        });
+        subscriber.offer(SseEmitter.event().comment("subscribed"));
+        dispatchLock.lock();
+        try {
+            if (lastEventId != null && !replay(subscriber, lastEventId)) {
+                subscriber.offer(SseEmitter.event().name("reset").data("Changes after " + lastEventId
+                        + " are not available, reload the data"));
+                subscriber.closed = true;
+            } else if (running) {
+                subscribers.add(subscriber);
+            } else {
+                subscriber.closed = true;
+            }
+        } finally {
+            dispatchLock.unlock();
+        }
+        drain(subscriber);
+    }
+
+    /**
+     * Помещает в буфер подписчика изменения, пропущенные после позиции.
+     *
+     * @return false, если позиция некорректна, пропущенные изменения удалены или не помещаются в буфер
+     */
+    private boolean replay(Subscriber subscriber, long lastEventId) {
+        if (lastEventId < 0) {
+            return false;
+        }
+        ChangeFeedPage page = changeFeedService.getChanges(lastEventId, properties.getBufferSize() - 1);
+        if (page == null || page.isHasMore()) {
+            return false;
+        }
+        for (ChangeView change : page.getChanges()) {
+            if (subscriber.accepts(change)) {
+                subscriber.offer(toEvent(change));
+            }
+        }
+        subscriber.lastOffset = page.getNextSince();
+        return true;
+    }
+
+    /**
+     * Рассылает опубликованную порцию изменений подписчикам.
+     * Подписчик, у которого изменения не поместились в буфер, отключается.
+     *
+     * @param event событие публикации порции ленты
+     */
+    @EventListener
+    public void onChangesPublished(ChangesPublishedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        dispatchLock.lock();
+        try {
+            List<ChangeView> changes = outboxRepository.findChangesAfter(event.getAfterOffset(),
+                    Limit.of((int) (event.getThroughOffset() - event.getAfterOffset())));
+            for (Subscriber subscriber : subscribers) {
+                for (ChangeView change : changes) {
+                    if (change.getOffset() > subscriber.lastOffset && subscriber.accepts(change)
+                            && !subscriber.offer(toEvent(change))) {
+                        evict(subscriber);
+                        break;
+                    }
+                }
+                drain(subscriber);
+            }
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает количество подключенных подписчиков.
+     *
+     * @return количество подписчиков
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private static SseEventBuilder toEvent(ChangeView change) {
+        return SseEmitter.event()
+                .id(String.valueOf(change.getOffset()))
+                .name("change")
+                .data(change);
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.offer(SseEmitter.event().comment("heartbeat"))) {
+                evict(subscriber);
+            }
+            drain(subscriber);
+        }
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.closed = true;
+            subscriber.buffer.clear();
+            if (evicted != null) {
+                evicted.increment();
+            }
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.closed = true;
+        subscriber.completed.set(true);
+    }
+
+    /**
+     * Запускает задачу отправки буфера подписчика, если она еще не запущена.
+     * После отправки буфера закрытому подписчику соединение завершается.
+     */
+    private void drain(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        Runnable task = () -> {
+            try {
+                SseEventBuilder event;
+                while (!subscriber.completed.get() && (event = subscriber.buffer.poll()) != null) {
+                    subscriber.emitter.send(event);
+                    if (sent != null) {
+                        sent.increment();
+                    }
+                }
+                if (subscriber.closed && subscriber.completed.compareAndSet(false, true)) {
+                    subscriber.emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Клиент отключился; соединение завершит контейнер сервлетов
+                close(subscriber);
+            } finally {
+                subscriber.draining.set(false);
+            }
+            // Событие могло поступить после опустошения буфера, но до снятия признака отправки
+            if (subscriber.hasPendingWork()) {
+                drain(subscriber);
+            }
+        };
+        try {
+            senders.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Приложение останавливается, соединение завершит контейнер сервлетов
+            subscriber.draining.set(false);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        long interval = properties.getHeartbeatInterval().toMillis();
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        heartbeats.shutdown();
+        // Открытые соединения завершаются, чтобы не задерживать остановку веб-сервера
+        for (Subscriber subscriber : subscribers) {
+            subscribers.remove(subscriber);
+            subscriber.closed = true;
+            drain(subscriber);
+        }
+        senders.shutdown();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("change.stream.subscribers", subscribers, Set::size)
+                .description("Connected change stream subscribers")
+                .register(registry);
+        sent = Counter.builder("change.stream.sent")
+                .description("Events and heartbeats sent to change stream subscribers")
+                .register(registry);
+        evicted = Counter.builder("change.stream.evicted")
+                .description("Change stream subscribers disconnected because their buffer overflowed")
+                .register(registry);
+    }
+
+    /**
+     * Подписчик: соединение, фильтр по проекту и буфер неотправленных событий.
+     */
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Long projectId;
+        private final BlockingQueue<SseEventBuilder> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        /**
+         * Новые события не принимаются; соединение завершается после отправки буфера.
+         */
+        private volatile boolean closed;
+        /**
+         * Позиция последнего изменения, отправленного из ленты при подключении; изменяется под dispatchLock.
+         */
+        private long lastOffset = -1;
+
+        private Subscriber(SseEmitter emitter, Long projectId, int bufferSize) {
+            this.emitter = emitter;
+            this.projectId = projectId;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        /**
+         * Изменения пользователей отправляются всем подписчикам: от них зависят и список участников проекта,
+         * и список пользователей, которых можно добавить.
+         */
+        private boolean accepts(ChangeView change) {
+            return projectId == null || change.getEntityType() == ChangeEntityType.USER
+                    || projectId.equals(change.getEntityId());
+        }
+
+        private boolean offer(SseEventBuilder event) {
+            return !closed && buffer.offer(event);
+        }
+
+        private boolean hasPendingWork() {
+            return !completed.get() && (closed || !buffer.isEmpty());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.changefeed;
+
+import org.example.event.MembershipChangedEvent;
+import org.example.event.ProjectChangedEvent;
+import org.example.event.UserChangedEvent;
+import org.example.model.ChangeType;
+import org.example.model.OutboxEntry;
+import org.example.repository.OutboxRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Запись исходящих изменений (transactional outbox).
+ *
+ * События изменения пользователей, проектов и связей публикуются сервисами внутри транзакции;
+ * слушатели этого класса вызываются синхронно и сохраняют записи change_outbox в той же транзакции,
+ * поэтому изменение и запись о нем фиксируются или откатываются вместе. Вставки отправляются пакетами JDBC.
+ * После фиксации транзакции ретранслятор запускается, не дожидаясь периода проверки.
+ */
+@Component
+public class OutboxWriter {
+
+    private final OutboxRepository outboxRepository;
+    private final ChangeRelay changeRelay;
+
+    public OutboxWriter(OutboxRepository outboxRepository, ChangeRelay changeRelay) {
+        this.outboxRepository = outboxRepository;
+        this.changeRelay = changeRelay;
+    }
+
+    /**
+     * Записывает изменение или удаление пользователя.
+     *
+     * @param event событие изменения пользователя
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onUserChanged(UserChangedEvent event) {
+        save(List.of(OutboxEntry.user(event.getUserId(), event.isDeleted() ? ChangeType.DELETE : ChangeType.UPSERT)));
+    }
+
+    /**
+     * Записывает изменение или удаление проекта.
+     *
+     * @param event событие изменения проекта
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        save(List.of(OutboxEntry.project(event.getProjectId(),
+                event.isDeleted() ? ChangeType.DELETE : ChangeType.UPSERT)));
+    }
+
+    /**
+     * Записывает по одному изменению на каждую добавленную или удаленную связь, в том числе на связи,
+     * удаленные вместе с проектом или пользователем: после уплотнения ленты от них остается удаление.
+     *
+     * @param event событие изменения участников проекта
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onMembershipChanged(MembershipChangedEvent event) {
+        List<OutboxEntry> entries = new ArrayList<>();
+        for (Long userId : event.getAddedUserIds()) {
+            entries.add(OutboxEntry.membership(event.getProjectId(), userId, ChangeType.UPSERT));
+        }
+        for (Long userId : event.getRemovedUserIds()) {
+            entries.add(OutboxEntry.membership(event.getProjectId(), userId, ChangeType.DELETE));
+        }
+        if (!entries.isEmpty()) {
+            save(entries);
+        }
+    }
+
+    private void save(List<OutboxEntry> entries) {
+        outboxRepository.saveAll(entries);
+        if (!TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OutboxWriter.this);
+                    if (status == STATUS_COMMITTED) {
+                        changeRelay.wakeUp();
+                    }
+                }
+            });
+        }
+    }
+}
@@ -2,16 +2,22 @@ package org.example.config;
 
 import lombok.AllArgsConstructor;
 
+import org.example.model.ViewFields;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.springframework.web.filter.HiddenHttpMethodFilter;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 
 /**
  * Конфигурация приложения Spring, включая настройки MVC и Thymeleaf.
@@ -36,6 +42,33 @@ public class AppSpringConfig implements WebMvcConfigurer {
     public HiddenHttpMethodFilter hiddenHttpMethodFilter() {
         return new HiddenHttpMethodFilter();
     }
+
+    /**
+     * Регистрирует фильтры полей по умолчанию в ObjectMapper приложения, которым сериализует реактивный API:
+     * проекции, помеченные {@link ViewFields#FILTER_ID}, сериализуются целиком.
+     *
+     * @return настройка ObjectMapper
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer viewFieldsFilterCustomizer() {
+        return builder -> builder.filters(ViewFields.defaultFilters());
+    }
+
+    /**
+     * Регистрирует фильтры полей по умолчанию в JSON-конвертерах MVC, которые создаются без ObjectMapper приложения.
+     * Запрошенный набор полей передается вместе с телом ответа (см. {@link ViewFields#filter(Object)}).
+     *
+     * @param converters конвертеры сообщений MVC
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter instanceof MappingJackson2HttpMessageConverter jackson) {
+                jackson.getObjectMapper().setFilterProvider(ViewFields.defaultFilters());
+            }
+        }
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         registry.addResourceHandler("/css/**").addResourceLocations("classpath:/static/css/");
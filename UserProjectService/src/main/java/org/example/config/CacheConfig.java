@@ -0,0 +1,42 @@
+package org.example.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация локального кэша на основе Caffeine (вытеснение W-TinyLFU).
+ *
+ * Кэши создаются по настройкам {@link CachingProperties}, ведут статистику обращений,
+ * которая публикуется в метриках actuator (cache.gets, cache.evictions и др.).
+ * Изменения кэша внутри транзакции применяются только после ее фиксации,
+ * поэтому откаченные изменения не попадают в кэш.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Создает менеджер кэшей с отдельными ограничениями для каждого кэша.
+     *
+     * @param properties настройки кэшей
+     * @return менеджер кэшей, синхронизированный с транзакциями
+     */
+    @Bean
+    public CacheManager cacheManager(CachingProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setCacheNames(properties.getCaches().keySet());
+        properties.getCaches().forEach((name, spec) -> cacheManager.registerCustomCache(name,
+                Caffeine.newBuilder()
+                        .maximumSize(spec.getMaximumSize())
+                        .expireAfterWrite(spec.getExpireAfterWrite())
+                        .recordStats()
+                        .build()));
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Настройки локальных кэшей (раздел caching в application.yml).
+ * Каждый кэш ограничен по количеству записей и по времени жизни записи.
+ */
+@Component
+@ConfigurationProperties(prefix = "caching")
+@Data
+public class CachingProperties {
+
+    /**
+     * Настройки кэшей по их именам. Кэши, не перечисленные здесь, не создаются.
+     */
+    private Map<String, CacheSpec> caches = new LinkedHashMap<>();
+
+    /**
+     * Ограничения отдельного кэша.
+     */
+    @Data
+    public static class CacheSpec {
+
+        /**
+         * Максимальное количество записей; при превышении вытесняются записи с наименьшей частотой обращений.
+         */
+        private long maximumSize = 1000;
+
+        /**
+         * Время жизни записи с момента ее добавления в кэш.
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Настройки ленты изменений и ретранслятора исходящих изменений (раздел change-feed в application.yml).
+ */
+@Component
+@ConfigurationProperties(prefix = "change-feed")
+@Data
+public class ChangeFeedProperties {
+
+    /**
+     * Период проверки неопубликованных изменений. После фиксации транзакции с изменениями
+     * ретранслятор запускается сразу, период ограничивает задержку, если запуск пропущен.
+     */
+    private Duration relayInterval = Duration.ofSeconds(1);
+
+    /**
+     * Максимальное количество изменений, публикуемых ретранслятором в одной транзакции.
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Количество изменений в ответе /api/changes, если клиент его не указал.
+     */
+    private int defaultPageSize = 100;
+
+    /**
+     * Максимальное количество изменений в ответе /api/changes.
+     */
+    private int maxPageSize = 1000;
+
+    /**
+     * Срок хранения опубликованных изменений; клиент, отставший больше, получает статус 410
+     * и должен заново загрузить данные.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * Возраст опубликованного изменения, после которого оно удаляется при уплотнении,
+     * если для того же ключа есть более позднее изменение.
+     */
+    private Duration compactionLag = Duration.ofHours(1);
+
+    /**
+     * Период удаления изменений по сроку хранения и уплотнения ленты.
+     */
+    private Duration maintenanceInterval = Duration.ofMinutes(1);
+
+    /**
+     * Приводит запрошенное количество изменений к допустимому диапазону.
+     *
+     * @param requested количество из запроса, может быть null
+     * @return количество от 1 до maxPageSize
+     */
+    public int resolvePageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(requested, maxPageSize);
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Настройки потока изменений Server-Sent Events (раздел change-stream в application.yml).
+ */
+@Component
+@ConfigurationProperties(prefix = "change-stream")
+@Data
+public class ChangeStreamProperties {
+
+    /**
+     * Максимальное количество неотправленных событий подписчика. Подписчик, не успевающий получать события
+     * и переполнивший буфер, отключается и переподключается с заголовком Last-Event-ID.
+     */
+    private int bufferSize = 256;
+
+    /**
+     * Период отправки комментария-пульса: соединение не закрывается прокси по простою,
+     * а отключившиеся подписчики обнаруживаются при записи.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * Время жизни соединения, после которого оно закрывается сервером; браузер переподключается
+     * с заголовком Last-Event-ID и получает пропущенные изменения из ленты.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+}
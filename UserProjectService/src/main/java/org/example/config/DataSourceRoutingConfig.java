@@ -0,0 +1,96 @@
+package org.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.example.datasource.ReadWriteRoutingDataSource;
+import org.example.datasource.ReplicaLagMonitor;
+import org.example.datasource.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Маршрутизация соединений между основной базой данных и репликами (datasource-routing.enabled=true).
+ *
+ * Транзакции только для чтения выполняются на репликах с допустимым отставанием, запись и остальные
+ * транзакции - на основной базе. У каждой базы свой пул HikariCP, метрики пулов публикуются
+ * как hikaricp.connections.* с тегом pool (primary, replica-1, ...).
+ * Без этого свойства используется стандартный источник данных Spring Boot.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource-routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    /**
+     * Создает источник соединений с маршрутизацией чтения на реплики.
+     *
+     * @param dataSourceProperties настройки основной базы (spring.datasource)
+     * @param routingProperties    настройки реплик
+     * @param environment          окружение для настроек пула spring.datasource.hikari
+     * @param meterRegistry        реестр метрик
+     * @return источник соединений приложения
+     */
+    @Bean
+    public ReadWriteRoutingDataSource dataSource(DataSourceProperties dataSourceProperties,
+                                                 DataSourceRoutingProperties routingProperties,
+                                                 Environment environment,
+                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+
+        List<HikariDataSource> pools = new ArrayList<>(List.of(primary));
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        for (DataSourceRoutingProperties.Replica properties : routingProperties.getReplicas()) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(properties.getUrl());
+            replica.setUsername(properties.getUsername() != null ?
+                    properties.getUsername() : dataSourceProperties.determineUsername());
+            replica.setPassword(properties.getPassword() != null ?
+                    properties.getPassword() : dataSourceProperties.determinePassword());
+            replica.setMaximumPoolSize(properties.getMaximumPoolSize());
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            replicas.put(replica.getPoolName(), replica);
+            pools.add(replica);
+        }
+
+        ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(primary, replicas, routingProperties.getMaxReplicaLag());
+        lagMonitor.bindTo(registry);
+        lagMonitor.start(routingProperties.getLagCheckInterval());
+        ReplicaRoutingDataSource readOnly = new ReplicaRoutingDataSource(primary, replicas, lagMonitor, registry);
+        return new ReadWriteRoutingDataSource(primary, readOnly, pools, lagMonitor);
+    }
+
+    /**
+     * Монитор отставания реплик, используемый источником соединений.
+     *
+     * @param dataSource источник соединений приложения, в том числе обернутый {@link SlowQueryConfig}
+     * @return монитор отставания реплик
+     * @throws SQLException если источник соединений не содержит маршрутизации
+     */
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(DataSource dataSource) throws SQLException {
+        return dataSource.unwrap(ReadWriteRoutingDataSource.class).getLagMonitor();
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки маршрутизации чтения на реплики (раздел datasource-routing в application.yml).
+ * Основная база данных задается стандартными свойствами spring.datasource.
+ */
+@Component
+@ConfigurationProperties(prefix = "datasource-routing")
+@Data
+public class DataSourceRoutingProperties {
+
+    /**
+     * Включает маршрутизацию: транзакции только для чтения выполняются на репликах, остальные - на основной базе.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Реплики основной базы данных.
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Максимально допустимое отставание реплики; при большем отставании чтение выполняется на основной базе.
+     */
+    private Duration maxReplicaLag = Duration.ofSeconds(10);
+
+    /**
+     * Период записи отметки времени на основной базе и измерения отставания реплик.
+     */
+    private Duration lagCheckInterval = Duration.ofSeconds(2);
+
+    /**
+     * Подключение к реплике.
+     */
+    @Data
+    public static class Replica {
+
+        /**
+         * JDBC URL реплики.
+         */
+        private String url;
+
+        /**
+         * Логин; если не задан, используется логин основной базы.
+         */
+        private String username;
+
+        /**
+         * Пароль; если не задан, используется пароль основной базы.
+         */
+        private String password;
+
+        /**
+         * Максимальное количество соединений в пуле реплики.
+         */
+        private int maximumPoolSize = 20;
+    }
+}
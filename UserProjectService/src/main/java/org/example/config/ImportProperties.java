@@ -0,0 +1,24 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки массового импорта данных (раздел import в application.yml).
+ */
+@Component
+@ConfigurationProperties(prefix = "import")
+@Data
+public class ImportProperties {
+
+    /**
+     * Количество строк, записываемых в одной транзакции.
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Максимальное количество отклоненных строк, описание которых возвращается в итоге импорта.
+     */
+    private int maxReportedErrors = 100;
+}
@@ -0,0 +1,59 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Настройки постраничной выдачи списков (раздел pagination в application.yml).
+ */
+@Component
+@ConfigurationProperties(prefix = "pagination")
+@Data
+public class PaginationProperties {
+
+    /**
+     * Размер страницы, если клиент его не указал.
+     */
+    private int defaultPageSize = 20;
+
+    /**
+     * Максимально допустимый размер страницы.
+     */
+    private int maxPageSize = 100;
+
+    /**
+     * Максимальное количество идентификаторов в запросах find_many.
+     */
+    private int maxMultiGetIds = 100;
+
+    /**
+     * Приводит запрошенный размер страницы к допустимому диапазону.
+     *
+     * @param requested размер страницы из запроса, может быть null
+     * @return размер страницы от 1 до maxPageSize
+     */
+    public int resolvePageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(requested, maxPageSize);
+    }
+
+    /**
+     * Проверяет количество идентификаторов в запросе find_many.
+     *
+     * @param ids запрошенные идентификаторы
+     * @throws IllegalArgumentException если идентификаторов больше maxMultiGetIds или среди них есть пустые
+     */
+    public void checkMultiGetIds(Collection<Long> ids) {
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("Ids must not be empty");
+        }
+        if (ids.size() > maxMultiGetIds) {
+            throw new IllegalArgumentException("At most " + maxMultiGetIds + " ids are allowed, got " + ids.size());
+        }
+    }
+}
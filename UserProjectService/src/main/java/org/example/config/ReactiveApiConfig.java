@@ -0,0 +1,108 @@
+package org.example.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import org.example.reactive.ReactiveApiServer;
+import org.example.reactive.ReactiveReadHandler;
+import org.example.reactive.ReactiveReadRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Реактивное API чтения (reactive-api.enabled=true): обработчики WebFlux на отдельном сервере Netty
+ * (reactive-api.port) и доступ к базе данных через R2DBC.
+ *
+ * Подключение R2DBC строится по URL основной базы spring.datasource.url, поэтому реактивное чтение
+ * видит те же данные, что и сервлетное API, а запись по-прежнему выполняется через JPA.
+ * Автоконфигурация R2DBC Spring Boot отключена в application.yml: она создала бы отдельную встроенную базу,
+ * а Spring Boot не создает источник данных JDBC, если в контексте есть бин ConnectionFactory.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "reactive-api", name = "enabled", havingValue = "true")
+public class ReactiveApiConfig {
+
+    private static final String H2_URL_PREFIX = "jdbc:h2:";
+
+    /**
+     * Создает репозиторий реактивного чтения с пулом соединений R2DBC H2 к основной базе данных.
+     *
+     * @param dataSourceProperties настройки основной базы (spring.datasource)
+     * @param properties           настройки реактивного API
+     * @return репозиторий реактивного чтения
+     * @throws IllegalStateException если основная база данных не H2
+     */
+    @Bean
+    public ReactiveReadRepository reactiveReadRepository(DataSourceProperties dataSourceProperties,
+                                                         ReactiveApiProperties properties) {
+        String url = dataSourceProperties.determineUrl();
+        if (url == null || !url.startsWith(H2_URL_PREFIX)) {
+            throw new IllegalStateException("Reactive API requires an H2 database, got: " + url);
+        }
+        H2ConnectionFactory connectionFactory = new H2ConnectionFactory(H2ConnectionConfiguration.builder()
+                .url(url.substring(H2_URL_PREFIX.length()))
+                .username(dataSourceProperties.determineUsername())
+                .password(dataSourceProperties.determinePassword())
+                .build());
+        return new ReactiveReadRepository(new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name("reactive")
+                .maxSize(properties.getMaxPoolSize())
+                .build()));
+    }
+
+    @Bean
+    public ReactiveReadHandler reactiveReadHandler(ReactiveReadRepository reactiveReadRepository,
+                                                   PaginationProperties paginationProperties) {
+        return new ReactiveReadHandler(reactiveReadRepository, paginationProperties);
+    }
+
+    /**
+     * Маршруты реактивного API: get_all, find/{id} и поиск пользователей и проектов, списки участников проекта
+     * и проектов пользователя.
+     */
+    @Bean
+    public RouterFunction<ServerResponse> reactiveReadRoutes(ReactiveReadHandler handler) {
+        return RouterFunctions.route()
+                .GET("/api/users/get_all", handler::getAllUsers)
+                .GET("/api/users/find/{id}", handler::findUser)
+                .GET("/api/users/search", handler::searchUsers)
+                .GET("/api/projects/get_all", handler::getAllProjects)
+                .GET("/api/projects/find/{id}", handler::findProject)
+                .GET("/api/projects/search", handler::searchProjects)
+                .GET("/api/users_in_project", handler::getUsersByProjectId)
+                .GET("/api/user_projects", handler::getProjectsByUserId)
+                .build();
+    }
+
+    /**
+     * Создает сервер реактивного API. JSON сериализуется тем же ObjectMapper, что и в сервлетном API.
+     *
+     * @param reactiveReadRoutes маршруты реактивного API
+     * @param objectMapper       ObjectMapper приложения
+     * @param properties         настройки реактивного API
+     * @return сервер, запускаемый и останавливаемый вместе с контекстом
+     */
+    @Bean
+    public ReactiveApiServer reactiveApiServer(RouterFunction<ServerResponse> reactiveReadRoutes,
+                                               ObjectMapper objectMapper,
+                                               ReactiveApiProperties properties) {
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        return new ReactiveApiServer(properties.getPort(),
+                RouterFunctions.toHttpHandler(reactiveReadRoutes, strategies));
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки реактивного API чтения (раздел reactive-api в application.yml).
+ * База данных задается стандартными свойствами spring.datasource.
+ */
+@Component
+@ConfigurationProperties(prefix = "reactive-api")
+@Data
+public class ReactiveApiProperties {
+
+    /**
+     * Запускает реактивное API чтения на отдельном порту рядом с сервлетным API.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Порт сервера Netty реактивного API; 0 - случайный свободный порт.
+     */
+    private int port = 8083;
+
+    /**
+     * Максимальное количество соединений R2DBC.
+     */
+    private int maxPoolSize = 20;
+}
@@ -0,0 +1,45 @@
+package org.example.config;
+
+import org.example.datasource.QueryStatistics;
+import org.example.datasource.TimingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.function.SingletonSupplier;
+
+import javax.sql.DataSource;
+
+/**
+ * Замер времени выполнения запросов JDBC (slow-query.enabled, по умолчанию включен).
+ *
+ * Источник соединений приложения оборачивается {@link TimingDataSource}, поэтому замеряются все запросы:
+ * Hibernate, JdbcTemplate и инициализации схемы. Статистика доступна на /actuator/slowqueries.
+ * Вместо spring.jpa.show-sql и журнала org.hibernate.SQL запросы записываются в журнал,
+ * только если выполнялись дольше slow-query.threshold.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "slow-query", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryConfig {
+
+    /**
+     * Оборачивает бин источника соединений dataSource. Статистика запросов получается лениво,
+     * чтобы не создавать ее раньше остальных бинов.
+     *
+     * @param statistics статистика запросов
+     * @return постпроцессор источника соединений
+     */
+    @Bean
+    public static BeanPostProcessor timingDataSourcePostProcessor(ObjectProvider<QueryStatistics> statistics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                    return new TimingDataSource(dataSource, SingletonSupplier.of(statistics::getObject));
+                }
+                return bean;
+            }
+        };
+    }
+}
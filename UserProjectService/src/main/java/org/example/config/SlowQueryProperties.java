@@ -0,0 +1,42 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Настройки учета времени выполнения SQL-запросов (раздел slow-query в application.yml).
+ */
+@Component
+@ConfigurationProperties(prefix = "slow-query")
+@Data
+public class SlowQueryProperties {
+
+    /**
+     * Замерять время выполнения каждого запроса JDBC приложения.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Запросы, выполнявшиеся дольше, записываются в журнал вместе с параметрами.
+     */
+    private Duration threshold = Duration.ofMillis(200);
+
+    /**
+     * Максимальное количество нормализованных запросов со статистикой; при превышении вытесняется запрос
+     * с наименьшим суммарным временем выполнения.
+     */
+    private int maxTrackedQueries = 500;
+
+    /**
+     * Количество последних медленных запросов, возвращаемых эндпоинтом /actuator/slowqueries.
+     */
+    private int recentSlowStatements = 50;
+
+    /**
+     * Максимальная длина значения параметра в журнале; более длинные значения обрезаются.
+     */
+    private int maxParameterLength = 100;
+}
@@ -0,0 +1,20 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки снимков данных (раздел snapshot в application.yml).
+ */
+@Component
+@ConfigurationProperties(prefix = "snapshot")
+@Data
+public class SnapshotProperties {
+
+    /**
+     * Путь к файлу снимка, из которого заполняется новая пустая база данных вместо data.sql.
+     * Не используется, если база данных уже содержит схему.
+     */
+    private String restoreFrom;
+}
@@ -0,0 +1,47 @@
+package org.example.config;
+
+import org.example.snapshot.SnapshotDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Инициализация хранилища: заменяет стандартный запуск schema.sql и data.sql Spring Boot
+ * на {@link SnapshotDatabaseInitializer}, который не пересоздает существующую схему
+ * и может заполнить новую базу из снимка данных.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlInitializationProperties.class)
+public class StorageConfig {
+
+    /**
+     * Создает инициализатор базы данных.
+     *
+     * @param dataSource         источник данных
+     * @param properties         настройки скриптов инициализации (spring.sql.init)
+     * @param snapshotProperties настройки снимков данных
+     * @return инициализатор базы данных
+     * @throws IllegalStateException если указанный файл снимка не существует
+     */
+    @Bean
+    public SnapshotDatabaseInitializer dataSourceScriptDatabaseInitializer(DataSource dataSource,
+                                                                          SqlInitializationProperties properties,
+                                                                          SnapshotProperties snapshotProperties) {
+        Path restoreFrom = null;
+        if (StringUtils.hasText(snapshotProperties.getRestoreFrom())) {
+            restoreFrom = Path.of(snapshotProperties.getRestoreFrom());
+            if (!Files.isRegularFile(restoreFrom)) {
+                throw new IllegalStateException("Snapshot file not found: " + restoreFrom);
+            }
+        }
+        return new SnapshotDatabaseInitializer(dataSource,
+                SqlDataSourceScriptDatabaseInitializer.getSettings(properties), restoreFrom);
+    }
+}
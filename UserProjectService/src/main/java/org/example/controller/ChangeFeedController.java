@@ -0,0 +1,66 @@
+package org.example.controller;
+
+import org.example.changefeed.ChangeStream;
+import org.example.model.ChangeFeedPage;
+import org.example.service.ChangeFeedService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Контроллер ленты изменений.
+ * Клиенты синхронизируют локальные копии, запрашивая изменения после позиции последнего обработанного изменения
+ * вместо периодической загрузки полных списков.
+ */
+@RestController
+@RequestMapping("/api/changes")
+@AllArgsConstructor
+public class ChangeFeedController {
+
+    private final ChangeFeedService changeFeedService;
+    private final ChangeStream changeStream;
+
+    /**
+     * Обрабатывает GET-запрос на получение изменений после позиции.
+     *
+     * @param since позиция последнего обработанного изменения (nextSince предыдущего ответа), 0 - с начала ленты.
+     * @param limit максимальное количество изменений.
+     * @return порция изменений, статус 400 при некорректной позиции
+     * или статус 410, если изменения после позиции удалены по сроку хранения и данные нужно загрузить заново.
+     */
+    @GetMapping
+    public ResponseEntity<?> getChanges(@RequestParam(value = "since", defaultValue = "0") long since,
+                                        @RequestParam(value = "limit", required = false) Integer limit) {
+        try {
+            ChangeFeedPage page = changeFeedService.getChanges(since, limit);
+            if (page == null) {
+                return ResponseEntity.status(HttpStatus.GONE).body("Changes after " + since + " have expired");
+            }
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Обрабатывает GET-запрос на подписку на изменения в формате Server-Sent Events.
+     * Каждое изменение отправляется событием change с позицией изменения в качестве идентификатора события.
+     *
+     * @param projectId   идентификатор проекта, изменения которого и его участников нужно получать;
+     *                    изменения пользователей отправляются всегда. Без параметра - изменения всех проектов.
+     * @param lastEventId позиция последнего полученного изменения; браузер передает ее при переподключении.
+     * @return поток событий.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(value = "projectId", required = false) Long projectId,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return changeStream.subscribe(projectId, lastEventId);
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.controller;
+
+import lombok.AllArgsConstructor;
+import org.example.service.ImportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+
+/**
+ * Контроллер массового импорта данных из CSV и NDJSON.
+ */
+@RestController
+@RequestMapping("/api/import")
+@AllArgsConstructor
+public class ImportController {
+
+    private final ImportService importService;
+
+    /**
+     * Обрабатывает POST-запрос на импорт пользователей, проектов или связей пользователей с проектами.
+     * Тело запроса читается потоком, корректные строки записываются порциями в отдельных транзакциях.
+     *
+     * @param type        тип данных: users, projects или memberships.
+     * @param format      формат данных: csv или ndjson; если не указан, определяется по Content-Type.
+     * @param contentType заголовок Content-Type запроса.
+     * @param body        тело запроса.
+     * @return итог импорта с количеством принятых и отклоненных строк или статус 400 при некорректных параметрах.
+     * @throws IOException при ошибке чтения тела запроса.
+     */
+    @PostMapping
+    public ResponseEntity<?> importData(@RequestParam("type") String type,
+                                        @RequestParam(value = "format", required = false) String format,
+                                        @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                        InputStream body) throws IOException {
+        try {
+            return ResponseEntity.ok(importService.importData(type, resolveFormat(format, contentType), body));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    private static String resolveFormat(String format, String contentType) {
+        if (format != null) {
+            return format.toLowerCase(Locale.ROOT);
+        }
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (type.contains("csv")) {
+            return "csv";
+        }
+        if (type.contains("ndjson") || type.contains("jsonl")) {
+            return "ndjson";
+        }
+        throw new IllegalArgumentException("Unable to determine import format, use the format parameter");
+    }
+}
@@ -3,11 +3,17 @@ package org.example.controller;
 
 
 import org.example.model.Project;
+import org.example.model.ProjectView;
+import org.example.model.ViewFields;
 import org.example.service.ProjectService;
+import org.example.version.ResourceVersions;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,28 +29,80 @@ import java.util.Map;
 public class ProjectController {
 
     private final ProjectService projectService;
+    private final ResourceVersions resourceVersions;
 
 
     /**
      * Метод обрабатывает GET-запрос на получение всех проектов.
+     * Если ETag из заголовка If-None-Match совпадает с текущей версией коллекции, возвращается статус 304
+     * без обращения к базе данных.
      *
-     * @return список всех проектов в виде ответа HTTP.
+     * @param fields  поля проекта через запятую; по умолчанию все поля.
+     * @param request текущий запрос для проверки условных заголовков.
+     * @return список всех проектов в виде ответа HTTP или статус 400 при неизвестном поле.
      */
     @GetMapping("/get_all")
-    public ResponseEntity<?> getAllProjects() {
-        return ResponseEntity.ok(projectService.getAllProjects());
+    public ResponseEntity<?> getAllProjects(@RequestParam(value = "fields", required = false) String fields,
+                                            WebRequest request) {
+        ViewFields viewFields;
+        try {
+            viewFields = ViewFields.parse(fields, ViewFields.PROJECT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        String etag = viewFields.etag(resourceVersions.etag(resourceVersions.projects()));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(viewFields.filter(projectService.getAllProjects(viewFields)));
+    }
+
+    /**
+     * Метод обрабатывает GET-запрос на получение страницы проектов с курсорной пагинацией.
+     *
+     * @param sort   поле сортировки: id, name или created_date.
+     * @param cursor токен курсора, полученный вместе с предыдущей страницей.
+     * @param size   размер страницы.
+     * @return страница проектов или статус 400 при некорректных параметрах.
+     */
+    @GetMapping("/get_page")
+    public ResponseEntity<?> getProjectsPage(@RequestParam(value = "sort", defaultValue = "id") String sort,
+                                             @RequestParam(value = "cursor", required = false) String cursor,
+                                             @RequestParam(value = "size", required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(projectService.getProjectsPage(sort, cursor, size));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     /**
      * Обрабатывает GET-запрос на поиск проектов по имени или описанию.
      *
      * @param searchText текст для поиска в именах или описаниях проектов.
-     * @return список проектов, соответствующих запросу.
+     * @param mode       режим поиска: fulltext (по индексу, с ранжированием) или like (по подстроке).
+     * @param limit      максимальное количество результатов.
+     * @param offset     количество пропускаемых результатов.
+     * @param fields     поля проекта через запятую; без параметра возвращаются проекты целиком.
+     * @return список проектов, соответствующих запросу, или статус 400 при неизвестном режиме поиска или поле.
      */
     @GetMapping("/search")
-    public ResponseEntity<?> searchProjects(@RequestParam("query") String searchText) {
-        List<Project> projects = projectService.findProjectByNameOrDescription(searchText);
-        return ResponseEntity.ok(projects);
+    public ResponseEntity<?> searchProjects(@RequestParam("query") String searchText,
+                                            @RequestParam(value = "mode", defaultValue = "fulltext") String mode,
+                                            @RequestParam(value = "limit", required = false) Integer limit,
+                                            @RequestParam(value = "offset", required = false) Integer offset,
+                                            @RequestParam(value = "fields", required = false) String fields) {
+        try {
+            if (fields != null) {
+                ViewFields viewFields = ViewFields.parse(fields, ViewFields.PROJECT_FIELDS);
+                return ResponseEntity.ok(viewFields.filter(
+                        projectService.searchProjects(searchText, mode, limit, offset, viewFields)));
+            }
+            List<Project> projects = projectService.searchProjects(searchText, mode, limit, offset);
+            return ResponseEntity.ok(projects);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     /**
@@ -81,12 +139,46 @@ public class ProjectController {
      */
     @PostMapping("/add")
     public ResponseEntity<Project> addProject(@RequestBody Project project){
-        projectService.addProject(project);
-        return ResponseEntity.status(HttpStatus.CREATED).body(project);
+        return ResponseEntity.status(HttpStatus.CREATED).body(projectService.addProject(project));
+    }
+
+    /**
+     * Метод обрабатывает POST-запрос на добавление списка проектов в базу одной транзакцией
+     * @param projects проекты для добавления
+     * @return добавленные проекты с присвоенными идентификаторами
+     */
+    @PostMapping("/add_all")
+    public ResponseEntity<List<Project>> addProjects(@RequestBody List<Project> projects) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(projectService.addProjects(projects));
     }
 
     @GetMapping("/find/{id}")
-    public ResponseEntity<?> findProjectById(@PathVariable("id") Long id) {
-        return ResponseEntity.ok(projectService.findProjectById(id));
+    public ResponseEntity<?> findProjectById(@PathVariable("id") Long id, WebRequest request) {
+        String etag = resourceVersions.etag(resourceVersions.project(id));
+        ProjectView project = projectService.findProjectById(id);
+        if (project == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(project);
+    }
+
+    /**
+     * Обрабатывает GET-запрос на получение нескольких проектов по списку идентификаторов
+     * одним запросом к базе данных.
+     *
+     * @param ids идентификаторы проектов через запятую или повторяющимся параметром.
+     * @return найденные проекты и отсутствующие идентификаторы
+     * или статус 400, если идентификаторов больше допустимого.
+     */
+    @GetMapping("/find_many")
+    public ResponseEntity<?> findProjects(@RequestParam("ids") List<Long> ids) {
+        try {
+            return ResponseEntity.ok(projectService.findProjectsByIds(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 }
@@ -0,0 +1,49 @@
+package org.example.controller;
+
+import lombok.AllArgsConstructor;
+import org.example.snapshot.SnapshotService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * Контроллер выгрузки снимка данных.
+ * Снимок используется для заполнения нового экземпляра сервиса при запуске (свойство snapshot.restore-from).
+ */
+@RestController
+@RequestMapping("/api/snapshot")
+@AllArgsConstructor
+public class SnapshotController {
+
+    private final SnapshotService snapshotService;
+
+    /**
+     * Обрабатывает GET-запрос на выгрузку снимка пользователей, проектов и связей.
+     * Снимок записывается в ответ потоком, без накопления в памяти.
+     *
+     * @return двоичный снимок данных.
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportSnapshot() {
+        StreamingResponseBody body = output -> {
+            try {
+                snapshotService.export(output);
+            } catch (SQLException e) {
+                throw new IOException("Failed to export snapshot", e);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("userproject.snapshot").build().toString())
+                .body(body);
+    }
+}
@@ -6,9 +6,14 @@ import org.example.service.UserProjectService;
 import org.example.service.UserService;
 import lombok.AllArgsConstructor;
 import org.example.model.User;
+import org.example.model.UserSuggestion;
+import org.example.model.UserView;
+import org.example.model.ViewFields;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.example.version.ResourceVersions;
 import java.util.List;
 
 /**
@@ -22,30 +27,89 @@ public class UserController {
     private final UserService userService;
     private final UserProjectService userProjectService;
     private final UsersProjectRepository usersProjectRepository;
+    private final ResourceVersions resourceVersions;
 
     /**
      * Метод обрабатывает GET-запрос на получение списока всех пользователей.
+     * Если ETag из заголовка If-None-Match совпадает с текущей версией коллекции, возвращается статус 304
+     * без обращения к базе данных.
      *
-     * @return список всех пользователей в виде ответа HTTP.
+     * @param fields  поля пользователя через запятую; по умолчанию все поля.
+     * @param request текущий запрос для проверки условных заголовков.
+     * @return список всех пользователей в виде ответа HTTP или статус 400 при неизвестном поле.
      */
 
     @GetMapping("/get_all")
-    public ResponseEntity<List<User>> listUsers() {
-        List<User> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> listUsers(@RequestParam(value = "fields", required = false) String fields,
+                                       WebRequest request) {
+        ViewFields viewFields;
+        try {
+            viewFields = ViewFields.parse(fields, ViewFields.USER_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        String etag = viewFields.etag(resourceVersions.etag(resourceVersions.users()));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(viewFields.filter(userService.getAllUsers(viewFields)));
+    }
+
+    /**
+     * Метод обрабатывает GET-запрос на получение страницы пользователей с курсорной пагинацией.
+     *
+     * @param sort   поле сортировки: id или user_name.
+     * @param cursor токен курсора, полученный вместе с предыдущей страницей.
+     * @param size   размер страницы.
+     * @return страница пользователей или статус 400 при некорректных параметрах.
+     */
+    @GetMapping("/get_page")
+    public ResponseEntity<?> listUsersPage(@RequestParam(value = "sort", defaultValue = "id") String sort,
+                                           @RequestParam(value = "cursor", required = false) String cursor,
+                                           @RequestParam(value = "size", required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(userService.getUsersPage(sort, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     /**
      * Метод обрабатывает GET-запрос на поиск пользователей по имени или адресу электронной почты.
      *
-     * @param query текст для поиска в именах пользователей или адресах электронной почты.
-     * @return список пользователей, соответствующих запросу.
+     * @param query  текст для поиска в именах пользователей или адресах электронной почты.
+     * @param fields поля пользователя через запятую; без параметра возвращаются пользователи целиком.
+     * @return список пользователей, соответствующих запросу, или статус 400 при неизвестном поле.
      */
 
     @GetMapping("/search")
-    public ResponseEntity<List<User>> searchUsers(@RequestParam("query") String query) {
-        List<User> users = userService.findUserByUserNameOrByEmail(query);
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> searchUsers(@RequestParam("query") String query,
+                                         @RequestParam(value = "fields", required = false) String fields) {
+        if (fields == null) {
+            List<User> users = userService.findUserByUserNameOrByEmail(query);
+            return ResponseEntity.ok(users);
+        }
+        ViewFields viewFields;
+        try {
+            viewFields = ViewFields.parse(fields, ViewFields.USER_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        return ResponseEntity.ok(viewFields.filter(userService.findUserByUserNameOrByEmail(query, viewFields)));
+    }
+
+    /**
+     * Метод обрабатывает GET-запрос на автодополнение имени пользователя или адреса электронной почты.
+     *
+     * @param prefix начало имени, слова имени или адреса электронной почты.
+     * @param limit  максимальное количество подсказок.
+     * @return список подсказок с идентификатором, именем и адресом электронной почты.
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<UserSuggestion>> autocompleteUsers(@RequestParam("prefix") String prefix,
+                                                                  @RequestParam(value = "limit", defaultValue = "10")
+                                                                  Integer limit) {
+        return ResponseEntity.ok(userService.autocompleteUsers(prefix, limit));
     }
 
     /**
@@ -87,10 +151,44 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).body(user);
     }
 
+    /**
+     * Метод обрабатывает POST запрос на добавление списка пользователей в базу одной транзакцией
+     *
+     * @param usersAdd пользователи для добавления
+     * @return добавленные пользователи с присвоенными идентификаторами
+     */
+    @PostMapping("/add_all")
+    public ResponseEntity<List<User>> addUsers(@RequestBody List<User> usersAdd) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(userService.addUsers(usersAdd));
+    }
+
     @GetMapping("/find/{id}")
-    public ResponseEntity<User> getUser(@PathVariable("id") long id) {
-        User user = userService.getUserById(id);
-        return ResponseEntity.ok(user);
+    public ResponseEntity<UserView> getUser(@PathVariable("id") long id, WebRequest request) {
+        String etag = resourceVersions.etag(resourceVersions.user(id));
+        UserView user = userService.getUserById(id);
+        if (user == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(user);
     }
-}
 
+    /**
+     * Метод обрабатывает GET-запрос на получение нескольких пользователей по списку идентификаторов
+     * одним запросом к базе данных.
+     *
+     * @param ids идентификаторы пользователей через запятую или повторяющимся параметром.
+     * @return найденные пользователи и отсутствующие идентификаторы
+     * или статус 400, если идентификаторов больше допустимого.
+     */
+    @GetMapping("/find_many")
+    public ResponseEntity<?> findUsers(@RequestParam("ids") List<Long> ids) {
+        try {
+            return ResponseEntity.ok(userService.findUsersByIds(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -1,15 +1,22 @@
 package org.example.controller;
 
+import org.example.model.KeysetPage;
+import org.example.model.MembershipChangeResult;
 import org.example.model.Project;
+import org.example.model.RankedProject;
+import org.example.model.RankedUser;
 import org.example.model.User;
 import org.example.model.UserProjectRequest;
+import org.example.model.ViewFields;
 import org.example.service.ProjectService;
 import org.example.service.UserProjectService;
 import org.example.service.UserService;
+import org.example.version.ResourceVersions;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -26,44 +33,173 @@ public class UserProjectController {
     private final UserProjectService userProjectService;
     private final UserService userService;
     private final ProjectService projectService;
+    private final ResourceVersions resourceVersions;
 
     /**
-     * Метод, обрабатывающий GET-запрос для получения списка пользователей, связанных с определенным проектом
+     * Метод, обрабатывающий GET-запрос для получения списка пользователей, связанных с определенным проектом.
+     * ETag зависит от версий проекта, состава его участников, коллекции пользователей и набора полей.
      * @param projectId идентификатор проекта
-     * @return ResponseEntity со списком пользователей или статус 404, если проект не найден
+     * @param fields    поля пользователя через запятую; по умолчанию все поля
+     * @param request   текущий запрос для проверки условных заголовков
+     * @return ResponseEntity со списком пользователей, статус 304, если список не изменился,
+     * статус 400 при неизвестном поле или статус 404, если проект не найден
      */
     @GetMapping("/users_in_project")
-    public ResponseEntity<List<User>> getUsersByProjectId(@RequestParam(value="projectId",
-            defaultValue = "-1") Long projectId) {
+    public ResponseEntity<?> getUsersByProjectId(@RequestParam(value="projectId",
+            defaultValue = "-1") Long projectId, @RequestParam(value = "fields", required = false) String fields,
+                                                 WebRequest request) {
         if (projectId == -1){
             return ResponseEntity.notFound().build();
         }
-        List<User> users = userProjectService.getUsersByProjectId(projectId);
+        ViewFields viewFields;
+        try {
+            viewFields = ViewFields.parse(fields, ViewFields.USER_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        String etag = viewFields.etag(resourceVersions.etag(resourceVersions.project(projectId),
+                resourceVersions.projectMembers(projectId), resourceVersions.users()));
+        if (projectService.findProjectById(projectId) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<?> users = userProjectService.getUsersByProjectId(projectId, viewFields);
         if (users != null) {
-            return ResponseEntity.ok(users);
+            return ResponseEntity.ok().eTag(etag).body(viewFields.filter(users));
         }
         return ResponseEntity.notFound().build();
     }
 
     /**
-     * Метод, обрабатывающий GET-запрос для получения списка проектов, связанных с определенным пользователем
+     * Метод, обрабатывающий GET-запрос для получения страницы пользователей, связанных с определенным проектом
+     *
+     * @param projectId идентификатор проекта
+     * @param cursor    токен курсора, полученный вместе с предыдущей страницей
+     * @param size      размер страницы
+     * @return ResponseEntity со страницей пользователей, статус 404, если проект не найден,
+     * или статус 400 при некорректном курсоре
+     */
+    @GetMapping("/users_in_project/page")
+    public ResponseEntity<?> getUsersPageByProjectId(@RequestParam("projectId") Long projectId,
+                                                     @RequestParam(value = "cursor", required = false) String cursor,
+                                                     @RequestParam(value = "size", required = false) Integer size) {
+        try {
+            KeysetPage<User> users = userProjectService.getUsersPageByProjectId(projectId, cursor, size);
+            return users != null ? ResponseEntity.ok(users) : ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Метод, обрабатывающий GET-запрос для получения количества участников проекта
+     *
+     * @param projectId идентификатор проекта
+     * @return ResponseEntity с количеством участников или статус 404, если проект не найден
+     */
+    @GetMapping("/users_in_project/count")
+    public ResponseEntity<Long> countUsersByProjectId(@RequestParam("projectId") Long projectId) {
+        Long count = userProjectService.countUsersByProjectId(projectId);
+        return count != null ? ResponseEntity.ok(count) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Метод, обрабатывающий GET-запрос для получения количества проектов пользователя
      *
      * @param userId идентификатор пользователя
-     * @return ResponseEntity со списком проектов или статус 404, если пользователь не найден
+     * @return ResponseEntity с количеством проектов или статус 404, если пользователь не найден
+     */
+    @GetMapping("/user_projects/count")
+    public ResponseEntity<Long> countProjectsByUserId(@RequestParam("userId") Long userId) {
+        Long count = userProjectService.countProjectsByUserId(userId);
+        return count != null ? ResponseEntity.ok(count) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Метод, обрабатывающий GET-запрос для получения проектов с наибольшим количеством участников
+     *
+     * @param limit размер рейтинга, по умолчанию pagination.default-page-size
+     * @return ResponseEntity с проектами по убыванию количества участников
+     */
+    @GetMapping("/projects/largest")
+    public ResponseEntity<List<RankedProject>> getLargestProjects(
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(userProjectService.getLargestProjects(limit));
+    }
+
+    /**
+     * Метод, обрабатывающий GET-запрос для получения пользователей, состоящих в наибольшем количестве проектов
+     *
+     * @param limit размер рейтинга, по умолчанию pagination.default-page-size
+     * @return ResponseEntity с пользователями по убыванию количества проектов
+     */
+    @GetMapping("/users/most_active")
+    public ResponseEntity<List<RankedUser>> getMostActiveUsers(
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(userProjectService.getMostActiveUsers(limit));
+    }
+
+    /**
+     * Метод, обрабатывающий GET-запрос для получения списка проектов, связанных с определенным пользователем.
+     * ETag зависит от версий пользователя, списка его проектов, коллекции проектов и набора полей.
+     *
+     * @param userId  идентификатор пользователя
+     * @param fields  поля проекта через запятую; по умолчанию все поля
+     * @param request текущий запрос для проверки условных заголовков
+     * @return ResponseEntity со списком проектов, статус 304, если список не изменился,
+     * статус 400 при неизвестном поле или статус 404, если пользователь не найден
      */
     @GetMapping("/user_projects")
-    public ResponseEntity<List<Project>> getProjectsByUserId(@RequestParam(value = "userId",
-            defaultValue = "-1") Long userId) {
+    public ResponseEntity<?> getProjectsByUserId(@RequestParam(value = "userId",
+            defaultValue = "-1") Long userId, @RequestParam(value = "fields", required = false) String fields,
+                                                 WebRequest request) {
         if (userId == -1){
             return ResponseEntity.notFound().build();
         }
-        List<Project> projects = userProjectService.getProjectsByUserId(userId);
+        ViewFields viewFields;
+        try {
+            viewFields = ViewFields.parse(fields, ViewFields.PROJECT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        String etag = viewFields.etag(resourceVersions.etag(resourceVersions.user(userId),
+                resourceVersions.userProjects(userId), resourceVersions.projects()));
+        if (userService.getUserById(userId) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<?> projects = userProjectService.getProjectsByUserId(userId, viewFields);
         if (projects != null) {
-            return ResponseEntity.ok(projects);
+            return ResponseEntity.ok().eTag(etag).body(viewFields.filter(projects));
         }
         return ResponseEntity.notFound().build();
     }
 
+    /**
+     * Метод, обрабатывающий GET-запрос для получения страницы проектов, связанных с определенным пользователем
+     *
+     * @param userId идентификатор пользователя
+     * @param cursor токен курсора, полученный вместе с предыдущей страницей
+     * @param size   размер страницы
+     * @return ResponseEntity со страницей проектов, статус 404, если пользователь не найден,
+     * или статус 400 при некорректном курсоре
+     */
+    @GetMapping("/user_projects/page")
+    public ResponseEntity<?> getProjectsPageByUserId(@RequestParam("userId") Long userId,
+                                                     @RequestParam(value = "cursor", required = false) String cursor,
+                                                     @RequestParam(value = "size", required = false) Integer size) {
+        try {
+            KeysetPage<Project> projects = userProjectService.getProjectsPageByUserId(userId, cursor, size);
+            return projects != null ? ResponseEntity.ok(projects) : ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     /**
      * Метод, обрабатывающий POST-запрос для добавления пользователя (списка пользователей) к проекту
      *
@@ -112,10 +248,86 @@ public class UserProjectController {
                 .body("Failed to remove users: No such user or project or other conflict.");
     }
 
+    /**
+     * Метод, обрабатывающий POST-запрос для массового добавления пользователей к проекту
+     *
+     * @param request объект запроса с идентификатором проекта и списком пользователей
+     * @return ResponseEntity с результатом по каждому пользователю или статус 404, если проект не найден
+     */
+    @PostMapping("/add_users_to_project/bulk")
+    public ResponseEntity<?> addUsersToProject(@RequestBody(required = false) UserProjectRequest request) {
+        if (request == null || request.getProjectId() == null || request.getUserIds() == null
+                || request.getUserIds().isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body("Invalid input data: projectId and userIds must not be null or empty.");
+        }
+        MembershipChangeResult result = userProjectService.addUsersToProject(request.getProjectId(),
+                request.getUserIds());
+        return result != null ? ResponseEntity.ok(result) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Метод, обрабатывающий DELETE-запрос для массового удаления пользователей из проекта
+     *
+     * @param request объект запроса с идентификатором проекта и списком пользователей
+     * @return ResponseEntity с результатом по каждому пользователю или статус 404, если проект не найден
+     */
+    @DeleteMapping("/remove_users_from_project/bulk")
+    public ResponseEntity<?> removeUsersFromProject(@RequestBody(required = false) UserProjectRequest request) {
+        if (request == null || request.getProjectId() == null || request.getUserIds() == null
+                || request.getUserIds().isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body("Invalid input data: projectId and userIds must not be null or empty.");
+        }
+        MembershipChangeResult result = userProjectService.removeUsersFromProject(request.getProjectId(),
+                request.getUserIds());
+        return result != null ? ResponseEntity.ok(result) : ResponseEntity.notFound().build();
+    }
+
     @GetMapping("/users_not_in_project/{id}")
-    public ResponseEntity<List<User>> getUsersNotIProject(@PathVariable("id") Long projectId) {
+    public ResponseEntity<?> getUsersNotIProject(@PathVariable("id") Long projectId,
+                                                 @RequestParam(value = "fields", required = false) String fields,
+                                                 WebRequest request) {
+        ViewFields viewFields;
+        try {
+            viewFields = ViewFields.parse(fields, ViewFields.USER_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        String etag = viewFields.etag(resourceVersions.etag(resourceVersions.project(projectId),
+                resourceVersions.projectMembers(projectId), resourceVersions.users()));
+        if (projectService.findProjectById(projectId) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<?> users = userProjectService.getUsersNotInProject(projectId, viewFields);
+        if (users != null) {
+            return ResponseEntity.ok().eTag(etag).body(viewFields.filter(users));
+        }
+        return ResponseEntity.notFound().build();
+    }
 
-        return ResponseEntity.ok(userProjectService.getUsersNotInProject(projectId));
+    /**
+     * Метод, обрабатывающий GET-запрос для получения страницы пользователей, не входящих в проект
+     *
+     * @param projectId идентификатор проекта
+     * @param cursor    токен курсора, полученный вместе с предыдущей страницей
+     * @param size      размер страницы
+     * @return ResponseEntity со страницей пользователей, статус 404, если проект не найден,
+     * или статус 400 при некорректном курсоре
+     */
+    @GetMapping("/users_not_in_project/{id}/page")
+    public ResponseEntity<?> getUsersNotInProjectPage(@PathVariable("id") Long projectId,
+                                                      @RequestParam(value = "cursor", required = false) String cursor,
+                                                      @RequestParam(value = "size", required = false) Integer size) {
+        try {
+            KeysetPage<User> users = userProjectService.getUsersNotInProjectPage(projectId, cursor, size);
+            return users != null ? ResponseEntity.ok(users) : ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
 }
@@ -0,0 +1,281 @@
+package org.example.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.config.SlowQueryProperties;
+import org.example.model.QueryTiming;
+import org.example.model.SlowQueryReport;
+import org.example.model.SlowStatement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Статистика времени выполнения SQL-запросов, замеряемого {@link TimingDataSource}.
+ *
+ * Запросы группируются по нормализованному тексту: строковые и числовые литералы заменяются на ?,
+ * списки параметров IN сворачиваются. Для каждой группы хранятся счетчики и гистограмма времени
+ * с четырьмя интервалами на каждое удвоение, по которой оцениваются перцентили без хранения замеров.
+ * Количество групп ограничено slow-query.max-tracked-queries: новая группа вытесняет группу
+ * с наименьшим суммарным временем; замер записывается в группу атомарно относительно ее вытеснения.
+ * Запросы дольше slow-query.threshold записываются в журнал с параметрами и в список последних медленных
+ * запросов без значений параметров. Количество медленных запросов публикуется в метрике sql.statements.slow.
+ */
+@Component
+public class QueryStatistics implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryStatistics.class);
+
+    /**
+     * Количество интервалов гистограммы: покрывает время до 2^40 мкс.
+     */
+    private static final int BUCKETS = 160;
+
+    /**
+     * Максимальное количество исходных текстов запросов с вычисленной нормализацией.
+     */
+    private static final int NORMALIZED_CACHE_SIZE = 2000;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final SlowQueryProperties properties;
+    private final long thresholdNanos;
+    private final Map<String, Timing> queries = new ConcurrentHashMap<>();
+    private final Cache<String, String> normalized = Caffeine.newBuilder()
+            .maximumSize(NORMALIZED_CACHE_SIZE)
+            .build();
+    private final Deque<SlowStatement> recent = new ArrayDeque<>();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder slowStatements = new LongAdder();
+    private volatile Counter slowCounter;
+
+    public QueryStatistics(SlowQueryProperties properties) {
+        this.properties = properties;
+        this.thresholdNanos = properties.getThreshold().toNanos();
+    }
+
+    /**
+     * Учитывает выполненный запрос.
+     *
+     * @param sql            текст запроса, переданный драйверу
+     * @param nanos          время выполнения в наносекундах
+     * @param parameters     значения параметров по индексу (с 1) или null, если параметров нет
+     * @param parameterCount наибольший индекс установленного параметра
+     */
+    public void record(String sql, long nanos, Object[] parameters, int parameterCount) {
+        if (sql == null) {
+            return;
+        }
+        statements.increment();
+        String query = normalized.get(sql, QueryStatistics::normalize);
+        if (queries.computeIfPresent(query, (key, timing) -> timing.record(nanos)) == null) {
+            track(query, nanos);
+        }
+        if (nanos >= thresholdNanos) {
+            recordSlow(sql, nanos, parameters, parameterCount);
+        }
+    }
+
+    /**
+     * Формирует отчет о самых медленных запросах.
+     *
+     * @param limit количество запросов в отчете
+     * @param sort  показатель сортировки: total, mean, max, p99 или count
+     * @return отчет
+     * @throws IllegalArgumentException если показатель сортировки не поддерживается
+     */
+    public SlowQueryReport report(int limit, String sort) {
+        Comparator<QueryTiming> order = switch (sort) {
+            case "total" -> Comparator.comparingDouble(QueryTiming::getTotalMillis);
+            case "mean" -> Comparator.comparingDouble(QueryTiming::getMeanMillis);
+            case "max" -> Comparator.comparingDouble(QueryTiming::getMaxMillis);
+            case "p99" -> Comparator.comparingDouble(QueryTiming::getP99Millis);
+            case "count" -> Comparator.comparingLong(QueryTiming::getCount);
+            default -> throw new IllegalArgumentException("Unsupported sort: " + sort);
+        };
+        List<QueryTiming> top = new ArrayList<>(queries.size());
+        queries.forEach((query, timing) -> top.add(timing.snapshot(query)));
+        top.sort(order.reversed());
+        List<SlowStatement> slow;
+        synchronized (recent) {
+            slow = new ArrayList<>(recent);
+        }
+        return new SlowQueryReport(properties.getThreshold().toMillis(), statements.sum(), slowStatements.sum(),
+                queries.size(), List.copyOf(top.subList(0, Math.min(Math.max(limit, 0), top.size()))), slow);
+    }
+
+    /**
+     * Сбрасывает накопленную статистику.
+     */
+    public void reset() {
+        queries.clear();
+        statements.reset();
+        slowStatements.reset();
+        synchronized (recent) {
+            recent.clear();
+        }
+    }
+
+    /**
+     * Нормализует текст запроса: литералы заменяются на ?, списки параметров IN сворачиваются,
+     * пробельные символы схлопываются.
+     *
+     * @param sql текст запроса
+     * @return нормализованный текст запроса
+     */
+    static String normalize(String sql) {
+        String query = STRING_LITERAL.matcher(sql).replaceAll("?");
+        query = NUMBER_LITERAL.matcher(query).replaceAll("?");
+        query = IN_LIST.matcher(query).replaceAll("(?, ...)");
+        return WHITESPACE.matcher(query).replaceAll(" ").trim();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        slowCounter = Counter.builder("sql.statements.slow")
+                .description("Statements slower than slow-query.threshold")
+                .register(registry);
+        Gauge.builder("sql.queries.tracked", queries, Map::size)
+                .description("Normalized queries with timing statistics")
+                .register(registry);
+    }
+
+    /**
+     * Добавляет группу запроса с первым замером; при превышении лимита вытесняет группу с наименьшим
+     * суммарным временем. Группа удаляется условно, поэтому замер, записываемый в нее параллельно
+     * через computeIfPresent, либо попадает в группу до удаления, либо записывается в новую группу.
+     */
+    private synchronized void track(String query, long nanos) {
+        Timing timing = queries.compute(query, (key, existing) -> (existing != null ? existing : new Timing())
+                .record(nanos));
+        if (queries.size() > properties.getMaxTrackedQueries()) {
+            queries.entrySet().stream()
+                    .filter(entry -> entry.getValue() != timing)
+                    .min(Comparator.comparingLong(entry -> entry.getValue().totalNanos.sum()))
+                    .ifPresent(entry -> queries.remove(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private void recordSlow(String sql, long nanos, Object[] parameters, int parameterCount) {
+        slowStatements.increment();
+        Counter counter = slowCounter;
+        if (counter != null) {
+            counter.increment();
+        }
+        List<String> values = new ArrayList<>();
+        if (parameters != null) {
+            for (int i = 1; i <= parameterCount; i++) {
+                values.add(format(parameters[i]));
+            }
+        }
+        double millis = nanos / 1_000_000.0;
+        log.warn("Slow query ({} ms): {} parameters: {}", String.format("%.1f", millis), sql, values);
+        SlowStatement statement = new SlowStatement(Instant.now(), millis, sql, values.size());
+        synchronized (recent) {
+            recent.addFirst(statement);
+            while (recent.size() > properties.getRecentSlowStatements()) {
+                recent.removeLast();
+            }
+        }
+    }
+
+    private String format(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        String text = value instanceof byte[] bytes ? "<" + bytes.length + " bytes>" : String.valueOf(value);
+        int maxLength = properties.getMaxParameterLength();
+        return text.length() > maxLength ? text.substring(0, maxLength) + "..." : text;
+    }
+
+    /**
+     * Индекс интервала гистограммы для времени в микросекундах: до 4 мкс - по одному интервалу на микросекунду,
+     * далее - четыре интервала на каждое удвоение.
+     */
+    static int bucket(long micros) {
+        if (micros < 4) {
+            return (int) Math.max(micros, 0);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int index = exponent * 4 + (int) ((micros >>> (exponent - 2)) & 3) - 4;
+        return Math.min(index, BUCKETS - 1);
+    }
+
+    /**
+     * Верхняя (не включаемая) граница интервала гистограммы в микросекундах.
+     */
+    static long bucketUpperBound(int index) {
+        if (index < 4) {
+            return index + 1;
+        }
+        int exponent = (index + 4) / 4;
+        long lower = (long) (4 + (index + 4) % 4) << (exponent - 2);
+        return lower + (1L << (exponent - 2));
+    }
+
+    /**
+     * Счетчики и гистограмма времени выполнения одного нормализованного запроса.
+     */
+    private static final class Timing {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        Timing record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            buckets.incrementAndGet(bucket(nanos / 1000));
+            return this;
+        }
+
+        QueryTiming snapshot(String query) {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.get(i);
+                total += counts[i];
+            }
+            double max = maxNanos.get() / 1_000_000.0;
+            long executions = count.sum();
+            double totalMillis = totalNanos.sum() / 1_000_000.0;
+            return new QueryTiming(query, executions, totalMillis, executions > 0 ? totalMillis / executions : 0, max,
+                    percentile(counts, total, 0.5, max), percentile(counts, total, 0.95, max),
+                    percentile(counts, total, 0.99, max));
+        }
+
+        private static double percentile(long[] counts, long total, double percentile, double max) {
+            long rank = (long) Math.ceil(total * percentile);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank && seen > 0) {
+                    return Math.min(bucketUpperBound(i) / 1000.0, max);
+                }
+            }
+            return max;
+        }
+    }
+}
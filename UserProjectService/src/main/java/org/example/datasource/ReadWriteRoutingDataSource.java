@@ -0,0 +1,45 @@
+package org.example.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.io.Closeable;
+import java.util.List;
+
+/**
+ * Источник соединений приложения при включенной маршрутизации чтения.
+ *
+ * Физическое соединение выбирается лениво, при первом запросе в транзакции, когда менеджер транзакций
+ * уже отметил соединение как read-only: транзакции @Transactional(readOnly = true) получают соединение
+ * из {@link ReplicaRoutingDataSource}, все остальные - из пула основной базы.
+ * Закрывает пулы соединений и монитор отставания при остановке приложения.
+ */
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private final List<HikariDataSource> pools;
+    private final ReplicaLagMonitor lagMonitor;
+
+    /**
+     * @param primary    пул основной базы данных
+     * @param readOnly   источник соединений для транзакций только для чтения
+     * @param pools      все пулы соединений, включая пул основной базы
+     * @param lagMonitor монитор отставания реплик
+     */
+    public ReadWriteRoutingDataSource(HikariDataSource primary, ReplicaRoutingDataSource readOnly,
+                                      List<HikariDataSource> pools, ReplicaLagMonitor lagMonitor) {
+        super(primary);
+        setReadOnlyDataSource(readOnly);
+        this.pools = List.copyOf(pools);
+        this.lagMonitor = lagMonitor;
+    }
+
+    public ReplicaLagMonitor getLagMonitor() {
+        return lagMonitor;
+    }
+
+    @Override
+    public void close() {
+        lagMonitor.close();
+        pools.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Измерение отставания реплик по отметке времени (heartbeat).
+ *
+ * Монитор периодически записывает текущее время в таблицу replication_heartbeat основной базы
+ * и читает ее значение на каждой реплике: отставание реплики - разность текущего времени и прочитанной отметки.
+ * Измеренное значение превышает фактическое отставание не больше чем на период проверки.
+ * Пока отставание реплики не измерено или реплика недоступна, она считается отстающей.
+ * Прочитанная отметка также означает, что реплика применила все изменения, зафиксированные на основной базе
+ * до записи этой отметки.
+ */
+public class ReplicaLagMonitor implements Closeable {
+
+    private static final String WRITE_HEARTBEAT =
+            "MERGE INTO replication_heartbeat (id, updated_at) KEY (id) VALUES (1, ?)";
+    private static final String READ_HEARTBEAT = "SELECT updated_at FROM replication_heartbeat WHERE id = 1";
+
+    private final JdbcTemplate primary;
+    private final Map<String, JdbcTemplate> replicas = new LinkedHashMap<>();
+    private final Duration maxLag;
+    private final Map<String, Duration> lags = new ConcurrentHashMap<>();
+    private final Map<String, Instant> heartbeats = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-lag-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param primary  основная база данных
+     * @param replicas реплики по именам
+     * @param maxLag   максимально допустимое отставание
+     */
+    public ReplicaLagMonitor(DataSource primary, Map<String, ? extends DataSource> replicas, Duration maxLag) {
+        this.primary = new JdbcTemplate(primary);
+        replicas.forEach((name, dataSource) -> this.replicas.put(name, new JdbcTemplate(dataSource)));
+        this.maxLag = maxLag;
+    }
+
+    /**
+     * Запускает периодическую проверку отставания.
+     *
+     * @param interval период проверки
+     */
+    public void start(Duration interval) {
+        scheduler.scheduleWithFixedDelay(this::refresh, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Записывает отметку времени на основной базе и измеряет отставание всех реплик.
+     */
+    public void refresh() {
+        try {
+            primary.update(WRITE_HEARTBEAT, Timestamp.from(Instant.now()));
+        } catch (DataAccessException e) {
+            // Отметка не обновлена: отставание реплик будет расти, и чтение перейдет на основную базу
+        }
+        replicas.forEach((name, replica) -> {
+            try {
+                Timestamp heartbeat = replica.queryForObject(READ_HEARTBEAT, Timestamp.class);
+                Duration lag = Duration.between(heartbeat.toInstant(), Instant.now());
+                heartbeats.put(name, heartbeat.toInstant());
+                lags.put(name, lag.isNegative() ? Duration.ZERO : lag);
+            } catch (DataAccessException e) {
+                lags.remove(name);
+                heartbeats.remove(name);
+            }
+        });
+    }
+
+    /**
+     * Проверяет, что отставание реплики измерено и не превышает допустимого.
+     *
+     * @param name имя реплики
+     * @return true, если с реплики можно читать
+     */
+    public boolean isWithinMaxLag(String name) {
+        Duration lag = lags.get(name);
+        return lag != null && lag.compareTo(maxLag) <= 0;
+    }
+
+    /**
+     * Проверяет, что реплика применила изменения, зафиксированные до указанного момента: прочитанная
+     * на реплике отметка времени записана на основной базе позже.
+     *
+     * @param name        имя реплики
+     * @param epochMicros момент в микросекундах от начала эпохи; 0 - требований нет
+     * @return true, если реплика содержит изменения, зафиксированные до этого момента
+     */
+    public boolean hasApplied(String name, long epochMicros) {
+        Instant heartbeat = heartbeats.get(name);
+        return heartbeat != null && ChronoUnit.MICROS.between(Instant.EPOCH, heartbeat) > epochMicros;
+    }
+
+    /**
+     * Регистрирует метрику datasource.replica.lag для каждой реплики (NaN, если отставание не измерено).
+     *
+     * @param registry реестр метрик
+     */
+    public void bindTo(MeterRegistry registry) {
+        for (String name : replicas.keySet()) {
+            Gauge.builder("datasource.replica.lag", () -> {
+                        Duration lag = lags.get(name);
+                        return lag != null ? lag.toNanos() / 1e9 : Double.NaN;
+                    })
+                    .tag("replica", name)
+                    .description("Replication lag of the replica measured by the heartbeat table")
+                    .baseUnit("seconds")
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Требования текущего HTTP-запроса к свежести реплик.
+ *
+ * Версия ресурса - время его изменения в микросекундах (см. {@link org.example.version.ResourceVersions}).
+ * Ответ с ETag должен быть прочитан с базы, применившей изменения всех версий, из которых состоит ETag,
+ * иначе клиент получит старые данные с новым ETag и будет получать 304 до следующего изменения.
+ * Наибольшая такая версия хранится в атрибутах запроса, и {@link ReplicaRoutingDataSource} выбирает
+ * только реплики, отметка времени которых новее нее. Вне HTTP-запроса требований нет.
+ *
+ * Транзакция, получившая соединение реплики, отмечается до своего завершения: данные, прочитанные в ней
+ * без требований к версии, могут быть старше основной базы и не должны попадать в общие кэши users и projects,
+ * иначе ответы с ETag новой версии будут отдавать их из кэша.
+ */
+public final class ReplicaReads {
+
+    private static final String REQUIRED_VERSION = ReplicaReads.class.getName() + ".REQUIRED_VERSION";
+    private static final String REPLICA_READ = ReplicaReads.class.getName() + ".REPLICA_READ";
+
+    private ReplicaReads() {
+    }
+
+    /**
+     * Требует, чтобы чтение в текущем запросе выполнялось с базы, применившей изменения указанной версии.
+     *
+     * @param version версия ресурса; 0 - ресурс не изменялся с момента запуска
+     */
+    public static void requireVersion(long version) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null || version <= 0) {
+            return;
+        }
+        Object required = attributes.getAttribute(REQUIRED_VERSION, RequestAttributes.SCOPE_REQUEST);
+        if (required == null || (Long) required < version) {
+            attributes.setAttribute(REQUIRED_VERSION, version, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Возвращает наибольшую версию, изменения которой должна содержать база для чтения в текущем запросе.
+     *
+     * @return версия или 0, если требований нет
+     */
+    static long requiredVersion() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object required = attributes != null
+                ? attributes.getAttribute(REQUIRED_VERSION, RequestAttributes.SCOPE_REQUEST) : null;
+        return required != null ? (Long) required : 0;
+    }
+
+    /**
+     * Проверяет, читает ли текущая транзакция с реплики. Используется в условиях кэширования:
+     * результаты таких чтений не кэшируются.
+     *
+     * @return true, если текущей транзакции выдано соединение реплики
+     */
+    public static boolean isReplicaRead() {
+        return TransactionSynchronizationManager.hasResource(REPLICA_READ);
+    }
+
+    /**
+     * Отмечает текущую транзакцию как читающую с реплики до ее завершения.
+     *
+     * @param replica имя реплики
+     */
+    static void markReplicaRead(String replica) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(REPLICA_READ)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(REPLICA_READ, replica);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(REPLICA_READ);
+            }
+        });
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Источник соединений для чтения: выбирает реплику по кругу среди реплик с допустимым отставанием,
+ * применивших изменения версий, от которых зависит ответ текущего запроса (см. {@link ReplicaReads}),
+ * а если таких нет - основную базу. Транзакция, получившая соединение реплики, отмечается
+ * в {@link ReplicaReads#isReplicaRead()}. Количество чтений по каждому источнику публикуется
+ * в метрике datasource.routing.reads с тегом target.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Ключ основной базы данных.
+     */
+    public static final String PRIMARY = "primary";
+
+    private final List<String> replicaNames;
+    private final ReplicaLagMonitor lagMonitor;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Counter> reads = new HashMap<>();
+
+    /**
+     * @param primary    основная база данных
+     * @param replicas   реплики по именам
+     * @param lagMonitor монитор отставания реплик
+     * @param registry   реестр метрик
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, ? extends DataSource> replicas,
+                                    ReplicaLagMonitor lagMonitor, MeterRegistry registry) {
+        this.replicaNames = List.copyOf(replicas.keySet());
+        this.lagMonitor = lagMonitor;
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        for (Object target : targets.keySet()) {
+            reads.put((String) target, Counter.builder("datasource.routing.reads")
+                    .tag("target", (String) target)
+                    .description("Number of read-only connections routed to the data source")
+                    .register(registry));
+        }
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String target = PRIMARY;
+        long requiredVersion = ReplicaReads.requiredVersion();
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicaNames.size(); i++) {
+            String replica = replicaNames.get(Math.floorMod(start + i, replicaNames.size()));
+            if (lagMonitor.isWithinMaxLag(replica) && lagMonitor.hasApplied(replica, requiredVersion)) {
+                target = replica;
+                break;
+            }
+        }
+        if (!PRIMARY.equals(target)) {
+            ReplicaReads.markReplicaRead(target);
+        }
+        reads.get(target).increment();
+        return target;
+    }
+}
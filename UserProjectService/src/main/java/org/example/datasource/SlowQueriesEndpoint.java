@@ -0,0 +1,44 @@
+package org.example.datasource;
+
+import lombok.AllArgsConstructor;
+import org.example.model.SlowQueryReport;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Эндпоинт actuator /actuator/slowqueries: самые медленные нормализованные запросы с количеством выполнений
+ * и перцентилями времени, а также последние запросы дольше slow-query.threshold с количеством параметров.
+ * Значения параметров записываются только в журнал. Сброс статистики доступен только через JMX
+ * ({@link SlowQueriesJmxExtension}), а не по HTTP.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+@AllArgsConstructor
+public class SlowQueriesEndpoint {
+
+    /**
+     * Количество запросов в отчете по умолчанию.
+     */
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final QueryStatistics queryStatistics;
+
+    /**
+     * Возвращает самые медленные запросы.
+     *
+     * @param limit количество запросов, по умолчанию 20
+     * @param sort  показатель сортировки: total (по умолчанию), mean, max, p99 или count
+     * @return отчет о запросах или статус 400 при неизвестном показателе сортировки
+     */
+    @ReadOperation
+    public SlowQueryReport slowQueries(@Nullable Integer limit, @Nullable String sort) {
+        try {
+            return queryStatistics.report(limit != null ? limit : DEFAULT_LIMIT, sort != null ? sort : "total");
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.datasource;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.EndpointJmxExtension;
+import org.springframework.stereotype.Component;
+
+/**
+ * Операция сброса статистики эндпоинта slowqueries, доступная только через JMX (spring.jmx.enabled=true).
+ */
+@Component
+@EndpointJmxExtension(endpoint = SlowQueriesEndpoint.class)
+@AllArgsConstructor
+public class SlowQueriesJmxExtension {
+
+    private final QueryStatistics queryStatistics;
+
+    /**
+     * Сбрасывает статистику запросов.
+     */
+    @DeleteOperation
+    public void reset() {
+        queryStatistics.reset();
+    }
+}
@@ -0,0 +1,179 @@
+package org.example.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Источник соединений, замеряющий время выполнения каждого запроса JDBC.
+ *
+ * Соединения и выражения оборачиваются динамическими прокси: вызовы execute* замеряются
+ * и передаются в {@link QueryStatistics} вместе с текстом запроса и значениями параметров,
+ * установленными методами set* подготовленного выражения. Остальные вызовы передаются драйверу без изменений.
+ * Закрывает исходный источник соединений при остановке приложения.
+ */
+public class TimingDataSource extends DelegatingDataSource implements Closeable {
+
+    private static final Class<?>[] CONNECTION = {Connection.class};
+    private static final Class<?>[] STATEMENT = {Statement.class};
+    private static final Class<?>[] PREPARED_STATEMENT = {PreparedStatement.class};
+    private static final Class<?>[] CALLABLE_STATEMENT = {CallableStatement.class};
+
+    private final Supplier<QueryStatistics> statistics;
+
+    /**
+     * @param target     исходный источник соединений
+     * @param statistics статистика запросов; получается при первом запросе, а не при создании источника
+     */
+    public TimingDataSource(DataSource target, Supplier<QueryStatistics> statistics) {
+        super(target);
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(TimingDataSource.class.getClassLoader(), CONNECTION,
+                new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Оборачивает выражения, создаваемые соединением.
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection connection;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            Object result = TimingDataSource.invoke(connection, method, args);
+            Class<?>[] type = switch (method.getName()) {
+                case "createStatement" -> STATEMENT;
+                case "prepareStatement" -> PREPARED_STATEMENT;
+                case "prepareCall" -> CALLABLE_STATEMENT;
+                default -> null;
+            };
+            if (type == null) {
+                return result;
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            return Proxy.newProxyInstance(TimingDataSource.class.getClassLoader(), type,
+                    new StatementHandler((Statement) result, (Connection) proxy, sql));
+        }
+    }
+
+    /**
+     * Запоминает параметры подготовленного выражения и замеряет выполнение запросов.
+     */
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+        private final Connection connection;
+        private final String sql;
+        private String batchSql;
+        private Object[] parameters;
+        private int parameterCount;
+
+        StatementHandler(Statement statement, Connection connection, String sql) {
+            this.statement = statement;
+            this.connection = connection;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (name.startsWith("execute")) {
+                String executed = args != null && args.length > 0 && args[0] instanceof String text ? text
+                        : name.endsWith("Batch") && batchSql != null ? batchSql : sql;
+                long start = System.nanoTime();
+                try {
+                    return TimingDataSource.invoke(statement, method, args);
+                } finally {
+                    statistics.get().record(executed, System.nanoTime() - start, parameters, parameterCount);
+                }
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                setParameter(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameterCount = 0;
+            } else if (name.equals("addBatch") && args != null && args.length == 1) {
+                batchSql = (String) args[0];
+            } else if (name.equals("getConnection")) {
+                return connection;
+            }
+            return TimingDataSource.invoke(statement, method, args);
+        }
+
+        private void setParameter(int index, Object value) {
+            if (index < 1) {
+                return;
+            }
+            if (parameters == null) {
+                parameters = new Object[Math.max(index + 1, 8)];
+            } else if (index >= parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index + 1, parameters.length * 2));
+            }
+            parameters[index] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Событие публикации порции ленты изменений.
+ * Публикуется {@link org.example.changefeed.ChangeRelay} после фиксации транзакции,
+ * назначившей позиции изменениям: изменения с позициями из диапазона уже доступны для чтения.
+ */
+@Getter
+@AllArgsConstructor
+public class ChangesPublishedEvent {
+
+    /**
+     * Позиция последнего изменения предыдущей порции; порция начинается со следующей позиции.
+     */
+    private final long afterOffset;
+
+    /**
+     * Позиция последнего изменения порции.
+     */
+    private final long throughOffset;
+}
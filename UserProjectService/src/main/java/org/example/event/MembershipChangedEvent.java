@@ -0,0 +1,70 @@
+package org.example.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Событие изменения состава участников проекта: добавление или удаление пользователей,
+ * а также удаление проекта вместе со всеми его связями.
+ * Публикуется внутри транзакции и обрабатывается слушателями после ее фиксации.
+ */
+@Getter
+@AllArgsConstructor
+public class MembershipChangedEvent {
+
+    /**
+     * Идентификатор проекта.
+     */
+    private final Long projectId;
+
+    /**
+     * Идентификаторы пользователей, добавленных в проект.
+     */
+    private final Collection<Long> addedUserIds;
+
+    /**
+     * Идентификаторы пользователей, удаленных из проекта.
+     */
+    private final Collection<Long> removedUserIds;
+
+    /**
+     * Признак удаления проекта.
+     */
+    private final boolean projectDeleted;
+
+    /**
+     * Создает событие добавления пользователей в проект.
+     *
+     * @param projectId идентификатор проекта
+     * @param userIds   идентификаторы добавленных пользователей
+     * @return событие добавления
+     */
+    public static MembershipChangedEvent added(Long projectId, Collection<Long> userIds) {
+        return new MembershipChangedEvent(projectId, List.copyOf(userIds), List.of(), false);
+    }
+
+    /**
+     * Создает событие удаления пользователей из проекта.
+     *
+     * @param projectId идентификатор проекта
+     * @param userIds   идентификаторы удаленных пользователей
+     * @return событие удаления
+     */
+    public static MembershipChangedEvent removed(Long projectId, Collection<Long> userIds) {
+        return new MembershipChangedEvent(projectId, List.of(), List.copyOf(userIds), false);
+    }
+
+    /**
+     * Создает событие удаления проекта вместе со связями его участников.
+     *
+     * @param projectId идентификатор удаленного проекта
+     * @param userIds   идентификаторы участников удаленного проекта
+     * @return событие удаления проекта
+     */
+    public static MembershipChangedEvent projectDeleted(Long projectId, Collection<Long> userIds) {
+        return new MembershipChangedEvent(projectId, List.of(), List.copyOf(userIds), true);
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Событие изменения проекта: добавление, обновление или удаление.
+ * Публикуется сервисом {@link org.example.service.ProjectService} внутри транзакции
+ * и обрабатывается слушателями после ее фиксации.
+ */
+@Getter
+@AllArgsConstructor
+public class ProjectChangedEvent {
+
+    /**
+     * Идентификатор проекта.
+     */
+    private final Long projectId;
+
+    /**
+     * Признак удаления проекта.
+     */
+    private final boolean deleted;
+}
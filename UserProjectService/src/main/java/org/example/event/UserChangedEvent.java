@@ -0,0 +1,44 @@
+package org.example.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Событие изменения пользователя: добавление, обновление или удаление.
+ * Публикуется сервисом {@link org.example.service.UserService} внутри транзакции
+ * и обрабатывается слушателями после ее фиксации.
+ */
+@Getter
+@AllArgsConstructor
+public class UserChangedEvent {
+
+    /**
+     * Идентификатор пользователя.
+     */
+    private final Long userId;
+
+    /**
+     * Имя пользователя после изменения, null при удалении.
+     */
+    private final String userName;
+
+    /**
+     * Электронная почта пользователя после изменения, null при удалении.
+     */
+    private final String email;
+
+    /**
+     * Признак удаления пользователя.
+     */
+    private final boolean deleted;
+
+    /**
+     * Создает событие удаления пользователя.
+     *
+     * @param userId идентификатор удаленного пользователя
+     * @return событие удаления
+     */
+    public static UserChangedEvent deleted(Long userId) {
+        return new UserChangedEvent(userId, null, null, true);
+    }
+}
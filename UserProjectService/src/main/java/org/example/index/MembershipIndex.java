@@ -0,0 +1,377 @@
+package org.example.index;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.example.event.MembershipChangedEvent;
+import org.example.event.UserChangedEvent;
+import org.example.model.Membership;
+import org.example.repository.UserRepository;
+import org.example.repository.UsersProjectRepository;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Индекс участников проектов в памяти на сжатых битовых картах (Roaring).
+ *
+ * Для каждого проекта хранится битовая карта идентификаторов его участников, для каждого пользователя -
+ * битовая карта идентификаторов его проектов, а также карта всех пользователей. Вопросы о составе проекта,
+ * проектах пользователя, пользователях вне проекта и количестве участников решаются операциями над
+ * битовыми картами без обращения к таблице users_project.
+ *
+ * Индекс строится при запуске и обновляется событиями {@link MembershipChangedEvent} и {@link UserChangedEvent}
+ * после фиксации транзакций. Транзакция, которая сама изменила участников или пользователей, до своего
+ * завершения видит в базе данных больше, чем индекс; для нее {@link #isCurrent()} возвращает false,
+ * и сервис отвечает запросами к базе данных. Оценка занимаемой памяти публикуется в метриках actuator
+ * (membership.index.*).
+ */
+@Component
+public class MembershipIndex implements MeterBinder {
+
+    /**
+     * Оценка размера записи карты проектов или пользователей в байтах без учета битовой карты.
+     */
+    private static final long ENTRY_BYTES = 64;
+
+    /**
+     * Количество записей, загружаемых из базы данных за один запрос при перестроении.
+     */
+    private static final int REBUILD_BATCH_SIZE = 10_000;
+
+    private final UsersProjectRepository usersProjectRepository;
+    private final UserRepository userRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, Roaring64Bitmap> membersByProject = new HashMap<>();
+    private Map<Long, Roaring64Bitmap> projectsByUser = new HashMap<>();
+    private Roaring64Bitmap allUsers = new Roaring64Bitmap();
+    private long membershipCount;
+
+    public MembershipIndex(UsersProjectRepository usersProjectRepository, UserRepository userRepository) {
+        this.usersProjectRepository = usersProjectRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Перестраивает индекс по данным базы данных, загружая пользователей и связи порциями.
+     * Вызывается при запуске приложения; на время перестроения чтение блокируется.
+     */
+    @PostConstruct
+    public void rebuild() {
+        Map<Long, Roaring64Bitmap> members = new HashMap<>();
+        Map<Long, Roaring64Bitmap> projects = new HashMap<>();
+        Roaring64Bitmap users = new Roaring64Bitmap();
+        long count = 0;
+
+        Long afterUserId = null;
+        List<Long> userIds;
+        do {
+            userIds = userRepository.findIdPage(afterUserId, Limit.of(REBUILD_BATCH_SIZE));
+            for (Long userId : userIds) {
+                users.addLong(userId);
+                afterUserId = userId;
+            }
+        } while (userIds.size() == REBUILD_BATCH_SIZE);
+
+        Membership after = new Membership();
+        List<Membership> batch;
+        do {
+            batch = usersProjectRepository.findMembershipPage(after.getProjectId(), after.getUserId(),
+                    Limit.of(REBUILD_BATCH_SIZE));
+            for (Membership membership : batch) {
+                members.computeIfAbsent(membership.getProjectId(), id -> new Roaring64Bitmap())
+                        .addLong(membership.getUserId());
+                projects.computeIfAbsent(membership.getUserId(), id -> new Roaring64Bitmap())
+                        .addLong(membership.getProjectId());
+                after = membership;
+                count++;
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        members.values().forEach(Roaring64Bitmap::runOptimize);
+        projects.values().forEach(Roaring64Bitmap::runOptimize);
+        users.runOptimize();
+
+        lock.writeLock().lock();
+        try {
+            membersByProject = members;
+            projectsByUser = projects;
+            allUsers = users;
+            membershipCount = count;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Проверяет, отражает ли индекс все изменения, видимые текущей транзакции.
+     *
+     * @return false, если текущая транзакция изменила участников или пользователей и еще не завершена
+     */
+    public boolean isCurrent() {
+        return !TransactionSynchronizationManager.hasResource(this);
+    }
+
+    /**
+     * Возвращает идентификаторы участников проекта по возрастанию.
+     *
+     * @param projectId идентификатор проекта
+     * @return идентификаторы пользователей проекта
+     */
+    public List<Long> getMemberIds(Long projectId) {
+        lock.readLock().lock();
+        try {
+            return toList(membersByProject.get(projectId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает идентификаторы проектов пользователя по возрастанию.
+     *
+     * @param userId идентификатор пользователя
+     * @return идентификаторы проектов пользователя
+     */
+    public List<Long> getProjectIds(Long userId) {
+        lock.readLock().lock();
+        try {
+            return toList(projectsByUser.get(userId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает идентификаторы пользователей, не входящих в проект, по возрастанию:
+     * разность карты всех пользователей и карты участников проекта.
+     *
+     * @param projectId идентификатор проекта
+     * @return идентификаторы пользователей вне проекта
+     */
+    public List<Long> getNonMemberIds(Long projectId) {
+        lock.readLock().lock();
+        try {
+            Roaring64Bitmap members = membersByProject.get(projectId);
+            if (members == null) {
+                return toList(allUsers);
+            }
+            Roaring64Bitmap result = allUsers.clone();
+            result.andNot(members);
+            return toList(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает идентификаторы из списка, входящие в проект.
+     *
+     * @param projectId идентификатор проекта
+     * @param userIds   идентификаторы пользователей для проверки
+     * @return идентификаторы участников проекта в порядке списка
+     */
+    public List<Long> filterMembers(Long projectId, Collection<Long> userIds) {
+        lock.readLock().lock();
+        try {
+            Roaring64Bitmap members = membersByProject.get(projectId);
+            List<Long> result = new ArrayList<>();
+            if (members != null) {
+                for (Long userId : userIds) {
+                    if (members.contains(userId)) {
+                        result.add(userId);
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает количество участников проекта.
+     *
+     * @param projectId идентификатор проекта
+     * @return количество пользователей проекта
+     */
+    public long countMembers(Long projectId) {
+        lock.readLock().lock();
+        try {
+            Roaring64Bitmap members = membersByProject.get(projectId);
+            return members == null ? 0 : members.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Отмечает текущую транзакцию как изменившую данные индекса: до ее завершения
+     * {@link #isCurrent()} возвращает false.
+     *
+     * @param event событие изменения участников или пользователей
+     */
+    @EventListener({MembershipChangedEvent.class, UserChangedEvent.class})
+    public void onChangePublished(Object event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(MembershipIndex.this);
+            }
+        });
+    }
+
+    /**
+     * Применяет изменение участников проекта к индексу после фиксации транзакции.
+     *
+     * @param event событие изменения участников
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMembershipChanged(MembershipChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            Long projectId = event.getProjectId();
+            if (event.isProjectDeleted()) {
+                Roaring64Bitmap members = membersByProject.remove(projectId);
+                if (members != null) {
+                    members.forEach(userId -> unlink(projectsByUser, userId, projectId));
+                    membershipCount -= members.getLongCardinality();
+                }
+                return;
+            }
+            for (Long userId : event.getAddedUserIds()) {
+                if (link(membersByProject, projectId, userId)) {
+                    link(projectsByUser, userId, projectId);
+                    membershipCount++;
+                }
+            }
+            for (Long userId : event.getRemovedUserIds()) {
+                if (unlink(membersByProject, projectId, userId)) {
+                    unlink(projectsByUser, userId, projectId);
+                    membershipCount--;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Применяет добавление или удаление пользователя к индексу после фиксации транзакции.
+     * Удаление пользователя удаляет и все его связи с проектами.
+     *
+     * @param event событие изменения пользователя
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            Long userId = event.getUserId();
+            if (!event.isDeleted()) {
+                allUsers.addLong(userId);
+                return;
+            }
+            allUsers.removeLong(userId);
+            Roaring64Bitmap projects = projectsByUser.remove(userId);
+            if (projects != null) {
+                projects.forEach(projectId -> unlink(membersByProject, projectId, userId));
+                membershipCount -= projects.getLongCardinality();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает оценку памяти, занимаемой индексом.
+     *
+     * @return оценка размера индекса в байтах
+     */
+    public long estimatedMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = allUsers.getLongSizeInBytes();
+            for (Roaring64Bitmap bitmap : membersByProject.values()) {
+                bytes += ENTRY_BYTES + bitmap.getLongSizeInBytes();
+            }
+            for (Roaring64Bitmap bitmap : projectsByUser.values()) {
+                bytes += ENTRY_BYTES + bitmap.getLongSizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("membership.index.memory", this, MembershipIndex::estimatedMemoryBytes)
+                .description("Estimated memory used by the project membership bitmap index")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("membership.index.memberships", this, index -> index.readLocked(() -> index.membershipCount))
+                .description("Number of user-project memberships in the bitmap index")
+                .register(registry);
+        Gauge.builder("membership.index.projects", this,
+                        index -> index.readLocked(() -> (long) index.membersByProject.size()))
+                .description("Number of projects with members in the bitmap index")
+                .register(registry);
+    }
+
+    private long readLocked(LongSupplier supplier) {
+        lock.readLock().lock();
+        try {
+            return supplier.getAsLong();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean link(Map<Long, Roaring64Bitmap> bitmaps, Long key, long value) {
+        Roaring64Bitmap bitmap = bitmaps.computeIfAbsent(key, id -> new Roaring64Bitmap());
+        if (bitmap.contains(value)) {
+            return false;
+        }
+        bitmap.addLong(value);
+        return true;
+    }
+
+    private static boolean unlink(Map<Long, Roaring64Bitmap> bitmaps, Long key, long value) {
+        Roaring64Bitmap bitmap = bitmaps.get(key);
+        if (bitmap == null || !bitmap.contains(value)) {
+            return false;
+        }
+        bitmap.removeLong(value);
+        if (bitmap.isEmpty()) {
+            bitmaps.remove(key);
+        }
+        return true;
+    }
+
+    private static List<Long> toList(Roaring64Bitmap bitmap) {
+        if (bitmap == null) {
+            return List.of();
+        }
+        List<Long> result = new ArrayList<>((int) bitmap.getLongCardinality());
+        bitmap.forEach(result::add);
+        return result;
+    }
+}
@@ -0,0 +1,324 @@
+package org.example.index;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.example.event.UserChangedEvent;
+import org.example.model.User;
+import org.example.model.UserSuggestion;
+import org.example.repository.UserRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Индекс префиксов (trie) по именам и адресам электронной почты пользователей для автодополнения.
+ *
+ * Индексируются в нижнем регистре имя пользователя целиком, отдельные слова имени и адрес почты.
+ * Поиск выполняется без обращения к базе данных: спуск по префиксу и обход поддерева
+ * в лексикографическом порядке до набора нужного количества пользователей.
+ * Чтение выполняется параллельно под блокировкой чтения, изменения - под блокировкой записи.
+ *
+ * Индекс строится из {@link UserRepository} при запуске и поддерживается в актуальном состоянии
+ * событиями {@link UserChangedEvent} после фиксации транзакций. Оценка занимаемой памяти
+ * публикуется в метриках actuator (users.autocomplete.index.*).
+ */
+@Component
+public class UserPrefixIndex implements MeterBinder {
+
+    /**
+     * Оценка размера узла в байтах: объект узла, его карта потомков и запись в карте родителя.
+     */
+    private static final long NODE_BYTES = 112;
+
+    /**
+     * Оценка размера ссылки на пользователя в узле в байтах: Long и запись в множестве.
+     */
+    private static final long ID_BYTES = 64;
+
+    /**
+     * Оценка размера подсказки в байтах без учета строк: объект и запись в карте пользователей.
+     */
+    private static final long SUGGESTION_BYTES = 96;
+
+    /**
+     * Количество пользователей, загружаемых из базы данных за один запрос при перестроении.
+     */
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final UserRepository userRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, UserSuggestion> users = new HashMap<>();
+    private Node root = new Node();
+    private long nodeCount = 1;
+    private long idCount;
+    private long textBytes;
+
+    public UserPrefixIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Узел дерева префиксов. Потомки упорядочены по символу, что дает лексикографический порядок обхода.
+     */
+    private static final class Node {
+        private final TreeMap<Character, Node> children = new TreeMap<>();
+        private Set<Long> ids;
+    }
+
+    /**
+     * Перестраивает индекс по данным {@link UserRepository}, загружая пользователей порциями.
+     * Вызывается при запуске приложения; на время перестроения поиск блокируется.
+     */
+    @PostConstruct
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            users.clear();
+            root = new Node();
+            nodeCount = 1;
+            idCount = 0;
+            textBytes = 0;
+            Long afterId = null;
+            List<User> batch;
+            do {
+                batch = userRepository.findPageOrderById(afterId, Limit.of(REBUILD_BATCH_SIZE));
+                for (User user : batch) {
+                    insert(new UserSuggestion(user.getId(), user.getUserName(), user.getEmail()));
+                    afterId = user.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает пользователей, у которых имя, слово имени или адрес почты начинается с префикса.
+     *
+     * @param prefix префикс без учета регистра
+     * @param limit  максимальное количество подсказок
+     * @return подсказки в лексикографическом порядке совпавших значений
+     */
+    public List<UserSuggestion> search(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < normalized.length() && node != null; i++) {
+                node = node.children.get(normalized.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            Set<Long> found = new LinkedHashSet<>();
+            collect(node, found, limit);
+            List<UserSuggestion> result = new ArrayList<>(found.size());
+            for (Long id : found) {
+                result.add(users.get(id));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Добавляет пользователя в индекс или обновляет его значения.
+     *
+     * @param userId   идентификатор пользователя
+     * @param userName имя пользователя
+     * @param email    электронная почта пользователя
+     */
+    public void put(Long userId, String userName, String email) {
+        lock.writeLock().lock();
+        try {
+            delete(userId);
+            insert(new UserSuggestion(userId, userName, email));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удаляет пользователя из индекса.
+     *
+     * @param userId идентификатор пользователя
+     */
+    public void remove(Long userId) {
+        lock.writeLock().lock();
+        try {
+            delete(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Применяет изменение пользователя к индексу после фиксации транзакции.
+     * Если изменение выполнено вне транзакции, оно применяется сразу.
+     *
+     * @param event событие изменения пользователя
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.getUserId());
+        } else {
+            put(event.getUserId(), event.getUserName(), event.getEmail());
+        }
+    }
+
+    /**
+     * Возвращает оценку памяти, занимаемой индексом.
+     *
+     * @return оценка размера индекса в байтах
+     */
+    public long estimatedMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            return nodeCount * NODE_BYTES + idCount * ID_BYTES + users.size() * SUGGESTION_BYTES + textBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("users.autocomplete.index.memory", this, UserPrefixIndex::estimatedMemoryBytes)
+                .description("Estimated memory used by the user autocomplete prefix index")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("users.autocomplete.index.nodes", this, index -> index.readLocked(() -> index.nodeCount))
+                .description("Number of nodes in the user autocomplete prefix index")
+                .register(registry);
+        Gauge.builder("users.autocomplete.index.users", this, index -> index.readLocked(() -> (long) index.users.size()))
+                .description("Number of users in the user autocomplete prefix index")
+                .register(registry);
+    }
+
+    private long readLocked(LongSupplier supplier) {
+        lock.readLock().lock();
+        try {
+            return supplier.getAsLong();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(UserSuggestion suggestion) {
+        users.put(suggestion.getId(), suggestion);
+        textBytes += stringBytes(suggestion.getUserName()) + stringBytes(suggestion.getEmail());
+        for (String term : terms(suggestion)) {
+            Node node = root;
+            for (int i = 0; i < term.length(); i++) {
+                Node child = node.children.get(term.charAt(i));
+                if (child == null) {
+                    child = new Node();
+                    node.children.put(term.charAt(i), child);
+                    nodeCount++;
+                }
+                node = child;
+            }
+            if (node.ids == null) {
+                node.ids = new LinkedHashSet<>();
+            }
+            if (node.ids.add(suggestion.getId())) {
+                idCount++;
+            }
+        }
+    }
+
+    private void delete(Long userId) {
+        UserSuggestion existing = users.remove(userId);
+        if (existing == null) {
+            return;
+        }
+        textBytes -= stringBytes(existing.getUserName()) + stringBytes(existing.getEmail());
+        for (String term : terms(existing)) {
+            prune(root, term, 0, userId);
+        }
+    }
+
+    /**
+     * Удаляет идентификатор из узла, соответствующего слову, и удаляет опустевшие узлы на пути к нему.
+     *
+     * @return true, если узел опустел и должен быть удален из родителя
+     */
+    private boolean prune(Node node, String term, int depth, Long userId) {
+        if (depth == term.length()) {
+            if (node.ids != null && node.ids.remove(userId)) {
+                idCount--;
+                if (node.ids.isEmpty()) {
+                    node.ids = null;
+                }
+            }
+        } else {
+            Node child = node.children.get(term.charAt(depth));
+            if (child != null && prune(child, term, depth + 1, userId)) {
+                node.children.remove(term.charAt(depth));
+                nodeCount--;
+            }
+        }
+        return node != root && node.ids == null && node.children.isEmpty();
+    }
+
+    private static void collect(Node node, Set<Long> found, int limit) {
+        if (node.ids != null) {
+            for (Long id : node.ids) {
+                found.add(id);
+                if (found.size() >= limit) {
+                    return;
+                }
+            }
+        }
+        for (Node child : node.children.values()) {
+            collect(child, found, limit);
+            if (found.size() >= limit) {
+                return;
+            }
+        }
+    }
+
+    private static Set<String> terms(UserSuggestion suggestion) {
+        Set<String> terms = new LinkedHashSet<>();
+        String userName = normalize(suggestion.getUserName());
+        if (!userName.isEmpty()) {
+            terms.add(userName);
+            for (String word : userName.split("[^\\p{L}\\p{N}]+")) {
+                if (!word.isEmpty()) {
+                    terms.add(word);
+                }
+            }
+        }
+        String email = normalize(suggestion.getEmail());
+        if (!email.isEmpty()) {
+            terms.add(email);
+        }
+        return terms;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.model;
+
+/**
+ * Вид сущности, изменение которой записано в ленту изменений.
+ */
+public enum ChangeEntityType {
+
+    /**
+     * Пользователь; entityId - идентификатор пользователя.
+     */
+    USER,
+
+    /**
+     * Проект; entityId - идентификатор проекта.
+     */
+    PROJECT,
+
+    /**
+     * Связь пользователя с проектом; entityId - идентификатор проекта, relatedId - идентификатор пользователя.
+     */
+    MEMBERSHIP
+}
@@ -0,0 +1,32 @@
+package org.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Порция ленты изменений после запрошенной позиции.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedPage {
+
+    /**
+     * Изменения по возрастанию позиции.
+     */
+    private List<ChangeView> changes;
+
+    /**
+     * Позиция для следующего запроса (since): позиция последнего изменения порции
+     * или запрошенная позиция, если новых изменений нет.
+     */
+    private long nextSince;
+
+    /**
+     * Признак того, что после порции уже есть опубликованные изменения.
+     */
+    private boolean hasMore;
+}
@@ -0,0 +1,18 @@
+package org.example.model;
+
+/**
+ * Вид изменения в ленте изменений.
+ */
+public enum ChangeType {
+
+    /**
+     * Сущность создана или изменена, связь добавлена. Текущее состояние читается из API сущности.
+     */
+    UPSERT,
+
+    /**
+     * Сущность или связь удалена. Удаление пользователя или проекта удаляет и все его связи,
+     * отдельные изменения связей для них не записываются.
+     */
+    DELETE
+}
@@ -0,0 +1,51 @@
+package org.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Опубликованное изменение в ленте изменений.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeView {
+
+    /**
+     * Позиция изменения в ленте; позиции возрастают в порядке публикации.
+     */
+    private Long offset;
+
+    /**
+     * Ключ сущности или связи: user:{id}, project:{id} или membership:{projectId}:{userId}.
+     */
+    private String key;
+
+    /**
+     * Вид сущности.
+     */
+    private ChangeEntityType entityType;
+
+    /**
+     * Идентификатор пользователя или проекта; для связи - идентификатор проекта.
+     */
+    private Long entityId;
+
+    /**
+     * Для связи - идентификатор пользователя, иначе null.
+     */
+    private Long relatedId;
+
+    /**
+     * Вид изменения.
+     */
+    private ChangeType changeType;
+
+    /**
+     * Время изменения.
+     */
+    private Instant createdAt;
+}
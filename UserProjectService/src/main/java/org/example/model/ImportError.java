@@ -0,0 +1,24 @@
+package org.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Описание строки, отклоненной при импорте.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportError {
+
+    /**
+     * Номер строки данных во входном потоке, начиная с 1 (строка заголовка CSV не учитывается).
+     */
+    private long row;
+
+    /**
+     * Причина отклонения строки.
+     */
+    private String message;
+}
@@ -0,0 +1,61 @@
+package org.example.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Итог массового импорта: количество прочитанных, принятых и отклоненных строк
+ * и описание первых отклоненных строк.
+ */
+@Data
+@NoArgsConstructor
+public class ImportSummary {
+
+    /**
+     * Тип импортируемых данных: users, projects или memberships.
+     */
+    private String type;
+
+    /**
+     * Формат входных данных: csv или ndjson.
+     */
+    private String format;
+
+    /**
+     * Количество прочитанных строк данных.
+     */
+    private long rows;
+
+    /**
+     * Количество строк, записанных в базу данных.
+     */
+    private long accepted;
+
+    /**
+     * Количество отклоненных строк.
+     */
+    private long rejected;
+
+    /**
+     * Количество транзакций, в которых записывались данные.
+     */
+    private long chunks;
+
+    /**
+     * Импорт прерван: входные данные не удалось разобрать, оставшиеся строки не прочитаны и не учтены в rows.
+     */
+    private boolean aborted;
+
+    /**
+     * Описание первых отклоненных строк; их количество ограничено настройкой import.max-reported-errors.
+     */
+    private List<ImportError> errors = new ArrayList<>();
+
+    public ImportSummary(String type, String format) {
+        this.type = type;
+        this.format = format;
+    }
+}
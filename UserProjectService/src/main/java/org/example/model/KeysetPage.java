@@ -0,0 +1,59 @@
+package org.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Страница результатов при курсорной (keyset) пагинации.
+ * Содержит записи страницы и токен курсора для запроса следующей страницы.
+ *
+ * @param <T> тип записей на странице
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPage<T> {
+
+    /**
+     * Записи текущей страницы.
+     */
+    private List<T> items;
+
+    /**
+     * Токен курсора для следующей страницы или null, если страница последняя.
+     */
+    private String nextCursor;
+
+    /**
+     * Запрошенный (с учетом ограничения) размер страницы.
+     */
+    private int size;
+
+    /**
+     * Поле сортировки.
+     */
+    private String sort;
+
+    /**
+     * Формирует страницу из выборки, запрошенной с одной лишней записью.
+     * Наличие лишней записи означает, что за страницей есть продолжение.
+     *
+     * @param rows     выборка размером не более size + 1
+     * @param size     размер страницы
+     * @param sort     поле сортировки
+     * @param cursorOf функция, строящая курсор по последней записи страницы
+     * @param <T>      тип записей
+     * @return страница результатов
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int size, String sort, Function<T, PageCursor> cursorOf) {
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null, size, sort);
+        }
+        List<T> items = rows.subList(0, size);
+        return new KeysetPage<>(items, cursorOf.apply(items.get(size - 1)).encode(), size, sort);
+    }
+}
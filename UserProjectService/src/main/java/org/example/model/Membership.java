@@ -0,0 +1,24 @@
+package org.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Связь пользователя с проектом в виде пары идентификаторов, без загрузки сущностей.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Membership {
+
+    /**
+     * Идентификатор проекта.
+     */
+    private Long projectId;
+
+    /**
+     * Идентификатор пользователя.
+     */
+    private Long userId;
+}
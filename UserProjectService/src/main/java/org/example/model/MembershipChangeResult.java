@@ -0,0 +1,37 @@
+package org.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Итог массового добавления или удаления участников проекта.
+ * Содержит результат для каждого переданного идентификатора пользователя в порядке запроса.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MembershipChangeResult {
+
+    /**
+     * Идентификатор проекта, с которым производилась операция.
+     */
+    private Long projectId;
+
+    /**
+     * Результаты по идентификаторам пользователей.
+     */
+    private Map<Long, MembershipOutcome> outcomes;
+
+    /**
+     * Подсчитывает пользователей с указанным результатом.
+     *
+     * @param outcome результат операции
+     * @return количество пользователей с этим результатом
+     */
+    public long count(MembershipOutcome outcome) {
+        return outcomes.values().stream().filter(outcome::equals).count();
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.model;
+
+/**
+ * Результат операции над членством отдельного пользователя в проекте
+ * при массовом добавлении или удалении участников.
+ */
+public enum MembershipOutcome {
+
+    /**
+     * Пользователь добавлен в проект.
+     */
+    ADDED,
+
+    /**
+     * Пользователь уже входил в проект, повторная связь не создавалась.
+     */
+    ALREADY_MEMBER,
+
+    /**
+     * Пользователь удален из проекта.
+     */
+    REMOVED,
+
+    /**
+     * Пользователь не входил в проект, удалять было нечего.
+     */
+    NOT_MEMBER,
+
+    /**
+     * Пользователь с таким идентификатором не существует.
+     */
+    USER_NOT_FOUND
+}
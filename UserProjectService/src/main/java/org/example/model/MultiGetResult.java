@@ -0,0 +1,59 @@
+package org.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Результат получения нескольких записей по списку идентификаторов.
+ * Отсутствующие идентификаторы перечисляются отдельно и не приводят к ошибке всего запроса.
+ *
+ * @param <T> тип записей
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiGetResult<T> {
+
+    /**
+     * Найденные записи в порядке запрошенных идентификаторов, без повторов.
+     */
+    private List<T> found;
+
+    /**
+     * Запрошенные идентификаторы, для которых записи не найдены, в порядке запроса.
+     */
+    private List<Long> missing;
+
+    /**
+     * Формирует результат из записей, выбранных по идентификаторам в произвольном порядке.
+     *
+     * @param ids  запрошенные идентификаторы без повторов
+     * @param rows найденные записи
+     * @param idOf функция, возвращающая идентификатор записи
+     * @param <T>  тип записей
+     * @return записи в порядке идентификаторов и список отсутствующих идентификаторов
+     */
+    public static <T> MultiGetResult<T> of(Collection<Long> ids, Iterable<T> rows, Function<T, Long> idOf) {
+        Map<Long, T> byId = new HashMap<>();
+        rows.forEach(row -> byId.put(idOf.apply(row), row));
+        List<T> found = new ArrayList<>(byId.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            T row = byId.get(id);
+            if (row != null) {
+                found.add(row);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new MultiGetResult<>(found, missing);
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Запись исходящего изменения (transactional outbox).
+ * Сохраняется в той же транзакции, что и изменение пользователя, проекта или связи;
+ * позицию в ленте изменений ей назначает ретранслятор после фиксации транзакции.
+ */
+@Entity
+@Data
+@Table(name = "change_outbox")
+public class OutboxEntry {
+
+    /**
+     * Идентификатор записи, задает порядок записи изменений.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "change_outbox_seq")
+    @SequenceGenerator(name = "change_outbox_seq", sequenceName = "change_outbox_seq", allocationSize = 50)  // Выделение блоками по 50
+    private Long id;
+
+    /**
+     * Позиция в ленте изменений; null, пока запись не опубликована ретранслятором.
+     */
+    @Column(name = "change_offset")
+    private Long changeOffset;
+
+    /**
+     * Ключ изменяемой сущности или связи: user:{id}, project:{id} или membership:{projectId}:{userId}.
+     */
+    @Column(name = "change_key", nullable = false, length = 64)
+    private String changeKey;
+
+    /**
+     * Вид сущности.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private ChangeEntityType entityType;
+
+    /**
+     * Идентификатор пользователя или проекта; для связи - идентификатор проекта.
+     */
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    /**
+     * Для связи - идентификатор пользователя, иначе null.
+     */
+    @Column(name = "related_id")
+    private Long relatedId;
+
+    /**
+     * Вид изменения.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 20)
+    private ChangeType changeType;
+
+    /**
+     * Время записи изменения.
+     */
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    /**
+     * Время публикации ретранслятором; null, пока запись не опубликована.
+     */
+    @Column(name = "published_at")
+    private Instant publishedAt;
+
+    /**
+     * Создает запись изменения пользователя.
+     */
+    public static OutboxEntry user(Long userId, ChangeType changeType) {
+        return of("user:" + userId, ChangeEntityType.USER, userId, null, changeType);
+    }
+
+    /**
+     * Создает запись изменения проекта.
+     */
+    public static OutboxEntry project(Long projectId, ChangeType changeType) {
+        return of("project:" + projectId, ChangeEntityType.PROJECT, projectId, null, changeType);
+    }
+
+    /**
+     * Создает запись добавления или удаления связи пользователя с проектом.
+     */
+    public static OutboxEntry membership(Long projectId, Long userId, ChangeType changeType) {
+        return of("membership:" + projectId + ":" + userId, ChangeEntityType.MEMBERSHIP, projectId, userId, changeType);
+    }
+
+    private static OutboxEntry of(String changeKey, ChangeEntityType entityType, Long entityId, Long relatedId,
+                                  ChangeType changeType) {
+        OutboxEntry entry = new OutboxEntry();
+        entry.setChangeKey(changeKey);
+        entry.setEntityType(entityType);
+        entry.setEntityId(entityId);
+        entry.setRelatedId(relatedId);
+        entry.setChangeType(changeType);
+        entry.setCreatedAt(Instant.now());
+        return entry;
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Позиция курсора при курсорной (keyset) пагинации.
+ * Хранит поле сортировки, значение этого поля и идентификатор последней записи страницы.
+ * Клиенту передается в виде непрозрачного токена (Base64 URL).
+ */
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Поле, по которому отсортирована выборка.
+     */
+    private final String sort;
+
+    /**
+     * Идентификатор последней записи на странице.
+     */
+    private final Long id;
+
+    /**
+     * Значение поля сортировки у последней записи. Может быть null.
+     */
+    private final String value;
+
+    /**
+     * Кодирует курсор в токен для передачи клиенту.
+     *
+     * @return токен курсора
+     */
+    public String encode() {
+        String raw = sort + SEPARATOR + id + (value != null ? SEPARATOR + value : "");
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Декодирует токен курсора и проверяет, что он был выдан для той же сортировки.
+     *
+     * @param token токен, полученный клиентом вместе с предыдущей страницей
+     * @param sort  поле сортировки текущего запроса
+     * @return курсор
+     * @throws IllegalArgumentException если токен поврежден или выдан для другой сортировки
+     */
+    public static PageCursor decode(String token, String sort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 3);
+            if (parts.length < 2 || !parts[0].equals(sort)) {
+                throw new IllegalArgumentException("Cursor does not match sort: " + sort);
+            }
+            return new PageCursor(parts[0], Long.valueOf(parts[1]), parts.length == 3 ? parts[2] : null);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
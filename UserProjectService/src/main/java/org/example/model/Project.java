@@ -22,7 +22,8 @@ public class Project {
      * Генерируется автоматически при сохранении в базу данных.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)  // Автоинкремент
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "projects_seq")
+    @SequenceGenerator(name = "projects_seq", sequenceName = "projects_seq", allocationSize = 50)  // Выделение блоками по 50
     private Long id;
 
     /**
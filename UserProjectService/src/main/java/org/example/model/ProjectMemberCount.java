@@ -0,0 +1,30 @@
+package org.example.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Счетчик участников проекта. Изменяется в одной транзакции со связями users_project,
+ * строка создается при первом добавлении участника и удаляется вместе с проектом.
+ */
+@Entity
+@Data
+@Table(name = "project_member_counts")
+public class ProjectMemberCount {
+
+    /**
+     * Идентификатор проекта.
+     */
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    /**
+     * Количество участников проекта.
+     */
+    @Column(name = "member_count", nullable = false)
+    private long memberCount;
+}
@@ -0,0 +1,42 @@
+package org.example.model;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Данные проекта для списков, выбираемые проекцией без загрузки сущности {@link Project}.
+ * Сериализуется в JSON с теми же полями, что и сущность; параметр {@code fields} ограничивает набор полей
+ * (см. {@link ViewFields}).
+ */
+@Data
+@JsonFilter(ViewFields.FILTER_ID)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectView {
+
+    /**
+     * Идентификатор проекта.
+     */
+    private Long id;
+
+    /**
+     * Название проекта.
+     */
+    private String name;
+
+    /**
+     * Описание проекта.
+     */
+    private String description;
+
+    /**
+     * Дата создания проекта.
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+    private LocalDate createdDate;
+}
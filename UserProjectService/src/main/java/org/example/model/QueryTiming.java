@@ -0,0 +1,55 @@
+package org.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Статистика времени выполнения нормализованного SQL-запроса.
+ * Перцентили оцениваются по гистограмме с логарифмическими интервалами, погрешность не превышает 25%.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryTiming {
+
+    /**
+     * Текст запроса, в котором литералы заменены на ?, а списки IN свернуты.
+     */
+    private String query;
+
+    /**
+     * Количество выполнений.
+     */
+    private long count;
+
+    /**
+     * Суммарное время выполнения в миллисекундах.
+     */
+    private double totalMillis;
+
+    /**
+     * Среднее время выполнения в миллисекундах.
+     */
+    private double meanMillis;
+
+    /**
+     * Максимальное время выполнения в миллисекундах.
+     */
+    private double maxMillis;
+
+    /**
+     * Медиана времени выполнения в миллисекундах.
+     */
+    private double p50Millis;
+
+    /**
+     * 95-й перцентиль времени выполнения в миллисекундах.
+     */
+    private double p95Millis;
+
+    /**
+     * 99-й перцентиль времени выполнения в миллисекундах.
+     */
+    private double p99Millis;
+}
@@ -0,0 +1,29 @@
+package org.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Проект в рейтинге крупнейших проектов: идентификатор, название и количество участников.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankedProject {
+
+    /**
+     * Идентификатор проекта.
+     */
+    private Long id;
+
+    /**
+     * Название проекта.
+     */
+    private String name;
+
+    /**
+     * Количество участников проекта.
+     */
+    private long memberCount;
+}
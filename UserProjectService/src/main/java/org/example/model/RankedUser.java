@@ -0,0 +1,29 @@
+package org.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Пользователь в рейтинге самых активных пользователей: идентификатор, имя и количество проектов.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankedUser {
+
+    /**
+     * Идентификатор пользователя.
+     */
+    private Long id;
+
+    /**
+     * Имя пользователя.
+     */
+    private String userName;
+
+    /**
+     * Количество проектов пользователя.
+     */
+    private long projectCount;
+}
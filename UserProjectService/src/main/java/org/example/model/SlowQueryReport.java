@@ -0,0 +1,46 @@
+package org.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Отчет эндпоинта /actuator/slowqueries: самые медленные запросы и последние запросы дольше порога.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlowQueryReport {
+
+    /**
+     * Порог медленного запроса в миллисекундах.
+     */
+    private long thresholdMillis;
+
+    /**
+     * Количество выполненных запросов с момента запуска или сброса статистики.
+     */
+    private long statements;
+
+    /**
+     * Количество запросов дольше порога.
+     */
+    private long slowStatements;
+
+    /**
+     * Количество нормализованных запросов со статистикой.
+     */
+    private int trackedQueries;
+
+    /**
+     * Самые медленные нормализованные запросы в порядке убывания выбранного показателя.
+     */
+    private List<QueryTiming> queries;
+
+    /**
+     * Последние медленные запросы, начиная с самого нового.
+     */
+    private List<SlowStatement> recent;
+}
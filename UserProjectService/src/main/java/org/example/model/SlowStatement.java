@@ -0,0 +1,37 @@
+package org.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Запрос, выполнявшийся дольше порога slow-query.threshold. Значения параметров могут содержать персональные
+ * данные, поэтому записываются только в журнал приложения, а в отчет попадает их количество.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlowStatement {
+
+    /**
+     * Время завершения запроса.
+     */
+    private Instant finishedAt;
+
+    /**
+     * Время выполнения в миллисекундах.
+     */
+    private double durationMillis;
+
+    /**
+     * Текст запроса в том виде, в котором он передан драйверу.
+     */
+    private String sql;
+
+    /**
+     * Количество параметров запроса. Для пакета - количество параметров последней строки.
+     */
+    private int parameterCount;
+}
@@ -0,0 +1,29 @@
+package org.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Количество строк, записанных в снимок данных или восстановленных из него.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotSummary {
+
+    /**
+     * Количество пользователей.
+     */
+    private long users;
+
+    /**
+     * Количество проектов.
+     */
+    private long projects;
+
+    /**
+     * Количество связей пользователей с проектами.
+     */
+    private long memberships;
+}
@@ -0,0 +1,30 @@
+package org.example.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Счетчик проектов пользователя. Изменяется в одной транзакции со связями users_project,
+ * строка создается при первом добавлении пользователя в проект и удаляется вместе с пользователем.
+ */
+@Entity
+@Data
+@Table(name = "user_project_counts")
+public class UserProjectCount {
+
+    /**
+     * Идентификатор пользователя.
+     */
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    /**
+     * Количество проектов пользователя.
+     */
+    @Column(name = "project_count", nullable = false)
+    private long projectCount;
+}
@@ -0,0 +1,27 @@
+package org.example.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Подсказка автодополнения: краткие сведения о пользователе, хранящиеся в индексе префиксов.
+ */
+@Data
+@AllArgsConstructor
+public class UserSuggestion {
+
+    /**
+     * Идентификатор пользователя.
+     */
+    private Long id;
+
+    /**
+     * Имя пользователя.
+     */
+    private String userName;
+
+    /**
+     * Электронная почта пользователя.
+     */
+    private String email;
+}
@@ -0,0 +1,38 @@
+package org.example.model;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Данные пользователя для списков, выбираемые проекцией без загрузки сущности {@link User}.
+ * Сериализуется в JSON с теми же полями, что и сущность; параметр {@code fields} ограничивает набор полей
+ * (см. {@link ViewFields}).
+ */
+@Data
+@JsonFilter(ViewFields.FILTER_ID)
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserView {
+
+    /**
+     * Идентификатор пользователя.
+     */
+    private Long id;
+
+    /**
+     * Имя пользователя.
+     */
+    private String userName;
+
+    /**
+     * Электронная почта пользователя.
+     */
+    private String email;
+
+    /**
+     * Роль пользователя.
+     */
+    private String role;
+}
@@ -16,19 +16,21 @@ import lombok.Data;
 public class UsersProject {
 
     /**
-     * Уникальный идентификатор сущности.
-     * Генерируется автоматически при сохранении в базу данных.
+     * Составной идентификатор сущности: пара (проект, пользователь).
+     * Заполняется из связанных проекта и пользователя.
      */
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)  // Автоинкремент
-    private Long id;
+    @EmbeddedId
+    private UsersProjectId id = new UsersProjectId();
 
     /**
      * Связь с проектом.
      * Представляет проект, к которому привязан пользователь.
      * Реализует отношение многие-к-одному с сущностью Project.
+     * Загружается лениво: связь с проектом подгружается только по явному плану выборки
+     * (графу сущности или JOIN FETCH в запросе репозитория).
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("projectId")
     @JoinColumn(name = "project_id", referencedColumnName = "id")
     @JsonBackReference // Разрыв циклической зависимости на стороне Project
     private Project project;
@@ -37,8 +39,10 @@ public class UsersProject {
      * Связь с пользователем.
      * Представляет пользователя, который привязан к проекту.
      * Реализует отношение многие-к-одному с сущностью User.
+     * Загружается лениво, как и связь с проектом.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("userId")
     @JoinColumn(name = "user_id", referencedColumnName = "id")
     @JsonBackReference // Разрыв циклической зависимости на стороне User
     private User user;
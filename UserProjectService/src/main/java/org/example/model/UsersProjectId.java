@@ -0,0 +1,32 @@
+package org.example.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Составной первичный ключ связи пользователя с проектом.
+ * Порядок столбцов совпадает с первичным ключом таблицы users_project: сначала проект, затем пользователь.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsersProjectId implements Serializable {
+
+    /**
+     * Идентификатор проекта.
+     */
+    @Column(name = "project_id")
+    private Long projectId;
+
+    /**
+     * Идентификатор пользователя.
+     */
+    @Column(name = "user_id")
+    private Long userId;
+}
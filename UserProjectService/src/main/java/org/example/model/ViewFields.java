@@ -0,0 +1,146 @@
+package org.example.model;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Набор полей проекции, запрошенный параметром {@code fields}.
+ * Поля выбираются из таблицы только в этом наборе и только они сериализуются в JSON;
+ * идентификатор входит в набор всегда. Пустой параметр означает все поля проекции.
+ */
+public final class ViewFields {
+
+    /**
+     * Идентификатор фильтра Jackson, которым помечены {@link UserView} и {@link ProjectView}.
+     */
+    public static final String FILTER_ID = "viewFields";
+
+    /**
+     * Поля проекции пользователя в порядке столбцов.
+     */
+    public static final List<String> USER_FIELDS = List.of("id", "userName", "email", "role");
+
+    /**
+     * Поля проекции проекта в порядке столбцов.
+     */
+    public static final List<String> PROJECT_FIELDS = List.of("id", "name", "description", "createdDate");
+
+    private static final ViewFields ALL = new ViewFields(null);
+
+    /**
+     * Запрошенные поля в порядке столбцов проекции или null, если запрошены все поля.
+     */
+    private final List<String> names;
+
+    private ViewFields(List<String> names) {
+        this.names = names;
+    }
+
+    /**
+     * Возвращает набор из всех полей проекции.
+     *
+     * @return набор всех полей
+     */
+    public static ViewFields all() {
+        return ALL;
+    }
+
+    /**
+     * Разбирает значение параметра {@code fields}: имена полей через запятую.
+     *
+     * @param fields  значение параметра или null
+     * @param allowed поля проекции в порядке столбцов
+     * @return набор полей; все поля, если параметр пустой или перечисляет все поля проекции
+     * @throws IllegalArgumentException если указано поле, которого нет в проекции
+     */
+    public static ViewFields parse(String fields, List<String> allowed) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> requested = new LinkedHashSet<>();
+        requested.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name + ", allowed fields: "
+                        + String.join(",", allowed));
+            }
+            requested.add(name);
+        }
+        if (requested.size() == allowed.size()) {
+            return ALL;
+        }
+        List<String> names = new ArrayList<>(requested.size());
+        for (String name : allowed) {
+            if (requested.contains(name)) {
+                names.add(name);
+            }
+        }
+        return new ViewFields(List.copyOf(names));
+    }
+
+    /**
+     * Проверяет, запрошены ли все поля проекции.
+     *
+     * @return true, если набор не ограничен
+     */
+    public boolean isAll() {
+        return names == null;
+    }
+
+    /**
+     * Возвращает запрошенные поля.
+     *
+     * @param allowed поля проекции в порядке столбцов
+     * @return запрошенные поля в порядке столбцов проекции
+     */
+    public List<String> getNames(List<String> allowed) {
+        return names != null ? names : allowed;
+    }
+
+    /**
+     * Добавляет набор полей к ETag ответа: ответы с разными наборами полей - разные представления ресурса.
+     *
+     * @param etag ETag полного представления в кавычках
+     * @return ETag представления с запрошенными полями
+     */
+    public String etag(String etag) {
+        if (names == null) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-" + String.join(".", names) + "\"";
+    }
+
+    /**
+     * Оборачивает тело ответа, чтобы Jackson сериализовал только запрошенные поля проекций.
+     *
+     * @param body тело ответа со списком проекций
+     * @return тело ответа с фильтром полей
+     */
+    public MappingJacksonValue filter(Object body) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(names == null ? defaultFilters() : new SimpleFilterProvider()
+                .addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(Set.copyOf(names))));
+        return value;
+    }
+
+    /**
+     * Возвращает фильтры по умолчанию для ObjectMapper: без параметра {@code fields} проекции
+     * сериализуются целиком.
+     *
+     * @return провайдер фильтров, пропускающий все поля
+     */
+    public static FilterProvider defaultFilters() {
+        return new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.reactive;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+
+/**
+ * Сервер Netty реактивного API, работающий рядом с сервлетным сервером Tomcat в том же контексте.
+ *
+ * Запросы обрабатываются потоками цикла событий Netty: ожидание клиента или базы данных не занимает
+ * поток, как в Tomcat, где поток удерживается на все время запроса.
+ */
+public class ReactiveApiServer implements SmartLifecycle {
+
+    private final WebServer webServer;
+    private volatile boolean running;
+
+    /**
+     * @param port        порт сервера; 0 - случайный свободный порт
+     * @param httpHandler обработчик запросов
+     */
+    public ReactiveApiServer(int port, HttpHandler httpHandler) {
+        this.webServer = new NettyReactiveWebServerFactory(port).getWebServer(httpHandler);
+    }
+
+    @Override
+    public void start() {
+        webServer.start();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        webServer.stop();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Возвращает порт, на котором сервер принимает соединения, или -1, если сервер не запущен.
+     */
+    public int getPort() {
+        return webServer.getPort();
+    }
+}
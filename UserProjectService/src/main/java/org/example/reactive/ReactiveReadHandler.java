@@ -0,0 +1,140 @@
+package org.example.reactive;
+
+import org.example.config.PaginationProperties;
+import org.example.model.ProjectView;
+import org.example.model.UserView;
+import org.example.service.ProjectService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Обработчики реактивного API чтения. Пути, параметры и поля ответов совпадают с эндпоинтами
+ * сервлетного API, поэтому клиенту достаточно сменить порт.
+ *
+ * Списки передаются потоком: JSON-массивом по умолчанию или построчно в формате application/x-ndjson,
+ * если клиент указал его в заголовке Accept. Строки читаются из базы данных по мере того, как сервер
+ * успевает отправлять их клиенту.
+ */
+public class ReactiveReadHandler {
+
+    private final ReactiveReadRepository repository;
+    private final PaginationProperties paginationProperties;
+
+    public ReactiveReadHandler(ReactiveReadRepository repository, PaginationProperties paginationProperties) {
+        this.repository = repository;
+        this.paginationProperties = paginationProperties;
+    }
+
+    /**
+     * GET /api/users/get_all - все пользователи.
+     */
+    public Mono<ServerResponse> getAllUsers(ServerRequest request) {
+        return stream(request, repository.findAllUsers(), UserView.class);
+    }
+
+    /**
+     * GET /api/users/find/{id} - пользователь по идентификатору или статус 404.
+     */
+    public Mono<ServerResponse> findUser(ServerRequest request) {
+        return single(repository.findUser(pathId(request)));
+    }
+
+    /**
+     * GET /api/users/search?query= - пользователи, у которых имя или адрес электронной почты содержат строку.
+     */
+    public Mono<ServerResponse> searchUsers(ServerRequest request) {
+        return stream(request, repository.searchUsers(requiredParam(request, "query")), UserView.class);
+    }
+
+    /**
+     * GET /api/projects/get_all - все проекты.
+     */
+    public Mono<ServerResponse> getAllProjects(ServerRequest request) {
+        return stream(request, repository.findAllProjects(), ProjectView.class);
+    }
+
+    /**
+     * GET /api/projects/find/{id} - проект по идентификатору или статус 404.
+     */
+    public Mono<ServerResponse> findProject(ServerRequest request) {
+        return single(repository.findProject(pathId(request)));
+    }
+
+    /**
+     * GET /api/projects/search?query=&amp;mode=&amp;limit=&amp;offset= - поиск проектов в режиме fulltext
+     * (по индексу, с ранжированием) или like (по подстроке), статус 400 при неизвестном режиме.
+     */
+    public Mono<ServerResponse> searchProjects(ServerRequest request) {
+        String query = requiredParam(request, "query");
+        int maxResults = paginationProperties.resolvePageSize(request.queryParam("limit")
+                .map(value -> (int) Math.max(Math.min(parseLong(value, "limit"), Integer.MAX_VALUE), 0)).orElse(null));
+        int firstResult = request.queryParam("offset")
+                .map(value -> (int) Math.min(Math.max(parseLong(value, "offset"), 0), Integer.MAX_VALUE)).orElse(0);
+        Flux<ProjectView> projects = switch (request.queryParam("mode").orElse("fulltext")) {
+            case "fulltext" -> {
+                String fullTextQuery = ProjectService.toFullTextQuery(query);
+                yield fullTextQuery.isEmpty() ? Flux.empty()
+                        : repository.fullTextSearchProjects(fullTextQuery, maxResults, firstResult);
+            }
+            case "like" -> repository.searchProjects(query, maxResults, firstResult);
+            default -> Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Unsupported search mode: " + request.queryParam("mode").get()));
+        };
+        return stream(request, projects, ProjectView.class);
+    }
+
+    /**
+     * GET /api/users_in_project?projectId= - участники проекта или статус 404, если проект не найден.
+     */
+    public Mono<ServerResponse> getUsersByProjectId(ServerRequest request) {
+        long projectId = parseLong(request.queryParam("projectId").orElse("-1"), "projectId");
+        return repository.projectExists(projectId).flatMap(exists -> exists
+                ? stream(request, repository.findUsersByProjectId(projectId), UserView.class)
+                : ServerResponse.notFound().build());
+    }
+
+    /**
+     * GET /api/user_projects?userId= - проекты пользователя или статус 404, если пользователь не найден.
+     */
+    public Mono<ServerResponse> getProjectsByUserId(ServerRequest request) {
+        long userId = parseLong(request.queryParam("userId").orElse("-1"), "userId");
+        return repository.userExists(userId).flatMap(exists -> exists
+                ? stream(request, repository.findProjectsByUserId(userId), ProjectView.class)
+                : ServerResponse.notFound().build());
+    }
+
+    private static <T> Mono<ServerResponse> stream(ServerRequest request, Flux<T> body, Class<T> type) {
+        boolean ndjson = request.headers().accept().stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        return ServerResponse.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body, type);
+    }
+
+    private static Mono<ServerResponse> single(Mono<?> body) {
+        return body.flatMap(value -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(value))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    private static long pathId(ServerRequest request) {
+        return parseLong(request.pathVariable("id"), "id");
+    }
+
+    private static String requiredParam(ServerRequest request, String name) {
+        return request.queryParam(name).orElseThrow(() ->
+                new ResponseStatusException(HttpStatus.BAD_REQUEST, "Required parameter '" + name + "' is not present"));
+    }
+
+    private static long parseLong(String value, String name) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid " + name + ": " + value);
+        }
+    }
+}
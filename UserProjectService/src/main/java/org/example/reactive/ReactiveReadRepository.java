@@ -0,0 +1,188 @@
+package org.example.reactive;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Readable;
+import org.example.model.ProjectView;
+import org.example.model.UserView;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Запросы чтения реактивного API через R2DBC.
+ *
+ * Строки передаются подписчику по мере чтения из результата запроса и в объеме запрошенного им количества,
+ * поэтому список не накапливается в памяти целиком. Запросы повторяют запросы репозиториев JPA
+ * для тех же эндпоинтов сервлетного API.
+ *
+ * Пул соединений принадлежит репозиторию и закрывается вместе с ним. Он не регистрируется в контексте
+ * как бин ConnectionFactory: при наличии такого бина Spring Boot не создает источник данных JDBC для JPA.
+ */
+public class ReactiveReadRepository implements DisposableBean {
+
+    private static final String USER_COLUMNS = "u.id, u.user_name, u.email, u.role";
+    private static final String PROJECT_COLUMNS = "p.id, p.name, p.description, p.created_date";
+
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+
+    /**
+     * @param connectionPool пул соединений R2DBC, закрывается при уничтожении репозитория
+     */
+    public ReactiveReadRepository(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+        this.databaseClient = DatabaseClient.create(connectionPool);
+    }
+
+    /**
+     * Возвращает всех пользователей в порядке возрастания идентификатора.
+     */
+    public Flux<UserView> findAllUsers() {
+        return databaseClient.sql("SELECT " + USER_COLUMNS + " FROM users u ORDER BY u.id")
+                .map(ReactiveReadRepository::toUserView)
+                .all();
+    }
+
+    /**
+     * Находит пользователя по идентификатору.
+     *
+     * @return пользователь или пустой результат, если пользователь не найден
+     */
+    public Mono<UserView> findUser(long id) {
+        return databaseClient.sql("SELECT " + USER_COLUMNS + " FROM users u WHERE u.id = :id")
+                .bind("id", id)
+                .map(ReactiveReadRepository::toUserView)
+                .one();
+    }
+
+    /**
+     * Ищет пользователей, у которых имя или адрес электронной почты содержат строку без учета регистра.
+     */
+    public Flux<UserView> searchUsers(String query) {
+        return databaseClient.sql("SELECT " + USER_COLUMNS + " FROM users u " +
+                        "WHERE LOWER(u.user_name) LIKE LOWER(CONCAT('%', :query, '%')) " +
+                        "OR LOWER(u.email) LIKE LOWER(CONCAT('%', :query, '%')) ORDER BY u.id")
+                .bind("query", query)
+                .map(ReactiveReadRepository::toUserView)
+                .all();
+    }
+
+    /**
+     * Возвращает все проекты в порядке возрастания идентификатора.
+     */
+    public Flux<ProjectView> findAllProjects() {
+        return databaseClient.sql("SELECT " + PROJECT_COLUMNS + " FROM projects p ORDER BY p.id")
+                .map(ReactiveReadRepository::toProjectView)
+                .all();
+    }
+
+    /**
+     * Находит проект по идентификатору.
+     *
+     * @return проект или пустой результат, если проект не найден
+     */
+    public Mono<ProjectView> findProject(long id) {
+        return databaseClient.sql("SELECT " + PROJECT_COLUMNS + " FROM projects p WHERE p.id = :id")
+                .bind("id", id)
+                .map(ReactiveReadRepository::toProjectView)
+                .one();
+    }
+
+    /**
+     * Ищет проекты по полнотекстовому индексу Lucene, результаты упорядочены по релевантности.
+     *
+     * @param query       запрос Lucene
+     * @param maxResults  максимальное количество результатов
+     * @param firstResult количество пропускаемых результатов
+     */
+    public Flux<ProjectView> fullTextSearchProjects(String query, int maxResults, int firstResult) {
+        return databaseClient.sql("SELECT " + PROJECT_COLUMNS + " FROM FTL_SEARCH_DATA(:query, :maxResults, :firstResult) ft " +
+                        "JOIN projects p ON p.id = CAST(ft.KEYS[1] AS BIGINT) ORDER BY ft.SCORE DESC")
+                .bind("query", query)
+                .bind("maxResults", maxResults)
+                .bind("firstResult", firstResult)
+                .map(ReactiveReadRepository::toProjectView)
+                .all();
+    }
+
+    /**
+     * Ищет проекты, у которых название или описание содержат строку без учета регистра.
+     *
+     * @param query       строка поиска
+     * @param maxResults  максимальное количество результатов
+     * @param firstResult количество пропускаемых результатов
+     */
+    public Flux<ProjectView> searchProjects(String query, int maxResults, int firstResult) {
+        return databaseClient.sql("SELECT " + PROJECT_COLUMNS + " FROM projects p " +
+                        "WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :query, '%')) " +
+                        "OR LOWER(p.description) LIKE LOWER(CONCAT('%', :query, '%')) " +
+                        "ORDER BY p.id LIMIT :maxResults OFFSET :firstResult")
+                .bind("query", query)
+                .bind("maxResults", maxResults)
+                .bind("firstResult", firstResult)
+                .map(ReactiveReadRepository::toProjectView)
+                .all();
+    }
+
+    /**
+     * Возвращает участников проекта в порядке возрастания идентификатора.
+     */
+    public Flux<UserView> findUsersByProjectId(long projectId) {
+        return databaseClient.sql("SELECT " + USER_COLUMNS + " FROM users_project up " +
+                        "JOIN users u ON u.id = up.user_id WHERE up.project_id = :projectId ORDER BY u.id")
+                .bind("projectId", projectId)
+                .map(ReactiveReadRepository::toUserView)
+                .all();
+    }
+
+    /**
+     * Возвращает проекты пользователя в порядке возрастания идентификатора.
+     */
+    public Flux<ProjectView> findProjectsByUserId(long userId) {
+        return databaseClient.sql("SELECT " + PROJECT_COLUMNS + " FROM users_project up " +
+                        "JOIN projects p ON p.id = up.project_id WHERE up.user_id = :userId ORDER BY p.id")
+                .bind("userId", userId)
+                .map(ReactiveReadRepository::toProjectView)
+                .all();
+    }
+
+    /**
+     * Проверяет, существует ли пользователь.
+     */
+    public Mono<Boolean> userExists(long id) {
+        return exists("SELECT 1 FROM users WHERE id = :id", id);
+    }
+
+    /**
+     * Проверяет, существует ли проект.
+     */
+    public Mono<Boolean> projectExists(long id) {
+        return exists("SELECT 1 FROM projects WHERE id = :id", id);
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+
+    private Mono<Boolean> exists(String sql, long id) {
+        return databaseClient.sql(sql)
+                .bind("id", id)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    private static UserView toUserView(Readable row) {
+        return new UserView(row.get("id", Long.class), row.get("user_name", String.class),
+                row.get("email", String.class), row.get("role", String.class));
+    }
+
+    private static ProjectView toProjectView(Readable row) {
+        return new ProjectView(row.get("id", Long.class), row.get("name", String.class),
+                row.get("description", String.class), row.get("created_date", LocalDate.class));
+    }
+}
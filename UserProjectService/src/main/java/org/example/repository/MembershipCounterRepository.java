@@ -0,0 +1,121 @@
+package org.example.repository;
+
+import org.example.model.ProjectMemberCount;
+import org.example.model.RankedProject;
+import org.example.model.RankedUser;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Репозиторий счетчиков участников проектов (project_member_counts) и проектов пользователей
+ * (user_project_counts).
+ *
+ * Счетчики изменяются только вместе со связями users_project в той же транзакции: сервисы вызывают
+ * методы изменения с количеством фактически добавленных или удаленных связей. Чтение счетчика - поиск
+ * по первичному ключу, рейтинги читаются из индексов по убыванию счетчика.
+ */
+public interface MembershipCounterRepository extends Repository<ProjectMemberCount, Long> {
+
+    /**
+     * Возвращает количество участников проекта.
+     *
+     * @param projectId ID проекта
+     * @return количество участников или пустое значение, если у проекта еще не было участников
+     */
+    @Query("SELECT c.memberCount FROM ProjectMemberCount c WHERE c.projectId = :projectId")
+    Optional<Long> findMemberCount(@Param("projectId") Long projectId);
+
+    /**
+     * Возвращает количество проектов пользователя.
+     *
+     * @param userId ID пользователя
+     * @return количество проектов или пустое значение, если пользователь еще не состоял в проектах
+     */
+    @Query("SELECT c.projectCount FROM UserProjectCount c WHERE c.userId = :userId")
+    Optional<Long> findProjectCount(@Param("userId") Long userId);
+
+    /**
+     * Возвращает проекты с наибольшим количеством участников; при равенстве - по возрастанию ID.
+     *
+     * @param limit количество проектов в рейтинге
+     * @return проекты по убыванию количества участников
+     */
+    @Query("SELECT new org.example.model.RankedProject(p.id, p.name, c.memberCount) " +
+            "FROM ProjectMemberCount c JOIN Project p ON p.id = c.projectId " +
+            "WHERE c.memberCount > 0 ORDER BY c.memberCount DESC, c.projectId")
+    List<RankedProject> findLargestProjects(Limit limit);
+
+    /**
+     * Возвращает пользователей, состоящих в наибольшем количестве проектов; при равенстве - по возрастанию ID.
+     *
+     * @param limit количество пользователей в рейтинге
+     * @return пользователи по убыванию количества проектов
+     */
+    @Query("SELECT new org.example.model.RankedUser(u.id, u.userName, c.projectCount) " +
+            "FROM UserProjectCount c JOIN User u ON u.id = c.userId " +
+            "WHERE c.projectCount > 0 ORDER BY c.projectCount DESC, c.userId")
+    List<RankedUser> findMostActiveUsers(Limit limit);
+
+    /**
+     * Изменяет количество участников проекта на delta, создавая строку счетчика, если ее нет.
+     *
+     * @param projectId ID проекта
+     * @param delta     количество добавленных (положительное) или удаленных (отрицательное) участников
+     * @return количество измененных строк
+     */
+    @Modifying
+    @Query(value = "MERGE INTO project_member_counts c " +
+            "USING (SELECT CAST(:projectId AS BIGINT) AS project_id) s ON c.project_id = s.project_id " +
+            "WHEN MATCHED THEN UPDATE SET member_count = c.member_count + :delta " +
+            "WHEN NOT MATCHED THEN INSERT (project_id, member_count) VALUES (s.project_id, :delta)",
+            nativeQuery = true)
+    int addToMemberCount(@Param("projectId") Long projectId, @Param("delta") long delta);
+
+    /**
+     * Изменяет количество проектов каждого из пользователей на delta, создавая отсутствующие строки счетчиков.
+     *
+     * @param userIds ID пользователей, добавленных в проект или удаленных из него
+     * @param delta   +1 при добавлении в проект, -1 при удалении
+     * @return количество измененных строк
+     */
+    @Modifying
+    @Query(value = "MERGE INTO user_project_counts c " +
+            "USING (SELECT id FROM users WHERE id IN (:userIds)) u ON c.user_id = u.id " +
+            "WHEN MATCHED THEN UPDATE SET project_count = c.project_count + :delta " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, project_count) VALUES (u.id, :delta)",
+            nativeQuery = true)
+    int addToProjectCounts(@Param("userIds") Collection<Long> userIds, @Param("delta") long delta);
+
+    /**
+     * Уменьшает на единицу количество проектов всех участников проекта.
+     * Вызывается перед удалением связей проекта.
+     *
+     * @param projectId ID удаляемого проекта
+     * @return количество измененных строк
+     */
+    @Modifying
+    @Query(value = "UPDATE user_project_counts SET project_count = project_count - 1 " +
+            "WHERE user_id IN (SELECT user_id FROM users_project WHERE project_id = :projectId)",
+            nativeQuery = true)
+    int decrementProjectCountsOfMembers(@Param("projectId") Long projectId);
+
+    /**
+     * Уменьшает на единицу количество участников всех проектов пользователя.
+     * Вызывается перед удалением связей пользователя.
+     *
+     * @param userId ID удаляемого пользователя
+     * @return количество измененных строк
+     */
+    @Modifying
+    @Query(value = "UPDATE project_member_counts SET member_count = member_count - 1 " +
+            "WHERE project_id IN (SELECT project_id FROM users_project WHERE user_id = :userId)",
+            nativeQuery = true)
+    int decrementMemberCountsOfProjects(@Param("userId") Long userId);
+}
@@ -0,0 +1,38 @@
+package org.example.repository;
+
+import org.example.model.ChangeView;
+import org.example.model.OutboxEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Репозиторий исходящих изменений (change_outbox).
+ * Записи сохраняются сервисами через {@link org.example.changefeed.OutboxWriter}, позиции им назначает
+ * {@link org.example.changefeed.ChangeRelay}; репозиторий читает опубликованную часть ленты.
+ */
+public interface OutboxRepository extends JpaRepository<OutboxEntry, Long> {
+
+    /**
+     * Возвращает опубликованные изменения после позиции по индексу позиций.
+     *
+     * @param since позиция, после которой читаются изменения
+     * @param limit максимальное количество изменений
+     * @return изменения по возрастанию позиции
+     */
+    @Query("SELECT new org.example.model.ChangeView(c.changeOffset, c.changeKey, c.entityType, c.entityId, " +
+            "c.relatedId, c.changeType, c.createdAt) FROM OutboxEntry c " +
+            "WHERE c.changeOffset > :since ORDER BY c.changeOffset")
+    List<ChangeView> findChangesAfter(@Param("since") long since, Limit limit);
+
+    /**
+     * Возвращает последнюю позицию, удаленную по сроку хранения: изменения до нее включительно недоступны.
+     *
+     * @return позиция или 0, если изменения по сроку хранения еще не удалялись
+     */
+    @Query(value = "SELECT truncated_through FROM change_feed_position WHERE id = 1", nativeQuery = true)
+    long findTruncatedThrough();
+}
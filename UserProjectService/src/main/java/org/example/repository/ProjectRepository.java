@@ -1,11 +1,19 @@
 package org.example.repository;
 
 import org.example.model.Project;
+import org.example.model.ProjectView;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Репозиторий для работы с сущностью Project.
@@ -14,11 +22,120 @@ import java.util.List;
  */
 public interface ProjectRepository extends JpaRepository<Project, Long> {
 
+    /**
+     * Возвращает все проекты в виде проекций, отсортированных по идентификатору.
+     * Выбираются только столбцы списка, сущности не загружаются в контекст персистентности.
+     *
+     * @return все проекты
+     */
+    @Query("SELECT new org.example.model.ProjectView(p.id, p.name, p.description, p.createdDate) " +
+            "FROM Project p ORDER BY p.id")
+    List<ProjectView> findAllViews();
+
+    /**
+     * Возвращает проекты с указанными идентификаторами в виде проекций.
+     *
+     * @param ids идентификаторы проектов
+     * @return найденные проекты в порядке возрастания идентификаторов
+     */
+    @Query("SELECT new org.example.model.ProjectView(p.id, p.name, p.description, p.createdDate) " +
+            "FROM Project p WHERE p.id IN :ids ORDER BY p.id")
+    List<ProjectView> findViewsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Возвращает проект в виде проекции, не связанной с контекстом персистентности.
+     *
+     * @param id идентификатор проекта
+     * @return проект или пустой результат, если проект не найден
+     */
+    @Query("SELECT new org.example.model.ProjectView(p.id, p.name, p.description, p.createdDate) " +
+            "FROM Project p WHERE p.id = :id")
+    Optional<ProjectView> findViewById(@Param("id") Long id);
+
     @Query("SELECT p FROM Project p " +
             "WHERE LOWER (p.name) LIKE LOWER(CONCAT('%', :name, '%')) " +
             "OR LOWER(p.description) LIKE LOWER(CONCAT('%', :description, '%'))")
     List<Project> searchProjectByNameOrDescription(@Param("name") String name , @Param("description") String description);
 
+    /**
+     * Ищет проекты по вхождению подстроки в название или описание без учета регистра.
+     * Требует полного просмотра таблицы, поэтому используется только в режиме поиска по подстроке.
+     *
+     * @param query       искомая подстрока
+     * @param maxResults  максимальное количество результатов
+     * @param firstResult количество пропускаемых результатов
+     * @return проекты, упорядоченные по идентификатору
+     */
+    @Query("SELECT p FROM Project p " +
+            "WHERE LOWER (p.name) LIKE LOWER(CONCAT('%', :query, '%')) " +
+            "OR LOWER(p.description) LIKE LOWER(CONCAT('%', :query, '%')) " +
+            "ORDER BY p.id LIMIT :maxResults OFFSET :firstResult")
+    List<Project> searchProjectByNameOrDescription(@Param("query") String query,
+                                                   @Param("maxResults") int maxResults,
+                                                   @Param("firstResult") int firstResult);
+
+    /**
+     * Ищет проекты по полнотекстовому индексу Lucene (см. FTL_CREATE_INDEX в schema.sql).
+     * Ограничение и смещение применяются внутри индекса, результаты упорядочены по релевантности.
+     *
+     * @param query       запрос в синтаксисе Lucene
+     * @param maxResults  максимальное количество результатов
+     * @param firstResult количество пропускаемых результатов
+     * @return проекты в порядке убывания релевантности
+     */
+    @Query(value = "SELECT p.* FROM FTL_SEARCH_DATA(:query, :maxResults, :firstResult) ft " +
+            "JOIN projects p ON p.id = CAST(ft.KEYS[1] AS BIGINT) " +
+            "ORDER BY ft.SCORE DESC", nativeQuery = true)
+    List<Project> fullTextSearch(@Param("query") String query,
+                                 @Param("maxResults") int maxResults,
+                                 @Param("firstResult") int firstResult);
+
+    /**
+     * Возвращает проекты, отсортированные по идентификатору, начиная после указанного.
+     *
+     * @param afterId идентификатор последнего проекта предыдущей страницы или null для первой страницы
+     * @param limit   максимальное количество записей
+     * @return страница проектов
+     */
+    @Query("SELECT p FROM Project p WHERE :afterId IS NULL OR p.id > :afterId ORDER BY p.id")
+    List<Project> findPageOrderById(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Возвращает проекты, отсортированные по названию (проекты без названия идут первыми),
+     * начиная после указанной пары (название, идентификатор).
+     *
+     * @param afterName название последнего проекта предыдущей страницы, null если у него нет названия
+     * @param afterId   идентификатор последнего проекта предыдущей страницы или null для первой страницы
+     * @param limit     максимальное количество записей
+     * @return страница проектов
+     */
+    @Query("SELECT p FROM Project p " +
+            "WHERE :afterId IS NULL " +
+            "OR (:afterName IS NULL AND (p.name IS NOT NULL OR p.id > :afterId)) " +
+            "OR p.name > :afterName " +
+            "OR (p.name = :afterName AND p.id > :afterId) " +
+            "ORDER BY p.name NULLS FIRST, p.id")
+    List<Project> findPageOrderByName(@Param("afterName") String afterName,
+                                      @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Возвращает проекты, отсортированные по дате создания (проекты без даты идут первыми),
+     * начиная после указанной пары (дата создания, идентификатор).
+     *
+     * @param afterDate дата создания последнего проекта предыдущей страницы, null если она не задана
+     * @param afterId   идентификатор последнего проекта предыдущей страницы или null для первой страницы
+     * @param limit     максимальное количество записей
+     * @return страница проектов
+     */
+    @Query("SELECT p FROM Project p " +
+            "WHERE :afterId IS NULL " +
+            "OR (:afterDate IS NULL AND (p.createdDate IS NOT NULL OR p.id > :afterId)) " +
+            "OR p.createdDate > :afterDate " +
+            "OR (p.createdDate = :afterDate AND p.id > :afterId) " +
+            "ORDER BY p.createdDate NULLS FIRST, p.id")
+    List<Project> findPageOrderByCreatedDate(@Param("afterDate") LocalDate afterDate,
+                                             @Param("afterId") Long afterId, Limit limit);
+
     /**
      * Обновляет данные проекта по его идентификатору.
      *
@@ -31,4 +148,28 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
             "p.createdDate = :#{#project.createdDate} " +
             "WHERE p.id = :id")
     void updateProjectById(@Param("id") Long id, Project project);
+
+    /**
+     * Удаляет проект по его идентификатору одним запросом, без загрузки проекта и его связей.
+     * Связи проекта с пользователями должны быть удалены заранее.
+     * Контекст персистентности очищается, чтобы в нем не осталось удаленного проекта.
+     *
+     * @param id идентификатор проекта
+     * @return количество удаленных проектов
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Project p WHERE p.id = :id")
+    int deleteProjectById(@Param("id") Long id);
+
+    /**
+     * Блокирует строку проекта до конца транзакции (SELECT ... FOR UPDATE).
+     * Изменения участников одного проекта выполняются по очереди, поэтому счетчики участников
+     * изменяются на количество связей, которые транзакция действительно добавила или удалила.
+     *
+     * @param id идентификатор проекта
+     * @return идентификатор проекта, если проект существует
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.id FROM Project p WHERE p.id = :id")
+    Optional<Long> lockById(@Param("id") Long id);
 }
@@ -0,0 +1,233 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.example.model.ProjectView;
+import org.example.model.UserView;
+import org.example.model.ViewFields;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Репозиторий проекций с ограниченным набором полей.
+ * Список выбираемых столбцов строится по {@link ViewFields}, поэтому невыбранные поля не читаются из таблицы
+ * и остаются null в проекции. Условия и порядок строк совпадают с запросами проекций
+ * в {@link UserRepository}, {@link ProjectRepository} и {@link UsersProjectRepository}.
+ */
+@Repository
+public class SparseViewRepository {
+
+    /**
+     * Столбцы таблицы projects для полей проекции проекта, используются в SQL-запросах.
+     */
+    private static final Map<String, String> PROJECT_COLUMNS = Map.of(
+            "id", "id", "name", "name", "description", "description", "createdDate", "created_date");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Возвращает всех пользователей, отсортированных по идентификатору.
+     *
+     * @param fields выбираемые поля
+     * @return пользователи с заполненными запрошенными полями
+     */
+    public List<UserView> findAllUsers(ViewFields fields) {
+        return users(fields, "FROM User u ORDER BY u.id", Map.of());
+    }
+
+    /**
+     * Возвращает пользователей с указанными идентификаторами.
+     *
+     * @param ids    идентификаторы пользователей
+     * @param fields выбираемые поля
+     * @return найденные пользователи в порядке возрастания идентификаторов
+     */
+    public List<UserView> findUsersByIds(Collection<Long> ids, ViewFields fields) {
+        return users(fields, "FROM User u WHERE u.id IN :ids ORDER BY u.id", Map.of("ids", ids));
+    }
+
+    /**
+     * Ищет пользователей по вхождению подстроки в имя или адрес электронной почты без учета регистра.
+     *
+     * @param query  искомая подстрока
+     * @param fields выбираемые поля
+     * @return найденные пользователи
+     */
+    public List<UserView> searchUsers(String query, ViewFields fields) {
+        return users(fields, "FROM User u WHERE LOWER(u.userName) LIKE LOWER(CONCAT('%', :query, '%')) " +
+                "OR LOWER(u.email) LIKE LOWER(CONCAT('%', :query, '%'))", Map.of("query", query));
+    }
+
+    /**
+     * Возвращает пользователей проекта.
+     *
+     * @param projectId ID проекта
+     * @param fields    выбираемые поля
+     * @return пользователи проекта в порядке возрастания идентификаторов
+     */
+    public List<UserView> findUsersByProjectId(Long projectId, ViewFields fields) {
+        return users(fields, "FROM UsersProject up JOIN up.user u WHERE up.project.id = :projectId ORDER BY u.id",
+                Map.of("projectId", projectId));
+    }
+
+    /**
+     * Возвращает пользователей, не входящих в проект, анти-соединением по таблице users_project.
+     *
+     * @param projectId ID проекта
+     * @param fields    выбираемые поля
+     * @return пользователи, не связанные с проектом, в порядке возрастания идентификаторов
+     */
+    public List<UserView> findUsersNotInProject(Long projectId, ViewFields fields) {
+        return users(fields, "FROM User u WHERE NOT EXISTS (" +
+                "SELECT 1 FROM UsersProject up WHERE up.user.id = u.id AND up.project.id = :projectId) " +
+                "ORDER BY u.id", Map.of("projectId", projectId));
+    }
+
+    /**
+     * Возвращает все проекты, отсортированные по идентификатору.
+     *
+     * @param fields выбираемые поля
+     * @return проекты с заполненными запрошенными полями
+     */
+    public List<ProjectView> findAllProjects(ViewFields fields) {
+        return projects(fields, "FROM Project p ORDER BY p.id", Map.of());
+    }
+
+    /**
+     * Возвращает проекты с указанными идентификаторами.
+     *
+     * @param ids    идентификаторы проектов
+     * @param fields выбираемые поля
+     * @return найденные проекты в порядке возрастания идентификаторов
+     */
+    public List<ProjectView> findProjectsByIds(Collection<Long> ids, ViewFields fields) {
+        return projects(fields, "FROM Project p WHERE p.id IN :ids ORDER BY p.id", Map.of("ids", ids));
+    }
+
+    /**
+     * Возвращает проекты пользователя.
+     *
+     * @param userId ID пользователя
+     * @param fields выбираемые поля
+     * @return проекты пользователя в порядке возрастания идентификаторов
+     */
+    public List<ProjectView> findProjectsByUserId(Long userId, ViewFields fields) {
+        return projects(fields, "FROM UsersProject up JOIN up.project p WHERE up.user.id = :userId ORDER BY p.id",
+                Map.of("userId", userId));
+    }
+
+    /**
+     * Ищет проекты по вхождению подстроки в название или описание без учета регистра.
+     *
+     * @param query       искомая подстрока
+     * @param maxResults  максимальное количество результатов
+     * @param firstResult количество пропускаемых результатов
+     * @param fields      выбираемые поля
+     * @return проекты, упорядоченные по идентификатору
+     */
+    public List<ProjectView> searchProjects(String query, int maxResults, int firstResult, ViewFields fields) {
+        return projects(fields, "FROM Project p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :query, '%')) " +
+                        "OR LOWER(p.description) LIKE LOWER(CONCAT('%', :query, '%')) " +
+                        "ORDER BY p.id LIMIT :maxResults OFFSET :firstResult",
+                Map.of("query", query, "maxResults", maxResults, "firstResult", firstResult));
+    }
+
+    /**
+     * Ищет проекты по полнотекстовому индексу Lucene, как {@link ProjectRepository#fullTextSearch}.
+     *
+     * @param query       запрос в синтаксисе Lucene
+     * @param maxResults  максимальное количество результатов
+     * @param firstResult количество пропускаемых результатов
+     * @param fields      выбираемые поля
+     * @return проекты в порядке убывания релевантности
+     */
+    public List<ProjectView> fullTextSearchProjects(String query, int maxResults, int firstResult,
+                                                    ViewFields fields) {
+        List<String> names = fields.getNames(ViewFields.PROJECT_FIELDS);
+        List<String> columns = new ArrayList<>(names.size());
+        for (String name : names) {
+            columns.add("p." + PROJECT_COLUMNS.get(name));
+        }
+        Query select = entityManager.createNativeQuery("SELECT " + String.join(", ", columns) +
+                " FROM FTL_SEARCH_DATA(:query, :maxResults, :firstResult) ft " +
+                "JOIN projects p ON p.id = CAST(ft.KEYS[1] AS BIGINT) ORDER BY ft.SCORE DESC");
+        select.setParameter("query", query);
+        select.setParameter("maxResults", maxResults);
+        select.setParameter("firstResult", firstResult);
+        List<ProjectView> projects = new ArrayList<>();
+        for (Object row : select.getResultList()) {
+            projects.add(toProjectView(names, row));
+        }
+        return projects;
+    }
+
+    private List<UserView> users(ViewFields fields, String from, Map<String, Object> parameters) {
+        List<String> names = fields.getNames(ViewFields.USER_FIELDS);
+        List<UserView> users = new ArrayList<>();
+        for (Object row : select("u", names, from, parameters)) {
+            Object[] values = columns(row);
+            UserView user = new UserView();
+            for (int i = 0; i < names.size(); i++) {
+                switch (names.get(i)) {
+                    case "id" -> user.setId(((Number) values[i]).longValue());
+                    case "userName" -> user.setUserName((String) values[i]);
+                    case "email" -> user.setEmail((String) values[i]);
+                    case "role" -> user.setRole((String) values[i]);
+                    default -> throw new IllegalStateException("Unexpected user field: " + names.get(i));
+                }
+            }
+            users.add(user);
+        }
+        return users;
+    }
+
+    private List<ProjectView> projects(ViewFields fields, String from, Map<String, Object> parameters) {
+        List<String> names = fields.getNames(ViewFields.PROJECT_FIELDS);
+        List<ProjectView> projects = new ArrayList<>();
+        for (Object row : select("p", names, from, parameters)) {
+            projects.add(toProjectView(names, row));
+        }
+        return projects;
+    }
+
+    private List<?> select(String alias, List<String> names, String from, Map<String, Object> parameters) {
+        List<String> paths = new ArrayList<>(names.size());
+        for (String name : names) {
+            paths.add(alias + "." + name);
+        }
+        Query select = entityManager.createQuery("SELECT " + String.join(", ", paths) + " " + from);
+        parameters.forEach(select::setParameter);
+        return select.getResultList();
+    }
+
+    private static ProjectView toProjectView(List<String> names, Object row) {
+        Object[] values = columns(row);
+        ProjectView project = new ProjectView();
+        for (int i = 0; i < names.size(); i++) {
+            switch (names.get(i)) {
+                case "id" -> project.setId(((Number) values[i]).longValue());
+                case "name" -> project.setName((String) values[i]);
+                case "description" -> project.setDescription((String) values[i]);
+                case "createdDate" -> project.setCreatedDate(values[i] instanceof Date date
+                        ? date.toLocalDate() : (LocalDate) values[i]);
+                default -> throw new IllegalStateException("Unexpected project field: " + names.get(i));
+            }
+        }
+        return project;
+    }
+
+    /**
+     * Запрос с одним выбираемым столбцом возвращает значения, а не массивы.
+     */
+    private static Object[] columns(Object row) {
+        return row instanceof Object[] values ? values : new Object[]{row};
+    }
+}
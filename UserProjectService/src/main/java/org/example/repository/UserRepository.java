@@ -1,12 +1,17 @@
 package org.example.repository;
 
 import org.example.model.User;
+import org.example.model.UserView;
+import jakarta.persistence.LockModeType;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,11 +24,76 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUserName(String username);
 
+    /**
+     * Возвращает всех пользователей в виде проекций, отсортированных по идентификатору.
+     * Выбираются только столбцы списка, сущности не загружаются в контекст персистентности.
+     *
+     * @return все пользователи
+     */
+    @Query("SELECT new org.example.model.UserView(u.id, u.userName, u.email, u.role) FROM User u ORDER BY u.id")
+    List<UserView> findAllViews();
+
+    /**
+     * Возвращает пользователей с указанными идентификаторами в виде проекций.
+     *
+     * @param ids идентификаторы пользователей
+     * @return найденные пользователи в порядке возрастания идентификаторов
+     */
+    @Query("SELECT new org.example.model.UserView(u.id, u.userName, u.email, u.role) FROM User u " +
+            "WHERE u.id IN :ids ORDER BY u.id")
+    List<UserView> findViewsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Возвращает пользователя в виде проекции, не связанной с контекстом персистентности.
+     *
+     * @param id идентификатор пользователя
+     * @return пользователь или пустой результат, если пользователь не найден
+     */
+    @Query("SELECT new org.example.model.UserView(u.id, u.userName, u.email, u.role) FROM User u WHERE u.id = :id")
+    Optional<UserView> findViewById(@Param("id") Long id);
+
     @Query("SELECT u FROM User u " +
             "WHERE LOWER(u.userName) LIKE LOWER(CONCAT('%', :username, '%')) OR " +
             "LOWER(u.email) LIKE LOWER(CONCAT('%', :email, '%'))")
     List<User> findUserByUserNameOrEmail(@Param("username") String userName, @Param("email") String email);
 
+    /**
+     * Возвращает пользователей, отсортированных по идентификатору, начиная после указанного.
+     *
+     * @param afterId идентификатор последнего пользователя предыдущей страницы или null для первой страницы
+     * @param limit   максимальное количество записей
+     * @return страница пользователей
+     */
+    @Query("SELECT u FROM User u WHERE :afterId IS NULL OR u.id > :afterId ORDER BY u.id")
+    List<User> findPageOrderById(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Возвращает идентификаторы пользователей по возрастанию, начиная после указанного.
+     *
+     * @param afterId идентификатор последнего пользователя предыдущей порции или null для первой порции
+     * @param limit   максимальное количество записей
+     * @return порция идентификаторов пользователей
+     */
+    @Query("SELECT u.id FROM User u WHERE :afterId IS NULL OR u.id > :afterId ORDER BY u.id")
+    List<Long> findIdPage(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Возвращает пользователей, отсортированных по имени (и идентификатору при совпадении имен),
+     * начиная после указанной пары (имя, идентификатор).
+     *
+     * @param afterName имя последнего пользователя предыдущей страницы
+     * @param afterId   идентификатор последнего пользователя предыдущей страницы или null для первой страницы
+     * @param limit     максимальное количество записей
+     * @return страница пользователей
+     */
+    @Query("SELECT u FROM User u " +
+            "WHERE :afterId IS NULL " +
+            "OR u.userName > :afterName " +
+            "OR (u.userName = :afterName AND u.id > :afterId) " +
+            "ORDER BY u.userName, u.id")
+    List<User> findPageOrderByUserName(@Param("afterName") String afterName,
+                                       @Param("afterId") Long afterId, Limit limit);
+
     /**
      * Обновляет данные пользователя по его идентификатору.
      *
@@ -40,4 +110,28 @@ public interface UserRepository extends JpaRepository<User, Long> {
             "WHERE u.id = :id")
     void updateUserById(@Param("id") Long id, User user);
 
+    /**
+     * Удаляет пользователя по его идентификатору одним запросом, без загрузки пользователя и его связей.
+     * Связи пользователя с проектами должны быть удалены заранее.
+     * Контекст персистентности очищается, чтобы в нем не осталось удаленного пользователя.
+     *
+     * @param id идентификатор пользователя
+     * @return количество удаленных пользователей
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM User u WHERE u.id = :id")
+    int deleteUserById(@Param("id") Long id);
+
+    /**
+     * Блокирует строки существующих пользователей из списка до конца транзакции (SELECT ... FOR UPDATE):
+     * пользователь не может быть удален, пока транзакция изменяет его связи и счетчик его проектов.
+     * Строки блокируются в порядке возрастания идентификаторов.
+     *
+     * @param ids идентификаторы пользователей
+     * @return идентификаторы найденных пользователей в порядке возрастания
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids ORDER BY u.id")
+    List<Long> lockByIds(@Param("ids") Collection<Long> ids);
+
 }
@@ -1,49 +1,127 @@
 package org.example.repository;
 
+import org.example.model.Membership;
 import org.example.model.Project;
+import org.example.model.ProjectView;
 import org.example.model.User;
+import org.example.model.UserView;
 import org.example.model.UsersProject;
+import org.example.model.UsersProjectId;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Репозиторий для управления связями между пользователями и проектами.
  * Предоставляет методы для выполнения операций с сущностью UsersProject,
  * а также специфические запросы для работы со связями пользователей и проектов.
+ *
+ * Связи UsersProject с проектом и пользователем ленивые, поэтому у каждого метода явный план выборки:
+ * методы, возвращающие связи, загружают проект и пользователя графом сущности, списки выбирают
+ * проекции или сущности через явный JOIN, а удаление выполняется массовыми запросами без загрузки связей.
  */
-public interface UsersProjectRepository extends JpaRepository<UsersProject, Long> {
+public interface UsersProjectRepository extends JpaRepository<UsersProject, UsersProjectId> {
 
     /**
-     * Находит всех пользователей, связанных с конкретным проектом.
+     * Находит связь по составному идентификатору вместе с проектом и пользователем одним запросом.
+     *
+     * @param id идентификатор связи
+     * @return связь, если она существует
+     */
+    @Override
+    @EntityGraph(attributePaths = {"project", "user"})
+    Optional<UsersProject> findById(UsersProjectId id);
+
+    /**
+     * Возвращает все связи вместе с проектами и пользователями одним запросом.
+     *
+     * @return все связи
+     */
+    @Override
+    @EntityGraph(attributePaths = {"project", "user"})
+    List<UsersProject> findAll();
+
+    /**
+     * Находит всех пользователей, связанных с конкретным проектом, в виде проекций.
      *
      * @param projectId ID проекта
-     * @return список пользователей, связанных с данным проектом
+     * @return список пользователей, связанных с данным проектом, в порядке возрастания ID
      */
-    @Query("SELECT up.user FROM UsersProject up WHERE up.project.id = :projectId")
-    List<User> findUsersByProjectId(@Param("projectId") Long projectId);
+    @Query("SELECT new org.example.model.UserView(u.id, u.userName, u.email, u.role) " +
+            "FROM UsersProject up JOIN up.user u WHERE up.project.id = :projectId ORDER BY u.id")
+    List<UserView> findUsersByProjectId(@Param("projectId") Long projectId);
 
     /**
-     * Находит все проекты, связанные с конкретным пользователем.
+     * Находит все проекты, связанные с конкретным пользователем, в виде проекций.
      *
      * @param userId ID пользователя
-     * @return список проектов, связанных с данным пользователем
+     * @return список проектов, связанных с данным пользователем, в порядке возрастания ID
+     */
+    @Query("SELECT new org.example.model.ProjectView(p.id, p.name, p.description, p.createdDate) " +
+            "FROM UsersProject up JOIN up.project p WHERE up.user.id = :userId ORDER BY p.id")
+    List<ProjectView> findProjectsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Находит страницу пользователей проекта, отсортированных по идентификатору.
+     *
+     * @param projectId ID проекта
+     * @param afterId   ID последнего пользователя предыдущей страницы или null для первой страницы
+     * @param limit     максимальное количество записей
+     * @return страница пользователей, связанных с данным проектом
+     */
+    @Query("SELECT u FROM UsersProject up JOIN up.user u WHERE up.project.id = :projectId " +
+            "AND (:afterId IS NULL OR u.id > :afterId) ORDER BY u.id")
+    List<User> findUsersPageByProjectId(@Param("projectId") Long projectId,
+                                        @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Находит страницу проектов пользователя, отсортированных по идентификатору.
+     *
+     * @param userId  ID пользователя
+     * @param afterId ID последнего проекта предыдущей страницы или null для первой страницы
+     * @param limit   максимальное количество записей
+     * @return страница проектов, связанных с данным пользователем
+     */
+    @Query("SELECT p FROM UsersProject up JOIN up.project p WHERE up.user.id = :userId " +
+            "AND (:afterId IS NULL OR p.id > :afterId) ORDER BY p.id")
+    List<Project> findProjectsPageByUserId(@Param("userId") Long userId,
+                                           @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Находит всех пользователей, не входящих в проект, в виде проекций.
+     * Выполняется одним запросом с анти-соединением (NOT EXISTS) по таблице users_project,
+     * без предварительной выборки участников проекта.
+     *
+     * @param projectId ID проекта
+     * @return список пользователей, не связанных с данным проектом
      */
-    @Query("SELECT up.project FROM UsersProject up WHERE up.user.id = :userId")
-    List<Project> findProjectsByUserId(@Param("userId") Long userId);
+    @Query("SELECT new org.example.model.UserView(u.id, u.userName, u.email, u.role) FROM User u " +
+            "WHERE NOT EXISTS (" +
+            "SELECT 1 FROM UsersProject up WHERE up.user.id = u.id AND up.project.id = :projectId) " +
+            "ORDER BY u.id")
+    List<UserView> findUsersNotInProject(@Param("projectId") Long projectId);
 
     /**
-     * Находит всех пользователей в таблице Users, которые отсутствуют в списке ID пользователей.
+     * Находит страницу пользователей, не входящих в проект, отсортированных по идентификатору.
      *
-     * @param userIds список ID пользователей для исключения
-     * @return список пользователей, не связанных с указанными ID
+     * @param projectId ID проекта
+     * @param afterId   ID последнего пользователя предыдущей страницы или null для первой страницы
+     * @param limit     максимальное количество записей
+     * @return страница пользователей, не связанных с данным проектом
      */
-    @Query("SELECT u FROM User u WHERE u.id NOT IN :userIds")
-    List<User> findUsersNotInProject(@Param("userIds") List<Long> userIds);
+    @Query("SELECT u FROM User u WHERE (:afterId IS NULL OR u.id > :afterId) AND NOT EXISTS (" +
+            "SELECT 1 FROM UsersProject up WHERE up.user.id = u.id AND up.project.id = :projectId) " +
+            "ORDER BY u.id")
+    List<User> findUsersNotInProjectPage(@Param("projectId") Long projectId,
+                                         @Param("afterId") Long afterId, Limit limit);
 
     /**
      * Добавляет пользователя в проект.
@@ -59,6 +137,105 @@ public interface UsersProjectRepository extends JpaRepository<UsersProject, Long
     int addUsersToProject(@Param("projectId") Long projectId,
                           @Param("userId") Long userId);
 
+    /**
+     * Возвращает связи пользователей с проектами в виде пар идентификаторов,
+     * отсортированных по проекту и пользователю, начиная после указанной пары.
+     *
+     * @param afterProjectId ID проекта последней связи предыдущей порции
+     * @param afterUserId    ID пользователя последней связи предыдущей порции или null для первой порции
+     * @param limit          максимальное количество записей
+     * @return порция связей
+     */
+    @Query("SELECT new org.example.model.Membership(up.project.id, up.user.id) FROM UsersProject up " +
+            "WHERE :afterUserId IS NULL " +
+            "OR up.project.id > :afterProjectId " +
+            "OR (up.project.id = :afterProjectId AND up.user.id > :afterUserId) " +
+            "ORDER BY up.project.id, up.user.id")
+    List<Membership> findMembershipPage(@Param("afterProjectId") Long afterProjectId,
+                                        @Param("afterUserId") Long afterUserId, Limit limit);
+
+    /**
+     * Подсчитывает участников проекта.
+     *
+     * @param projectId ID проекта
+     * @return количество пользователей, связанных с данным проектом
+     */
+    long countByProjectId(Long projectId);
+
+    /**
+     * Находит идентификаторы пользователей из списка, уже входящих в проект.
+     *
+     * @param projectId ID проекта
+     * @param userIds   ID пользователей для проверки
+     * @return ID пользователей, связанных с данным проектом
+     */
+    @Query("SELECT up.user.id FROM UsersProject up WHERE up.project.id = :projectId AND up.user.id IN :userIds")
+    List<Long> findMemberIds(@Param("projectId") Long projectId, @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Находит идентификаторы всех участников проекта.
+     *
+     * @param projectId ID проекта
+     * @return ID пользователей, связанных с данным проектом
+     */
+    @Query("SELECT up.user.id FROM UsersProject up WHERE up.project.id = :projectId")
+    List<Long> findUserIdsByProjectId(@Param("projectId") Long projectId);
+
+    /**
+     * Находит идентификаторы всех проектов пользователя.
+     *
+     * @param userId ID пользователя
+     * @return ID проектов, связанных с данным пользователем
+     */
+    @Query("SELECT up.project.id FROM UsersProject up WHERE up.user.id = :userId")
+    List<Long> findProjectIdsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Добавляет пользователей в проект одним запросом.
+     * MERGE по первичному ключу (project_id, user_id) не создает повторную связь, если она уже существует,
+     * в том числе если ее добавил параллельный запрос. Несуществующие пользователи отбрасываются
+     * соединением с таблицей users.
+     *
+     * @param projectId ID проекта
+     * @param userIds   ID пользователей для добавления
+     * @return количество обработанных строк
+     */
+    @Modifying
+    @Query(value = "MERGE INTO users_project (project_id, user_id) KEY (project_id, user_id) " +
+            "SELECT :projectId, u.id FROM users u WHERE u.id IN (:userIds)", nativeQuery = true)
+    int mergeUsersIntoProject(@Param("projectId") Long projectId, @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Удаляет пользователей из проекта одним запросом.
+     *
+     * @param projectId ID проекта
+     * @param userIds   ID пользователей для удаления
+     * @return количество удаленных связей
+     */
+    @Modifying
+    @Query("DELETE FROM UsersProject up WHERE up.project.id = :projectId AND up.user.id IN :userIds")
+    int removeUsersFromProject(@Param("projectId") Long projectId, @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Удаляет все связи проекта одним запросом, не загружая их в контекст персистентности.
+     *
+     * @param projectId ID проекта
+     * @return количество удаленных связей
+     */
+    @Modifying
+    @Query("DELETE FROM UsersProject up WHERE up.project.id = :projectId")
+    int deleteByProjectId(@Param("projectId") Long projectId);
+
+    /**
+     * Удаляет все связи пользователя одним запросом, не загружая их в контекст персистентности.
+     *
+     * @param userId ID пользователя
+     * @return количество удаленных связей
+     */
+    @Modifying
+    @Query("DELETE FROM UsersProject up WHERE up.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
     /**
      * Удаляет пользователя из проекта.
      *
@@ -67,8 +244,7 @@ public interface UsersProjectRepository extends JpaRepository<UsersProject, Long
      * @return количество затронутых строк (должно быть 1 при успешном выполнении)
      */
     @Modifying
-    @Query("DELETE FROM UsersProject up WHERE (:userId IS NULL OR  up.user.id = :userId)" +
-            " AND (:projectId IS NULL OR up.project.id = :projectId)")
+    @Query("DELETE FROM UsersProject up WHERE up.user.id = :userId AND up.project.id = :projectId")
     int removeUserAndProject(@Param("userId") Long userId,
                                @Param("projectId") Long projectId);
 
@@ -0,0 +1,50 @@
+package org.example.service;
+
+import org.example.config.ChangeFeedProperties;
+import org.example.model.ChangeFeedPage;
+import org.example.model.ChangeView;
+import org.example.repository.OutboxRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Сервис ленты изменений: чтение опубликованных изменений пользователей, проектов и связей после позиции.
+ * Изменения содержат ключи сущностей, а не их состояние: клиент перечитывает текущее состояние
+ * измененных сущностей через остальные методы API.
+ */
+@Service
+@AllArgsConstructor
+public class ChangeFeedService {
+
+    private final OutboxRepository outboxRepository;
+    private final ChangeFeedProperties changeFeedProperties;
+
+    /**
+     * Возвращает изменения после позиции.
+     *
+     * @param since позиция последнего обработанного клиентом изменения, 0 - с начала ленты
+     * @param limit максимальное количество изменений, может быть null
+     * @return порция изменений или null, если изменения после позиции уже удалены по сроку хранения
+     */
+    @Transactional(readOnly = true)
+    public ChangeFeedPage getChanges(long since, Integer limit) {
+        if (since < 0) {
+            throw new IllegalArgumentException("since must not be negative");
+        }
+        if (since < outboxRepository.findTruncatedThrough()) {
+            return null;
+        }
+        int size = changeFeedProperties.resolvePageSize(limit);
+        List<ChangeView> changes = outboxRepository.findChangesAfter(since, Limit.of(size + 1));
+        boolean hasMore = changes.size() > size;
+        if (hasMore) {
+            changes = changes.subList(0, size);
+        }
+        long nextSince = changes.isEmpty() ? since : changes.get(changes.size() - 1).getOffset();
+        return new ChangeFeedPage(changes, nextSince, hasMore);
+    }
+}
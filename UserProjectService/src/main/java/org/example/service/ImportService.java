@@ -0,0 +1,352 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import lombok.AllArgsConstructor;
+import org.example.config.ImportProperties;
+import org.example.model.ImportError;
+import org.example.model.ImportSummary;
+import org.example.model.Membership;
+import org.example.model.MembershipChangeResult;
+import org.example.model.MembershipOutcome;
+import org.example.model.Project;
+import org.example.model.User;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Сервис массового импорта пользователей, проектов и связей пользователей с проектами из CSV или NDJSON.
+ *
+ * Входной поток разбирается построчно и не буферизуется целиком: в памяти находится только текущая
+ * порция строк размером import.chunk-size. Каждая строка проверяется, корректные строки записываются
+ * порциями, каждая порция - в отдельной транзакции. Ошибка записи порции отклоняет только ее строки,
+ * уже зафиксированные порции сохраняются. Если поток не удается разобрать дальше (например, CSV обрывается
+ * внутри значения в кавычках), импорт прерывается: оставшиеся строки не читаются, а в итоге
+ * устанавливается признак aborted.
+ */
+@Service
+@AllArgsConstructor
+public class ImportService {
+
+    private final UserService userService;
+    private final ProjectService projectService;
+    private final UserProjectService userProjectService;
+    private final ImportProperties importProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Импортирует данные из потока.
+     *
+     * @param type   тип данных: users, projects или memberships
+     * @param format формат данных: csv (первая строка - заголовок) или ndjson (один JSON-объект в строке)
+     * @param body   входной поток в кодировке UTF-8
+     * @return итог импорта
+     * @throws IllegalArgumentException если тип или формат не поддерживается
+     * @throws IOException              при ошибке чтения потока
+     */
+    public ImportSummary importData(String type, String format, InputStream body) throws IOException {
+        ImportSummary summary = new ImportSummary(type, format);
+        switch (type) {
+            case "users" -> importRows(format, body, summary, ImportService::toUser, chunk -> {
+                userService.addUsers(chunk.items());
+                summary.setAccepted(summary.getAccepted() + chunk.size());
+            });
+            case "projects" -> importRows(format, body, summary, ImportService::toProject, chunk -> {
+                projectService.addProjects(chunk.items());
+                summary.setAccepted(summary.getAccepted() + chunk.size());
+            });
+            case "memberships" -> importRows(format, body, summary, ImportService::toMembership,
+                    chunk -> addMemberships(chunk, summary));
+            default -> throw new IllegalArgumentException("Unsupported import type: " + type);
+        }
+        return summary;
+    }
+
+    /**
+     * Читает строки, проверяет их и записывает корректные строки порциями.
+     */
+    private <T> void importRows(String format, InputStream body, ImportSummary summary,
+                                Function<Map<String, String>, T> parser, ChunkWriter<T> writer) throws IOException {
+        Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8);
+        Iterator<Row> rows = switch (format) {
+            case "csv" -> csvRows(reader);
+            case "ndjson" -> ndjsonRows(new BufferedReader(reader));
+            default -> throw new IllegalArgumentException("Unsupported import format: " + format);
+        };
+        Chunk<T> chunk = new Chunk<>();
+        try {
+            while (rows.hasNext()) {
+                Row row = rows.next();
+                summary.setRows(summary.getRows() + 1);
+                try {
+                    if (row.error() != null) {
+                        throw new IllegalArgumentException(row.error());
+                    }
+                    chunk.add(row.number(), parser.apply(row.values()));
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    reject(summary, row.number(), e.getMessage());
+                }
+                if (chunk.size() >= importProperties.getChunkSize()) {
+                    writeChunk(chunk, writer, summary);
+                    chunk = new Chunk<>();
+                }
+            }
+        } catch (UncheckedIOException e) {
+            summary.setAborted(true);
+            reject(summary, summary.getRows() + 1, "Malformed input: " + e.getCause().getMessage());
+        }
+        if (chunk.size() > 0) {
+            writeChunk(chunk, writer, summary);
+        }
+    }
+
+    /**
+     * Записывает порцию в отдельной транзакции; при ошибке все строки порции отклоняются.
+     * Счетчики и ошибки, добавленные при записи порции, откатываются вместе с транзакцией,
+     * чтобы строки, уже отклоненные при записи, не учитывались дважды.
+     */
+    private <T> void writeChunk(Chunk<T> chunk, ChunkWriter<T> writer, ImportSummary summary) {
+        long accepted = summary.getAccepted();
+        long rejected = summary.getRejected();
+        int errors = summary.getErrors().size();
+        try {
+            transactionTemplate.executeWithoutResult(status -> writer.write(chunk));
+            summary.setChunks(summary.getChunks() + 1);
+        } catch (RuntimeException e) {
+            summary.setAccepted(accepted);
+            summary.setRejected(rejected);
+            summary.getErrors().subList(errors, summary.getErrors().size()).clear();
+            for (Long row : chunk.rows()) {
+                reject(summary, row, "Chunk write failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Добавляет связи порции, группируя их по проектам: на каждый проект выполняется одна массовая операция.
+     */
+    private void addMemberships(Chunk<Membership> chunk, ImportSummary summary) {
+        Map<Long, List<Integer>> byProject = new LinkedHashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            byProject.computeIfAbsent(chunk.items().get(i).getProjectId(), id -> new ArrayList<>()).add(i);
+        }
+        for (Map.Entry<Long, List<Integer>> project : byProject.entrySet()) {
+            List<Long> userIds = project.getValue().stream()
+                    .map(i -> chunk.items().get(i).getUserId())
+                    .toList();
+            MembershipChangeResult result = userProjectService.addUsersToProject(project.getKey(), userIds);
+            for (Integer i : project.getValue()) {
+                if (result == null) {
+                    reject(summary, chunk.rows().get(i), "Project not found: " + project.getKey());
+                } else if (result.getOutcomes().get(chunk.items().get(i).getUserId())
+                        == MembershipOutcome.USER_NOT_FOUND) {
+                    reject(summary, chunk.rows().get(i), "User not found: " + chunk.items().get(i).getUserId());
+                } else {
+                    summary.setAccepted(summary.getAccepted() + 1);
+                }
+            }
+        }
+    }
+
+    private void reject(ImportSummary summary, long row, String message) {
+        summary.setRejected(summary.getRejected() + 1);
+        if (summary.getErrors().size() < importProperties.getMaxReportedErrors()) {
+            summary.getErrors().add(new ImportError(row, message));
+        }
+    }
+
+    /**
+     * Строки CSV: первая строка - заголовок с именами столбцов, значения сопоставляются по именам.
+     */
+    private static Iterator<Row> csvRows(Reader reader) throws IOException {
+        MappingIterator<List<String>> records = new CsvMapper()
+                .enable(CsvParser.Feature.WRAP_AS_ARRAY)
+                .enable(CsvParser.Feature.TRIM_SPACES)
+                .readerForListOf(String.class)
+                .readValues(reader);
+        List<String> header = records.hasNextValue() ? records.nextValue() : List.of();
+        return new Iterator<>() {
+            private long number;
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    return records.hasNextValue();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public Row next() {
+                List<String> record;
+                try {
+                    record = records.nextValue();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                number++;
+                if (record.size() != header.size()) {
+                    return new Row(number, Map.of(), "Expected " + header.size() + " columns but found "
+                            + record.size());
+                }
+                Map<String, String> values = new HashMap<>();
+                for (int i = 0; i < header.size(); i++) {
+                    values.put(header.get(i), record.get(i).isEmpty() ? null : record.get(i));
+                }
+                return new Row(number, values, null);
+            }
+        };
+    }
+
+    /**
+     * Строки NDJSON: каждая непустая строка - отдельный JSON-объект. Некорректная строка отклоняется,
+     * чтение продолжается со следующей.
+     */
+    private Iterator<Row> ndjsonRows(BufferedReader reader) {
+        return new Iterator<>() {
+            private long number;
+            private String line = readLine();
+
+            @Override
+            public boolean hasNext() {
+                return line != null;
+            }
+
+            @Override
+            public Row next() {
+                String current = line;
+                line = readLine();
+                number++;
+                try {
+                    JsonNode node = objectMapper.readTree(current);
+                    if (!node.isObject()) {
+                        return new Row(number, Map.of(), "Expected a JSON object");
+                    }
+                    Map<String, String> values = new HashMap<>();
+                    node.fields().forEachRemaining(field -> values.put(field.getKey(),
+                            field.getValue().isNull() ? null : field.getValue().asText()));
+                    return new Row(number, values, null);
+                } catch (JsonProcessingException e) {
+                    return new Row(number, Map.of(), "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+
+            private String readLine() {
+                try {
+                    String next;
+                    do {
+                        next = reader.readLine();
+                    } while (next != null && next.isBlank());
+                    return next;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    private static User toUser(Map<String, String> values) {
+        User user = new User();
+        user.setUserName(required(values, "user_name", 100));
+        user.setEmail(optional(values, "email", 255));
+        if (user.getEmail() != null && !user.getEmail().contains("@")) {
+            throw new IllegalArgumentException("Invalid email: " + user.getEmail());
+        }
+        user.setRole(required(values, "role", 100));
+        return user;
+    }
+
+    private static Project toProject(Map<String, String> values) {
+        Project project = new Project();
+        project.setName(required(values, "name", 255));
+        project.setDescription(optional(values, "description", Integer.MAX_VALUE));
+        String createdDate = optional(values, "created_date", 10);
+        project.setCreatedDate(createdDate != null ? LocalDate.parse(createdDate) : LocalDate.now());
+        return project;
+    }
+
+    private static Membership toMembership(Map<String, String> values) {
+        try {
+            return new Membership(Long.valueOf(required(values, "project_id", 19)),
+                    Long.valueOf(required(values, "user_id", 19)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("project_id and user_id must be numbers");
+        }
+    }
+
+    private static String required(Map<String, String> values, String column, int maxLength) {
+        String value = optional(values, column, maxLength);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing required value: " + column);
+        }
+        return value;
+    }
+
+    private static String optional(Map<String, String> values, String column, int maxLength) {
+        String value = values.get(column);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        value = value.trim();
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException(column + " is longer than " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    /**
+     * Строка входных данных: номер, значения по именам столбцов и ошибка разбора, если строка некорректна.
+     */
+    private record Row(long number, Map<String, String> values, String error) {
+    }
+
+    /**
+     * Порция проверенных строк, записываемая в одной транзакции.
+     */
+    private record Chunk<T>(List<Long> rows, List<T> items) {
+
+        Chunk() {
+            this(new ArrayList<>(), new ArrayList<>());
+        }
+
+        void add(long row, T item) {
+            rows.add(row);
+            items.add(item);
+        }
+
+        int size() {
+            return items.size();
+        }
+    }
+
+    /**
+     * Запись порции строк в базу данных.
+     */
+    @FunctionalInterface
+    private interface ChunkWriter<T> {
+        void write(Chunk<T> chunk);
+    }
+}
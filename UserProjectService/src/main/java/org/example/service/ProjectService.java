@@ -1,12 +1,32 @@
 package org.example.service;
 
+import org.example.config.PaginationProperties;
+import org.example.event.MembershipChangedEvent;
+import org.example.event.ProjectChangedEvent;
+import org.example.model.KeysetPage;
+import org.example.model.MultiGetResult;
+import org.example.model.PageCursor;
 import org.example.model.Project;
+import org.example.model.ProjectView;
+import org.example.model.ViewFields;
+import org.example.repository.MembershipCounterRepository;
 import org.example.repository.ProjectRepository;
+import org.example.repository.SparseViewRepository;
+import org.example.repository.UsersProjectRepository;
 import lombok.AllArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 /**
  * Сервис для управления проектами.
@@ -16,37 +36,255 @@ import java.util.List;
 @AllArgsConstructor
 public class ProjectService {
 
+    /**
+     * Символы, имеющие специальное значение в синтаксисе запросов Lucene.
+     */
+    private static final String LUCENE_SPECIAL_CHARS = "\\+-!():^[]\"{}~*?|&/";
+
     private final ProjectRepository projectRepository;
+    private final SparseViewRepository sparseViewRepository;
+    private final UsersProjectRepository usersProjectRepository;
+    private final MembershipCounterRepository membershipCounterRepository;
+    private final PaginationProperties paginationProperties;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
-     * Метод для добавления нового проекта
+     * Метод для добавления нового проекта.
+     * Поля копируются в новую сущность, поэтому идентификатор из запроса не перезаписывает существующий проект.
      * @param project проект для добавления
+     * @return добавленный проект с присвоенным идентификатором
      */
+    @Transactional
     public Project addProject(Project project){
-        return projectRepository.save(project);
+        Project saved = projectRepository.save(newProject(project));
+        eventPublisher.publishEvent(new ProjectChangedEvent(saved.getId(), false));
+        return saved;
+    }
+
+    /**
+     * Метод для добавления списка проектов в одной транзакции.
+     * Вставки отправляются пакетами JDBC благодаря выделению идентификаторов блоками из последовательности.
+     * Поля копируются в новые сущности, идентификаторы из запроса не используются.
+     *
+     * @param projects проекты для добавления
+     * @return добавленные проекты с присвоенными идентификаторами
+     */
+    @Transactional
+    public List<Project> addProjects(List<Project> projects) {
+        List<Project> saved = projectRepository.saveAll(projects.stream().map(ProjectService::newProject).toList());
+        for (Project project : saved) {
+            eventPublisher.publishEvent(new ProjectChangedEvent(project.getId(), false));
+        }
+        return saved;
+    }
+
+    /**
+     * Создает новую сущность проекта с данными из запроса, без идентификатора и связей.
+     */
+    private static Project newProject(Project source) {
+        Project project = new Project();
+        project.setName(source.getName());
+        project.setDescription(source.getDescription());
+        project.setCreatedDate(source.getCreatedDate());
+        return project;
     }
 
     /**
-     * Метод для получения всех проектов
-     * @return список всех проектов
+     * Метод для получения всех проектов.
+     * Проекты выбираются проекцией в транзакции только для чтения, без загрузки сущностей.
+     * @return список всех проектов в порядке возрастания идентификаторов
      */
-    public List<Project> getAllProjects(){
-        return projectRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<ProjectView> getAllProjects(){
+        return projectRepository.findAllViews();
+    }
+
+    /**
+     * Метод для получения всех проектов с указанным набором полей.
+     * Невыбранные поля, в том числе описание, не читаются из таблицы и остаются пустыми.
+     *
+     * @param fields набор полей проекции
+     * @return список всех проектов в порядке возрастания идентификаторов
+     */
+    @Transactional(readOnly = true)
+    public List<ProjectView> getAllProjects(ViewFields fields) {
+        return fields.isAll() ? getAllProjects() : sparseViewRepository.findAllProjects(fields);
+    }
+
+    /**
+     * Получает страницу проектов с курсорной (keyset) пагинацией.
+     * Поддерживается сортировка по полям {@code id}, {@code name} и {@code created_date}.
+     *
+     * @param sort   поле сортировки
+     * @param cursor токен курсора из предыдущей страницы или null для первой страницы
+     * @param size   запрошенный размер страницы, ограничивается настройкой pagination.max-page-size
+     * @return страница проектов
+     * @throws IllegalArgumentException если поле сортировки не поддерживается или курсор некорректен
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Project> getProjectsPage(String sort, String cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        PageCursor after = cursor == null || cursor.isEmpty() ? null : PageCursor.decode(cursor, sort);
+        Long afterId = after != null ? after.getId() : null;
+        String afterValue = after != null ? after.getValue() : null;
+        Limit limit = Limit.of(pageSize + 1);
+        return switch (sort) {
+            case "id" -> KeysetPage.of(projectRepository.findPageOrderById(afterId, limit), pageSize, sort,
+                    project -> new PageCursor(sort, project.getId(), null));
+            case "name" -> KeysetPage.of(projectRepository.findPageOrderByName(afterValue, afterId, limit),
+                    pageSize, sort, project -> new PageCursor(sort, project.getId(), project.getName()));
+            case "created_date" -> KeysetPage.of(projectRepository.findPageOrderByCreatedDate(
+                            afterValue != null ? LocalDate.parse(afterValue) : null, afterId, limit),
+                    pageSize, sort, project -> new PageCursor(sort, project.getId(),
+                            project.getCreatedDate() != null ? project.getCreatedDate().toString() : null));
+            default -> throw new IllegalArgumentException("Unsupported sort: " + sort);
+        };
     }
 
     /**
      * Метод для поиска проекта по идентификатору
      * @param projectId идентификатор проекта
-     * @return проект или выбрасывает исключение, если не найден
+     * @return проект или null, если не найден; найденные проекты кэшируются в кэше projects в виде проекций,
+     * не связанных с контекстом персистентности; закэшированная проекция не должна изменяться.
+     * Проект, прочитанный с реплики (вызов из транзакции только для чтения), не кэшируется:
+     * реплика может отставать от основной базы
+     */
+    @Cacheable(value = "projects", key = "#projectId",
+            unless = "#result == null or T(org.example.datasource.ReplicaReads).isReplicaRead()")
+    public ProjectView findProjectById(Long projectId){
+        return projectRepository.findViewById(projectId).orElse(null);
+    }
+
+    /**
+     * Метод для получения проектов по списку идентификаторов одним запросом в виде проекций.
+     * Несуществующие идентификаторы пропускаются.
+     *
+     * @param projectIds идентификаторы проектов
+     * @return найденные проекты в порядке возрастания идентификаторов
+     */
+    @Transactional(readOnly = true)
+    public List<ProjectView> getProjectsByIds(Collection<Long> projectIds) {
+        return getProjectsByIds(projectIds, ViewFields.all());
+    }
+
+    /**
+     * Метод для получения проектов по списку идентификаторов одним запросом с указанным набором полей.
+     *
+     * @param projectIds идентификаторы проектов
+     * @param fields     набор полей проекции
+     * @return найденные проекты в порядке возрастания идентификаторов
      */
-    public Project findProjectById(Long projectId){
-        return projectRepository.findById(projectId).orElse(null);
+    @Transactional(readOnly = true)
+    public List<ProjectView> getProjectsByIds(Collection<Long> projectIds, ViewFields fields) {
+        if (projectIds.isEmpty()) {
+            return List.of();
+        }
+        return fields.isAll() ? projectRepository.findViewsByIds(projectIds)
+                : sparseViewRepository.findProjectsByIds(projectIds, fields);
     }
 
+    /**
+     * Метод для получения проектов по списку идентификаторов одним запросом.
+     * Повторяющиеся идентификаторы учитываются один раз, отсутствующие перечисляются в результате.
+     *
+     * @param projectIds идентификаторы проектов, не больше pagination.max-multi-get-ids
+     * @return найденные проекты в порядке идентификаторов и отсутствующие идентификаторы
+     * @throws IllegalArgumentException если идентификаторов слишком много
+     */
+    @Transactional(readOnly = true)
+    public MultiGetResult<Project> findProjectsByIds(Collection<Long> projectIds) {
+        Set<Long> ids = new LinkedHashSet<>(projectIds);
+        paginationProperties.checkMultiGetIds(ids);
+        List<Project> projects = ids.isEmpty() ? List.of() : projectRepository.findAllById(ids);
+        return MultiGetResult.of(ids, projects, Project::getId);
+    }
+
+    @Transactional(readOnly = true)
     public List<Project> findProjectByNameOrDescription(String searchString){
         return projectRepository.searchProjectByNameOrDescription(searchString, searchString);
     }
 
+    /**
+     * Ищет проекты по названию и описанию с ограничением количества результатов.
+     * В режиме {@code fulltext} используется индекс Lucene: слова запроса ищутся целиком и по префиксу,
+     * результаты упорядочены по релевантности. В режиме {@code like} выполняется поиск подстроки
+     * с полным просмотром таблицы, результаты упорядочены по идентификатору.
+     *
+     * @param query  строка поиска
+     * @param mode   режим поиска: fulltext или like
+     * @param limit  максимальное количество результатов, ограничивается настройкой pagination.max-page-size
+     * @param offset количество пропускаемых результатов
+     * @return найденные проекты
+     * @throws IllegalArgumentException если режим поиска не поддерживается
+     */
+    @Transactional(readOnly = true)
+    public List<Project> searchProjects(String query, String mode, Integer limit, Integer offset) {
+        int maxResults = paginationProperties.resolvePageSize(limit);
+        int firstResult = offset != null ? Math.max(offset, 0) : 0;
+        return switch (mode) {
+            case "fulltext" -> {
+                String fullTextQuery = toFullTextQuery(query);
+                yield fullTextQuery.isEmpty() ? List.of()
+                        : projectRepository.fullTextSearch(fullTextQuery, maxResults, firstResult);
+            }
+            case "like" -> projectRepository.searchProjectByNameOrDescription(query, maxResults, firstResult);
+            default -> throw new IllegalArgumentException("Unsupported search mode: " + mode);
+        };
+    }
+
+    /**
+     * Ищет проекты так же, как {@link #searchProjects(String, String, Integer, Integer)},
+     * но выбирает из таблицы только указанные поля.
+     *
+     * @param query  строка поиска
+     * @param mode   режим поиска: fulltext или like
+     * @param limit  максимальное количество результатов, ограничивается настройкой pagination.max-page-size
+     * @param offset количество пропускаемых результатов
+     * @param fields набор полей проекции
+     * @return найденные проекты
+     * @throws IllegalArgumentException если режим поиска не поддерживается
+     */
+    @Transactional(readOnly = true)
+    public List<ProjectView> searchProjects(String query, String mode, Integer limit, Integer offset,
+                                            ViewFields fields) {
+        int maxResults = paginationProperties.resolvePageSize(limit);
+        int firstResult = offset != null ? Math.max(offset, 0) : 0;
+        return switch (mode) {
+            case "fulltext" -> {
+                String fullTextQuery = toFullTextQuery(query);
+                yield fullTextQuery.isEmpty() ? List.of()
+                        : sparseViewRepository.fullTextSearchProjects(fullTextQuery, maxResults, firstResult, fields);
+            }
+            case "like" -> sparseViewRepository.searchProjects(query, maxResults, firstResult, fields);
+            default -> throw new IllegalArgumentException("Unsupported search mode: " + mode);
+        };
+    }
+
+    /**
+     * Преобразует пользовательскую строку в запрос Lucene.
+     * Каждое слово ищется как целиком, так и по префиксу; служебные символы синтаксиса Lucene экранируются.
+     *
+     * @param query строка поиска
+     * @return запрос Lucene или пустая строка, если в запросе нет слов
+     */
+    public static String toFullTextQuery(String query) {
+        StringBuilder result = new StringBuilder();
+        for (String word : query.trim().toLowerCase(Locale.ROOT).split("\\s+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            StringBuilder escaped = new StringBuilder();
+            for (char c : word.toCharArray()) {
+                if (LUCENE_SPECIAL_CHARS.indexOf(c) >= 0) {
+                    escaped.append('\\');
+                }
+                escaped.append(c);
+            }
+            result.append(escaped).append(' ').append(escaped).append("* ");
+        }
+        return result.toString().trim();
+    }
+
     /**
      * Обновляет данные проекта по его идентификатору.
      *
@@ -57,6 +295,7 @@ public class ProjectService {
      * @param project объект проекта, содержащий обновленные данные.
      */
     @Transactional
+    @CacheEvict(value = "projects", key = "#projectId")
     public void updateProjectById(Long projectId, Project project){
         Project projectUpdate = projectRepository.findById(projectId).orElse(null);
         projectUpdate.setName(project.getName());
@@ -64,15 +303,31 @@ public class ProjectService {
         projectUpdate.setCreatedDate(project.getCreatedDate());
         projectRepository.updateProjectById(projectId, projectUpdate);
         projectRepository.flush();
+        eventPublisher.publishEvent(new ProjectChangedEvent(projectId, false));
     }
 
     /**
      * Удаляет проект по его идентификатору.
+     * Связи проекта и сам проект удаляются двумя массовыми запросами, без загрузки участников
+     * и каскадного удаления каждой связи по отдельности. Перед удалением строка проекта блокируется,
+     * чтобы параллельно не менялся состав участников, и счетчики проектов участников уменьшаются
+     * одним запросом; счетчик участников проекта удаляется вместе с проектом. Идентификаторы участников
+     * выбираются до удаления связей и передаются в событии, чтобы удаление каждой связи попало в ленту изменений.
+     * Если проект не найден, ничего не удаляется и события не публикуются.
      *
      * @param projectId Идентификатор проекта, который нужно удалить.
      */
     @Transactional
+    @CacheEvict(value = "projects", key = "#projectId")
     public void deleteProjectById(Long projectId){
-        projectRepository.deleteById(projectId);
+        if (projectRepository.lockById(projectId).isEmpty()) {
+            return;
+        }
+        membershipCounterRepository.decrementProjectCountsOfMembers(projectId);
+        List<Long> memberIds = usersProjectRepository.findUserIdsByProjectId(projectId);
+        usersProjectRepository.deleteByProjectId(projectId);
+        projectRepository.deleteProjectById(projectId);
+        eventPublisher.publishEvent(MembershipChangedEvent.projectDeleted(projectId, memberIds));
+        eventPublisher.publishEvent(new ProjectChangedEvent(projectId, true));
     }
 }
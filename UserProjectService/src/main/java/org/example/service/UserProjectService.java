@@ -1,61 +1,292 @@
 package org.example.service;
 
+import org.example.config.PaginationProperties;
+import org.example.event.MembershipChangedEvent;
+import org.example.index.MembershipIndex;
+import org.example.model.KeysetPage;
+import org.example.model.MembershipChangeResult;
+import org.example.model.MembershipOutcome;
+import org.example.model.PageCursor;
 import org.example.model.Project;
+import org.example.model.ProjectView;
+import org.example.model.RankedProject;
+import org.example.model.RankedUser;
 import org.example.model.User;
+import org.example.model.UserView;
+import org.example.model.ViewFields;
+import org.example.repository.MembershipCounterRepository;
+import org.example.repository.SparseViewRepository;
+import org.example.repository.ProjectRepository;
+import org.example.repository.UserRepository;
 import org.example.repository.UsersProjectRepository;
-import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Сервис для управления связи между пользователями и проектами.
  * Предоставляет методы для работы с пользователями в системе.
+ *
+ * Вместе со связями в той же транзакции изменяются счетчики участников проектов и проектов пользователей
+ * ({@link MembershipCounterRepository}). Изменение участников блокирует строку проекта и строки пользователей,
+ * поэтому изменения одного проекта и удаление затронутых пользователей выполняются по очереди,
+ * а счетчики меняются ровно на количество добавленных или удаленных связей.
  */
 @Service
 @AllArgsConstructor
 public class UserProjectService {
 
+    /**
+     * Поле сортировки списков участников: выдача всегда упорядочена по идентификатору.
+     */
+    private static final String ID_SORT = "id";
+
+    /**
+     * Максимальное количество идентификаторов в одном запросе массового добавления или удаления
+     * и в запросе выборки пользователей или проектов по идентификаторам из индекса участников.
+     */
+    static final int BULK_CHUNK_SIZE = 1000;
+
     private final UsersProjectRepository usersProjectRepository;
+    private final ProjectRepository projectRepository;
+    private final UserRepository userRepository;
+    private final MembershipCounterRepository membershipCounterRepository;
+    private final SparseViewRepository sparseViewRepository;
     private final UserService userService;
     private final ProjectService projectService;
+    private final PaginationProperties paginationProperties;
+    private final MembershipIndex membershipIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
-     * Метод, возвращающий список пользователей, связанных с определенным проектом
+     * Метод, возвращающий список пользователей, связанных с определенным проектом.
+     * Состав проекта берется из индекса участников, если он актуален для текущей транзакции
+     * и умещается в один запрос по идентификаторам; крупные проекты читаются одним соединением в базе данных.
+     * Пользователи выбираются проекциями в транзакции только для чтения.
      *
      * @param projectId идентификатор проекта
-     * @return список пользователей
+     * @return список пользователей в порядке возрастания идентификаторов
+     */
+    @Transactional(readOnly = true)
+    public List<UserView> getUsersByProjectId(Long projectId) {
+        return getUsersByProjectId(projectId, ViewFields.all());
+    }
+
+    /**
+     * Вариант {@link #getUsersByProjectId(Long)}, выбирающий из таблицы только указанные поля.
+     *
+     * @param projectId идентификатор проекта
+     * @param fields    набор полей проекции
+     * @return список пользователей в порядке возрастания идентификаторов или null, если проект не найден
+     */
+    @Transactional(readOnly = true)
+    public List<UserView> getUsersByProjectId(Long projectId, ViewFields fields) {
+        if (!projectValidation(projectId)) {
+            return null;
+        }
+        if (membershipIndex.isCurrent()) {
+            List<Long> memberIds = membershipIndex.getMemberIds(projectId);
+            if (memberIds.size() <= BULK_CHUNK_SIZE) {
+                return userService.getUsersByIds(memberIds, fields);
+            }
+        }
+        return fields.isAll() ? usersProjectRepository.findUsersByProjectId(projectId)
+                : sparseViewRepository.findUsersByProjectId(projectId, fields);
+    }
+
+    /**
+     * Метод, возвращающий список проектов, связанных с определенным пользователем.
+     * Проекты пользователя берутся из индекса участников, если он актуален для текущей транзакции
+     * и умещается в один запрос по идентификаторам, иначе - одним соединением в базе данных.
+     * Проекты выбираются проекциями в транзакции только для чтения.
+     *
+     * @param userId идентификатор пользователя
+     * @return список проектов в порядке возрастания идентификаторов
      */
-    public List<User> getUsersByProjectId(Long projectId) {
-        return projectValidation(projectId) ? usersProjectRepository.findUsersByProjectId(projectId) :
-                null;
+    @Transactional(readOnly = true)
+    public List<ProjectView> getProjectsByUserId(Long userId) {
+        return getProjectsByUserId(userId, ViewFields.all());
     }
 
     /**
-     * Метод, возвращающий список проектов, связанных с определенным пользователем
+     * Вариант {@link #getProjectsByUserId(Long)}, выбирающий из таблицы только указанные поля.
      *
      * @param userId идентификатор пользователя
-     * @return список проектов
+     * @param fields набор полей проекции
+     * @return список проектов в порядке возрастания идентификаторов или null, если пользователь не найден
      */
-    public List<Project> getProjectsByUserId(Long userId) {
-        return userValidation(userId) ? usersProjectRepository.findProjectsByUserId(userId) : null;
+    @Transactional(readOnly = true)
+    public List<ProjectView> getProjectsByUserId(Long userId, ViewFields fields) {
+        if (!userValidation(userId)) {
+            return null;
+        }
+        if (membershipIndex.isCurrent()) {
+            List<Long> projectIds = membershipIndex.getProjectIds(userId);
+            if (projectIds.size() <= BULK_CHUNK_SIZE) {
+                return projectService.getProjectsByIds(projectIds, fields);
+            }
+        }
+        return fields.isAll() ? usersProjectRepository.findProjectsByUserId(userId)
+                : sparseViewRepository.findProjectsByUserId(userId, fields);
     }
 
     /**
-     * Метод, возвращающий список пользователей, не входящих в проект
+     * Метод, возвращающий список пользователей, не входящих в проект.
+     * Если индекс участников актуален, список вычисляется разностью битовых карт всех пользователей
+     * и участников проекта, иначе, а также если результат не умещается в один запрос по идентификаторам, -
+     * анти-соединением в базе данных.
      *
      * @param projectId идентификатор проекта
      * @return список пользователей, не входящих в проект
      */
-    public List<User> getUsersNotInProject(Long projectId) {
+    @Transactional(readOnly = true)
+    public List<UserView> getUsersNotInProject(Long projectId) {
+        return getUsersNotInProject(projectId, ViewFields.all());
+    }
+
+    /**
+     * Вариант {@link #getUsersNotInProject(Long)}, выбирающий из таблицы только указанные поля.
+     *
+     * @param projectId идентификатор проекта
+     * @param fields    набор полей проекции
+     * @return список пользователей в порядке возрастания идентификаторов или null, если проект не найден
+     */
+    @Transactional(readOnly = true)
+    public List<UserView> getUsersNotInProject(Long projectId, ViewFields fields) {
         if (!projectValidation(projectId)){
             return null;
         }
-        List<Long> userIds = this.getUsersByProjectId(projectId)
-                .stream().map(User::getId)
-                .collect(Collectors.toList());
-        return usersProjectRepository.findUsersNotInProject(userIds);
+        if (membershipIndex.isCurrent()) {
+            List<Long> nonMemberIds = membershipIndex.getNonMemberIds(projectId);
+            if (nonMemberIds.size() <= BULK_CHUNK_SIZE) {
+                return userService.getUsersByIds(nonMemberIds, fields);
+            }
+        }
+        return fields.isAll() ? usersProjectRepository.findUsersNotInProject(projectId)
+                : sparseViewRepository.findUsersNotInProject(projectId, fields);
+    }
+
+    /**
+     * Метод, возвращающий количество участников проекта из счетчика проекта.
+     *
+     * @param projectId идентификатор проекта
+     * @return количество пользователей проекта или null, если проект не найден
+     */
+    @Transactional(readOnly = true)
+    public Long countUsersByProjectId(Long projectId) {
+        if (!projectValidation(projectId)) {
+            return null;
+        }
+        return membershipCounterRepository.findMemberCount(projectId).orElse(0L);
+    }
+
+    /**
+     * Метод, возвращающий количество проектов пользователя из счетчика пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @return количество проектов пользователя или null, если пользователь не найден
+     */
+    @Transactional(readOnly = true)
+    public Long countProjectsByUserId(Long userId) {
+        if (!userValidation(userId)) {
+            return null;
+        }
+        return membershipCounterRepository.findProjectCount(userId).orElse(0L);
+    }
+
+    /**
+     * Метод, возвращающий проекты с наибольшим количеством участников.
+     * Читает первые строки индекса счетчиков, не просматривая связи и проекты.
+     *
+     * @param limit запрошенный размер рейтинга
+     * @return проекты по убыванию количества участников, не больше pagination.max-page-size
+     */
+    @Transactional(readOnly = true)
+    public List<RankedProject> getLargestProjects(Integer limit) {
+        return membershipCounterRepository.findLargestProjects(Limit.of(paginationProperties.resolvePageSize(limit)));
+    }
+
+    /**
+     * Метод, возвращающий пользователей, состоящих в наибольшем количестве проектов.
+     * Читает первые строки индекса счетчиков, не просматривая связи и пользователей.
+     *
+     * @param limit запрошенный размер рейтинга
+     * @return пользователи по убыванию количества проектов, не больше pagination.max-page-size
+     */
+    @Transactional(readOnly = true)
+    public List<RankedUser> getMostActiveUsers(Integer limit) {
+        return membershipCounterRepository.findMostActiveUsers(Limit.of(paginationProperties.resolvePageSize(limit)));
+    }
+
+    /**
+     * Метод, возвращающий страницу пользователей, связанных с определенным проектом.
+     * Существование проекта проверяется отдельным запросом, только если страница пуста.
+     *
+     * @param projectId идентификатор проекта
+     * @param cursor    токен курсора из предыдущей страницы или null для первой страницы
+     * @param size      запрошенный размер страницы
+     * @return страница пользователей или null, если проект не найден
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<User> getUsersPageByProjectId(Long projectId, String cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        List<User> users = usersProjectRepository.findUsersPageByProjectId(projectId,
+                afterId(cursor), Limit.of(pageSize + 1));
+        if (users.isEmpty() && !projectValidation(projectId)) {
+            return null;
+        }
+        return KeysetPage.of(users, pageSize, ID_SORT, user -> new PageCursor(ID_SORT, user.getId(), null));
+    }
+
+    /**
+     * Метод, возвращающий страницу проектов, связанных с определенным пользователем.
+     * Существование пользователя проверяется отдельным запросом, только если страница пуста.
+     *
+     * @param userId идентификатор пользователя
+     * @param cursor токен курсора из предыдущей страницы или null для первой страницы
+     * @param size   запрошенный размер страницы
+     * @return страница проектов или null, если пользователь не найден
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Project> getProjectsPageByUserId(Long userId, String cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        List<Project> projects = usersProjectRepository.findProjectsPageByUserId(userId,
+                afterId(cursor), Limit.of(pageSize + 1));
+        if (projects.isEmpty() && !userValidation(userId)) {
+            return null;
+        }
+        return KeysetPage.of(projects, pageSize, ID_SORT,
+                project -> new PageCursor(ID_SORT, project.getId(), null));
+    }
+
+    /**
+     * Метод, возвращающий страницу пользователей, не входящих в проект.
+     * Существование проекта проверяется отдельным запросом, только если страница пуста.
+     *
+     * @param projectId идентификатор проекта
+     * @param cursor    токен курсора из предыдущей страницы или null для первой страницы
+     * @param size      запрошенный размер страницы
+     * @return страница пользователей, не входящих в проект, или null, если проект не найден
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<User> getUsersNotInProjectPage(Long projectId, String cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        List<User> users = usersProjectRepository.findUsersNotInProjectPage(projectId,
+                afterId(cursor), Limit.of(pageSize + 1));
+        if (users.isEmpty() && !projectValidation(projectId)) {
+            return null;
+        }
+        return KeysetPage.of(users, pageSize, ID_SORT, user -> new PageCursor(ID_SORT, user.getId(), null));
     }
 
     /**
@@ -67,18 +298,52 @@ public class UserProjectService {
      */
     @Transactional
     public boolean addUserToProject(Long projectId, List<Long> userIds) {
-        if (!projectValidation(projectId)) {
-            return false;
+        MembershipChangeResult result = addUsersToProject(projectId, userIds);
+        return result != null && result.count(MembershipOutcome.ADDED) > 0;
+    }
+
+    /**
+     * Метод, добавляющий пользователей к проекту с результатом по каждому пользователю.
+     *
+     * Идентификаторы обрабатываются порциями: на каждую порцию выполняется одна блокирующая выборка
+     * пользователей, одна выборка уже существующих связей, один запрос MERGE и по одному изменению
+     * счетчиков проекта и пользователей, независимо от количества пользователей. Строки всех пользователей
+     * блокируются до изменения первого счетчика (см. {@link #lockUsers(List)}). Существующие связи
+     * читаются из базы данных, а не из индекса участников: индекс обновляется после фиксации и может
+     * еще не отражать изменения транзакции, которая до этого держала блокировку проекта.
+     *
+     * @param projectId идентификатор проекта
+     * @param userIds   список идентификаторов пользователей
+     * @return результат по каждому пользователю или null, если проект не найден
+     */
+    @Transactional
+    public MembershipChangeResult addUsersToProject(Long projectId, List<Long> userIds) {
+        if (projectRepository.lockById(projectId).isEmpty()) {
+            return null;
         }
-        Long relatedEntityId = projectId;
-        int a = 0;
-        for (Long userId : userIds) {
-            if ((userService.getUserById(userId) != null) &&
-                    (!usersProjectRepository.existsByUserIdAndProjectId(userId, projectId))) {
-                a += usersProjectRepository.addUsersToProject(projectId, userId);
+        Set<Long> existingUsers = lockUsers(userIds);
+        Map<Long, MembershipOutcome> outcomes = new LinkedHashMap<>();
+        for (List<Long> chunk : chunks(userIds)) {
+            Set<Long> members = new HashSet<>(usersProjectRepository.findMemberIds(projectId, chunk));
+            List<Long> toAdd = new ArrayList<>();
+            for (Long userId : chunk) {
+                if (!existingUsers.contains(userId)) {
+                    outcomes.put(userId, MembershipOutcome.USER_NOT_FOUND);
+                } else if (members.contains(userId)) {
+                    outcomes.put(userId, MembershipOutcome.ALREADY_MEMBER);
+                } else {
+                    outcomes.put(userId, MembershipOutcome.ADDED);
+                    toAdd.add(userId);
+                }
+            }
+            if (!toAdd.isEmpty()) {
+                usersProjectRepository.mergeUsersIntoProject(projectId, toAdd);
+                membershipCounterRepository.addToMemberCount(projectId, toAdd.size());
+                membershipCounterRepository.addToProjectCounts(toAdd, 1);
+                eventPublisher.publishEvent(MembershipChangedEvent.added(projectId, toAdd));
             }
         }
-        return a > 0;
+        return new MembershipChangeResult(projectId, outcomes);
     }
 
     /**
@@ -90,16 +355,47 @@ public class UserProjectService {
      */
     @Transactional
     public boolean removeUserFromProject(Long projectId, List<Long> userIds) {
-        if (!projectValidation(projectId)) {
-            return false;
+        MembershipChangeResult result = removeUsersFromProject(projectId, userIds);
+        return result != null && result.count(MembershipOutcome.REMOVED) > 0;
+    }
+
+    /**
+     * Метод, удаляющий пользователей из проекта с результатом по каждому пользователю.
+     *
+     * Идентификаторы обрабатываются порциями: на каждую порцию выполняется одна блокирующая выборка
+     * пользователей, одна выборка существующих связей, один запрос DELETE и по одному изменению
+     * счетчиков проекта и пользователей, независимо от количества пользователей. Строки всех пользователей
+     * блокируются до изменения первого счетчика (см. {@link #lockUsers(List)}).
+     *
+     * @param projectId идентификатор проекта
+     * @param userIds   список идентификаторов пользователей
+     * @return результат по каждому пользователю или null, если проект не найден
+     */
+    @Transactional
+    public MembershipChangeResult removeUsersFromProject(Long projectId, List<Long> userIds) {
+        if (projectRepository.lockById(projectId).isEmpty()) {
+            return null;
         }
-        int a = 0;
-        for (Long userId : userIds) {
-            if (userService.getUserById(userId) != null) {
-                a += usersProjectRepository.removeUserAndProject(userId, projectId);
+        Set<Long> existingUsers = lockUsers(userIds);
+        Map<Long, MembershipOutcome> outcomes = new LinkedHashMap<>();
+        for (List<Long> chunk : chunks(userIds)) {
+            Set<Long> members = new HashSet<>(usersProjectRepository.findMemberIds(projectId, chunk));
+            for (Long userId : chunk) {
+                if (!existingUsers.contains(userId)) {
+                    outcomes.put(userId, MembershipOutcome.USER_NOT_FOUND);
+                } else {
+                    outcomes.put(userId, members.contains(userId) ? MembershipOutcome.REMOVED :
+                            MembershipOutcome.NOT_MEMBER);
+                }
+            }
+            if (!members.isEmpty()) {
+                int removed = usersProjectRepository.removeUsersFromProject(projectId, members);
+                membershipCounterRepository.addToMemberCount(projectId, -removed);
+                membershipCounterRepository.addToProjectCounts(members, -1);
+                eventPublisher.publishEvent(MembershipChangedEvent.removed(projectId, members));
             }
         }
-        return a>0;
+        return new MembershipChangeResult(projectId, outcomes);
     }
 
     /**
@@ -114,14 +410,67 @@ public class UserProjectService {
      */
     @Transactional
     public boolean removeProject(Long projectId, Long userId) {
-        if (!projectValidation(projectId)) {
+        if (projectRepository.lockById(projectId).isEmpty()) {
             return false;
         }
+        userRepository.lockByIds(List.of(userId));
         int a = 0;
         a += usersProjectRepository.removeUserAndProject(userId, projectId);
+        if (a > 0) {
+            membershipCounterRepository.addToMemberCount(projectId, -a);
+            membershipCounterRepository.addToProjectCounts(List.of(userId), -1);
+            eventPublisher.publishEvent(MembershipChangedEvent.removed(projectId, List.of(userId)));
+        }
         return a>0;
     }
 
+    /**
+     * Извлекает идентификатор последней записи предыдущей страницы из токена курсора.
+     *
+     * @param cursor токен курсора или null для первой страницы
+     * @return идентификатор или null для первой страницы
+     * @throws IllegalArgumentException если курсор некорректен
+     */
+    private Long afterId(String cursor) {
+        return cursor == null || cursor.isEmpty() ? null : PageCursor.decode(cursor, ID_SORT).getId();
+    }
+
+    /**
+     * Блокирует строки пользователей из списка порциями в порядке возрастания идентификаторов.
+     *
+     * Все строки блокируются до изменения счетчиков: удаление пользователя блокирует его строку, а затем
+     * уменьшает счетчики участников его проектов. Если бы счетчик проекта изменялся после блокировки первой
+     * порции, но до блокировки пользователя из следующей, транзакции ждали бы друг друга.
+     *
+     * @param userIds идентификаторы пользователей, могут содержать повторы и null
+     * @return идентификаторы существующих пользователей
+     */
+    private Set<Long> lockUsers(List<Long> userIds) {
+        List<Long> sorted = userIds.stream().filter(Objects::nonNull).sorted().toList();
+        Set<Long> existingUsers = new HashSet<>();
+        for (List<Long> chunk : chunks(sorted)) {
+            existingUsers.addAll(userRepository.lockByIds(chunk));
+        }
+        return existingUsers;
+    }
+
+    /**
+     * Разбивает список идентификаторов без повторов на порции по BULK_CHUNK_SIZE,
+     * чтобы размер списка IN в запросах оставался ограниченным.
+     *
+     * @param ids идентификаторы, могут содержать повторы и null
+     * @return порции уникальных идентификаторов в порядке первого появления
+     */
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinct.remove(null);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += BULK_CHUNK_SIZE) {
+            chunks.add(distinct.subList(from, Math.min(from + BULK_CHUNK_SIZE, distinct.size())));
+        }
+        return chunks;
+    }
+
     /**
      * Метод проверяет, существует ли проект с заданным идентификатором.
      *
@@ -129,8 +478,7 @@ public class UserProjectService {
      * @return true, если проект существует; false в противном случае
      */
     private boolean projectValidation(Long projectId) {
-        Project project = projectService.findProjectById(projectId);
-        return project != null;
+        return projectService.findProjectById(projectId) != null;
     }
 
     /**
@@ -140,7 +488,6 @@ public class UserProjectService {
      * @return true, если пользователь существует; false в противном случае
      */
     private boolean userValidation(Long userId) {
-        User user = userService.getUserById(userId);
-        return user != null;
+        return userService.getUserById(userId) != null;
     }
 }
@@ -1,12 +1,33 @@
 package org.example.service;
 
+import org.example.config.PaginationProperties;
+import org.example.event.MembershipChangedEvent;
+import org.example.event.UserChangedEvent;
+import org.example.index.UserPrefixIndex;
+import org.example.model.KeysetPage;
+import org.example.model.MultiGetResult;
+import org.example.model.PageCursor;
 import org.example.model.User;
+import org.example.model.UserSuggestion;
+import org.example.model.UserView;
+import org.example.model.ViewFields;
+import org.example.repository.MembershipCounterRepository;
+import org.example.repository.SparseViewRepository;
 import org.example.repository.UserRepository;
+import org.example.repository.UsersProjectRepository;
 import lombok.AllArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Сервис для управления пользователями.
@@ -17,6 +38,12 @@ import java.util.List;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final SparseViewRepository sparseViewRepository;
+    private final UsersProjectRepository usersProjectRepository;
+    private final MembershipCounterRepository membershipCounterRepository;
+    private final PaginationProperties paginationProperties;
+    private final UserPrefixIndex userPrefixIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Добавляет нового пользователя в систему.
@@ -31,61 +58,225 @@ public class UserService {
         user.setEmail(userAdd.getEmail());
         user.setRole(userAdd.getRole());
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUserName(), user.getEmail(), false));
         return user;
     }
 
+    /**
+     * Добавляет список пользователей в одной транзакции.
+     *
+     * Идентификаторы выделяются блоками из последовательности, поэтому вставки отправляются
+     * пакетами JDBC (hibernate.jdbc.batch_size), а не по одной строке за обращение к базе данных.
+     *
+     * @param usersAdd пользователи для добавления
+     * @return добавленные пользователи с присвоенными идентификаторами
+     */
+    @Transactional
+    public List<User> addUsers(List<User> usersAdd) {
+        List<User> users = new ArrayList<>(usersAdd.size());
+        for (User userAdd : usersAdd) {
+            User user = new User();
+            user.setUserName(userAdd.getUserName());
+            user.setEmail(userAdd.getEmail());
+            user.setRole(userAdd.getRole());
+            users.add(user);
+        }
+        userRepository.saveAll(users);
+        for (User user : users) {
+            eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUserName(), user.getEmail(),
+                    false));
+        }
+        return users;
+    }
+
     /**
      * Получает список всех пользователей в системе.
+     * Пользователи выбираются проекцией в транзакции только для чтения, без загрузки сущностей.
      *
-     * @return список всех пользователей
+     * @return список всех пользователей в порядке возрастания идентификаторов
      */
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<UserView> getAllUsers() {
+        return userRepository.findAllViews();
+    }
+
+    /**
+     * Получает список всех пользователей с указанным набором полей.
+     * Невыбранные поля не читаются из таблицы и остаются пустыми.
+     *
+     * @param fields набор полей проекции
+     * @return список всех пользователей в порядке возрастания идентификаторов
+     */
+    @Transactional(readOnly = true)
+    public List<UserView> getAllUsers(ViewFields fields) {
+        return fields.isAll() ? getAllUsers() : sparseViewRepository.findAllUsers(fields);
+    }
+
+    /**
+     * Получает страницу пользователей с курсорной (keyset) пагинацией.
+     * Поддерживается сортировка по полям {@code id} и {@code user_name}.
+     *
+     * @param sort   поле сортировки
+     * @param cursor токен курсора из предыдущей страницы или null для первой страницы
+     * @param size   запрошенный размер страницы, ограничивается настройкой pagination.max-page-size
+     * @return страница пользователей
+     * @throws IllegalArgumentException если поле сортировки не поддерживается или курсор некорректен
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<User> getUsersPage(String sort, String cursor, Integer size) {
+        int pageSize = paginationProperties.resolvePageSize(size);
+        PageCursor after = cursor == null || cursor.isEmpty() ? null : PageCursor.decode(cursor, sort);
+        Long afterId = after != null ? after.getId() : null;
+        Limit limit = Limit.of(pageSize + 1);
+        return switch (sort) {
+            case "id" -> KeysetPage.of(userRepository.findPageOrderById(afterId, limit), pageSize, sort,
+                    user -> new PageCursor(sort, user.getId(), null));
+            case "user_name" -> KeysetPage.of(userRepository.findPageOrderByUserName(
+                            after != null ? after.getValue() : null, afterId, limit), pageSize, sort,
+                    user -> new PageCursor(sort, user.getId(), user.getUserName()));
+            default -> throw new IllegalArgumentException("Unsupported sort: " + sort);
+        };
     }
 
     /**
      * Получает пользователя по его идентификатору.
+     * Найденные пользователи кэшируются в кэше users в виде проекций: в кэш не попадают управляемые
+     * сущности с ленивыми коллекциями. Закэшированная проекция общая для всех вызывающих и не должна изменяться.
+     * Пользователь, прочитанный с реплики (вызов из транзакции только для чтения), не кэшируется:
+     * реплика может отставать от основной базы.
      *
      * @param userId идентификатор пользователя
-     * @return объект пользователя или null, если пользователь не найден
+     * @return пользователь или null, если пользователь не найден
+     */
+    @Cacheable(value = "users", key = "#userId",
+            unless = "#result == null or T(org.example.datasource.ReplicaReads).isReplicaRead()")
+    public UserView getUserById(Long userId) {
+        return userRepository.findViewById(userId).orElse(null);
+    }
+
+
+    /**
+     * Получает пользователей по списку идентификаторов одним запросом в виде проекций.
+     * Несуществующие идентификаторы пропускаются.
+     *
+     * @param userIds идентификаторы пользователей
+     * @return найденные пользователи в порядке возрастания идентификаторов
      */
-    public User getUserById(Long userId) {
-        return userRepository.findById(userId).orElse(null);
+    @Transactional(readOnly = true)
+    public List<UserView> getUsersByIds(Collection<Long> userIds) {
+        return getUsersByIds(userIds, ViewFields.all());
     }
 
+    /**
+     * Получает пользователей по списку идентификаторов одним запросом с указанным набором полей.
+     *
+     * @param userIds идентификаторы пользователей
+     * @param fields  набор полей проекции
+     * @return найденные пользователи в порядке возрастания идентификаторов
+     */
+    @Transactional(readOnly = true)
+    public List<UserView> getUsersByIds(Collection<Long> userIds, ViewFields fields) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        return fields.isAll() ? userRepository.findViewsByIds(userIds)
+                : sparseViewRepository.findUsersByIds(userIds, fields);
+    }
+
+    /**
+     * Получает пользователей по списку идентификаторов одним запросом.
+     * Повторяющиеся идентификаторы учитываются один раз, отсутствующие перечисляются в результате.
+     *
+     * @param userIds идентификаторы пользователей, не больше pagination.max-multi-get-ids
+     * @return найденные пользователи в порядке идентификаторов и отсутствующие идентификаторы
+     * @throws IllegalArgumentException если идентификаторов слишком много
+     */
+    @Transactional(readOnly = true)
+    public MultiGetResult<User> findUsersByIds(Collection<Long> userIds) {
+        Set<Long> ids = new LinkedHashSet<>(userIds);
+        paginationProperties.checkMultiGetIds(ids);
+        List<User> users = ids.isEmpty() ? List.of() : userRepository.findAllById(ids);
+        return MultiGetResult.of(ids, users, User::getId);
+    }
 
+    @Transactional(readOnly = true)
     public List<User> findUserByUserNameOrByEmail(String findString){
         List<User> users = userRepository.findUserByUserNameOrEmail(findString, findString);
         return users != null ? users : Collections.emptyList();
     }
+
+    /**
+     * Ищет пользователей по вхождению подстроки в имя или адрес электронной почты,
+     * выбирая только указанные поля.
+     *
+     * @param findString искомая подстрока
+     * @param fields     набор полей проекции
+     * @return найденные пользователи
+     */
+    @Transactional(readOnly = true)
+    public List<UserView> findUserByUserNameOrByEmail(String findString, ViewFields fields) {
+        return sparseViewRepository.searchUsers(findString, fields);
+    }
+
+    /**
+     * Возвращает подсказки автодополнения: пользователей, у которых имя, слово имени
+     * или адрес электронной почты начинается с указанного префикса.
+     * Поиск выполняется по индексу в памяти без обращения к базе данных.
+     *
+     * @param prefix префикс без учета регистра
+     * @param limit  максимальное количество подсказок, ограничивается настройкой pagination.max-page-size
+     * @return подсказки автодополнения
+     */
+    public List<UserSuggestion> autocompleteUsers(String prefix, Integer limit) {
+        return userPrefixIndex.search(prefix, paginationProperties.resolvePageSize(limit));
+    }
     /**
      * Обновляет данные пользователя по его идентификатору.
      *
-     * Этот метод извлекает пользователя по идентификатору,
-     * обновляет его свойства и сохраняет изменения в репозитории.
+     * Этот метод проверяет, что пользователь существует,
+     * и обновляет его свойства одним запросом к репозиторию.
      *
      * @param userId идентификатор пользователя, который необходимо обновить.
      * @param user объект пользователя, содержащий обновленные данные.
+     * @throws IllegalArgumentException если пользователь не найден.
      */
     @Transactional
     public void updateUser(Long userId, User user) {
-        User userToBeUpdated = getUserById(userId);
-        userToBeUpdated.setUserName(user.getUserName());
-        userToBeUpdated.setEmail(user.getEmail());
+        if (getUserById(userId) == null) {
+            throw new IllegalArgumentException("User not found: " + userId);
+        }
         userRepository.updateUserById(userId, user);
         userRepository.flush();
+        eventPublisher.publishEvent(new UserChangedEvent(userId, user.getUserName(), user.getEmail(), false));
     }
 
     /**
      * Удаляет пользователя по его идентификатору.
      *
      * Этот метод удаляет пользователя из репозитория по указанному идентификатору.
+     * Связи пользователя с проектами и сам пользователь удаляются двумя массовыми запросами,
+     * без загрузки проектов пользователя. Перед удалением строка пользователя блокируется,
+     * чтобы параллельно не менялись его связи, и счетчики участников его проектов уменьшаются
+     * одним запросом; счетчик проектов пользователя удаляется вместе с пользователем. Удаление связи
+     * с каждым проектом публикуется отдельным событием, чтобы оно попало в ленту изменений.
+     * Если пользователь не найден, ничего не удаляется и события не публикуются.
      *
      * @param userId идентификатор пользователя, которого необходимо удалить.
      */
     @Transactional
+    @CacheEvict(value = "users", key = "#userId")
     public void deleteUser(Long userId) {
-        userRepository.deleteById(userId);
+        if (userRepository.lockByIds(List.of(userId)).isEmpty()) {
+            return;
+        }
+        membershipCounterRepository.decrementMemberCountsOfProjects(userId);
+        List<Long> projectIds = usersProjectRepository.findProjectIdsByUserId(userId);
+        usersProjectRepository.deleteByUserId(userId);
+        userRepository.deleteUserById(userId);
+        for (Long projectId : projectIds) {
+            eventPublisher.publishEvent(MembershipChangedEvent.removed(projectId, List.of(userId)));
+        }
+        eventPublisher.publishEvent(UserChangedEvent.deleted(userId));
     }
 
 }
@@ -0,0 +1,83 @@
+package org.example.snapshot;
+
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.jdbc.init.DataSourceScriptDatabaseInitializer;
+import org.springframework.boot.sql.init.DatabaseInitializationSettings;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Инициализация базы данных при запуске с учетом постоянного хранилища и снимков данных.
+ *
+ * Если схема уже создана (база данных в файле после перезапуска), скрипты не выполняются и данные
+ * сохраняются. В новой базе создается схема (schema.sql), после чего она заполняется либо из снимка
+ * данных, если задан путь к нему, либо начальными данными data.sql.
+ */
+public class SnapshotDatabaseInitializer extends SqlDataSourceScriptDatabaseInitializer {
+
+    private final DatabaseInitializationSettings settings;
+    private final Path restoreFrom;
+
+    /**
+     * @param dataSource  источник данных
+     * @param settings    настройки скриптов инициализации (spring.sql.init)
+     * @param restoreFrom путь к снимку данных или null, если новая база заполняется из data.sql
+     */
+    public SnapshotDatabaseInitializer(DataSource dataSource, DatabaseInitializationSettings settings,
+                                       Path restoreFrom) {
+        super(dataSource, settings);
+        this.settings = settings;
+        this.restoreFrom = restoreFrom;
+    }
+
+    @Override
+    public boolean initializeDatabase() {
+        if (schemaExists()) {
+            return false;
+        }
+        if (restoreFrom == null) {
+            return super.initializeDatabase();
+        }
+        DatabaseInitializationSettings schemaOnly = new DatabaseInitializationSettings();
+        schemaOnly.setSchemaLocations(settings.getSchemaLocations());
+        schemaOnly.setDataLocations(List.of());
+        schemaOnly.setContinueOnError(settings.isContinueOnError());
+        schemaOnly.setSeparator(settings.getSeparator());
+        schemaOnly.setEncoding(settings.getEncoding());
+        schemaOnly.setMode(settings.getMode());
+        boolean initialized = new DataSourceScriptDatabaseInitializer(getDataSource(), schemaOnly).initializeDatabase();
+        if (initialized) {
+            try (InputStream input = Files.newInputStream(restoreFrom)) {
+                new SnapshotService(getDataSource()).restore(input);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to restore snapshot " + restoreFrom, e);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to restore snapshot " + restoreFrom, e);
+            }
+        }
+        return initialized;
+    }
+
+    /**
+     * Проверяет, создана ли уже таблица пользователей в текущей схеме
+     * (INFORMATION_SCHEMA H2 содержит одноименную системную таблицу).
+     */
+    private boolean schemaExists() {
+        try (Connection connection = getDataSource().getConnection();
+             ResultSet tables = connection.getMetaData().getTables(null, connection.getSchema(), "USERS",
+                     new String[]{"TABLE"})) {
+            return tables.next();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to inspect database schema", e);
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package org.example.snapshot;
+
+import org.example.model.SnapshotSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Экспорт и восстановление пользователей, проектов и связей в компактном двоичном формате.
+ *
+ * Формат снимка: заголовок (сигнатура и версия формата), затем три раздела - пользователи, проекты и связи.
+ * Строки разделов упорядочены по идентификаторам, поэтому идентификаторы записываются разностью
+ * с предыдущим числом переменной длины (1-2 байта для плотных идентификаторов); нулевая разность
+ * завершает раздел. Связи сгруппированы по проектам: разность идентификатора проекта, количество
+ * участников и разности идентификаторов пользователей. Строки записываются длиной и байтами UTF-8,
+ * длина 0 означает null.
+ *
+ * Все таблицы читаются в одной транзакции REPEATABLE READ, поэтому снимок согласован.
+ * Восстановление выполняется одним соединением пакетами JDBC без проверки внешних ключей
+ * и с перестроением полнотекстового индекса после загрузки, а не на каждой вставке.
+ * Счетчики участников проектов и проектов пользователей не записываются в снимок и заполняются
+ * по восстановленным связям. После восстановления кэши users и projects очищаются, так как данные
+ * записываются в обход сервисов.
+ */
+@Service
+public class SnapshotService {
+
+    private static final int MAGIC = 0x55505353;
+    private static final int VERSION = 1;
+
+    /**
+     * Количество строк в пакете JDBC и в одной фиксации при восстановлении.
+     */
+    private static final int BATCH_SIZE = 10_000;
+
+    private final DataSource dataSource;
+    private final CacheManager cacheManager;
+
+    /**
+     * @param dataSource источник данных; кэши не используются (восстановление при запуске, до создания кэшей)
+     */
+    public SnapshotService(DataSource dataSource) {
+        this(dataSource, null);
+    }
+
+    /**
+     * @param dataSource   источник данных
+     * @param cacheManager менеджер кэшей, очищаемых после восстановления, или null
+     */
+    @Autowired
+    public SnapshotService(DataSource dataSource, CacheManager cacheManager) {
+        this.dataSource = dataSource;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Записывает снимок всех пользователей, проектов и связей в поток.
+     *
+     * @param output поток для записи; не закрывается
+     * @return количество записанных строк
+     * @throws IOException  при ошибке записи
+     * @throws SQLException при ошибке чтения из базы данных
+     */
+    public SnapshotSummary export(OutputStream output) throws IOException, SQLException {
+        SnapshotSummary summary = new SnapshotSummary();
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output, 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            try (Statement statement = connection.createStatement()) {
+                statement.setFetchSize(BATCH_SIZE);
+                try (ResultSet rows = statement.executeQuery(
+                        "SELECT id, user_name, email, role FROM users ORDER BY id")) {
+                    long previousId = 0;
+                    while (rows.next()) {
+                        long id = rows.getLong(1);
+                        writeVarLong(out, id - previousId);
+                        writeString(out, rows.getString(2));
+                        writeString(out, rows.getString(3));
+                        writeString(out, rows.getString(4));
+                        previousId = id;
+                        summary.setUsers(summary.getUsers() + 1);
+                    }
+                    writeVarLong(out, 0);
+                }
+                try (ResultSet rows = statement.executeQuery(
+                        "SELECT id, name, description, created_date FROM projects ORDER BY id")) {
+                    long previousId = 0;
+                    while (rows.next()) {
+                        long id = rows.getLong(1);
+                        writeVarLong(out, id - previousId);
+                        writeString(out, rows.getString(2));
+                        writeString(out, rows.getString(3));
+                        Date createdDate = rows.getDate(4);
+                        writeVarLong(out, createdDate == null ? 0 : zigZag(createdDate.toLocalDate().toEpochDay()) + 1);
+                        previousId = id;
+                        summary.setProjects(summary.getProjects() + 1);
+                    }
+                    writeVarLong(out, 0);
+                }
+                try (ResultSet rows = statement.executeQuery(
+                        "SELECT project_id, user_id FROM users_project ORDER BY project_id, user_id")) {
+                    summary.setMemberships(writeMemberships(out, rows));
+                }
+            }
+            connection.commit();
+        }
+        out.flush();
+        return summary;
+    }
+
+    /**
+     * Восстанавливает данные из снимка в пустую базу данных с созданной схемой.
+     * Последовательности идентификаторов продолжаются после максимальных восстановленных идентификаторов.
+     * Данные фиксируются пакетами, поэтому после ошибки восстановления базу данных нужно создать заново.
+     *
+     * @param input поток со снимком; не закрывается
+     * @return количество восстановленных строк
+     * @throws IllegalStateException    если в базе данных уже есть пользователи или проекты
+     * @throws IllegalArgumentException если поток не является снимком поддерживаемой версии
+     * @throws IOException              при ошибке чтения
+     * @throws SQLException             при ошибке записи в базу данных
+     */
+    public SnapshotSummary restore(InputStream input) throws IOException, SQLException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input, 1 << 16));
+        if (in.readInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a snapshot");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported snapshot version: " + version);
+        }
+        SnapshotSummary summary = new SnapshotSummary();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            if (count(statement, "users") > 0 || count(statement, "projects") > 0) {
+                throw new IllegalStateException("Snapshot can only be restored into an empty database");
+            }
+            connection.setAutoCommit(false);
+            statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+            statement.execute("CALL FTL_DROP_INDEX('PUBLIC', 'PROJECTS')");
+            try {
+                long maxUserId = restoreUsers(connection, in, summary);
+                long maxProjectId = restoreProjects(connection, in, summary);
+                restoreMemberships(connection, in, summary);
+                restoreMembershipCounters(statement);
+                statement.execute("ALTER SEQUENCE users_seq RESTART WITH " + (maxUserId + 1));
+                statement.execute("ALTER SEQUENCE projects_seq RESTART WITH " + (maxProjectId + 1));
+                connection.commit();
+            } finally {
+                statement.execute("SET REFERENTIAL_INTEGRITY TRUE");
+            }
+            statement.execute("CALL FTL_CREATE_INDEX('PUBLIC', 'PROJECTS', 'NAME,DESCRIPTION')");
+            connection.commit();
+        }
+        clearCaches();
+        return summary;
+    }
+
+    private void clearCaches() {
+        if (cacheManager == null) {
+            return;
+        }
+        for (String name : new String[]{"users", "projects"}) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private long restoreUsers(Connection connection, DataInputStream in, SnapshotSummary summary)
+            throws IOException, SQLException {
+        long id = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO users (id, user_name, email, role) VALUES (?, ?, ?, ?)")) {
+            for (long delta = readVarLong(in); delta != 0; delta = readVarLong(in)) {
+                id += delta;
+                insert.setLong(1, id);
+                insert.setString(2, readString(in));
+                insert.setString(3, readString(in));
+                insert.setString(4, readString(in));
+                insert.addBatch();
+                summary.setUsers(summary.getUsers() + 1);
+                if (summary.getUsers() % BATCH_SIZE == 0) {
+                    flush(connection, insert);
+                }
+            }
+            flush(connection, insert);
+        }
+        return id;
+    }
+
+    private long restoreProjects(Connection connection, DataInputStream in, SnapshotSummary summary)
+            throws IOException, SQLException {
+        long id = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO projects (id, name, description, created_date) VALUES (?, ?, ?, ?)")) {
+            for (long delta = readVarLong(in); delta != 0; delta = readVarLong(in)) {
+                id += delta;
+                insert.setLong(1, id);
+                insert.setString(2, readString(in));
+                insert.setString(3, readString(in));
+                long createdDate = readVarLong(in);
+                if (createdDate == 0) {
+                    insert.setNull(4, Types.DATE);
+                } else {
+                    insert.setObject(4, LocalDate.ofEpochDay(unZigZag(createdDate - 1)));
+                }
+                insert.addBatch();
+                summary.setProjects(summary.getProjects() + 1);
+                if (summary.getProjects() % BATCH_SIZE == 0) {
+                    flush(connection, insert);
+                }
+            }
+            flush(connection, insert);
+        }
+        return id;
+    }
+
+    private void restoreMemberships(Connection connection, DataInputStream in, SnapshotSummary summary)
+            throws IOException, SQLException {
+        long projectId = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO users_project (project_id, user_id) VALUES (?, ?)")) {
+            for (long delta = readVarLong(in); delta != 0; delta = readVarLong(in)) {
+                projectId += delta;
+                long members = readVarLong(in);
+                long userId = 0;
+                for (long i = 0; i < members; i++) {
+                    userId += readVarLong(in);
+                    insert.setLong(1, projectId);
+                    insert.setLong(2, userId);
+                    insert.addBatch();
+                    summary.setMemberships(summary.getMemberships() + 1);
+                    if (summary.getMemberships() % BATCH_SIZE == 0) {
+                        flush(connection, insert);
+                    }
+                }
+            }
+            flush(connection, insert);
+        }
+    }
+
+    /**
+     * Заполняет счетчики участников проектов и проектов пользователей по восстановленным связям.
+     * Счетчики не входят в снимок: они однозначно вычисляются по связям.
+     */
+    private static void restoreMembershipCounters(Statement statement) throws SQLException {
+        statement.execute("INSERT INTO project_member_counts (project_id, member_count) " +
+                "SELECT project_id, COUNT(*) FROM users_project GROUP BY project_id");
+        statement.execute("INSERT INTO user_project_counts (user_id, project_count) " +
+                "SELECT user_id, COUNT(*) FROM users_project GROUP BY user_id");
+    }
+
+    /**
+     * Записывает связи, сгруппированные по проектам, и завершает раздел.
+     */
+    private static long writeMemberships(DataOutputStream out, ResultSet rows) throws IOException, SQLException {
+        long count = 0;
+        long previousProjectId = 0;
+        long currentProjectId = 0;
+        long[] userIds = new long[64];
+        int members = 0;
+        while (rows.next()) {
+            long projectId = rows.getLong(1);
+            if (projectId != currentProjectId && members > 0) {
+                writeProject(out, currentProjectId - previousProjectId, userIds, members);
+                previousProjectId = currentProjectId;
+                members = 0;
+            }
+            currentProjectId = projectId;
+            if (members == userIds.length) {
+                userIds = Arrays.copyOf(userIds, members * 2);
+            }
+            userIds[members++] = rows.getLong(2);
+            count++;
+        }
+        if (members > 0) {
+            writeProject(out, currentProjectId - previousProjectId, userIds, members);
+        }
+        writeVarLong(out, 0);
+        return count;
+    }
+
+    private static void writeProject(DataOutputStream out, long projectDelta, long[] userIds, int members)
+            throws IOException {
+        writeVarLong(out, projectDelta);
+        writeVarLong(out, members);
+        long previousUserId = 0;
+        for (int i = 0; i < members; i++) {
+            writeVarLong(out, userIds[i] - previousUserId);
+            previousUserId = userIds[i];
+        }
+    }
+
+    private static void flush(Connection connection, PreparedStatement insert) throws SQLException {
+        insert.executeBatch();
+        connection.commit();
+    }
+
+    private static long count(Statement statement, String table) throws SQLException {
+        try (ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        long length = readVarLong(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[Math.toIntExact(length - 1)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Записывает неотрицательное число порциями по 7 бит, старший бит байта означает продолжение.
+     */
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new EOFException("Malformed snapshot: variable-length number is too long");
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,265 @@
+package org.example.version;
+
+import org.example.event.MembershipChangedEvent;
+import org.example.event.ProjectChangedEvent;
+import org.example.datasource.ReplicaReads;
+import org.example.event.UserChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Версии ресурсов и коллекций для формирования ETag и обработки условных запросов (If-None-Match).
+ *
+ * Версия - время последнего изменения ресурса в микросекундах от начала эпохи, увеличенное при необходимости так,
+ * чтобы версии были уникальны и возрастали; ресурсы, не изменявшиеся с момента запуска, имеют версию 0.
+ * В ETag добавляется время запуска экземпляра, поэтому после перезапуска ранее выданные ETag не совпадают.
+ * Проверка ETag не обращается к базе данных и не сериализует ответ.
+ *
+ * Версии увеличиваются событиями {@link UserChangedEvent}, {@link ProjectChangedEvent} и
+ * {@link MembershipChangedEvent} после завершения транзакции (фаза AFTER_COMPLETION), то есть после
+ * сброса кэшей и обновления индексов, выполняемых при фиксации. Поэтому данные, прочитанные после
+ * получения версии, не старше этой версии. Чтобы это выполнялось и при чтении с реплик, формирование ETag
+ * передает наибольшую версию ответа в {@link ReplicaReads}: реплика, еще не применившая изменения этой версии,
+ * не используется для чтения в текущем запросе.
+ *
+ * Версии отдельных ресурсов хранятся только для изменявшихся ресурсов; при удалении ресурса его версии
+ * удаляются, а удаленный ресурс возвращается контроллерами со статусом 404 до проверки ETag. Количество
+ * хранимых версий каждого вида ограничено {@link #MAX_TRACKED_VERSIONS}: при превышении вытесняются самые
+ * старые версии, а версией вытесненных ресурсов считается наибольшая вытесненная версия. Она не меньше
+ * настоящей версии ресурса, поэтому ETag такого ресурса один раз меняется, но не совпадает с ETag данных,
+ * изменившихся позже.
+ */
+@Component
+public class ResourceVersions {
+
+    /**
+     * Максимальное количество хранимых версий ресурсов каждого вида.
+     */
+    static final int MAX_TRACKED_VERSIONS = 100_000;
+
+    private final String instance = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong users = new AtomicLong();
+    private final AtomicLong projects = new AtomicLong();
+    private final Versions userVersions;
+    private final Versions projectVersions;
+    private final Versions projectMemberVersions;
+    private final Versions userProjectVersions;
+
+    public ResourceVersions() {
+        this(MAX_TRACKED_VERSIONS);
+    }
+
+    /**
+     * @param maxTrackedVersions максимальное количество хранимых версий ресурсов каждого вида
+     */
+    ResourceVersions(int maxTrackedVersions) {
+        userVersions = new Versions(maxTrackedVersions);
+        projectVersions = new Versions(maxTrackedVersions);
+        projectMemberVersions = new Versions(maxTrackedVersions);
+        userProjectVersions = new Versions(maxTrackedVersions);
+    }
+
+    /**
+     * Возвращает версию коллекции пользователей: изменяется при любом изменении любого пользователя.
+     *
+     * @return версия коллекции пользователей
+     */
+    public long users() {
+        return users.get();
+    }
+
+    /**
+     * Возвращает версию пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @return версия пользователя
+     */
+    public long user(Long userId) {
+        return userVersions.get(userId);
+    }
+
+    /**
+     * Возвращает версию коллекции проектов: изменяется при любом изменении любого проекта.
+     *
+     * @return версия коллекции проектов
+     */
+    public long projects() {
+        return projects.get();
+    }
+
+    /**
+     * Возвращает версию проекта.
+     *
+     * @param projectId идентификатор проекта
+     * @return версия проекта
+     */
+    public long project(Long projectId) {
+        return projectVersions.get(projectId);
+    }
+
+    /**
+     * Возвращает версию состава участников проекта.
+     *
+     * @param projectId идентификатор проекта
+     * @return версия состава участников
+     */
+    public long projectMembers(Long projectId) {
+        return projectMemberVersions.get(projectId);
+    }
+
+    /**
+     * Возвращает версию списка проектов пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @return версия списка проектов пользователя
+     */
+    public long userProjects(Long userId) {
+        return userProjectVersions.get(userId);
+    }
+
+    /**
+     * Формирует строгий ETag из версий, от которых зависит ответ, и требует, чтобы данные ответа в текущем
+     * запросе читались с базы, применившей изменения этих версий.
+     *
+     * @param versions версии ресурсов и коллекций, входящих в ответ
+     * @return ETag в кавычках
+     */
+    public String etag(long... versions) {
+        StringBuilder etag = new StringBuilder("\"").append(instance);
+        for (long version : versions) {
+            etag.append('-').append(Long.toString(version, 36));
+            ReplicaReads.requireVersion(version);
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * Увеличивает версии пользователя и коллекции пользователей; при удалении удаляет версии пользователя
+     * и списка его проектов.
+     *
+     * @param event событие изменения пользователя
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        long version = nextVersion();
+        if (event.isDeleted()) {
+            userVersions.remove(event.getUserId());
+            userProjectVersions.remove(event.getUserId());
+        } else {
+            userVersions.update(event.getUserId(), version);
+        }
+        users.accumulateAndGet(version, Math::max);
+    }
+
+    /**
+     * Увеличивает версии проекта и коллекции проектов; при удалении удаляет версии проекта и состава его участников.
+     *
+     * @param event событие изменения проекта
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        long version = nextVersion();
+        if (event.isDeleted()) {
+            projectVersions.remove(event.getProjectId());
+            projectMemberVersions.remove(event.getProjectId());
+        } else {
+            projectVersions.update(event.getProjectId(), version);
+        }
+        projects.accumulateAndGet(version, Math::max);
+    }
+
+    /**
+     * Увеличивает версии состава участников проекта и списков проектов затронутых пользователей.
+     *
+     * @param event событие изменения состава участников
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onMembershipChanged(MembershipChangedEvent event) {
+        long version = nextVersion();
+        if (event.isProjectDeleted()) {
+            projectMemberVersions.remove(event.getProjectId());
+        } else {
+            projectMemberVersions.update(event.getProjectId(), version);
+        }
+        for (Long userId : event.getAddedUserIds()) {
+            userProjectVersions.update(userId, version);
+        }
+        for (Long userId : event.getRemovedUserIds()) {
+            userProjectVersions.update(userId, version);
+        }
+    }
+
+    /**
+     * Следующая версия: текущее время в микросекундах, но больше всех выданных ранее версий.
+     */
+    private long nextVersion() {
+        long now = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+        return clock.updateAndGet(previous -> Math.max(previous + 1, now));
+    }
+
+    /**
+     * Версии ресурсов одного вида по идентификаторам с ограниченным количеством записей.
+     */
+    private static final class Versions {
+
+        private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+        private final int maxEntries;
+
+        /**
+         * Версия ресурсов, для которых запись отсутствует: наибольшая вытесненная версия.
+         */
+        private volatile long evicted;
+
+        Versions(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        long get(Long id) {
+            Long version = versions.get(id);
+            return version != null ? version : evicted;
+        }
+
+        void update(Long id, long version) {
+            versions.merge(id, version, Math::max);
+            if (versions.size() > maxEntries) {
+                trim();
+            }
+        }
+
+        void remove(Long id) {
+            versions.remove(id);
+        }
+
+        /**
+         * Вытесняет самые старые версии, оставляя три четверти лимита, чтобы не сортировать записи
+         * при каждом изменении. Версия вытесненных ресурсов поднимается до удаления записей, поэтому
+         * ни одно чтение не получает версию меньше настоящей.
+         */
+        private synchronized void trim() {
+            if (versions.size() <= maxEntries) {
+                return;
+            }
+            List<Map.Entry<Long, Long>> entries = new ArrayList<>(versions.size());
+            versions.forEach((id, version) -> entries.add(Map.entry(id, version)));
+            entries.sort(Map.Entry.comparingByValue());
+            int count = Math.max(entries.size() - maxEntries * 3 / 4, 0);
+            if (count == 0) {
+                return;
+            }
+            evicted = Math.max(evicted, entries.get(count - 1).getValue());
+            for (Map.Entry<Long, Long> entry : entries.subList(0, count)) {
+                versions.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+}
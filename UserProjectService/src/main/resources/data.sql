@@ -1,20 +1,30 @@
-INSERT INTO users (user_name, email, role)
+INSERT INTO users (id, user_name, email, role)
 VALUES
-( 'admin', 'admin@example.com', 'ROLE_ADMIN'),
-('user','user@example.com', 'ROLE_USER');
+(1, 'admin', 'admin@example.com', 'ROLE_ADMIN'),
+(2, 'user','user@example.com', 'ROLE_USER');
 
 
-INSERT INTO projects (name, description, created_date)
+INSERT INTO projects (id, name, description, created_date)
 VALUES
-('Проект А', 'Описание проекта А', '2024-01-01'),
-('Проект Б', 'Описание проекта Б', '2023-02-15'),
-('Проект B', 'Описание проекта B', '2022-02-15'),
-('Проект Г', 'Описание проекта Г', '2023-02-15'),
-('Проект Д', 'Описание проекта Д', '2024-06-15'),
-('Проект Е', 'Описание проекта Е', '2024-03-10');
+(1, 'Проект А', 'Описание проекта А', '2024-01-01'),
+(2, 'Проект Б', 'Описание проекта Б', '2023-02-15'),
+(3, 'Проект B', 'Описание проекта B', '2022-02-15'),
+(4, 'Проект Г', 'Описание проекта Г', '2023-02-15'),
+(5, 'Проект Д', 'Описание проекта Д', '2024-06-15'),
+(6, 'Проект Е', 'Описание проекта Е', '2024-03-10');
+
+-- Первый блок идентификаторов занят начальными данными, последовательности продолжают со следующего блока
+ALTER SEQUENCE users_seq RESTART WITH 51;
+ALTER SEQUENCE projects_seq RESTART WITH 51;
 
 INSERT INTO users_project (project_id, user_id)
 VALUES
 ('1', '2'),
 ('3', '2'),
-('5', '2');
\ No newline at end of file
+('5', '2');
+
+-- Счетчики связей по начальным данным
+INSERT INTO project_member_counts (project_id, member_count)
+SELECT project_id, COUNT(*) FROM users_project GROUP BY project_id;
+INSERT INTO user_project_counts (user_id, project_count)
+SELECT user_id, COUNT(*) FROM users_project GROUP BY user_id;
@@ -0,0 +1,28 @@
+-- Создание таблиц исходящих изменений и позиции ленты изменений.
+-- Выполняется один раз на базе данных, созданной до появления ленты изменений; лента начинается с пустой позиции.
+
+CREATE SEQUENCE change_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE change_outbox (
+    id BIGINT PRIMARY KEY,
+    change_offset BIGINT,
+    change_key VARCHAR(64) NOT NULL,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    related_id BIGINT,
+    change_type VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    published_at TIMESTAMP
+);
+
+CREATE INDEX idx_change_outbox_offset ON change_outbox (change_offset, id);
+CREATE INDEX idx_change_outbox_key ON change_outbox (change_key, change_offset);
+CREATE INDEX idx_change_outbox_published ON change_outbox (published_at);
+
+CREATE TABLE change_feed_position (
+    id INT PRIMARY KEY,
+    last_offset BIGINT NOT NULL,
+    truncated_through BIGINT NOT NULL
+);
+
+INSERT INTO change_feed_position (id, last_offset, truncated_through) VALUES (1, 0, 0);
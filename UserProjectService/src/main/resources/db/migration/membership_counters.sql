@@ -0,0 +1,23 @@
+-- Создание счетчиков участников проектов и проектов пользователей и заполнение их по существующим связям.
+-- Выполняется один раз на базе данных, созданной до появления таблиц счетчиков.
+
+CREATE TABLE project_member_counts (
+    project_id BIGINT PRIMARY KEY,
+    member_count BIGINT NOT NULL,
+    FOREIGN KEY (project_id) REFERENCES projects(id) ON DELETE CASCADE
+);
+
+CREATE TABLE user_project_counts (
+    user_id BIGINT PRIMARY KEY,
+    project_count BIGINT NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_project_member_counts_rank ON project_member_counts (member_count DESC, project_id);
+CREATE INDEX idx_user_project_counts_rank ON user_project_counts (project_count DESC, user_id);
+
+INSERT INTO project_member_counts (project_id, member_count)
+SELECT project_id, COUNT(*) FROM users_project GROUP BY project_id;
+
+INSERT INTO user_project_counts (user_id, project_count)
+SELECT user_id, COUNT(*) FROM users_project GROUP BY user_id;
@@ -0,0 +1,19 @@
+-- Перенос таблицы users_project с суррогатного ключа id на составной первичный ключ (project_id, user_id).
+-- Выполняется один раз на базе данных со старой схемой; повторяющиеся пары сворачиваются в одну связь.
+
+CREATE TABLE users_project_new (
+    project_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    CONSTRAINT pk_users_project PRIMARY KEY (project_id, user_id),
+    FOREIGN KEY (project_id) REFERENCES projects(id),
+    FOREIGN KEY (user_id) REFERENCES users(id)
+);
+
+INSERT INTO users_project_new (project_id, user_id)
+SELECT DISTINCT project_id, user_id FROM users_project;
+
+DROP TABLE users_project;
+
+ALTER TABLE users_project_new RENAME TO users_project;
+
+CREATE INDEX idx_users_project_user_project ON users_project (user_id, project_id);
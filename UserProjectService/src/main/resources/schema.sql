@@ -1,21 +1,109 @@
+-- Идентификаторы выдаются последовательностями с шагом 50: Hibernate (оптимизатор pooled-lo)
+-- получает одно значение на блок из 50 идентификаторов и может объединять вставки в пакеты JDBC.
+-- Шаг последовательности должен совпадать с allocationSize в сущностях.
+-- Вставки без идентификатора в обход Hibernate получают значение по умолчанию из той же последовательности.
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE projects_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE users (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT DEFAULT NEXT VALUE FOR users_seq PRIMARY KEY,
     user_name VARCHAR(100) NOT NULL,
     email VARCHAR(255),
     role VARCHAR(100) NOT NULL
 );
 
 CREATE TABLE projects (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT DEFAULT NEXT VALUE FOR projects_seq PRIMARY KEY,
     name VARCHAR(255),
     description TEXT,
     created_date DATE
 );
 
+-- Связь многие-ко-многим с составным первичным ключом: пара (проект, пользователь) уникальна,
+-- а индекс первичного ключа покрывает выборки участников проекта.
+-- Перенос существующих данных со схемы с суррогатным id: db/migration/users_project_composite_key.sql
 CREATE TABLE users_project (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
     project_id BIGINT NOT NULL,
     user_id BIGINT NOT NULL,
+    CONSTRAINT pk_users_project PRIMARY KEY (project_id, user_id),
     FOREIGN KEY (project_id) REFERENCES projects(id),
     FOREIGN KEY (user_id) REFERENCES users(id)
-);
\ No newline at end of file
+);
+
+-- Счетчики участников проектов и проектов пользователей. Изменяются в той же транзакции, что и связи
+-- users_project (UserProjectService, удаление проекта или пользователя), и позволяют получить количество
+-- чтением одной строки. Строка счетчика создается при первом добавлении связи и удаляется вместе с проектом
+-- или пользователем. Перенос существующих данных: db/migration/membership_counters.sql
+CREATE TABLE project_member_counts (
+    project_id BIGINT PRIMARY KEY,
+    member_count BIGINT NOT NULL,
+    FOREIGN KEY (project_id) REFERENCES projects(id) ON DELETE CASCADE
+);
+
+CREATE TABLE user_project_counts (
+    user_id BIGINT PRIMARY KEY,
+    project_count BIGINT NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Индексы рейтингов: первые K строк по убыванию счетчика читаются из индекса без сортировки и просмотра таблицы
+CREATE INDEX idx_project_member_counts_rank ON project_member_counts (member_count DESC, project_id);
+CREATE INDEX idx_user_project_counts_rank ON user_project_counts (project_count DESC, user_id);
+
+-- Исходящие изменения (transactional outbox): строка записывается в той же транзакции, что и изменение
+-- пользователя, проекта или связи. Ретранслятор (ChangeRelay) назначает зафиксированным строкам
+-- возрастающие позиции change_offset в порядке записи; лента изменений /api/changes читается по позициям.
+-- change_key - ключ изменяемой сущности или связи, по нему устаревшие изменения удаляются при уплотнении.
+-- Перенос существующей базы: db/migration/change_outbox.sql
+CREATE SEQUENCE change_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE change_outbox (
+    id BIGINT PRIMARY KEY,
+    change_offset BIGINT,
+    change_key VARCHAR(64) NOT NULL,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    related_id BIGINT,
+    change_type VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    published_at TIMESTAMP
+);
+
+-- Неопубликованные строки (change_offset IS NULL) по порядку записи и чтение ленты по позициям
+CREATE INDEX idx_change_outbox_offset ON change_outbox (change_offset, id);
+-- Поиск более поздних изменений того же ключа при уплотнении
+CREATE INDEX idx_change_outbox_key ON change_outbox (change_key, change_offset);
+-- Поиск опубликованных строк старше срока хранения
+CREATE INDEX idx_change_outbox_published ON change_outbox (published_at);
+
+-- Позиция ленты: последняя назначенная позиция и последняя позиция, удаленная по сроку хранения.
+-- Строка блокируется ретранслятором, поэтому позиции назначает один ретранслятор за раз.
+CREATE TABLE change_feed_position (
+    id INT PRIMARY KEY,
+    last_offset BIGINT NOT NULL,
+    truncated_through BIGINT NOT NULL
+);
+
+INSERT INTO change_feed_position (id, last_offset, truncated_through) VALUES (1, 0, 0);
+
+-- Отметка времени для измерения отставания реплик (ReplicaLagMonitor): записывается только на основной базе
+-- и попадает на реплики вместе с остальными изменениями.
+CREATE TABLE replication_heartbeat (
+    id INT PRIMARY KEY,
+    updated_at TIMESTAMP NOT NULL
+);
+
+-- Индексы для курсорной (keyset) пагинации по сортируемым столбцам
+CREATE INDEX idx_users_user_name ON users (user_name, id);
+CREATE INDEX idx_projects_name ON projects (name, id);
+CREATE INDEX idx_projects_created_date ON projects (created_date, id);
+
+-- Обратный покрывающий индекс для выборки проектов пользователя. Прямое направление
+-- (участники проекта, анти-соединение NOT EXISTS) покрывает первичный ключ (project_id, user_id).
+CREATE INDEX idx_users_project_user_project ON users_project (user_id, project_id);
+
+-- Полнотекстовый индекс Lucene по названию и описанию проектов.
+-- H2 поддерживает его триггерами: индекс обновляется при каждой вставке, изменении и удалении строки.
+CREATE ALIAS IF NOT EXISTS FTL_INIT FOR 'org.h2.fulltext.FullTextLucene.init';
+CALL FTL_INIT();
+CALL FTL_CREATE_INDEX('PUBLIC', 'PROJECTS', 'NAME,DESCRIPTION');
@@ -0,0 +1,196 @@
+package org.example.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.example.model.Project;
+import org.example.model.User;
+import org.example.service.ProjectService;
+import org.example.service.UserService;
+import org.h2.tools.Server;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Бенчмарк массового создания 100 000 пользователей и 100 000 проектов.
+ *
+ * Сравниваются: вставка по одной строке с получением сгенерированного ключа (как при GenerationType.IDENTITY,
+ * при котором Hibernate отключает пакетную вставку), сущности с последовательностью без пакетов JDBC,
+ * с пакетами JDBC и сервисные методы UserService.addUsers / ProjectService.addProjects.
+ * База данных подключается через TCP-сервер H2, чтобы каждое обращение к ней было сетевым, как в рабочем
+ * окружении. Вывод SQL в журнал отключен, чтобы измерялась вставка, а не журналирование.
+ *
+ * Запуск: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO"})
+public class BulkInsertBenchmark {
+
+    private static Server server;
+
+    private static final int ROWS = 100_000;
+    private static final int CHUNK = 1_000;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @DynamicPropertySource
+    static void tcpDataSource(DynamicPropertyRegistry registry) throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        registry.add("spring.datasource.url",
+                () -> "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:bulk_insert_benchmark");
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    void bulkCreateThroughput() {
+        // Прогрев JIT и пула соединений на небольшом объеме
+        userService.addUsers(users(0, CHUNK));
+        projectService.addProjects(projects(0, CHUNK));
+        persist(this::user, CHUNK, 1);
+        persist(this::user, CHUNK, BATCH_SIZE);
+
+        System.out.printf("%n%-34s %16s %16s%n", "strategy (" + ROWS + " rows)", "users/s", "projects/s");
+        System.out.printf("%-34s %16s %16s%n", "row by row, generated keys",
+                rate(() -> insertRowByRow("INSERT INTO users (user_name, email, role) VALUES (?, ?, ?)",
+                        i -> new Object[]{"row-user-" + i, "row-user-" + i + "@example.com", "ROLE_USER"})),
+                rate(() -> insertRowByRow("INSERT INTO projects (name, description, created_date) VALUES (?, ?, ?)",
+                        i -> new Object[]{"Row project " + i, "Description " + i, LocalDate.now()})));
+        System.out.printf("%-34s %16s %16s%n", "sequence, no JDBC batching",
+                rate(() -> persist(this::user, ROWS, 1)),
+                rate(() -> persist(this::project, ROWS, 1)));
+        System.out.printf("%-34s %16s %16s%n", "sequence + JDBC batching",
+                rate(() -> persist(this::user, ROWS, BATCH_SIZE)),
+                rate(() -> persist(this::project, ROWS, BATCH_SIZE)));
+        System.out.printf("%-34s %16s %16s%n", "addUsers / addProjects",
+                rate(() -> {
+                    for (int from = 0; from < ROWS; from += CHUNK) {
+                        userService.addUsers(users(from, CHUNK));
+                    }
+                }),
+                rate(() -> {
+                    for (int from = 0; from < ROWS; from += CHUNK) {
+                        projectService.addProjects(projects(from, CHUNK));
+                    }
+                }));
+
+        assertEquals(4L * ROWS + 3 * CHUNK + 2,
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class));
+    }
+
+    /**
+     * Замеряет скорость вставки ROWS строк.
+     *
+     * @param insert операция вставки
+     * @return количество строк в секунду
+     */
+    private String rate(Runnable insert) {
+        long start = System.nanoTime();
+        insert.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return String.format("%,.0f", ROWS / seconds);
+    }
+
+    /**
+     * Вставляет строки по одной, получая сгенерированный ключ каждой строки, как Hibernate при IDENTITY.
+     */
+    private void insertRowByRow(String sql, IntFunction<Object[]> row) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < ROWS; i++) {
+                Object[] values = row.apply(i);
+                jdbcTemplate.update(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                    for (int p = 0; p < values.length; p++) {
+                        statement.setObject(p + 1, values[p]);
+                    }
+                    return statement;
+                }, new GeneratedKeyHolder());
+            }
+        });
+    }
+
+    /**
+     * Сохраняет сущности через EntityManager порциями по CHUNK с заданным размером пакета JDBC.
+     */
+    private void persist(IntFunction<Object> entity, int rows, int batchSize) {
+        for (int from = 0; from < rows; from += CHUNK) {
+            int start = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                for (int i = start; i < start + CHUNK; i++) {
+                    entityManager.persist(entity.apply(i));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+    }
+
+    private List<User> users(int from, int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            users.add(user(i));
+        }
+        return users;
+    }
+
+    private List<Project> projects(int from, int count) {
+        List<Project> projects = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            projects.add(project(i));
+        }
+        return projects;
+    }
+
+    private User user(int i) {
+        User user = new User();
+        user.setUserName("bulk-user-" + i);
+        user.setEmail("bulk-user-" + i + "@example.com");
+        user.setRole("ROLE_USER");
+        return user;
+    }
+
+    private Project project(int i) {
+        Project project = new Project();
+        project.setName("Bulk project " + i);
+        project.setDescription("Description " + i);
+        project.setCreatedDate(LocalDate.now());
+        return project;
+    }
+}
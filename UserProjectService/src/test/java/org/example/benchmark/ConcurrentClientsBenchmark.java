@@ -0,0 +1,108 @@
+package org.example.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Нагрузочный тест: 1 000 одновременных клиентов выполняют HTTP-запросы чтения к запущенному сервису.
+ * Выводятся пропускная способность и перцентили задержки для текущего режима обработки запросов.
+ *
+ * Запуск: mvn test -Pbenchmark -Dtest=ConcurrentClientsBenchmark
+ *
+ * Режим выбирается свойством spring.threads.virtual.enabled (-Dspring.threads.virtual.enabled=true).
+ * Виртуальные потоки используются только на Java 21+; сборка выполняется на Java 17, поэтому измерен
+ * только пул потоков Tomcat, а сравнение с виртуальными потоками не проводилось. Фактический режим
+ * выводится в строке mode.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:concurrent_clients_benchmark",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.springframework.web=INFO"})
+public class ConcurrentClientsBenchmark {
+
+    private static final int CLIENTS = 1_000;
+    private static final int REQUESTS_PER_CLIENT = 20;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private Environment environment;
+
+    @Test
+    void throughputWithThousandConcurrentClients() throws Exception {
+        String mode = Threading.VIRTUAL.isActive(environment) ? "virtual threads" : "platform threads";
+        System.out.printf("%nmode: %s, java %d, clients: %,d%n", mode, Runtime.version().feature(), CLIENTS);
+        System.out.printf("%-32s %12s %14s %14s %14s%n", "endpoint", "req/s", "p50", "p99", "max");
+        run("/api/projects/find/1");
+        run("/api/users_in_project?projectId=1");
+        run("/api/users/get_all");
+    }
+
+    /**
+     * Выполняет по REQUESTS_PER_CLIENT запросов от каждого из CLIENTS одновременных клиентов
+     * и выводит пропускную способность и задержки.
+     */
+    private void run(String path) throws Exception {
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofMinutes(1)).GET().build();
+        long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+        AtomicInteger next = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<?>> futures = new ArrayList<>(CLIENTS);
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(clients.submit(() -> {
+                    start.await();
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        long begin = System.nanoTime();
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies[next.getAndIncrement()] = System.nanoTime() - begin;
+                        assertEquals(200, response.statusCode());
+                    }
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsed = System.nanoTime() - begin;
+
+            Arrays.sort(latencies);
+            System.out.printf("%-32s %,12.0f %11.1f ms %11.1f ms %11.1f ms%n", path,
+                    latencies.length * 1e9 / elapsed,
+                    latencies[latencies.length / 2] / 1e6,
+                    latencies[latencies.length * 99 / 100] / 1e6,
+                    latencies[latencies.length - 1] / 1e6);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.example.index.MembershipIndex;
+import org.example.model.User;
+import org.example.repository.UsersProjectRepository;
+import org.example.service.UserProjectService;
+import org.example.service.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Бенчмарк списков get_all и users_in_project при 100 000 строк: загрузка управляемых сущностей
+ * против проекций, выбирающих только столбцы списка. Для каждого варианта замеряется полный путь запроса
+ * до сериализации в JSON: задержка (медиана и 95-й перцентиль) и объем памяти, выделенной потоком
+ * за один запрос.
+ *
+ * Запуск: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:list_projection_benchmark",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO"})
+public class ListProjectionBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 15;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MembershipIndex membershipIndex;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserProjectService userProjectService;
+
+    @Autowired
+    private UsersProjectRepository usersProjectRepository;
+
+    @Test
+    void projectionsAgainstEntities() {
+        long projectId = insertData();
+        membershipIndex.rebuild();
+        assertEquals(ROWS, userProjectService.getUsersByProjectId(projectId).size());
+
+        System.out.printf("%n%-40s %24s %16s%n", "variant", "latency p50 / p95", "allocated");
+        System.out.printf("%-40s %s%n", "get_all, entities",
+                measure(() -> inTransaction(() -> entityManager
+                        .createQuery("SELECT u FROM User u", User.class).getResultList())));
+        System.out.printf("%-40s %s%n", "get_all, projection",
+                measure(() -> toJson(userService.getAllUsers())));
+        System.out.printf("%-40s %s%n", "users_in_project, entities",
+                measure(() -> inTransaction(() -> entityManager
+                        .createQuery("SELECT up.user FROM UsersProject up WHERE up.project.id = :projectId",
+                                User.class)
+                        .setParameter("projectId", projectId).getResultList())));
+        System.out.printf("%-40s %s%n", "users_in_project, projection (database)",
+                measure(() -> transactionTemplate.execute(status ->
+                        toJson(usersProjectRepository.findUsersByProjectId(projectId)))));
+        System.out.printf("%-40s %s%n", "users_in_project, projection (service)",
+                measure(() -> toJson(userProjectService.getUsersByProjectId(projectId))));
+    }
+
+    /**
+     * Загружает сущности и сериализует их внутри транзакции, как при открытом контексте персистентности
+     * на время обработки запроса.
+     */
+    private byte[] inTransaction(Supplier<List<User>> query) {
+        return transactionTemplate.execute(status -> toJson(query.get()));
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Замеряет время выполнения операции и объем памяти, выделенной текущим потоком.
+     *
+     * @param operation операция
+     * @return строка с медианой и 95-м перцентилем в миллисекундах и медианой выделенной памяти
+     */
+    private String measure(Supplier<?> operation) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP; i++) {
+            operation.get();
+        }
+        long[] samples = new long[ITERATIONS];
+        long[] allocations = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            operation.get();
+            samples[i] = System.nanoTime() - start;
+            allocations[i] = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        }
+        Arrays.sort(samples);
+        Arrays.sort(allocations);
+        return String.format("%,10.1f / %,8.1f ms %,13.1f MB", samples[ITERATIONS / 2] / 1e6,
+                samples[ITERATIONS * 95 / 100] / 1e6, allocations[ITERATIONS / 2] / 1e6);
+    }
+
+    /**
+     * Добавляет ROWS пользователей и проект, в который входят все они.
+     *
+     * @return идентификатор проекта
+     */
+    private long insertData() {
+        List<Object[]> users = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            users.add(new Object[]{"projection-user-" + i, "projection-user-" + i + "@example.com", "ROLE_USER"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (user_name, email, role) VALUES (?, ?, ?)", users);
+        jdbcTemplate.update("INSERT INTO projects (name, description, created_date) VALUES (?, ?, CURRENT_DATE)",
+                "Projection benchmark", "Projection benchmark");
+        long projectId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM projects", Long.class);
+        jdbcTemplate.update("INSERT INTO users_project (project_id, user_id) " +
+                "SELECT ?, id FROM users WHERE user_name LIKE 'projection-user-%'", projectId);
+        return projectId;
+    }
+}
@@ -0,0 +1,137 @@
+package org.example.benchmark;
+
+import org.example.index.MembershipIndex;
+import org.example.repository.UsersProjectRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Бенчмарк индекса участников на битовых картах против запросов к таблице users_project
+ * при 1 000 000 связей: 100 000 пользователей и 1 000 проектов по 1 000 участников.
+ *
+ * Запуск: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest
+public class MembershipIndexBenchmark {
+
+    private static final int USERS = 100_000;
+    private static final int PROJECTS = 1_000;
+    private static final int GROUPS = 100;
+    private static final int CHECKED_IDS = 100;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MembershipIndex membershipIndex;
+
+    @Autowired
+    private UsersProjectRepository usersProjectRepository;
+
+    @Test
+    void bitmapIndexAgainstTableQueries() {
+        long[] userIds = insertUsers();
+        long[] projectIds = insertProjects();
+        insertMembers(userIds, projectIds);
+
+        long start = System.nanoTime();
+        membershipIndex.rebuild();
+        System.out.printf("%nrebuild: %,d ms, estimated memory: %,d KB%n",
+                (System.nanoTime() - start) / 1_000_000, membershipIndex.estimatedMemoryBytes() / 1024);
+
+        long projectId = projectIds[PROJECTS / 2];
+        List<Long> checked = new ArrayList<>(CHECKED_IDS);
+        for (int i = 0; i < CHECKED_IDS; i++) {
+            checked.add(userIds[i * (USERS / CHECKED_IDS) + i % GROUPS]);
+        }
+        assertEquals(USERS / GROUPS, membershipIndex.countMembers(projectId));
+        assertEquals(usersProjectRepository.findMemberIds(projectId, checked).size(),
+                membershipIndex.filterMembers(projectId, checked).size());
+
+        System.out.printf("%-16s %18s %18s%n", "operation", "bitmap index", "users_project");
+        System.out.printf("%-16s %18s %18s%n", "count",
+                measure(() -> membershipIndex.countMembers(projectId)),
+                measure(() -> usersProjectRepository.countByProjectId(projectId)));
+        System.out.printf("%-16s %18s %18s%n", "check 100 ids",
+                measure(() -> membershipIndex.filterMembers(projectId, checked)),
+                measure(() -> usersProjectRepository.findMemberIds(projectId, checked)));
+        System.out.printf("%-16s %18s %18s%n", "member ids",
+                measure(() -> membershipIndex.getMemberIds(projectId)),
+                measure(() -> jdbcTemplate.queryForList(
+                        "SELECT user_id FROM users_project WHERE project_id = ? ORDER BY user_id",
+                        Long.class, projectId)));
+        System.out.printf("%-16s %18s %18s%n", "non-member ids",
+                measure(() -> membershipIndex.getNonMemberIds(projectId)),
+                measure(() -> jdbcTemplate.queryForList("SELECT u.id FROM users u WHERE NOT EXISTS (" +
+                        "SELECT 1 FROM users_project up WHERE up.user_id = u.id AND up.project_id = ?) " +
+                        "ORDER BY u.id", Long.class, projectId)));
+    }
+
+    /**
+     * Замеряет время выполнения операции.
+     *
+     * @param operation операция
+     * @return строка с медианой и 95-м перцентилем в микросекундах
+     */
+    private String measure(Supplier<?> operation) {
+        for (int i = 0; i < WARMUP; i++) {
+            operation.get();
+        }
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            operation.get();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return String.format("%,d / %,d us", samples[ITERATIONS / 2] / 1_000,
+                samples[ITERATIONS * 95 / 100] / 1_000);
+    }
+
+    private long[] insertUsers() {
+        List<Object[]> rows = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            rows.add(new Object[]{"bitmap-bench-" + i, "bitmap-bench-" + i + "@example.com", "ROLE_USER"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (user_name, email, role) VALUES (?, ?, ?)", rows);
+        return jdbcTemplate.queryForList("SELECT id FROM users WHERE user_name LIKE 'bitmap-bench-%' ORDER BY id",
+                Long.class).stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private long[] insertProjects() {
+        List<Object[]> rows = new ArrayList<>(PROJECTS);
+        for (int i = 0; i < PROJECTS; i++) {
+            rows.add(new Object[]{"Bitmap bench " + i, "Bitmap bench " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO projects (name, description, created_date) VALUES (?, ?, CURRENT_DATE)",
+                rows);
+        return jdbcTemplate.queryForList("SELECT id FROM projects WHERE name LIKE 'Bitmap bench %' ORDER BY id",
+                Long.class).stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Пользователи разбиты на GROUPS групп по остатку от деления номера; проект p включает группу p % GROUPS.
+     */
+    private void insertMembers(long[] userIds, long[] projectIds) {
+        for (int p = 0; p < projectIds.length; p++) {
+            List<Object[]> rows = new ArrayList<>(USERS / GROUPS);
+            for (int u = p % GROUPS; u < userIds.length; u += GROUPS) {
+                rows.add(new Object[]{projectIds[p], userIds[u]});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO users_project (project_id, user_id) VALUES (?, ?)", rows);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.benchmark;
+
+import org.example.model.PageCursor;
+import org.example.service.UserProjectService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Бенчмарк запросов участников проекта при росте размера проекта от 10 до 100 000 участников.
+ * Показывает, что постраничные запросы (keyset + анти-соединение) выполняются за почти постоянное время,
+ * а полная выборка участников растет линейно.
+ *
+ * Запуск: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest
+public class MembershipQueryBenchmark {
+
+    private static final int USER_POOL = 200_000;
+    private static final int[] PROJECT_SIZES = {10, 100, 1_000, 10_000, 100_000};
+    private static final int PAGE_SIZE = 50;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserProjectService userProjectService;
+
+    @Test
+    void membershipQueriesStayFlatAsProjectGrows() {
+        long[] userIds = insertUsers();
+
+        System.out.printf("%n%-10s %18s %18s %18s %18s%n", "members",
+                "in_project p1", "in_project mid", "not_in_project", "full list");
+        for (int size : PROJECT_SIZES) {
+            // Участники распределены по всему пулу пользователей с постоянным шагом
+            long projectId = insertProject("Benchmark project " + size);
+            long[] members = insertMembers(projectId, userIds, size);
+            String middleCursor = new PageCursor("id", members[size / 2], null).encode();
+
+            assertEquals(Math.min(size, PAGE_SIZE),
+                    userProjectService.getUsersPageByProjectId(projectId, null, PAGE_SIZE).getItems().size());
+
+            System.out.printf("%-10d %18s %18s %18s %18s%n", size,
+                    measure(() -> userProjectService.getUsersPageByProjectId(projectId, null, PAGE_SIZE)),
+                    measure(() -> userProjectService.getUsersPageByProjectId(projectId, middleCursor, PAGE_SIZE)),
+                    measure(() -> userProjectService.getUsersNotInProjectPage(projectId, null, PAGE_SIZE)),
+                    measure(() -> userProjectService.getUsersByProjectId(projectId)));
+        }
+    }
+
+    /**
+     * Замеряет время выполнения операции.
+     *
+     * @param operation операция
+     * @return строка с медианой и 95-м перцентилем в микросекундах
+     */
+    private String measure(Supplier<?> operation) {
+        for (int i = 0; i < WARMUP; i++) {
+            operation.get();
+        }
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            operation.get();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return String.format("%,d / %,d us", samples[ITERATIONS / 2] / 1_000,
+                samples[ITERATIONS * 95 / 100] / 1_000);
+    }
+
+    private long[] insertUsers() {
+        List<Object[]> rows = new ArrayList<>(USER_POOL);
+        for (int i = 0; i < USER_POOL; i++) {
+            rows.add(new Object[]{"bench-user-" + i, "bench-user-" + i + "@example.com", "ROLE_USER"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (user_name, email, role) VALUES (?, ?, ?)", rows);
+        return jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private long insertProject(String name) {
+        jdbcTemplate.update("INSERT INTO projects (name, description, created_date) VALUES (?, ?, CURRENT_DATE)",
+                name, name);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM projects", Long.class);
+    }
+
+    private long[] insertMembers(long projectId, long[] userIds, int size) {
+        int step = userIds.length / size;
+        long[] members = new long[size];
+        List<Object[]> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            members[i] = userIds[i * step];
+            rows.add(new Object[]{projectId, members[i]});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users_project (project_id, user_id) VALUES (?, ?)", rows);
+        return members;
+    }
+}
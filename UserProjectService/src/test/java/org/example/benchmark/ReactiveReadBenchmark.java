@@ -0,0 +1,142 @@
+package org.example.benchmark;
+
+import org.example.model.User;
+import org.example.reactive.ReactiveApiServer;
+import org.example.service.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Нагрузочный тест: одни и те же запросы чтения выполняются одновременными клиентами сначала
+ * через сервлетное API (Tomcat, JPA), затем через реактивное API (Netty, R2DBC).
+ * Для каждого стека выводятся пропускная способность, перцентили задержки, пиковое заполнение
+ * кучи и число потоков сервера.
+ *
+ * mvn test -Pbenchmark -Dtest=ReactiveReadBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive_read_benchmark",
+        "reactive-api.enabled=true",
+        "reactive-api.port=0",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.springframework.web=INFO"})
+public class ReactiveReadBenchmark {
+
+    private static final int USERS = 2_000;
+    private static final int CLIENTS = 500;
+    private static final int REQUESTS_PER_CLIENT = 20;
+
+    @LocalServerPort
+    private int servletPort;
+
+    @Autowired
+    private ReactiveApiServer reactiveApiServer;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void servletVersusReactiveReads() throws Exception {
+        userService.addUsers(IntStream.range(0, USERS).mapToObj(i -> {
+            User user = new User();
+            user.setUserName("reader" + i);
+            user.setEmail("reader" + i + "@mail.ru");
+            user.setRole("ROLE_USER");
+            return user;
+        }).toList());
+
+        System.out.printf("%njava %d, clients: %,d, users: %,d%n", Runtime.version().feature(), CLIENTS, USERS);
+        System.out.printf("%-10s %-34s %10s %11s %11s %12s %8s%n",
+                "stack", "endpoint", "req/s", "p50", "p99", "peak heap", "threads");
+        for (String path : List.of("/api/projects/find/1", "/api/users_in_project?projectId=1", "/api/users/get_all")) {
+            run("servlet", servletPort, path);
+            run("reactive", reactiveApiServer.getPort(), path);
+        }
+    }
+
+    /**
+     * Выполняет по REQUESTS_PER_CLIENT запросов от каждого из CLIENTS одновременных клиентов
+     * и выводит пропускную способность, задержки и потребление ресурсов сервером.
+     */
+    private void run(String stack, int port, String path) throws Exception {
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofMinutes(1)).GET().build();
+        long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+        AtomicInteger next = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<?>> futures = new ArrayList<>(CLIENTS);
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(clients.submit(() -> {
+                    start.await();
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        long begin = System.nanoTime();
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies[next.getAndIncrement()] = System.nanoTime() - begin;
+                        assertEquals(200, response.statusCode());
+                    }
+                    return null;
+                }));
+            }
+            System.gc();
+            List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP).toList();
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsed = System.nanoTime() - begin;
+
+            // Пики пулов достигаются в разные моменты, поэтому сумма - оценка сверху
+            long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+            Arrays.sort(latencies);
+            System.out.printf("%-10s %-34s %,10.0f %8.1f ms %8.1f ms %9d MB %8d%n", stack, path,
+                    latencies.length * 1e9 / elapsed,
+                    latencies[latencies.length / 2] / 1e6,
+                    latencies[latencies.length * 99 / 100] / 1e6,
+                    peakHeap >> 20,
+                    serverThreads(stack));
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    /**
+     * Число потоков обработки запросов: рабочие потоки Tomcat или потоки цикла событий Netty.
+     */
+    private static long serverThreads(String stack) {
+        String prefix = stack.equals("servlet") ? "http-nio-" : "reactor-http-";
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith(prefix)).count();
+    }
+}
@@ -0,0 +1,183 @@
+package org.example.benchmark;
+
+import org.example.model.SnapshotSummary;
+import org.example.snapshot.SnapshotService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Бенчмарк заполнения новой базы данных при запуске: 1 000 000 пользователей, 50 000 проектов
+ * и 1 000 000 связей.
+ *
+ * Сравниваются: повторное выполнение вставок из SQL-скрипта (SCRIPT / RUNSCRIPT H2, аналог data.sql),
+ * восстановление из двоичного снимка {@link SnapshotService} и открытие уже заполненной базы в файле
+ * (профиль persistent). Все базы хранятся в файлах во временном каталоге, как в профиле persistent.
+ * Контекст Spring не поднимается, измеряется только загрузка данных.
+ *
+ * Запуск: mvn test -Pbenchmark -Dtest=StartupBenchmark
+ */
+@Tag("benchmark")
+public class StartupBenchmark {
+
+    private static final int USERS = 1_000_000;
+    private static final int PROJECTS = 50_000;
+    private static final int BATCH_SIZE = 10_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void compareStartupStrategies() throws Exception {
+        SingleConnectionDataSource source = database(url("source"), true);
+        populate(source);
+
+        Path snapshot = dir.resolve("userproject.snapshot");
+        long exportStart = System.nanoTime();
+        SnapshotSummary exported;
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(snapshot))) {
+            exported = new SnapshotService(source).export(output);
+        }
+        long exportMillis = (System.nanoTime() - exportStart) / 1_000_000;
+
+        Path script = dir.resolve("userproject.sql");
+        new JdbcTemplate(source).execute("SCRIPT NOPASSWORDS NOSETTINGS TO '" + script + "'");
+        shutdown(source);
+
+        long replayMillis = time(() -> {
+            SingleConnectionDataSource target = new SingleConnectionDataSource(url("replay"), "root", "root", true);
+            new JdbcTemplate(target).execute("RUNSCRIPT FROM '" + script + "'");
+            assertCounts(target, exported);
+            shutdown(target);
+            return null;
+        });
+
+        long restoreMillis = time(() -> {
+            SingleConnectionDataSource target = database(url("restore"), false);
+            restore(target, snapshot);
+            assertCounts(target, exported);
+            shutdown(target);
+            return null;
+        });
+
+        long reopenMillis = time(() -> {
+            SingleConnectionDataSource reopened = new SingleConnectionDataSource(url("restore"), "root", "root", true);
+            assertCounts(reopened, exported);
+            shutdown(reopened);
+            return null;
+        });
+
+        System.out.printf("%n%s: %d users, %d projects, %d memberships%n", "dataset",
+                exported.getUsers(), exported.getProjects(), exported.getMemberships());
+        System.out.printf("%-34s %10d KB, exported in %d ms%n", "binary snapshot",
+                Files.size(snapshot) / 1024, exportMillis);
+        System.out.printf("%-34s %10d KB%n", "SQL script", Files.size(script) / 1024);
+        System.out.printf("%-34s %10d ms%n", "replay SQL inserts", replayMillis);
+        System.out.printf("%-34s %10d ms%n", "restore binary snapshot", restoreMillis);
+        System.out.printf("%-34s %10d ms%n", "reopen persistent file", reopenMillis);
+    }
+
+    /**
+     * Заполняет базу пользователями, проектами и связями: каждый пользователь участвует в одном проекте.
+     */
+    private static void populate(SingleConnectionDataSource dataSource) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement users = connection.prepareStatement(
+                    "INSERT INTO users (id, user_name, email, role) VALUES (?, ?, ?, 'ROLE_USER')")) {
+                for (int i = 1; i <= USERS; i++) {
+                    users.setLong(1, 100 + i);
+                    users.setString(2, "user" + i);
+                    users.setString(3, "user" + i + "@mail.ru");
+                    users.addBatch();
+                    if (i % BATCH_SIZE == 0) {
+                        users.executeBatch();
+                    }
+                }
+            }
+            LocalDate start = LocalDate.of(2020, 1, 1);
+            try (PreparedStatement projects = connection.prepareStatement(
+                    "INSERT INTO projects (id, name, description, created_date) VALUES (?, ?, ?, ?)")) {
+                for (int i = 1; i <= PROJECTS; i++) {
+                    projects.setLong(1, 100 + i);
+                    projects.setString(2, "Project " + i);
+                    projects.setString(3, "Description of project " + i);
+                    projects.setDate(4, Date.valueOf(start.plusDays(i % 1000)));
+                    projects.addBatch();
+                    if (i % BATCH_SIZE == 0) {
+                        projects.executeBatch();
+                    }
+                }
+            }
+            try (PreparedStatement memberships = connection.prepareStatement(
+                    "INSERT INTO users_project (project_id, user_id) VALUES (?, ?)")) {
+                for (int i = 1; i <= USERS; i++) {
+                    memberships.setLong(1, 101 + i % PROJECTS);
+                    memberships.setLong(2, 100 + i);
+                    memberships.addBatch();
+                    if (i % BATCH_SIZE == 0) {
+                        memberships.executeBatch();
+                    }
+                }
+            }
+            connection.commit();
+        }
+    }
+
+    private static void restore(SingleConnectionDataSource dataSource, Path snapshot) throws Exception {
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(snapshot))) {
+            new SnapshotService(dataSource).restore(input);
+        }
+    }
+
+    private static void assertCounts(SingleConnectionDataSource dataSource, SnapshotSummary expected) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        assertEquals(expected.getUsers(), jdbc.queryForObject("SELECT COUNT(*) FROM users", Long.class));
+        assertEquals(expected.getProjects(), jdbc.queryForObject("SELECT COUNT(*) FROM projects", Long.class));
+        assertEquals(expected.getMemberships(),
+                jdbc.queryForObject("SELECT COUNT(*) FROM users_project", Long.class));
+    }
+
+    private static SingleConnectionDataSource database(String url, boolean withData) {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(url, "root", "root", true);
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+        if (withData) {
+            populator.addScript(new ClassPathResource("data.sql"));
+        }
+        populator.execute(dataSource);
+        return dataSource;
+    }
+
+    private String url(String name) {
+        return "jdbc:h2:file:" + dir.resolve(name);
+    }
+
+    private static void shutdown(SingleConnectionDataSource dataSource) {
+        new JdbcTemplate(dataSource).execute("SHUTDOWN");
+        dataSource.destroy();
+    }
+
+    private static long time(Callable<Void> action) throws Exception {
+        long start = System.nanoTime();
+        action.call();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
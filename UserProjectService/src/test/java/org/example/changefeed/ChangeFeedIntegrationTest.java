@@ -0,0 +1,227 @@
+package org.example.changefeed;
+
+import org.example.model.ChangeEntityType;
+import org.example.model.ChangeFeedPage;
+import org.example.model.ChangeType;
+import org.example.model.ChangeView;
+import org.example.model.Project;
+import org.example.model.User;
+import org.example.repository.OutboxRepository;
+import org.example.service.ChangeFeedService;
+import org.example.service.ProjectService;
+import org.example.service.UserProjectService;
+import org.example.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+
+@SpringBootTest
+public class ChangeFeedIntegrationTest {
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private ChangeRelay changeRelay;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private UserProjectService userProjectService;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private User createTestUser(String userName) {
+        User user = new User();
+        user.setUserName(userName);
+        user.setEmail(userName + "@example.com");
+        user.setRole("ROLE_USER");
+        return userService.addUser(user);
+    }
+
+    private Project createTestProject(String name) {
+        Project project = new Project();
+        project.setName(name);
+        project.setDescription("Description " + name);
+        return projectService.addProject(project);
+    }
+
+    /**
+     * Публикует все зафиксированные изменения и возвращает позицию конца ленты.
+     */
+    private long head() {
+        List<ChangeView> changes = readAll(outboxRepository.findTruncatedThrough(), 1000);
+        return changes.isEmpty() ? outboxRepository.findTruncatedThrough() : changes.get(changes.size() - 1).getOffset();
+    }
+
+    /**
+     * Публикует все зафиксированные изменения и читает ленту после позиции порциями.
+     */
+    private List<ChangeView> readAll(long since, int limit) {
+        changeRelay.relayPending();
+        List<ChangeView> changes = new ArrayList<>();
+        ChangeFeedPage page;
+        do {
+            page = changeFeedService.getChanges(since, limit);
+            changes.addAll(page.getChanges());
+            assertTrue(page.getChanges().size() <= limit);
+            since = page.getNextSince();
+        } while (page.isHasMore());
+        return changes;
+    }
+
+    @Test
+    void mutationsAppearInCommitOrder() {
+        long since = head();
+
+        // Изменения пользователя, проекта и связей записываются вместе с ними и публикуются по порядку
+        User user = createTestUser("feed-user");
+        Project project = createTestProject("Feed project");
+        userProjectService.addUserToProject(project.getId(), List.of(user.getId()));
+        userProjectService.removeUserFromProject(project.getId(), List.of(user.getId()));
+        projectService.deleteProjectById(project.getId());
+
+        List<ChangeView> changes = readAll(since, 2);
+        assertEquals(List.of("user:" + user.getId(), "project:" + project.getId(),
+                        "membership:" + project.getId() + ":" + user.getId(),
+                        "membership:" + project.getId() + ":" + user.getId(), "project:" + project.getId()),
+                changes.stream().map(ChangeView::getKey).toList());
+        assertEquals(List.of(ChangeType.UPSERT, ChangeType.UPSERT, ChangeType.UPSERT, ChangeType.DELETE,
+                ChangeType.DELETE), changes.stream().map(ChangeView::getChangeType).toList());
+        assertEquals(ChangeEntityType.MEMBERSHIP, changes.get(2).getEntityType());
+        assertEquals(project.getId(), changes.get(2).getEntityId());
+        assertEquals(user.getId(), changes.get(2).getRelatedId());
+
+        // Позиции идут подряд и строго возрастают
+        for (int i = 1; i < changes.size(); i++) {
+            assertEquals(changes.get(i - 1).getOffset() + 1, changes.get(i).getOffset());
+        }
+        assertEquals(since + 1, changes.get(0).getOffset());
+
+        // После конца ленты новых изменений нет, позиция не меняется
+        ChangeFeedPage empty = changeFeedService.getChanges(changes.get(4).getOffset(), null);
+        assertTrue(empty.getChanges().isEmpty());
+        assertFalse(empty.isHasMore());
+        assertEquals(changes.get(4).getOffset(), empty.getNextSince());
+    }
+
+    @Test
+    void rolledBackChangesAreNotPublished() {
+        long since = head();
+
+        // Откаченный пользователь не попадает в ленту вместе с записью об изменении
+        transactionTemplate.executeWithoutResult(status -> {
+            createTestUser("feed-rolled-back-user");
+            status.setRollbackOnly();
+        });
+        User user = createTestUser("feed-committed-user");
+
+        List<ChangeView> changes = readAll(since, 100);
+        assertEquals(List.of("user:" + user.getId()), changes.stream().map(ChangeView::getKey).toList());
+    }
+
+    @Test
+    void deletingMissingEntitiesPublishesNothing() {
+        long since = head();
+
+        // Удаление несуществующих пользователя и проекта не попадает в ленту
+        userService.deleteUser(Long.MAX_VALUE);
+        projectService.deleteProjectById(Long.MAX_VALUE);
+        User user = createTestUser("feed-after-missing-delete");
+
+        List<ChangeView> changes = readAll(since, 100);
+        assertEquals(List.of("user:" + user.getId()), changes.stream().map(ChangeView::getKey).toList());
+    }
+
+    @Test
+    void compactionKeepsLatestChangePerKey() {
+        Project project = createTestProject("Feed compaction");
+        Project update = new Project();
+        update.setName("Feed compaction 2");
+        update.setDescription("Updated");
+        projectService.updateProjectById(project.getId(), update);
+        projectService.deleteProjectById(project.getId());
+        changeRelay.relayPending();
+
+        assertTrue(changeRelay.compact(Instant.now().plusSeconds(1)) >= 2);
+
+        // От проекта остается одно последнее изменение - удаление
+        List<ChangeView> changes = readAll(outboxRepository.findTruncatedThrough(), 1000).stream()
+                .filter(change -> change.getKey().equals("project:" + project.getId()))
+                .toList();
+        assertEquals(1, changes.size());
+        assertEquals(ChangeType.DELETE, changes.get(0).getChangeType());
+    }
+
+    @Test
+    void deletedUsersAndProjectsDeleteTheirMemberships() {
+        User user = createTestUser("feed-deleted-member");
+        User other = createTestUser("feed-remaining-member");
+        Project project = createTestProject("Feed deleted project");
+        Project kept = createTestProject("Feed kept project");
+        userProjectService.addUserToProject(project.getId(), List.of(user.getId(), other.getId()));
+        userProjectService.addUserToProject(kept.getId(), List.of(user.getId()));
+
+        // Связи удаляемых пользователя и проекта записываются удалениями
+        userService.deleteUser(user.getId());
+        projectService.deleteProjectById(project.getId());
+        projectService.deleteProjectById(kept.getId());
+        changeRelay.relayPending();
+        changeRelay.compact(Instant.now().plusSeconds(1));
+
+        // После уплотнения от каждой связи остается только удаление
+        List<String> memberships = List.of(
+                "membership:" + project.getId() + ":" + user.getId(),
+                "membership:" + project.getId() + ":" + other.getId(),
+                "membership:" + kept.getId() + ":" + user.getId());
+        List<ChangeView> changes = readAll(outboxRepository.findTruncatedThrough(), 1000).stream()
+                .filter(change -> memberships.contains(change.getKey()))
+                .toList();
+        assertEquals(3, changes.size());
+        assertTrue(changes.stream().allMatch(change -> change.getChangeType() == ChangeType.DELETE));
+    }
+
+    @Test
+    void expiredPositionsAreGone() throws Exception {
+        createTestUser("feed-expiry-user");
+        changeRelay.relayPending();
+        assertTrue(changeRelay.expire(Instant.now().plusSeconds(1)) > 0);
+
+        // Чтение с удаленной позиции невозможно, клиент должен заново загрузить данные
+        assertNull(changeFeedService.getChanges(0, null));
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        mockMvc.perform(get("/api/changes").param("since", "0")).andExpect(status().isGone());
+        mockMvc.perform(get("/api/changes").param("since", "-1")).andExpect(status().isBadRequest());
+
+        // Новые изменения читаются с позиции конца ленты
+        long since = head();
+        User user = createTestUser("feed-after-expiry-user");
+        List<ChangeView> changes = readAll(since, 100);
+        assertEquals(List.of("user:" + user.getId()), changes.stream().map(ChangeView::getKey).toList());
+        mockMvc.perform(get("/api/changes").param("since", String.valueOf(since))).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,219 @@
+package org.example.changefeed;
+
+import org.example.config.ChangeStreamProperties;
+import org.example.event.ChangesPublishedEvent;
+import org.example.model.ChangeView;
+import org.example.model.Project;
+import org.example.model.User;
+import org.example.repository.OutboxRepository;
+import org.example.service.ChangeFeedService;
+import org.example.service.ProjectService;
+import org.example.service.UserProjectService;
+import org.example.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+
+@SpringBootTest
+public class ChangeStreamIntegrationTest {
+
+    @Autowired
+    private ChangeRelay changeRelay;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private UserProjectService userProjectService;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private User createTestUser(String userName) {
+        User user = new User();
+        user.setUserName(userName);
+        user.setEmail(userName + "@example.com");
+        user.setRole("ROLE_USER");
+        return userService.addUser(user);
+    }
+
+    private Project createTestProject(String name) {
+        Project project = new Project();
+        project.setName(name);
+        project.setDescription("Description " + name);
+        return projectService.addProject(project);
+    }
+
+    /**
+     * Публикует все зафиксированные изменения и возвращает позицию конца ленты.
+     */
+    private long head() {
+        while (changeRelay.relayPending() > 0) {
+            // Публикуем до конца
+        }
+        long since = outboxRepository.findTruncatedThrough();
+        List<ChangeView> changes;
+        while (!(changes = outboxRepository.findChangesAfter(since, Limit.of(1000))).isEmpty()) {
+            since = changes.get(changes.size() - 1).getOffset();
+        }
+        return since;
+    }
+
+    /**
+     * Ожидает, пока тело потока не будет удовлетворять условию.
+     */
+    private static String awaitBody(MockHttpServletResponse response, Predicate<String> condition) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        String body = response.getContentAsString();
+        while (!condition.test(body) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            body = response.getContentAsString();
+        }
+        return body;
+    }
+
+    @Test
+    void streamDeliversChangesOfSubscribedProject() throws Exception {
+        Project project = createTestProject("Stream project");
+        Project otherProject = createTestProject("Stream other project");
+        User user = createTestUser("stream-user");
+        head();
+
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        MvcResult result = mockMvc.perform(get("/api/changes/stream").param("projectId", project.getId().toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Изменения другого проекта отфильтровываются, изменения пользователей отправляются всем
+        userProjectService.addUserToProject(otherProject.getId(), List.of(user.getId()));
+        userProjectService.addUserToProject(project.getId(), List.of(user.getId()));
+        head();
+
+        String ownKey = "\"membership:" + project.getId() + ":" + user.getId() + "\"";
+        String body = awaitBody(result.getResponse(), text -> text.contains(ownKey));
+        assertTrue(body.contains("event:change"), body);
+        assertTrue(body.contains(ownKey), body);
+        assertFalse(body.contains("\"membership:" + otherProject.getId() + ":"), body);
+        assertTrue(body.startsWith(":subscribed"), body);
+
+        // Зафиксированные проекты удаляются, чтобы не влиять на ранжирование полнотекстового поиска в других тестах
+        projectService.deleteProjectById(project.getId());
+        projectService.deleteProjectById(otherProject.getId());
+    }
+
+    @Test
+    void reconnectReplaysMissedChanges() throws Exception {
+        Project project = createTestProject("Stream replay project");
+        long since = head();
+        User user = createTestUser("stream-replay-user");
+        userProjectService.addUserToProject(project.getId(), List.of(user.getId()));
+        head();
+
+        // Изменения после позиции из Last-Event-ID отправляются до новых
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        MvcResult result = mockMvc.perform(get("/api/changes/stream")
+                        .param("projectId", project.getId().toString())
+                        .header("Last-Event-ID", since))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String membershipKey = "\"membership:" + project.getId() + ":" + user.getId() + "\"";
+        String body = awaitBody(result.getResponse(), text -> text.contains(membershipKey));
+        assertTrue(body.indexOf("\"user:" + user.getId() + "\"") < body.indexOf(membershipKey), body);
+        assertTrue(body.contains("id:" + (since + 1)), body);
+
+        // Несуществующая позиция: клиент должен загрузить данные заново
+        MvcResult reset = mockMvc.perform(get("/api/changes/stream").header("Last-Event-ID", -1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertTrue(awaitBody(reset.getResponse(), text -> text.contains("event:reset")).contains("event:reset"));
+
+        projectService.deleteProjectById(project.getId());
+    }
+
+    @Test
+    void slowSubscriberIsEvicted() throws Exception {
+        ChangeStreamProperties properties = new ChangeStreamProperties();
+        properties.setBufferSize(4);
+        ChangeStream changeStream = new ChangeStream(outboxRepository, changeFeedService, properties);
+        changeStream.start();
+        try {
+            // Клиент не читает события: первая отправка блокируется, остальные копятся в буфере
+            CountDownLatch released = new CountDownLatch(1);
+            CountDownLatch completed = new CountDownLatch(1);
+            SseEmitter stalled = new SseEmitter() {
+                @Override
+                public void send(SseEventBuilder builder) throws IOException {
+                    try {
+                        released.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                @Override
+                public void complete() {
+                    completed.countDown();
+                }
+            };
+            CountDownLatch fastReceived = new CountDownLatch(4);
+            SseEmitter fast = new SseEmitter() {
+                @Override
+                public void send(SseEventBuilder builder) {
+                    fastReceived.countDown();
+                }
+            };
+            changeStream.subscribe(stalled, null, null);
+            changeStream.subscribe(fast, null, null);
+            assertEquals(2, changeStream.getSubscriberCount());
+
+            long since = head();
+            for (int i = 0; i < 3; i++) {
+                createTestUser("stream-slow-user-" + i);
+            }
+            long through = head();
+            changeStream.onChangesPublished(new ChangesPublishedEvent(since, through));
+            assertTrue(fastReceived.await(10, TimeUnit.SECONDS));
+            assertEquals(2, changeStream.getSubscriberCount());
+
+            // Зависший подписчик держит в буфере три изменения, следующие два не помещаются
+            for (int i = 3; i < 5; i++) {
+                createTestUser("stream-slow-user-" + i);
+            }
+            changeStream.onChangesPublished(new ChangesPublishedEvent(through, head()));
+
+            // Переполнивший буфер подписчик отключается, остальные продолжают получать события
+            assertEquals(1, changeStream.getSubscriberCount());
+            released.countDown();
+            assertTrue(completed.await(10, TimeUnit.SECONDS));
+        } finally {
+            changeStream.stop();
+        }
+    }
+}
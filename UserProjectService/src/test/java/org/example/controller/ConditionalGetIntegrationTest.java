@@ -0,0 +1,141 @@
+package org.example.controller;
+
+import org.example.model.Project;
+import org.example.model.User;
+import org.example.service.ProjectService;
+import org.example.service.UserProjectService;
+import org.example.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+
+@SpringBootTest
+public class ConditionalGetIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserProjectService userProjectService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    }
+
+    private String etag(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private void assertNotModified(String url, String etag) throws Exception {
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    private void assertModified(String url, String etag) throws Exception {
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void projectEtagIntegrationTest() throws Exception {
+        Project project = new Project();
+        project.setName("Etag project");
+        project = projectService.addProject(project);
+        String url = "/api/projects/find/" + project.getId();
+
+        // Неизменный проект возвращает 304 с тем же ETag и пустым телом
+        String etag = etag(url);
+        assertNotNull(etag);
+        assertNotModified(url, etag);
+        String allEtag = etag("/api/projects/get_all");
+        assertNotModified("/api/projects/get_all", allEtag);
+
+        // Изменение проекта меняет ETag проекта и коллекции
+        project.setName("Etag project renamed");
+        projectService.updateProjectById(project.getId(), project);
+        assertModified(url, etag);
+        assertNotEquals(etag, etag(url));
+        assertModified("/api/projects/get_all", allEtag);
+    }
+
+    @Test
+    void membershipEtagIntegrationTest() throws Exception {
+        Project project = new Project();
+        project.setName("Etag members project");
+        project = projectService.addProject(project);
+        User user = new User();
+        user.setUserName("Etag member");
+        user.setRole("ROLE_USER");
+        user = userService.addUser(user);
+        String membersUrl = "/api/users_in_project?projectId=" + project.getId();
+        String projectsUrl = "/api/user_projects?userId=" + user.getId();
+
+        String membersEtag = etag(membersUrl);
+        String projectsEtag = etag(projectsUrl);
+        assertNotModified(membersUrl, membersEtag);
+        assertNotModified(projectsUrl, projectsEtag);
+
+        // Добавление участника меняет ETag обоих списков
+        userProjectService.addUsersToProject(project.getId(), List.of(user.getId()));
+        assertModified(membersUrl, membersEtag);
+        assertModified(projectsUrl, projectsEtag);
+
+        // Изменение данных участника меняет ETag списка участников
+        membersEtag = etag(membersUrl);
+        user.setUserName("Etag member renamed");
+        userService.updateUser(user.getId(), user);
+        assertModified(membersUrl, membersEtag);
+    }
+
+    @Test
+    void missingResourceEtagIntegrationTest() throws Exception {
+        Project project = new Project();
+        project.setName("Etag deleted project");
+        project = projectService.addProject(project);
+        String url = "/api/projects/find/" + project.getId();
+        String membersUrl = "/api/users_in_project?projectId=" + project.getId();
+        String etag = etag(url);
+        String membersEtag = etag(membersUrl);
+
+        // Удаленный проект возвращает 404 без ETag, в том числе на условный запрос с прежним ETag
+        projectService.deleteProjectById(project.getId());
+        for (String[] request : new String[][]{{url, etag}, {membersUrl, membersEtag},
+                {"/api/users_not_in_project/" + project.getId(), membersEtag}}) {
+            mockMvc.perform(get(request[0]).header(HttpHeaders.IF_NONE_MATCH, request[1]))
+                    .andExpect(status().isNotFound())
+                    .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+        }
+        mockMvc.perform(get("/api/users/find/" + Long.MAX_VALUE))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+        mockMvc.perform(get("/api/user_projects?userId=" + Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,194 @@
+package org.example.controller;
+
+import org.example.model.Project;
+import org.example.model.ProjectView;
+import org.example.model.User;
+import org.example.model.UserView;
+import org.example.model.ViewFields;
+import org.example.repository.RecordingStatementInspector;
+import org.example.service.ProjectService;
+import org.example.service.UserProjectService;
+import org.example.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+
+@SpringBootTest
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "org.example.repository.RecordingStatementInspector")
+public class SparseFieldsIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserProjectService userProjectService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    }
+
+    private Project createTestProject(String name) {
+        Project project = new Project();
+        project.setName(name);
+        project.setDescription("Long description of " + name);
+        return projectService.addProject(project);
+    }
+
+    private User createTestUser(String userName) {
+        User user = new User();
+        user.setUserName(userName);
+        user.setEmail(userName + "@example.com");
+        user.setRole("ROLE_USER");
+        return userService.addUser(user);
+    }
+
+    /**
+     * Проверяет, что ни один выполненный запрос не выбирал указанный столбец.
+     */
+    private static void assertNotSelected(String column) {
+        for (String sql : RecordingStatementInspector.statements()) {
+            String select = sql.toLowerCase(Locale.ROOT);
+            int from = select.indexOf(" from ");
+            assertFalse(select.substring(0, from > 0 ? from : select.length()).contains(column), sql);
+        }
+    }
+
+    @Test
+    void parseFieldsTest() {
+        ViewFields fields = ViewFields.parse(" name, createdDate ", ViewFields.PROJECT_FIELDS);
+        assertFalse(fields.isAll());
+        assertEquals(List.of("id", "name", "createdDate"), fields.getNames(ViewFields.PROJECT_FIELDS));
+        assertEquals("\"a-1-id.name.createdDate\"", fields.etag("\"a-1\""));
+
+        assertTrue(ViewFields.parse(null, ViewFields.USER_FIELDS).isAll());
+        assertTrue(ViewFields.parse("", ViewFields.USER_FIELDS).isAll());
+        assertTrue(ViewFields.parse("role,email,userName", ViewFields.USER_FIELDS).isAll());
+        assertEquals("\"a-1\"", ViewFields.all().etag("\"a-1\""));
+        assertThrows(IllegalArgumentException.class, () -> ViewFields.parse("id,password", ViewFields.USER_FIELDS));
+    }
+
+    @Test
+    void sparseFieldsPushedDownToSelectList() {
+        Project project = createTestProject("Sparsefields alpha");
+        User member = createTestUser("Sparsefields member");
+        User outsider = createTestUser("Sparsefields outsider");
+        try {
+            userProjectService.addUsersToProject(project.getId(), List.of(member.getId()));
+            ViewFields projectFields = ViewFields.parse("name", ViewFields.PROJECT_FIELDS);
+            ViewFields userFields = ViewFields.parse("userName", ViewFields.USER_FIELDS);
+
+            RecordingStatementInspector.clear();
+            List<ProjectView> all = projectService.getAllProjects(projectFields);
+            List<ProjectView> memberProjects = userProjectService.getProjectsByUserId(member.getId(), projectFields);
+            List<ProjectView> found = projectService.searchProjects("sparsefields", "fulltext", 10, 0,
+                    projectFields);
+            List<ProjectView> like = projectService.searchProjects("Sparsefields", "like", 10, 0, projectFields);
+            assertNotSelected("description");
+            assertNotSelected("created_date");
+
+            ProjectView view = all.stream().filter(p -> p.getId().equals(project.getId())).findFirst().orElseThrow();
+            assertEquals("Sparsefields alpha", view.getName());
+            assertNull(view.getDescription());
+            assertEquals(List.of(project.getId()), memberProjects.stream().map(ProjectView::getId).toList());
+            assertEquals("Sparsefields alpha", found.get(0).getName());
+            assertEquals(project.getId(), like.get(0).getId());
+
+            RecordingStatementInspector.clear();
+            List<UserView> members = userProjectService.getUsersByProjectId(project.getId(), userFields);
+            List<UserView> nonMembers = userProjectService.getUsersNotInProject(project.getId(), userFields);
+            List<UserView> searched = userService.findUserByUserNameOrByEmail("Sparsefields", userFields);
+            assertNotSelected("email");
+            assertNotSelected("role");
+
+            assertEquals(1, members.size());
+            assertEquals("Sparsefields member", members.get(0).getUserName());
+            assertNull(members.get(0).getEmail());
+            assertTrue(nonMembers.stream().anyMatch(u -> u.getId().equals(outsider.getId())));
+            assertEquals(2, searched.size());
+        } finally {
+            projectService.deleteProjectById(project.getId());
+            userService.deleteUser(member.getId());
+            userService.deleteUser(outsider.getId());
+        }
+    }
+
+    @Test
+    void sparseFieldsSerializedOnlyWhenRequested() throws Exception {
+        Project project = createTestProject("Sparsefields beta");
+        User member = createTestUser("Sparsefields json");
+        try {
+            userProjectService.addUsersToProject(project.getId(), List.of(member.getId()));
+
+            mockMvc.perform(get("/api/users_in_project")
+                            .param("projectId", project.getId().toString()).param("fields", "userName"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].id").value(member.getId()))
+                    .andExpect(jsonPath("$[0].userName").value("Sparsefields json"))
+                    .andExpect(jsonPath("$[0].email").doesNotExist())
+                    .andExpect(jsonPath("$[0].role").doesNotExist());
+            mockMvc.perform(get("/api/user_projects")
+                            .param("userId", member.getId().toString()).param("fields", "id,name"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].name").value("Sparsefields beta"))
+                    .andExpect(jsonPath("$[0].description").doesNotExist())
+                    .andExpect(jsonPath("$[0].createdDate").doesNotExist());
+            mockMvc.perform(get("/api/projects/search")
+                            .param("query", "sparsefields beta").param("fields", "name"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].id").value(project.getId()))
+                    .andExpect(jsonPath("$[0].description").doesNotExist());
+
+            // Без параметра fields проекции сериализуются целиком
+            mockMvc.perform(get("/api/users_in_project").param("projectId", project.getId().toString()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].email").value("Sparsefields json@example.com"))
+                    .andExpect(jsonPath("$[0].role").value("ROLE_USER"));
+
+            // Разные наборы полей - разные представления с разными ETag
+            String fullEtag = mockMvc.perform(get("/api/projects/get_all"))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            String sparseEtag = mockMvc.perform(get("/api/projects/get_all").param("fields", "name"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].description").doesNotExist())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            assertNotEquals(fullEtag, sparseEtag);
+            mockMvc.perform(get("/api/projects/get_all").param("fields", "name")
+                            .header(HttpHeaders.IF_NONE_MATCH, sparseEtag))
+                    .andExpect(status().isNotModified());
+            mockMvc.perform(get("/api/projects/get_all").header(HttpHeaders.IF_NONE_MATCH, sparseEtag))
+                    .andExpect(status().isOk());
+
+            mockMvc.perform(get("/api/users/get_all").param("fields", "password"))
+                    .andExpect(status().isBadRequest());
+        } finally {
+            projectService.deleteProjectById(project.getId());
+            userService.deleteUser(member.getId());
+        }
+    }
+}
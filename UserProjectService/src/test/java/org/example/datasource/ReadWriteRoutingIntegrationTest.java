@@ -0,0 +1,201 @@
+package org.example.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.model.Project;
+import org.example.model.ProjectView;
+import org.example.repository.ProjectRepository;
+import org.example.service.ProjectService;
+import org.example.service.UserProjectService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Проверяет маршрутизацию соединений на двух базах H2, заменяющих основную базу и реплику.
+ *
+ * Реплика создается до запуска контекста из тех же скриптов schema.sql и data.sql и дополнительно
+ * содержит проект, которого нет на основной базе: по нему видно, с какой базы выполнено чтение.
+ * Репликация не эмулируется, отставание реплики задается отметкой времени в replication_heartbeat.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing_primary",
+        "datasource-routing.enabled=true",
+        "datasource-routing.replicas[0].url=" + ReadWriteRoutingIntegrationTest.REPLICA_URL,
+        "datasource-routing.max-replica-lag=10s",
+        "datasource-routing.lag-check-interval=1h"})
+public class ReadWriteRoutingIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_ONLY = "Replica only project";
+    private static final long REPLICA_ONLY_ID = 1_000_000L;
+
+    private static JdbcTemplate replica;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserProjectService userProjectService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @BeforeAll
+    static void createReplica() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(REPLICA_URL, "root", "root");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"), new ClassPathResource("data.sql"))
+                .execute(dataSource);
+        replica = new JdbcTemplate(dataSource);
+        // Идентификатор вне диапазона последовательности, чтобы не совпасть с проектами, созданными на основной базе
+        replica.update("INSERT INTO projects (id, name, description, created_date) VALUES (?, ?, ?, CURRENT_DATE)",
+                REPLICA_ONLY_ID, REPLICA_ONLY, REPLICA_ONLY);
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplica() {
+        setReplicaLag(Duration.ZERO);
+        double replicaReads = reads("replica-1");
+
+        assertTrue(names(projectService.getAllProjects()).contains(REPLICA_ONLY));
+        assertFalse(names(transactionTemplate.execute(status -> projectRepository.findAllViews()))
+                .contains(REPLICA_ONLY));
+        assertTrue(reads("replica-1") > replicaReads);
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        setReplicaLag(Duration.ofHours(1));
+        double primaryReads = reads(ReplicaRoutingDataSource.PRIMARY);
+
+        assertFalse(names(projectService.getAllProjects()).contains(REPLICA_ONLY));
+        assertTrue(reads(ReplicaRoutingDataSource.PRIMARY) > primaryReads);
+    }
+
+    @Test
+    void responsesWithNewerVersionsAreReadFromPrimary() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        setReplicaLag(Duration.ZERO);
+        mockMvc.perform(get("/api/projects/get_all"))
+                .andExpect(jsonPath("$[*].name", hasItem(REPLICA_ONLY)));
+
+        // Реплика в пределах допустимого отставания, но ее отметка времени старше изменения:
+        // ответы, ETag которых включает новую версию, читаются с основной базы
+        Project project = new Project();
+        project.setName("Fresh primary project");
+        Long id = projectService.addProject(project).getId();
+        mockMvc.perform(get("/api/projects/get_all"))
+                .andExpect(jsonPath("$[*].name", hasItem("Fresh primary project")))
+                .andExpect(jsonPath("$[*].name", not(hasItem(REPLICA_ONLY))));
+        mockMvc.perform(get("/api/projects/find/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Fresh primary project"));
+
+        // Реплика применила изменение (отметка записана после него): чтение снова выполняется на реплике
+        setReplicaLag(Duration.ZERO);
+        mockMvc.perform(get("/api/projects/get_all"))
+                .andExpect(jsonPath("$[*].name", hasItem(REPLICA_ONLY)));
+        projectService.deleteProjectById(id);
+    }
+
+    @Test
+    void replicaReadsDoNotPopulateCaches() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        Project project = new Project();
+        project.setName("Renamed on primary");
+        Long id = projectService.addProject(project).getId();
+        // Реплика еще не применила переименование: у нее старое название проекта
+        replica.update("MERGE INTO projects (id, name, description, created_date) KEY (id) "
+                + "VALUES (?, 'Stale replica name', '', CURRENT_DATE)", id);
+        setReplicaLag(Duration.ZERO);
+        cacheManager.getCache("projects").evict(id);
+        try {
+            // Проверка существования без ETag читает проект с реплики и не должна кэшировать его
+            double replicaReads = reads("replica-1");
+            assertNotNull(userProjectService.countUsersByProjectId(id));
+            assertTrue(reads("replica-1") > replicaReads);
+            assertNull(cacheManager.getCache("projects").get(id));
+
+            mockMvc.perform(get("/api/projects/find/" + id))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.name").value("Renamed on primary"));
+        } finally {
+            replica.update("DELETE FROM projects WHERE id = ?", id);
+            projectService.deleteProjectById(id);
+        }
+    }
+
+    @Test
+    void writesGoToPrimary() {
+        setReplicaLag(Duration.ZERO);
+        Project project = new Project();
+        project.setName("Primary only project");
+        Long id = projectService.addProject(project).getId();
+
+        assertEquals(Boolean.TRUE, transactionTemplate.execute(status -> projectRepository.existsById(id)));
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM projects WHERE name = ?", Long.class,
+                "Primary only project"));
+    }
+
+    @Test
+    void poolMetricsArePublishedPerTarget() {
+        assertNotNull(meterRegistry.get("hikaricp.connections.max").tag("pool", "primary").gauge());
+        assertNotNull(meterRegistry.get("hikaricp.connections.max").tag("pool", "replica-1").gauge());
+        setReplicaLag(Duration.ZERO);
+        assertTrue(meterRegistry.get("datasource.replica.lag").tag("replica", "replica-1").gauge().value() < 10);
+    }
+
+    /**
+     * Устанавливает отметку времени реплики так, как если бы она отставала на заданное время,
+     * и обновляет измерение отставания.
+     */
+    private void setReplicaLag(Duration lag) {
+        replica.update("MERGE INTO replication_heartbeat (id, updated_at) KEY (id) VALUES (1, ?)",
+                Timestamp.from(Instant.now().minus(lag)));
+        lagMonitor.refresh();
+    }
+
+    private double reads(String target) {
+        return meterRegistry.get("datasource.routing.reads").tag("target", target).counter().count();
+    }
+
+    private static List<String> names(List<ProjectView> projects) {
+        return projects.stream().map(ProjectView::getName).toList();
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.datasource;
+
+import org.example.config.SlowQueryProperties;
+import org.example.model.QueryTiming;
+import org.example.model.SlowQueryReport;
+import org.example.model.SlowStatement;
+import org.example.model.User;
+import org.example.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+
+@SpringBootTest(properties = "slow-query.threshold=0ms")
+public class SlowQueryIntegrationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private QueryStatistics queryStatistics;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    private static QueryStatistics statistics(int maxTrackedQueries) {
+        SlowQueryProperties properties = new SlowQueryProperties();
+        properties.setThreshold(Duration.ofMillis(5));
+        properties.setMaxTrackedQueries(maxTrackedQueries);
+        properties.setRecentSlowStatements(2);
+        properties.setMaxParameterLength(5);
+        return new QueryStatistics(properties);
+    }
+
+    @Test
+    void normalizeTest() {
+        assertEquals("select * from users u where u.id in (?, ...) and u.user_name = ? and u.role = ?",
+                QueryStatistics.normalize("select *\n  from users u where u.id in (?,?, ?) " +
+                        "and u.user_name = 'O''Brien' and u.role = ?"));
+        assertEquals("select u1_0.id from users u1_0 fetch first ? rows only",
+                QueryStatistics.normalize("select u1_0.id from users u1_0 fetch first 10 rows only"));
+    }
+
+    @Test
+    void histogramBucketsTest() {
+        int previous = -1;
+        for (long micros = 0; micros < 1_000_000; micros += 7) {
+            int bucket = QueryStatistics.bucket(micros);
+            assertTrue(bucket >= previous);
+            assertTrue(micros < QueryStatistics.bucketUpperBound(bucket));
+            assertTrue(micros >= QueryStatistics.bucketUpperBound(bucket) * 3 / 4, "bucket too wide: " + micros);
+            previous = bucket;
+        }
+    }
+
+    @Test
+    void percentilesAndSlowStatementsTest() {
+        QueryStatistics statistics = statistics(2);
+        for (int i = 1; i <= 100; i++) {
+            statistics.record("select * from users where id = ?", i * 100_000L, new Object[]{null, (long) i}, 1);
+        }
+        statistics.record("select * from projects where name = 'x'", 1_000L, null, 0);
+
+        SlowQueryReport report = statistics.report(10, "total");
+        assertEquals(101, report.getStatements());
+        assertEquals(51, report.getSlowStatements());
+        QueryTiming users = report.getQueries().get(0);
+        assertEquals("select * from users where id = ?", users.getQuery());
+        assertEquals(100, users.getCount());
+        assertEquals(10.0, users.getMaxMillis(), 1e-9);
+        assertEquals(5.05, users.getMeanMillis(), 1e-9);
+        assertEquals(5.0, users.getP50Millis(), 1.25);
+        assertEquals(9.5, users.getP95Millis(), 2.4);
+        assertTrue(users.getP99Millis() <= users.getMaxMillis());
+
+        // Последние медленные запросы ограничены и начинаются с самого нового
+        List<SlowStatement> recent = report.getRecent();
+        assertEquals(2, recent.size());
+        assertEquals(10.0, recent.get(0).getDurationMillis(), 1e-9);
+        assertEquals(9.9, recent.get(1).getDurationMillis(), 1e-9);
+        assertEquals(1, recent.get(0).getParameterCount());
+
+        // Третий запрос вытесняет запрос с наименьшим суммарным временем
+        statistics.record("select * from memberships where user_id = 42", 2_000L,
+                new Object[]{null, "long value"}, 1);
+        assertEquals(2, statistics.report(10, "total").getTrackedQueries());
+        assertEquals(List.of("select * from users where id = ?", "select * from memberships where user_id = ?"),
+                statistics.report(10, "total").getQueries().stream().map(QueryTiming::getQuery).toList());
+        assertThrows(IllegalArgumentException.class, () -> statistics.report(10, "name"));
+
+        statistics.reset();
+        assertEquals(0, statistics.report(10, "count").getStatements());
+    }
+
+    @Test
+    void applicationStatementsAreTimed() throws Exception {
+        assertInstanceOf(TimingDataSource.class, dataSource);
+        User user = new User();
+        user.setUserName("Slow query user");
+        user.setEmail("slow.query@example.com");
+        user.setRole("ROLE_USER");
+        user = userService.addUser(user);
+        try {
+            queryStatistics.reset();
+            userService.getUsersByIds(List.of(user.getId()));
+            // Ретранслятор ленты изменений выполняет запросы в фоне, поэтому ищем запрос среди остальных
+            SlowQueryReport report = queryStatistics.report(50, "count");
+            assertTrue(report.getQueries().stream().anyMatch(query -> query.getQuery().contains("from users")));
+            assertTrue(report.getRecent().stream().anyMatch(statement -> statement.getSql().contains("from users")
+                    && statement.getParameterCount() == 1));
+
+            MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+            mockMvc.perform(get("/actuator/slowqueries").param("limit", "1").param("sort", "max"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.thresholdMillis").value(0))
+                    .andExpect(jsonPath("$.queries.length()").value(1))
+                    .andExpect(jsonPath("$.queries[0].p99Millis").exists())
+                    .andExpect(jsonPath("$.recent[0].parameterCount").exists())
+                    .andExpect(jsonPath("$.recent[0].parameters").doesNotExist());
+            // Сброс статистики по HTTP недоступен
+            mockMvc.perform(delete("/actuator/slowqueries"))
+                    .andExpect(status().is4xxClientError());
+            assertTrue(queryStatistics.report(50, "count").getStatements() > 0);
+            mockMvc.perform(get("/actuator/slowqueries").param("sort", "name"))
+                    .andExpect(status().isBadRequest());
+        } finally {
+            userService.deleteUser(user.getId());
+        }
+    }
+}
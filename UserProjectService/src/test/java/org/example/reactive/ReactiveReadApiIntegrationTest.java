@@ -0,0 +1,139 @@
+package org.example.reactive;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.model.Project;
+import org.example.model.ProjectView;
+import org.example.model.User;
+import org.example.model.UserView;
+import org.example.service.ProjectService;
+import org.example.service.UserProjectService;
+import org.example.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет реактивное API чтения на запущенном сервере Netty: ответы совпадают с ответами
+ * сервлетного API, списки передаются потоком NDJSON, который клиент может прервать, не дочитав.
+ * Ответы разбираются ObjectMapper приложения.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive_read_api",
+        "reactive-api.enabled=true",
+        "reactive-api.port=0"})
+public class ReactiveReadApiIntegrationTest {
+
+    @Autowired
+    private ReactiveApiServer reactiveApiServer;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private UserProjectService userProjectService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = WebTestClient.bindToServer().baseUrl("http://localhost:" + reactiveApiServer.getPort()).build();
+    }
+
+    private String get(String uri) {
+        return client.get().uri(uri).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody(String.class).returnResult().getResponseBody();
+    }
+
+    private <T> T get(String uri, TypeReference<T> type) throws Exception {
+        return objectMapper.readValue(get(uri), type);
+    }
+
+    @Test
+    void listsMatchServletApi() throws Exception {
+        assertEquals(objectMapper.writeValueAsString(userService.getAllUsers()), get("/api/users/get_all"));
+        assertEquals(objectMapper.writeValueAsString(projectService.getAllProjects()), get("/api/projects/get_all"));
+        assertEquals(userProjectService.getUsersByProjectId(1L),
+                get("/api/users_in_project?projectId=1", new TypeReference<List<UserView>>() {}));
+        assertEquals(userProjectService.getProjectsByUserId(1L),
+                get("/api/user_projects?userId=1", new TypeReference<List<ProjectView>>() {}));
+    }
+
+    @Test
+    void findAndSearch() throws Exception {
+        User user = new User();
+        user.setUserName("Reactive reader");
+        user.setEmail("reactive@mail.ru");
+        user.setRole("ROLE_USER");
+        user = userService.addUser(user);
+
+        assertEquals(new UserView(user.getId(), "Reactive reader", "reactive@mail.ru", "ROLE_USER"),
+                get("/api/users/find/" + user.getId(), new TypeReference<UserView>() {}));
+        assertEquals(List.of(user.getId()), get("/api/users/search?query=REACTIVE",
+                new TypeReference<List<UserView>>() {}).stream().map(UserView::getId).toList());
+        assertTrue(get("/api/projects/find/1").contains("\"createdDate\":\"2024-01-01\""));
+        projectService.addProjects(IntStream.range(0, 3).mapToObj(i -> {
+            Project project = new Project();
+            project.setName("Reactive search " + i);
+            project.setDescription("Found by reactive search");
+            return project;
+        }).toList());
+        assertEquals(2, get("/api/projects/search?query=REACTIVE SEARCH&mode=like&limit=2",
+                new TypeReference<List<ProjectView>>() {}).size());
+        assertEquals(1, get("/api/projects/search?query=reactive&mode=like&limit=2&offset=2",
+                new TypeReference<List<ProjectView>>() {}).size());
+        assertEquals(3, get("/api/projects/search?query=reactive", new TypeReference<List<ProjectView>>() {}).size());
+    }
+
+    @Test
+    void missingAndInvalidRequests() {
+        client.get().uri("/api/users/find/999999").exchange().expectStatus().isNotFound();
+        client.get().uri("/api/projects/find/999999").exchange().expectStatus().isNotFound();
+        client.get().uri("/api/users_in_project?projectId=999999").exchange().expectStatus().isNotFound();
+        client.get().uri("/api/users_in_project").exchange().expectStatus().isNotFound();
+        client.get().uri("/api/user_projects?userId=999999").exchange().expectStatus().isNotFound();
+        client.get().uri("/api/users/find/abc").exchange().expectStatus().isBadRequest();
+        client.get().uri("/api/users/search").exchange().expectStatus().isBadRequest();
+        client.get().uri("/api/projects/search?query=x&mode=regex").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void ndjsonIsStreamedLineByLine() throws Exception {
+        userService.addUsers(IntStream.range(0, 500).mapToObj(i -> {
+            User user = new User();
+            user.setUserName("streamed" + i);
+            user.setRole("ROLE_USER");
+            return user;
+        }).toList());
+
+        // Каждая строка ответа - отдельный пользователь; клиент читает первые строки и отменяет поток
+        List<String> lines = client.get().uri("/api/users/get_all")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .returnResult(String.class).getResponseBody()
+                .take(10)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+        assertEquals(10, lines.size());
+        assertEquals(userService.getAllUsers().get(0), objectMapper.readValue(lines.get(0), UserView.class));
+    }
+}
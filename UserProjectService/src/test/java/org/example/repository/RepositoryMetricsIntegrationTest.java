@@ -0,0 +1,62 @@
+package org.example.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет метрики слоя хранения: таймеры вызовов методов репозиториев с гистограммой
+ * и статистику Hibernate.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:repository_metrics")
+@AutoConfigureObservability(tracing = false)
+public class RepositoryMetricsIntegrationTest {
+
+    @Autowired
+    private UsersProjectRepository usersProjectRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PrometheusMeterRegistry prometheusMeterRegistry;
+
+    @Test
+    void repositoryMethodsAreTimedWithHistogram() {
+        usersProjectRepository.findUsersByProjectId(1L);
+        projectRepository.findAllViews();
+
+        Timer timer = meterRegistry.get("spring.data.repository.invocations")
+                .tag("repository", "UsersProjectRepository")
+                .tag("method", "findUsersByProjectId")
+                .timer();
+        assertTrue(timer.count() >= 1);
+        assertTrue(prometheusMeterRegistry.scrape().lines().anyMatch(line ->
+                line.startsWith("spring_data_repository_invocations_seconds_bucket")
+                        && line.contains("method=\"findUsersByProjectId\"")
+                        && line.contains("repository=\"UsersProjectRepository\"")));
+
+        assertNotNull(meterRegistry.get("spring.data.repository.invocations")
+                .tag("repository", "ProjectRepository")
+                .tag("method", "findAllViews")
+                .timer());
+    }
+
+    @Test
+    void hibernateStatisticsArePublished() {
+        projectRepository.findAllViews();
+
+        assertTrue(meterRegistry.get("hibernate.query.executions").functionCounter().count() >= 1);
+        assertNotNull(meterRegistry.get("hibernate.entities.loads").functionCounter());
+        assertNotNull(meterRegistry.get("hibernate.flushes").functionCounter());
+    }
+}
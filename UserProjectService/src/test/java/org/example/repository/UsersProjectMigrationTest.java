@@ -0,0 +1,60 @@
+package org.example.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет перенос таблицы users_project со старой схемы с суррогатным id на составной первичный ключ.
+ */
+public class UsersProjectMigrationTest {
+
+    @Test
+    void migrationCollapsesDuplicatesAndEnforcesCompositeKey() throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:users_project_migration");
+             Statement statement = connection.createStatement()) {
+            // Старая схема с суррогатным ключом и повторяющейся связью (проект 1, пользователь 2)
+            statement.execute("CREATE TABLE users (id BIGINT AUTO_INCREMENT PRIMARY KEY)");
+            statement.execute("CREATE TABLE projects (id BIGINT AUTO_INCREMENT PRIMARY KEY)");
+            statement.execute("CREATE TABLE users_project (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                    "project_id BIGINT NOT NULL, user_id BIGINT NOT NULL, " +
+                    "FOREIGN KEY (project_id) REFERENCES projects(id), FOREIGN KEY (user_id) REFERENCES users(id))");
+            statement.execute("INSERT INTO users (id) VALUES (1), (2)");
+            statement.execute("INSERT INTO projects (id) VALUES (1), (2)");
+            statement.execute("INSERT INTO users_project (project_id, user_id) VALUES (1, 2), (1, 2), (2, 1), (1, 1)");
+
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("db/migration/users_project_composite_key.sql"));
+
+            // Повторы свернуты, столбец id удален
+            try (ResultSet rows = statement.executeQuery(
+                    "SELECT project_id, user_id FROM users_project ORDER BY project_id, user_id")) {
+                StringBuilder pairs = new StringBuilder();
+                while (rows.next()) {
+                    pairs.append(rows.getLong(1)).append('-').append(rows.getLong(2)).append(' ');
+                }
+                assertEquals("1-1 1-2 2-1", pairs.toString().trim());
+            }
+            try (ResultSet columns = statement.executeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS " +
+                    "WHERE TABLE_NAME = 'USERS_PROJECT' AND COLUMN_NAME = 'ID'")) {
+                columns.next();
+                assertEquals(0, columns.getInt(1));
+            }
+
+            // Составной ключ и внешние ключи действуют после переноса
+            assertThrows(SQLException.class,
+                    () -> statement.execute("INSERT INTO users_project (project_id, user_id) VALUES (1, 2)"));
+            assertThrows(SQLException.class,
+                    () -> statement.execute("INSERT INTO users_project (project_id, user_id) VALUES (1, 99)"));
+            statement.execute("INSERT INTO users_project (project_id, user_id) VALUES (2, 2)");
+        }
+    }
+}
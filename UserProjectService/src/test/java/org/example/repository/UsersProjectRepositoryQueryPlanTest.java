@@ -0,0 +1,155 @@
+package org.example.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет по плану H2 (EXPLAIN), что каждый запрос репозитория к таблице users_project
+ * выполняется поиском по индексу, а не полным просмотром таблицы, а рейтинги по счетчикам связей
+ * читаются из индекса в нужном порядке.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query_plan",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "org.example.repository.RecordingStatementInspector"})
+@Transactional
+public class UsersProjectRepositoryQueryPlanTest {
+
+    /**
+     * Обращение к таблице users_project в плане H2 и комментарий с выбранным способом доступа.
+     */
+    private static final Pattern TABLE_ACCESS =
+            Pattern.compile("\"PUBLIC\"\\.\"USERS_PROJECT\"(?: \"\\w+\")?\\s*/\\*(.*?)\\*/", Pattern.DOTALL);
+
+    @Autowired
+    private UsersProjectRepository usersProjectRepository;
+
+    @Autowired
+    private MembershipCounterRepository membershipCounterRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findUsersByProjectIdUsesIndex() {
+        assertIndexUsed(() -> usersProjectRepository.findUsersByProjectId(1L));
+    }
+
+    @Test
+    void findProjectsByUserIdUsesIndex() {
+        assertIndexUsed(() -> usersProjectRepository.findProjectsByUserId(1L));
+    }
+
+    @Test
+    void findUsersPageByProjectIdUsesIndex() {
+        assertIndexUsed(() -> usersProjectRepository.findUsersPageByProjectId(1L, 1L, Limit.of(10)));
+    }
+
+    @Test
+    void findProjectsPageByUserIdUsesIndex() {
+        assertIndexUsed(() -> usersProjectRepository.findProjectsPageByUserId(1L, 1L, Limit.of(10)));
+    }
+
+    @Test
+    void findUsersNotInProjectUsesIndex() {
+        assertIndexUsed(() -> usersProjectRepository.findUsersNotInProject(1L));
+        assertIndexUsed(() -> usersProjectRepository.findUsersNotInProjectPage(1L, 1L, Limit.of(10)));
+    }
+
+    @Test
+    void membershipLookupsUseIndex() {
+        assertIndexUsed(() -> usersProjectRepository.existsByUserIdAndProjectId(1L, 1L));
+        assertIndexUsed(() -> usersProjectRepository.countByProjectId(1L));
+        assertIndexUsed(() -> usersProjectRepository.findMemberIds(1L, List.of(1L, 2L)));
+    }
+
+    @Test
+    void membershipChangesUseIndex() {
+        assertIndexUsed(() -> usersProjectRepository.mergeUsersIntoProject(1L, List.of(1L, 2L)));
+        assertIndexUsed(() -> usersProjectRepository.removeUsersFromProject(1L, List.of(1L, 2L)));
+        assertIndexUsed(() -> usersProjectRepository.removeUserAndProject(1L, 1L));
+        assertIndexUsed(() -> usersProjectRepository.deleteByProjectId(1L));
+        assertIndexUsed(() -> usersProjectRepository.deleteByUserId(1L));
+    }
+
+    @Test
+    void rankingsAreReadFromIndexInOrder() {
+        assertIndexSorted("IDX_PROJECT_MEMBER_COUNTS_RANK",
+                () -> membershipCounterRepository.findLargestProjects(Limit.of(10)));
+        assertIndexSorted("IDX_USER_PROJECT_COUNTS_RANK",
+                () -> membershipCounterRepository.findMostActiveUsers(Limit.of(10)));
+    }
+
+    @Test
+    void counterChangesUseIndex() {
+        assertIndexUsed(() -> membershipCounterRepository.decrementProjectCountsOfMembers(1L));
+        assertIndexUsed(() -> membershipCounterRepository.decrementMemberCountsOfProjects(1L));
+    }
+
+    /**
+     * Выполняет запрос рейтинга и проверяет, что строки читаются из индекса рейтинга
+     * без отдельной сортировки результата.
+     */
+    private void assertIndexSorted(String index, Runnable repositoryCall) {
+        RecordingStatementInspector.clear();
+        repositoryCall.run();
+        List<String> statements = RecordingStatementInspector.statements();
+        assertEquals(1, statements.size());
+        String plan = explain(statements.get(0));
+        assertTrue(plan.contains("PUBLIC." + index + ":"), () -> "ranking index is not used:\n" + plan);
+        assertTrue(plan.contains("/* index sorted */"), () -> "ranking is sorted after reading:\n" + plan);
+    }
+
+    /**
+     * Выполняет метод репозитория, получает план каждого выполненного им запроса к users_project
+     * и проверяет, что каждое обращение к таблице выполняется поиском по индексу, а не полным просмотром.
+     * MERGE ищет существующие строки по своему ключу, поэтому для него проверяется, что ключ совпадает
+     * с первичным ключом таблицы.
+     */
+    private void assertIndexUsed(Runnable repositoryCall) {
+        RecordingStatementInspector.clear();
+        repositoryCall.run();
+        List<String> statements = RecordingStatementInspector.statements().stream()
+                .filter(sql -> sql.toLowerCase(Locale.ROOT).contains("users_project"))
+                .toList();
+        assertFalse(statements.isEmpty(), "no users_project statement recorded");
+        for (String sql : statements) {
+            String plan = explain(sql);
+            if (plan.startsWith("MERGE INTO \"PUBLIC\".\"USERS_PROJECT\"")) {
+                assertTrue(plan.contains("KEY(\"PROJECT_ID\", \"USER_ID\")"),
+                        () -> "MERGE key is not the primary key:\n" + plan);
+                continue;
+            }
+            Matcher access = TABLE_ACCESS.matcher(plan);
+            int accesses = 0;
+            while (access.find()) {
+                accesses++;
+                String index = access.group(1);
+                assertFalse(index.contains("tableScan"), () -> "full scan of users_project:\n" + plan);
+                assertTrue(index.contains(":"), () -> "users_project is read without an index condition:\n" + plan);
+            }
+            assertTrue(accesses > 0, () -> "users_project access not found in plan:\n" + plan);
+        }
+    }
+
+    /**
+     * Возвращает план запроса H2, подставляя 1 вместо каждого параметра.
+     */
+    private String explain(String sql) {
+        int parameters = (int) sql.chars().filter(c -> c == '?').count();
+        Object[] args = Collections.nCopies(parameters, (Object) 1L).toArray();
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args));
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.service;
+
+import org.example.config.ImportProperties;
+import org.example.model.ImportError;
+import org.example.model.ImportSummary;
+import org.example.model.ProjectView;
+import org.example.model.User;
+import org.example.model.UserView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+@SpringBootTest
+public class ImportServiceIntegrationTest {
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private ImportProperties importProperties;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private UserProjectService userProjectService;
+
+    @AfterEach
+    void restoreChunkSize() {
+        importProperties.setChunkSize(1000);
+    }
+
+    private ImportSummary importText(String type, String format, String text) throws IOException {
+        return importService.importData(type, format,
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void importUsersFromCsvIntegrationTest() throws IOException {
+        // Порции по две строки: корректные строки сохраняются, некорректные отклоняются с номером строки
+        importProperties.setChunkSize(2);
+        ImportSummary summary = importText("users", "csv", """
+                user_name,email,role
+                Import Csv One,import.csv.one@example.com,ROLE_USER
+                ,missing.name@example.com,ROLE_USER
+                Import Csv Two,not-an-email,ROLE_USER
+                "Import Csv, Three",import.csv.three@example.com,ROLE_ADMIN
+                Import Csv Four,,ROLE_USER
+                """);
+
+        assertEquals(5, summary.getRows());
+        assertEquals(3, summary.getAccepted());
+        assertEquals(2, summary.getRejected());
+        assertEquals(2, summary.getChunks());
+        assertEquals(List.of(2L, 3L), summary.getErrors().stream().map(ImportError::getRow).toList());
+        assertFalse(summary.isAborted());
+
+        List<String> names = userService.getAllUsers().stream().map(UserView::getUserName).toList();
+        assertTrue(names.containsAll(List.of("Import Csv One", "Import Csv, Three", "Import Csv Four")));
+        assertFalse(names.contains("Import Csv Two"));
+    }
+
+    @Test
+    void importProjectsAndMembershipsFromNdjsonIntegrationTest() throws IOException {
+        // Проекты: пустые строки пропускаются, некорректный JSON и дата отклоняются
+        ImportSummary projects = importText("projects", "ndjson", """
+                {"name": "Import Ndjson Project", "description": "Imported", "created_date": "2024-05-01"}
+
+                {"name": "Import Bad Date", "created_date": "01.05.2024"}
+                {not json}
+                """);
+        assertEquals(3, projects.getRows());
+        assertEquals(1, projects.getAccepted());
+        assertEquals(2, projects.getRejected());
+
+        ProjectView project = projectService.getAllProjects().stream()
+                .filter(p -> p.getName().equals("Import Ndjson Project")).findFirst().orElseThrow();
+        User user = new User();
+        user.setUserName("Import Member");
+        user.setRole("ROLE_USER");
+        Long userId = userService.addUser(user).getId();
+
+        // Связи: повторная связь принимается, отсутствующие пользователь и проект отклоняются
+        ImportSummary memberships = importText("memberships", "ndjson", String.join("\n",
+                "{\"project_id\": " + project.getId() + ", \"user_id\": " + userId + "}",
+                "{\"project_id\": " + project.getId() + ", \"user_id\": " + userId + "}",
+                "{\"project_id\": " + project.getId() + ", \"user_id\": " + Long.MAX_VALUE + "}",
+                "{\"project_id\": " + Long.MAX_VALUE + ", \"user_id\": " + userId + "}",
+                "{\"project_id\": \"abc\", \"user_id\": " + userId + "}"));
+        assertEquals(5, memberships.getRows());
+        assertEquals(2, memberships.getAccepted());
+        assertEquals(3, memberships.getRejected());
+        assertEquals(List.of(userId), userProjectService.getUsersByProjectId(project.getId())
+                .stream().map(UserView::getId).toList());
+
+        // Неподдерживаемые тип и формат отклоняются целиком
+        assertThrows(IllegalArgumentException.class, () -> importText("tasks", "csv", ""));
+        assertThrows(IllegalArgumentException.class, () -> importText("users", "xml", ""));
+    }
+
+    @Test
+    void importTruncatedCsvIsAbortedIntegrationTest() throws IOException {
+        // Значение в кавычках не закрыто: строки до ошибки сохраняются, импорт помечается как прерванный
+        ImportSummary summary = importText("users", "csv", """
+                user_name,email,role
+                Import Truncated One,import.truncated.one@example.com,ROLE_USER
+                "Import Truncated Two,import.truncated.two@example.com,ROLE_USER
+                Import Truncated Three,import.truncated.three@example.com,ROLE_USER
+                """);
+
+        assertTrue(summary.isAborted());
+        assertEquals(1, summary.getRows());
+        assertEquals(1, summary.getAccepted());
+        assertEquals(1, summary.getRejected());
+        assertEquals(1, summary.getErrors().size());
+        assertEquals(2L, summary.getErrors().get(0).getRow());
+        assertTrue(summary.getErrors().get(0).getMessage().startsWith("Malformed input"));
+
+        List<String> names = userService.getAllUsers().stream().map(UserView::getUserName).toList();
+        assertTrue(names.contains("Import Truncated One"));
+        assertFalse(names.contains("Import Truncated Three"));
+    }
+}
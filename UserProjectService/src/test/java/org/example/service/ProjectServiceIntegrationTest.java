@@ -1,7 +1,10 @@
 package org.example.service;
 
 
+import org.example.model.KeysetPage;
+import org.example.model.MultiGetResult;
 import org.example.model.Project;
+import org.example.model.ProjectView;
 import org.example.repository.ProjectRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +12,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -57,7 +61,7 @@ public class ProjectServiceIntegrationTest {
         // Очищаем базу данных перед тестом
         projectRepository.deleteAll();
         // Запрашиваем список всех проектов
-        List<Project> projects = projectService.getAllProjects();
+        List<ProjectView> projects = projectService.getAllProjects();
         // Убеждаемся, что после удаления в базе не осталось ни одного проекта
         assertEquals(0, projects.size());
 
@@ -69,7 +73,7 @@ public class ProjectServiceIntegrationTest {
         }
 
         // Получаем список добавленных проектов
-        List<Project> projectsAfterAdded = projectService.getAllProjects();
+        List<ProjectView> projectsAfterAdded = projectService.getAllProjects();
 
         //Проверяем, что количество проектов соответствует количеству добавленных проектов
         assertNotNull(projectsAfterAdded);
@@ -77,7 +81,7 @@ public class ProjectServiceIntegrationTest {
 
         // Дополнительные проверки для каждого проекта
         int i = 0;
-        for (Project project : projectsAfterAdded) {
+        for (ProjectView project : projectsAfterAdded) {
             assertEquals("Test Created " + i, project.getName());
             assertEquals("Description to added test project " + i, project.getDescription());
             assertEquals(LocalDate.of(2024, 11, 24), project.getCreatedDate());
@@ -85,6 +89,44 @@ public class ProjectServiceIntegrationTest {
         }
     }
 
+    @Test
+    @Transactional
+    void getProjectsPageIntegrationTest() {
+        // Очищаем базу данных и добавляем 7 проектов с повторяющимися датами создания
+        projectRepository.deleteAll();
+        for (int i = 0; i < 7; i++) {
+            Project project = createTestProject("Test Created " + i, "Description " + i);
+            project.setCreatedDate(LocalDate.of(2024, 11, 20 + i % 3));
+            projectRepository.save(project);
+        }
+
+        // Обходим все страницы размером 3, сортируя по дате создания
+        List<Project> collected = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            KeysetPage<Project> page = projectService.getProjectsPage("created_date", cursor, 3);
+            collected.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Проверяем, что получены все проекты без повторов и в порядке (дата, идентификатор)
+        assertEquals(3, pages);
+        assertEquals(7, collected.size());
+        for (int i = 1; i < collected.size(); i++) {
+            Project previous = collected.get(i - 1);
+            Project current = collected.get(i);
+            int byDate = previous.getCreatedDate().compareTo(current.getCreatedDate());
+            assertTrue(byDate < 0 || (byDate == 0 && previous.getId() < current.getId()));
+        }
+
+        // Курсор, выданный для другой сортировки, отклоняется
+        String idCursor = projectService.getProjectsPage("id", null, 3).getNextCursor();
+        assertThrows(IllegalArgumentException.class,
+                () -> projectService.getProjectsPage("name", idCursor, 3));
+    }
+
     @Test
     @Transactional
     void getProjectByIdIntegrationTest() {
@@ -96,7 +138,7 @@ public class ProjectServiceIntegrationTest {
         Project addedProject = projectRepository.save(projectToAdd);
 
         // Получаем проект по ID проекта, который вернул репозиторий после добавления
-        Project resultProject = projectService.findProjectById(addedProject.getId());
+        ProjectView resultProject = projectService.findProjectById(addedProject.getId());
 
         // Проверяем, что проект, записанный в базу данных, соответствует созданному проекту
         assertNotNull(addedProject.getId());
@@ -135,6 +177,37 @@ public class ProjectServiceIntegrationTest {
         }
     }
 
+    @Test
+    @Transactional
+    void fullTextSearchIntegrationTest() {
+        // Создаем проекты, в которых искомое слово встречается разное число раз
+        Project inNameAndDescription = projectService.addProject(createTestProject("Indexing platform",
+                "Indexing of project documents"));
+        Project inDescription = projectService.addProject(createTestProject("Reporting",
+                "Reports built on top of indexing"));
+        projectService.addProject(createTestProject("Unrelated", "Nothing to see here"));
+
+        // Полнотекстовый поиск по префиксу находит оба проекта, более релевантный - первым
+        List<Project> found = projectService.searchProjects("index", "fulltext", 10, 0);
+        assertEquals(List.of(inNameAndDescription.getId(), inDescription.getId()),
+                found.stream().map(Project::getId).toList());
+
+        // Ограничение и смещение применяются к упорядоченной по релевантности выдаче
+        List<Project> secondOnly = projectService.searchProjects("index", "fulltext", 1, 1);
+        assertEquals(1, secondOnly.size());
+        assertEquals(inDescription.getId(), secondOnly.get(0).getId());
+
+        // Изменение проекта сразу отражается в индексе
+        projectService.updateProjectById(inDescription.getId(), createTestProject("Reporting", "Plain reports"));
+        assertEquals(1, projectService.searchProjects("indexing", "fulltext", 10, 0).size());
+
+        // Поиск по подстроке остается доступен в режиме like
+        assertEquals(1, projectService.searchProjects("ing platf", "like", 10, 0).size());
+
+        // Служебные символы Lucene в запросе не приводят к ошибке
+        assertTrue(projectService.searchProjects("index AND (\"", "fulltext", 10, 0).size() >= 1);
+    }
+
     @Test
     @Transactional
     void updateProjectByIdIntegrationTest() {
@@ -166,4 +239,39 @@ public class ProjectServiceIntegrationTest {
         Project resultProject = projectRepository.findById(projectId).orElse(null);
         assertNull(resultProject, "Проект не был удален");
     }
+
+    @Test
+    @Transactional
+    void addProjectsIgnoresClientIdsIntegrationTest() {
+        Project existing = projectService.addProject(createTestProject("Existing project", "Kept as is"));
+
+        // Проект с идентификатором существующего проекта добавляется как новый, существующий не изменяется
+        Project withId = createTestProject("Overwrite attempt", "Should be a new project");
+        withId.setId(existing.getId());
+        List<Project> added = projectService.addProjects(List.of(withId));
+        assertNotEquals(existing.getId(), added.get(0).getId());
+        assertEquals("Existing project", projectRepository.findById(existing.getId()).orElseThrow().getName());
+        assertEquals("Overwrite attempt", projectRepository.findById(added.get(0).getId()).orElseThrow().getName());
+    }
+
+    @Test
+    @Transactional
+    void findProjectsByIdsIntegrationTest() {
+        Project first = projectService.addProject(createTestProject("Multi-get first", "First"));
+        Project second = projectService.addProject(createTestProject("Multi-get second", "Second"));
+
+        // Проекты возвращаются в порядке запроса без повторов, отсутствующие идентификаторы перечисляются отдельно
+        MultiGetResult<Project> result = projectService.findProjectsByIds(
+                List.of(second.getId(), Long.MAX_VALUE, first.getId(), second.getId()));
+        assertEquals(List.of(second.getId(), first.getId()), result.getFound().stream().map(Project::getId).toList());
+        assertEquals(List.of(Long.MAX_VALUE), result.getMissing());
+
+        // Пустой запрос не обращается к базе, слишком большой отклоняется
+        assertTrue(projectService.findProjectsByIds(List.of()).getFound().isEmpty());
+        List<Long> tooMany = new ArrayList<>();
+        for (long id = 1; id <= 101; id++) {
+            tooMany.add(id);
+        }
+        assertThrows(IllegalArgumentException.class, () -> projectService.findProjectsByIds(tooMany));
+    }
 }
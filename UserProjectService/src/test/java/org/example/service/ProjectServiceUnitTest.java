@@ -1,5 +1,6 @@
 package org.example.service;
 
+import org.example.event.ProjectChangedEvent;
 import org.example.model.Project;
 import org.example.repository.ProjectRepository;
 import org.junit.jupiter.api.Test;
@@ -7,8 +8,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
 
@@ -24,6 +27,9 @@ public class ProjectServiceUnitTest {
     @Mock
     private ProjectRepository projectRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProjectService projectService;
 
@@ -64,5 +70,8 @@ public class ProjectServiceUnitTest {
 
         // Проверка вызова метода flush
         verify(projectRepository).flush();
+
+        // Проверка публикации события изменения проекта
+        verify(eventPublisher).publishEvent(any(ProjectChangedEvent.class));
     }
 }
@@ -0,0 +1,169 @@
+package org.example.service;
+
+import org.example.model.Project;
+import org.example.model.User;
+import org.example.repository.RecordingStatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Бюджеты SQL-запросов для вызовов сервисов.
+ *
+ * Каждый тест выполняет один вызов сервиса в собственной транзакции, подсчитывает все выполненные
+ * Hibernate SQL-запросы и падает, если их больше заявленного бюджета. Так выборки N+1, появившиеся
+ * из-за связей сущностей или каскадов, обнаруживаются в тестах, а не в продакшене.
+ * Кэши очищаются перед каждым замером, поэтому бюджет рассчитан на холодный кэш.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query_count_budget",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "org.example.repository.RecordingStatementInspector"})
+public class QueryCountBudgetTest {
+
+    private static final int MEMBERS = 5;
+
+    @Autowired
+    private UserProjectService userProjectService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Long projectId;
+    private List<Long> memberIds;
+
+    @BeforeEach
+    void createProjectWithMembers() {
+        Project project = new Project();
+        project.setName("Budget project");
+        project.setDescription("Budget project");
+        projectId = projectService.addProject(project).getId();
+        memberIds = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            memberIds.add(createUser("budget-user-" + i).getId());
+        }
+        userProjectService.addUsersToProject(projectId, memberIds);
+    }
+
+    @Test
+    void getUsersByProjectIdWithinBudget() {
+        List<?> users = assertStatementBudget(2, () -> userProjectService.getUsersByProjectId(projectId));
+        assertEquals(MEMBERS, users.size());
+    }
+
+    @Test
+    void getProjectsByUserIdWithinBudget() {
+        List<?> projects = assertStatementBudget(2, () -> userProjectService.getProjectsByUserId(memberIds.get(0)));
+        assertEquals(1, projects.size());
+    }
+
+    @Test
+    void getUsersNotInProjectWithinBudget() {
+        assertStatementBudget(2, () -> userProjectService.getUsersNotInProject(projectId));
+    }
+
+    @Test
+    void pagesWithinBudget() {
+        assertStatementBudget(2, () -> userProjectService.getUsersPageByProjectId(projectId, null, 2));
+        assertStatementBudget(2, () -> userProjectService.getProjectsPageByUserId(memberIds.get(0), null, 2));
+        assertStatementBudget(2, () -> userProjectService.getUsersNotInProjectPage(projectId, null, 2));
+    }
+
+    @Test
+    void addAndRemoveMembersWithinBudget() {
+        List<Long> newUsers = List.of(createUser("budget-new-0").getId(), createUser("budget-new-1").getId());
+        // Блокировка проекта и пользователей, выборка связей, изменение связей, два изменения счетчиков,
+        // пакетная вставка записей change_outbox и, при исчерпании блока идентификаторов, обращение к последовательности
+        assertStatementBudget(8, () -> userProjectService.addUsersToProject(projectId, newUsers));
+        assertStatementBudget(8, () -> userProjectService.removeUsersFromProject(projectId, newUsers));
+        assertStatementBudget(7, () -> userProjectService.removeProject(projectId, memberIds.get(0)));
+    }
+
+    @Test
+    void deleteProjectByIdWithinBudget() {
+        // Блокировка проекта, изменение счетчиков участников, удаление связей и проекта, запись change_outbox
+        assertStatementBudget(6, () -> projectService.deleteProjectById(projectId));
+        assertNull(projectService.findProjectById(projectId));
+        assertTrue(userProjectService.getProjectsByUserId(memberIds.get(0)).isEmpty());
+    }
+
+    @Test
+    void deleteUserWithinBudget() {
+        // Как при удалении проекта: вместе с удалением записывается изменение в change_outbox
+        assertStatementBudget(6, () -> userService.deleteUser(memberIds.get(0)));
+        assertNull(userService.getUserById(memberIds.get(0)));
+        assertEquals(MEMBERS - 1, userProjectService.getUsersByProjectId(projectId).size());
+    }
+
+    @Test
+    void countersAndRankingsWithinBudget() {
+        assertStatementBudget(2, () -> userProjectService.countUsersByProjectId(projectId));
+        assertStatementBudget(2, () -> userProjectService.countProjectsByUserId(memberIds.get(0)));
+        assertStatementBudget(1, () -> userProjectService.getLargestProjects(10));
+        assertStatementBudget(1, () -> userProjectService.getMostActiveUsers(10));
+    }
+
+    @Test
+    void findManyWithinBudget() {
+        List<Long> ids = new ArrayList<>(memberIds);
+        ids.add(Long.MAX_VALUE);
+        assertStatementBudget(1, () -> userService.findUsersByIds(ids));
+        assertStatementBudget(1, () -> projectService.findProjectsByIds(List.of(projectId, Long.MAX_VALUE)));
+    }
+
+    @Test
+    void updateProjectWithinBudget() {
+        Project update = new Project();
+        update.setName("Budget project renamed");
+        update.setDescription("Budget project");
+        // Выборка, изменение проекта и запись изменения в change_outbox
+        assertStatementBudget(5, () -> projectService.updateProjectById(projectId, update));
+    }
+
+    private User createUser(String userName) {
+        User user = new User();
+        user.setUserName(userName);
+        user.setEmail(userName + "@example.com");
+        user.setRole("ROLE_USER");
+        return userService.addUser(user);
+    }
+
+    /**
+     * Выполняет вызов на холодном кэше и проверяет, что количество SQL-запросов не превышает бюджет.
+     * В сообщении об ошибке перечисляются все выполненные запросы.
+     *
+     * @param budget допустимое количество запросов
+     * @param call   вызов сервиса
+     * @return результат вызова
+     */
+    private <T> T assertStatementBudget(int budget, Supplier<T> call) {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        RecordingStatementInspector.clear();
+        T result = call.get();
+        List<String> statements = RecordingStatementInspector.statements();
+        assertTrue(statements.size() <= budget, () -> "Expected at most " + budget + " SQL statements, but "
+                + statements.size() + " were executed:\n" + String.join("\n", statements));
+        return result;
+    }
+
+    private void assertStatementBudget(int budget, Runnable call) {
+        assertStatementBudget(budget, () -> {
+            call.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,296 @@
+package org.example.service;
+
+import org.example.index.MembershipIndex;
+import org.example.model.KeysetPage;
+import org.example.model.MembershipChangeResult;
+import org.example.model.MembershipOutcome;
+import org.example.model.Project;
+import org.example.model.ProjectView;
+import org.example.model.RankedProject;
+import org.example.model.RankedUser;
+import org.example.model.User;
+import org.example.model.UserView;
+import org.example.repository.UserRepository;
+import org.example.repository.UsersProjectRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+@SpringBootTest
+public class UserProjectServiceIntegrationTest {
+
+    @Autowired
+    private UserProjectService userProjectService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private UsersProjectRepository usersProjectRepository;
+
+    @Autowired
+    private MembershipIndex membershipIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User createTestUser(String userName) {
+        User user = new User();
+        user.setUserName(userName);
+        user.setEmail(userName + "@example.com");
+        user.setRole("ROLE_USER");
+        return userService.addUser(user);
+    }
+
+    private Project createTestProject(String name) {
+        Project project = new Project();
+        project.setName(name);
+        project.setDescription("Description " + name);
+        return projectService.addProject(project);
+    }
+
+    @Test
+    @Transactional
+    void getUsersNotInProjectIntegrationTest() {
+        // Создаем проект и пятерых пользователей, двое из которых становятся участниками проекта
+        Project project = createTestProject("Membership test");
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            users.add(createTestUser("membership-user-" + i));
+        }
+        userProjectService.addUserToProject(project.getId(), List.of(users.get(1).getId(), users.get(3).getId()));
+
+        // Получаем пользователей вне проекта и проверяем, что участников среди них нет
+        List<UserView> notInProject = userProjectService.getUsersNotInProject(project.getId());
+        List<Long> notInProjectIds = notInProject.stream().map(UserView::getId).toList();
+        assertFalse(notInProjectIds.contains(users.get(1).getId()));
+        assertFalse(notInProjectIds.contains(users.get(3).getId()));
+        assertTrue(notInProjectIds.contains(users.get(0).getId()));
+        assertEquals(userService.getAllUsers().size() - 2, notInProject.size());
+
+        // Постраничная выдача возвращает тех же пользователей в том же порядке
+        List<User> collected = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetPage<User> page = userProjectService.getUsersNotInProjectPage(project.getId(), cursor, 2);
+            collected.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(notInProjectIds, collected.stream().map(User::getId).toList());
+    }
+
+    @Test
+    @Transactional
+    void getUsersPageByProjectIdIntegrationTest() {
+        // Создаем проект с тремя участниками
+        Project project = createTestProject("Members page test");
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            userIds.add(createTestUser("page-user-" + i).getId());
+        }
+        userProjectService.addUserToProject(project.getId(), userIds);
+
+        // Первая страница из двух участников содержит курсор, вторая - последняя
+        KeysetPage<User> first = userProjectService.getUsersPageByProjectId(project.getId(), null, 2);
+        assertEquals(userIds.subList(0, 2), first.getItems().stream().map(User::getId).toList());
+        assertNotNull(first.getNextCursor());
+
+        KeysetPage<User> second = userProjectService.getUsersPageByProjectId(project.getId(),
+                first.getNextCursor(), 2);
+        assertEquals(userIds.subList(2, 3), second.getItems().stream().map(User::getId).toList());
+        assertNull(second.getNextCursor());
+
+        // Для несуществующего проекта возвращается null, для пустого проекта - пустая страница
+        assertNull(userProjectService.getUsersPageByProjectId(Long.MAX_VALUE, null, 2));
+        Project empty = createTestProject("Empty project");
+        assertTrue(userProjectService.getUsersPageByProjectId(empty.getId(), null, 2).getItems().isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void bulkMembershipIntegrationTest() {
+        // Создаем проект и трех пользователей, первый из которых уже участник проекта
+        Project project = createTestProject("Bulk membership test");
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            userIds.add(createTestUser("bulk-user-" + i).getId());
+        }
+        userProjectService.addUserToProject(project.getId(), List.of(userIds.get(0)));
+
+        // Массовое добавление возвращает результат по каждому идентификатору, повторы не создают связей
+        MembershipChangeResult added = userProjectService.addUsersToProject(project.getId(),
+                List.of(userIds.get(0), userIds.get(1), Long.MAX_VALUE, userIds.get(2), userIds.get(1)));
+        assertEquals(Map.of(
+                userIds.get(0), MembershipOutcome.ALREADY_MEMBER,
+                userIds.get(1), MembershipOutcome.ADDED,
+                Long.MAX_VALUE, MembershipOutcome.USER_NOT_FOUND,
+                userIds.get(2), MembershipOutcome.ADDED), added.getOutcomes());
+        assertEquals(userIds, userProjectService.getUsersByProjectId(project.getId())
+                .stream().map(UserView::getId).toList());
+
+        // Массовое удаление удаляет только участников проекта
+        MembershipChangeResult removed = userProjectService.removeUsersFromProject(project.getId(),
+                List.of(userIds.get(0), userIds.get(2)));
+        assertEquals(2, removed.count(MembershipOutcome.REMOVED));
+        MembershipChangeResult notMember = userProjectService.removeUsersFromProject(project.getId(),
+                List.of(userIds.get(0)));
+        assertEquals(Map.of(userIds.get(0), MembershipOutcome.NOT_MEMBER), notMember.getOutcomes());
+        assertEquals(List.of(userIds.get(1)), userProjectService.getUsersByProjectId(project.getId())
+                .stream().map(UserView::getId).toList());
+
+        // Для несуществующего проекта результат не формируется
+        assertNull(userProjectService.addUsersToProject(Long.MAX_VALUE, userIds));
+    }
+
+    @Test
+    void bulkAddAndUserDeleteDoNotDeadlockIntegrationTest() throws Exception {
+        // Участник проекта идет в списке после полной порции новых пользователей
+        Project project = createTestProject("Bulk lock order test");
+        Long memberId = createTestUser("lock-order-member").getId();
+        userProjectService.addUsersToProject(project.getId(), List.of(memberId));
+        List<User> newUsers = new ArrayList<>();
+        for (int i = 0; i < UserProjectService.BULK_CHUNK_SIZE; i++) {
+            User user = new User();
+            user.setUserName("lock-order-user-" + i);
+            user.setRole("ROLE_USER");
+            newUsers.add(user);
+        }
+        List<Long> userIds = new ArrayList<>(userService.addUsers(newUsers).stream().map(User::getId).toList());
+        userIds.add(memberId);
+
+        // Удаление участника блокирует его строку, затем, пока массовое добавление выполняется
+        // в другом потоке, уменьшает счетчик участников проекта
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<MembershipChangeResult> added = transactionTemplate.execute(status -> {
+                userRepository.lockByIds(List.of(memberId));
+                Future<MembershipChangeResult> future = executor.submit(() ->
+                        userProjectService.addUsersToProject(project.getId(), userIds));
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                userService.deleteUser(memberId);
+                return future;
+            });
+
+            // Массовое добавление дожидается удаления и не находит удаленного пользователя
+            MembershipChangeResult result = added.get(30, TimeUnit.SECONDS);
+            assertEquals(MembershipOutcome.USER_NOT_FOUND, result.getOutcomes().get(memberId));
+            assertEquals(UserProjectService.BULK_CHUNK_SIZE, result.count(MembershipOutcome.ADDED));
+            assertEquals((long) UserProjectService.BULK_CHUNK_SIZE,
+                    userProjectService.countUsersByProjectId(project.getId()));
+        } finally {
+            executor.shutdownNow();
+            projectService.deleteProjectById(project.getId());
+            userIds.subList(0, UserProjectService.BULK_CHUNK_SIZE).forEach(userService::deleteUser);
+        }
+    }
+
+    @Test
+    void membershipIndexIntegrationTest() {
+        // Без внешней транзакции изменения применяются к индексу сразу после фиксации
+        Project project = createTestProject("Bitmap index test");
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            userIds.add(createTestUser("bitmap-user-" + i).getId());
+        }
+        userProjectService.addUsersToProject(project.getId(), userIds);
+        assertTrue(membershipIndex.isCurrent());
+        assertEquals(userIds, membershipIndex.getMemberIds(project.getId()));
+
+        // Ответы по индексу совпадают с ответами базы данных
+        assertEquals(3L, userProjectService.countUsersByProjectId(project.getId()));
+        assertEquals(userIds, userProjectService.getUsersByProjectId(project.getId())
+                .stream().map(UserView::getId).toList());
+        assertEquals(usersProjectRepository.findUsersNotInProject(project.getId()).stream().map(UserView::getId).toList(),
+                userProjectService.getUsersNotInProject(project.getId()).stream().map(UserView::getId).toList());
+        assertEquals(List.of(project.getId()), userProjectService.getProjectsByUserId(userIds.get(0))
+                .stream().map(ProjectView::getId).toList());
+
+        // Удаление участника, пользователя и проекта отражается в индексе
+        userProjectService.removeUsersFromProject(project.getId(), List.of(userIds.get(0)));
+        userService.deleteUser(userIds.get(1));
+        assertEquals(List.of(userIds.get(2)), membershipIndex.getMemberIds(project.getId()));
+        assertFalse(membershipIndex.getNonMemberIds(project.getId()).contains(userIds.get(1)));
+        projectService.deleteProjectById(project.getId());
+        assertEquals(0, membershipIndex.countMembers(project.getId()));
+        assertTrue(membershipIndex.getProjectIds(userIds.get(2)).isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void membershipCountersIntegrationTest() {
+        // Три проекта с тремя, двумя и одним участником; первый пользователь состоит во всех
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            userIds.add(createTestUser("counter-user-" + i).getId());
+        }
+        List<Long> projectIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Long projectId = createTestProject("Counter project " + i).getId();
+            projectIds.add(projectId);
+            userProjectService.addUsersToProject(projectId, userIds.subList(0, 3 - i));
+        }
+        assertEquals(0L, userProjectService.countUsersByProjectId(createTestProject("Empty counter project").getId()));
+
+        // Повторное добавление и удаление не участника не меняют счетчики
+        userProjectService.addUsersToProject(projectIds.get(0), userIds);
+        userProjectService.removeUsersFromProject(projectIds.get(2), List.of(userIds.get(2)));
+        assertEquals(3L, userProjectService.countUsersByProjectId(projectIds.get(0)));
+        assertEquals(1L, userProjectService.countUsersByProjectId(projectIds.get(2)));
+        assertEquals(3L, userProjectService.countProjectsByUserId(userIds.get(0)));
+        assertEquals(1L, userProjectService.countProjectsByUserId(userIds.get(2)));
+
+        // Рейтинги упорядочены по убыванию счетчика
+        assertEquals(List.of(new RankedProject(projectIds.get(0), "Counter project 0", 3),
+                        new RankedProject(projectIds.get(1), "Counter project 1", 2),
+                        new RankedProject(projectIds.get(2), "Counter project 2", 1)),
+                userProjectService.getLargestProjects(100).stream()
+                        .filter(project -> projectIds.contains(project.getId())).toList());
+        assertEquals(List.of(new RankedUser(userIds.get(0), "counter-user-0", 3),
+                        new RankedUser(userIds.get(1), "counter-user-1", 2),
+                        new RankedUser(userIds.get(2), "counter-user-2", 1)),
+                userProjectService.getMostActiveUsers(100).stream()
+                        .filter(user -> userIds.contains(user.getId())).toList());
+
+        // Удаление участника, пользователя и проекта уменьшает счетчики
+        userProjectService.removeProject(projectIds.get(0), userIds.get(1));
+        assertEquals(2L, userProjectService.countUsersByProjectId(projectIds.get(0)));
+        assertEquals(1L, userProjectService.countProjectsByUserId(userIds.get(1)));
+        userService.deleteUser(userIds.get(0));
+        assertEquals(1L, userProjectService.countUsersByProjectId(projectIds.get(0)));
+        assertEquals(1L, userProjectService.countUsersByProjectId(projectIds.get(1)));
+        assertEquals(0L, userProjectService.countUsersByProjectId(projectIds.get(2)));
+        projectService.deleteProjectById(projectIds.get(1));
+        assertEquals(0L, userProjectService.countProjectsByUserId(userIds.get(1)));
+        assertEquals(1L, userProjectService.countProjectsByUserId(userIds.get(2)));
+
+        // Счетчики совпадают с фактическим количеством связей
+        for (Long projectId : List.of(projectIds.get(0), projectIds.get(2))) {
+            assertEquals(usersProjectRepository.countByProjectId(projectId),
+                    userProjectService.countUsersByProjectId(projectId));
+        }
+        assertNull(userProjectService.countProjectsByUserId(userIds.get(0)));
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.service;
+
+import org.example.model.MultiGetResult;
+import org.example.model.User;
+import org.example.model.UserSuggestion;
+import org.example.model.UserView;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+@SpringBootTest
+public class UserServiceIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private User createTestUser(String userName, String email) {
+        User user = new User();
+        user.setUserName(userName);
+        user.setEmail(email);
+        user.setRole("ROLE_USER");
+        return user;
+    }
+
+    private List<Long> autocompleteIds(String prefix) {
+        return userService.autocompleteUsers(prefix, 10).stream().map(UserSuggestion::getId).toList();
+    }
+
+    @Test
+    void autocompleteUsersIntegrationTest() {
+        // Данные, загруженные из data.sql, попадают в индекс при запуске
+        assertFalse(autocompleteIds("adm").isEmpty());
+
+        // Добавленный пользователь находится по началу имени, слову имени и адресу почты без учета регистра
+        User added = userService.addUser(createTestUser("Zoe Autocomplete", "zoe.ac@example.com"));
+        assertEquals(List.of(added.getId()), autocompleteIds("zoe"));
+        assertEquals(List.of(added.getId()), autocompleteIds("AUTOCOMP"));
+        assertEquals(List.of(added.getId()), autocompleteIds("zoe.ac@"));
+
+        // После обновления старые значения больше не находятся, новые - находятся
+        userService.updateUser(added.getId(), createTestUser("Yuri Renamed", "yuri.renamed@example.com"));
+        assertTrue(autocompleteIds("zoe").isEmpty());
+        assertEquals(List.of(added.getId()), autocompleteIds("renam"));
+
+        // После удаления пользователь исчезает из подсказок
+        userService.deleteUser(added.getId());
+        assertTrue(autocompleteIds("yuri").isEmpty());
+    }
+
+    @Test
+    void getUserByIdCacheIntegrationTest() {
+        User added = userService.addUser(createTestUser("Cached User", "cached.user@example.com"));
+        Cache cache = cacheManager.getCache("users");
+
+        // Первое обращение загружает пользователя в кэш, повторное возвращает закэшированный объект
+        UserView loaded = userService.getUserById(added.getId());
+        assertNotNull(cache.get(added.getId()));
+        assertSame(loaded, userService.getUserById(added.getId()));
+
+        // Обновление удаляет запись из кэша, следующее обращение возвращает новые данные
+        userService.updateUser(added.getId(), createTestUser("Cached Renamed", "cached.renamed@example.com"));
+        assertNull(cache.get(added.getId()));
+        assertEquals("Cached Renamed", userService.getUserById(added.getId()).getUserName());
+
+        // Удаление удаляет запись из кэша, отсутствующий пользователь не кэшируется
+        userService.deleteUser(added.getId());
+        assertNull(cache.get(added.getId()));
+        assertNull(userService.getUserById(added.getId()));
+        assertNull(cache.get(added.getId()));
+    }
+
+    @Test
+    @Transactional
+    void findUsersByIdsIntegrationTest() {
+        User first = userService.addUser(createTestUser("Multi First", "multi.first@example.com"));
+        User second = userService.addUser(createTestUser("Multi Second", "multi.second@example.com"));
+
+        // Пользователи возвращаются в порядке запроса без повторов, отсутствующие идентификаторы перечисляются отдельно
+        MultiGetResult<User> result = userService.findUsersByIds(
+                List.of(second.getId(), Long.MAX_VALUE, first.getId(), first.getId()));
+        assertEquals(List.of(second.getId(), first.getId()), result.getFound().stream().map(User::getId).toList());
+        assertEquals(List.of(Long.MAX_VALUE), result.getMissing());
+
+        // Слишком большой запрос отклоняется целиком
+        List<Long> tooMany = new ArrayList<>();
+        for (long id = 1; id <= 101; id++) {
+            tooMany.add(id);
+        }
+        assertThrows(IllegalArgumentException.class, () -> userService.findUsersByIds(tooMany));
+    }
+}
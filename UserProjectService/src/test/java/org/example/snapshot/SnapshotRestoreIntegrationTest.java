@@ -0,0 +1,130 @@
+package org.example.snapshot;
+
+import org.example.model.ProjectView;
+import org.example.model.SnapshotSummary;
+import org.example.service.ProjectService;
+import org.example.service.UserProjectService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Проверяет запуск приложения с базой данных в файле, заполняемой из снимка данных вместо data.sql,
+ * и повторную инициализацию уже созданной базы.
+ */
+@SpringBootTest
+public class SnapshotRestoreIntegrationTest {
+
+    private static final String SNAPSHOT_PROJECT = "Snapshot project";
+
+    private static final Path STORAGE_DIR;
+    private static final Path SNAPSHOT;
+
+    static {
+        try {
+            STORAGE_DIR = Files.createTempDirectory("userproject-storage");
+            SNAPSHOT = STORAGE_DIR.resolve("userproject.snapshot");
+            writeSnapshot(SNAPSHOT);
+        } catch (IOException | SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void storageProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+                () -> "jdbc:h2:file:" + STORAGE_DIR.resolve("userproject") + ";DB_CLOSE_ON_EXIT=FALSE");
+        registry.add("snapshot.restore-from", SNAPSHOT::toString);
+    }
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private UserProjectService userProjectService;
+
+    @Autowired
+    private SnapshotDatabaseInitializer initializer;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Test
+    void freshDatabaseIsRestoredFromSnapshot() {
+        assertEquals(1, projectService.getAllProjects().size());
+        ProjectView project = projectService.getAllProjects().get(0);
+        assertEquals(SNAPSHOT_PROJECT, project.getName());
+        assertEquals(1, userProjectService.getUsersByProjectId(project.getId()).size());
+        assertEquals(1L, userProjectService.countUsersByProjectId(project.getId()));
+        assertEquals(1L, userProjectService.countProjectsByUserId(7L));
+    }
+
+    @Test
+    void existingSchemaIsNotReinitialized() {
+        assertFalse(initializer.initializeDatabase());
+        assertEquals(1, projectService.getAllProjects().size());
+    }
+
+    @Test
+    void exportedSnapshotCanBeRestored() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        MvcResult started = mockMvc.perform(get("/api/snapshot")).andReturn();
+        byte[] exported = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"userproject.snapshot\""))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        SingleConnectionDataSource target = schemaOnly("snapshot_export_target");
+        SnapshotSummary restored = new SnapshotService(target).restore(new ByteArrayInputStream(exported));
+        assertEquals(new SnapshotSummary(1, 1, 1), restored);
+        assertEquals(SNAPSHOT_PROJECT,
+                new JdbcTemplate(target).queryForObject("SELECT name FROM projects", String.class));
+        target.destroy();
+    }
+
+    /**
+     * Записывает снимок базы с одним пользователем, одним проектом и связью между ними.
+     */
+    private static void writeSnapshot(Path file) throws IOException, SQLException {
+        SingleConnectionDataSource source = schemaOnly("snapshot_restore_source");
+        JdbcTemplate jdbc = new JdbcTemplate(source);
+        jdbc.update("INSERT INTO users (id, user_name, email, role) VALUES (7, 'snapshot', 'snapshot@mail.ru', 'ROLE_USER')");
+        jdbc.update("INSERT INTO projects (id, name, description, created_date) VALUES (9, ?, 'From snapshot', CURRENT_DATE)",
+                SNAPSHOT_PROJECT);
+        jdbc.update("INSERT INTO users_project (project_id, user_id) VALUES (9, 7)");
+        try (OutputStream output = Files.newOutputStream(file)) {
+            new SnapshotService(source).export(output);
+        }
+        source.destroy();
+    }
+
+    private static SingleConnectionDataSource schemaOnly(String name) {
+        SingleConnectionDataSource dataSource =
+                new SingleConnectionDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "root", "root", true);
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.snapshot;
+
+import org.example.model.SnapshotSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет выгрузку снимка и восстановление из него на отдельных базах H2.
+ */
+public class SnapshotServiceTest {
+
+    @Test
+    void restoreReproducesExportedData() throws Exception {
+        SingleConnectionDataSource source = database("snapshot_source", true);
+        JdbcTemplate sourceJdbc = new JdbcTemplate(source);
+        sourceJdbc.update("INSERT INTO users (id, user_name, email, role) VALUES (1000, 'Пользователь', NULL, 'ROLE_USER')");
+        sourceJdbc.update("INSERT INTO projects (id, name, description, created_date) VALUES " +
+                "(1000, NULL, ?, NULL), (1001, 'Old project', 'Snapshot', '1969-07-20')", "x".repeat(70_000));
+        sourceJdbc.update("INSERT INTO users_project (project_id, user_id) VALUES (1000, 1), (1000, 1000), (1001, 2)");
+
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        SnapshotSummary exported = new SnapshotService(source).export(snapshot);
+
+        SingleConnectionDataSource target = database("snapshot_target", false);
+        SnapshotSummary restored = new SnapshotService(target).restore(new ByteArrayInputStream(snapshot.toByteArray()));
+        assertEquals(exported, restored);
+
+        JdbcTemplate targetJdbc = new JdbcTemplate(target);
+        for (String query : List.of(
+                "SELECT id, user_name, email, role FROM users ORDER BY id",
+                "SELECT id, name, description, created_date FROM projects ORDER BY id",
+                "SELECT project_id, user_id FROM users_project ORDER BY project_id, user_id")) {
+            assertEquals(sourceJdbc.queryForList(query), targetJdbc.queryForList(query));
+        }
+
+        // Идентификаторы продолжаются после восстановленных, полнотекстовый индекс перестроен
+        assertTrue(targetJdbc.queryForObject("SELECT NEXT VALUE FOR users_seq", Long.class) > 1000);
+        assertTrue(targetJdbc.queryForObject("SELECT NEXT VALUE FOR projects_seq", Long.class) > 1001);
+        List<Map<String, Object>> found = targetJdbc.queryForList(
+                "SELECT * FROM FTL_SEARCH_DATA('Snapshot', 0, 0)");
+        assertEquals(1, found.size());
+
+        source.destroy();
+        target.destroy();
+    }
+
+    @Test
+    void restoreRejectsNonEmptyDatabase() throws Exception {
+        SingleConnectionDataSource source = database("snapshot_non_empty", true);
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        SnapshotService service = new SnapshotService(source);
+        service.export(snapshot);
+
+        assertThrows(IllegalStateException.class,
+                () -> service.restore(new ByteArrayInputStream(snapshot.toByteArray())));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.restore(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6, 7, 8})));
+        source.destroy();
+    }
+
+    /**
+     * Создает базу H2 в памяти со схемой приложения и, при необходимости, начальными данными.
+     */
+    private static SingleConnectionDataSource database(String name, boolean withData) {
+        SingleConnectionDataSource dataSource =
+                new SingleConnectionDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "root", "root", true);
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+        if (withData) {
+            populator.addScript(new ClassPathResource("data.sql"));
+        }
+        populator.execute(dataSource);
+        return dataSource;
+    }
+}
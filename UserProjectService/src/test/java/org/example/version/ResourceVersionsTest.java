@@ -0,0 +1,55 @@
+package org.example.version;
+
+import org.example.event.MembershipChangedEvent;
+import org.example.event.ProjectChangedEvent;
+import org.example.event.UserChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет хранение версий ресурсов без контекста Spring: события передаются напрямую.
+ */
+public class ResourceVersionsTest {
+
+    @Test
+    void deletedResourcesForgetVersions() {
+        ResourceVersions versions = new ResourceVersions(10);
+        versions.onUserChanged(new UserChangedEvent(1L, "User", null, false));
+        versions.onProjectChanged(new ProjectChangedEvent(2L, false));
+        versions.onMembershipChanged(MembershipChangedEvent.added(2L, List.of(1L)));
+        assertTrue(versions.user(1L) > 0);
+        assertTrue(versions.userProjects(1L) > 0);
+        assertTrue(versions.projectMembers(2L) > 0);
+        long users = versions.users();
+
+        versions.onUserChanged(UserChangedEvent.deleted(1L));
+        versions.onMembershipChanged(MembershipChangedEvent.projectDeleted(2L, List.of()));
+        versions.onProjectChanged(new ProjectChangedEvent(2L, true));
+        assertEquals(0, versions.user(1L));
+        assertEquals(0, versions.userProjects(1L));
+        assertEquals(0, versions.project(2L));
+        assertEquals(0, versions.projectMembers(2L));
+        // Версии коллекций при удалении увеличиваются
+        assertTrue(versions.users() > users);
+    }
+
+    @Test
+    void evictedVersionsAreNotOlderThanActual() {
+        ResourceVersions versions = new ResourceVersions(8);
+        for (long id = 1; id <= 9; id++) {
+            versions.onUserChanged(new UserChangedEvent(id, "User " + id, null, false));
+        }
+        // При превышении лимита самые старые версии вытеснены, их версией стала наибольшая вытесненная
+        long evicted = versions.user(1L);
+        assertEquals(evicted, versions.user(3L));
+        assertTrue(evicted >= 3);
+        assertTrue(versions.user(9L) > evicted);
+        // Не изменявшиеся ресурсы получают ту же версию, изменение вытесненного ресурса снова ее увеличивает
+        assertEquals(evicted, versions.user(100L));
+        versions.onUserChanged(new UserChangedEvent(1L, "User 1 renamed", null, false));
+        assertTrue(versions.user(1L) > versions.user(9L));
+    }
+}
@@ -2,6 +2,7 @@ package org.example.WebMicroService;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 
 @SpringBootApplication
@@ -9,7 +10,10 @@ import org.springframework.cloud.openfeign.EnableFeignClients;
 public class WebMicroServiceApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(WebMicroServiceApplication.class, args);
+		SpringApplication application = new SpringApplication(WebMicroServiceApplication.class);
+		// Шаги запуска (создание бинов, обработка конфигурации) доступны на /actuator/startup
+		application.setApplicationStartup(new BufferingApplicationStartup(4096));
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,131 @@
+package org.example.WebMicroService.client;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Клиент потока изменений UserProjectService (/api/changes/stream) в формате Server-Sent Events.
+ *
+ * Feign читает ответ целиком, поэтому поток читается построчно через {@link HttpClient};
+ * экземпляр UserProjectService выбирается тем же балансировщиком по Eureka, что и у Feign-клиентов.
+ */
+@Component
+public class ChangeStreamClient {
+
+    private static final String SERVICE_ID = "UserProjectService";
+
+    private final LoadBalancerClient loadBalancerClient;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public ChangeStreamClient(LoadBalancerClient loadBalancerClient) {
+        this.loadBalancerClient = loadBalancerClient;
+    }
+
+    /**
+     * Подключается к потоку изменений и передает события обработчику, пока поток не закончится
+     * или обработчик не выбросит исключение.
+     *
+     * @param projectId   идентификатор проекта для фильтра изменений
+     * @param lastEventId идентификатор последнего полученного события или null
+     * @param handler     обработчик событий
+     * @throws IOException          при ошибке соединения, ответе с ошибкой или ошибке обработчика
+     * @throws InterruptedException если поток прерван во время подключения
+     */
+    public void stream(Long projectId, String lastEventId, EventHandler handler)
+            throws IOException, InterruptedException {
+        ServiceInstance instance = loadBalancerClient.choose(SERVICE_ID);
+        if (instance == null) {
+            throw new IOException("No " + SERVICE_ID + " instance available");
+        }
+        URI uri = UriComponentsBuilder.fromUri(instance.getUri())
+                .path("/api/changes/stream")
+                .queryParam("projectId", projectId)
+                .build().toUri();
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+                .GET();
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<Stream<String>> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+        try (Stream<String> lines = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IOException("Change stream request failed with status " + response.statusCode());
+            }
+            read(lines.iterator(), handler);
+        }
+    }
+
+    /**
+     * Разбирает строки потока: поля id, event и data накапливаются до пустой строки,
+     * строки, начинающиеся с двоеточия, - комментарии.
+     */
+    private static void read(Iterator<String> lines, EventHandler handler) throws IOException {
+        String id = null;
+        String name = null;
+        StringBuilder data = null;
+        while (lines.hasNext()) {
+            String line = lines.next();
+            if (line.isEmpty()) {
+                if (data != null) {
+                    handler.onEvent(new Event(id, name != null ? name : "message", data.toString()));
+                }
+                id = null;
+                name = null;
+                data = null;
+            } else if (line.startsWith(":")) {
+                handler.onComment(line.substring(1).trim());
+            } else {
+                int colon = line.indexOf(':');
+                String field = colon < 0 ? line : line.substring(0, colon);
+                String value = colon < 0 ? "" : line.substring(colon + 1);
+                if (value.startsWith(" ")) {
+                    value = value.substring(1);
+                }
+                switch (field) {
+                    case "id" -> id = value;
+                    case "event" -> name = value;
+                    case "data" -> data = data == null ? new StringBuilder(value) : data.append('\n').append(value);
+                    default -> {
+                        // Поле retry и неизвестные поля не передаются
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Событие потока.
+     *
+     * @param id   идентификатор события (позиция изменения) или null
+     * @param name имя события
+     * @param data данные события
+     */
+    public record Event(String id, String name, String data) {
+    }
+
+    /**
+     * Обработчик событий потока.
+     */
+    public interface EventHandler {
+
+        void onEvent(Event event) throws IOException;
+
+        void onComment(String comment) throws IOException;
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.WebMicroService.client;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Условные GET-запросы для Feign-клиентов UserProjectService.
+ *
+ * Для каждого URL хранится последний ответ с заголовком ETag. Повторный GET-запрос отправляется
+ * с заголовком If-None-Match; при ответе 304 клиенту возвращается сохраненное тело с исходными заголовками,
+ * поэтому декодирование ответа и код сервисов не меняются. Сохраняется не более {@link #MAX_ENTRIES}
+ * последних ответов, давно не использовавшиеся вытесняются.
+ *
+ * Клиент оборачивается через {@link Capability}, поэтому балансировка нагрузки по Eureka сохраняется.
+ * Доступ к кэшу защищен {@link ReentrantLock}, а не synchronized, чтобы ожидание блокировки
+ * не закрепляло виртуальный поток за потоком-носителем.
+ */
+@Component
+public class ConditionalGetCapability implements Capability {
+
+    /**
+     * Максимальное количество сохраненных ответов.
+     */
+    private static final int MAX_ENTRIES = 500;
+
+    private final Lock lock = new ReentrantLock();
+    private final Map<String, CachedResponse> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> execute(client, request, options);
+    }
+
+    private Response execute(Client client, Request request, Request.Options options) throws IOException {
+        if (request.httpMethod() != Request.HttpMethod.GET) {
+            return client.execute(request, options);
+        }
+        CachedResponse cached = get(request.url());
+        if (cached != null) {
+            Map<String, Collection<String>> headers = new LinkedHashMap<>(request.headers());
+            headers.put(HttpHeaders.IF_NONE_MATCH, List.of(cached.etag()));
+            request = Request.create(request.httpMethod(), request.url(), headers, request.body(),
+                    request.charset(), request.requestTemplate());
+        }
+        Response response = client.execute(request, options);
+        if (response.status() == HttpStatus.NOT_MODIFIED.value() && cached != null) {
+            response.close();
+            return Response.builder()
+                    .status(HttpStatus.OK.value())
+                    .reason(HttpStatus.OK.getReasonPhrase())
+                    .headers(cached.headers())
+                    .body(cached.body())
+                    .request(request)
+                    .build();
+        }
+        String etag = firstHeader(response, HttpHeaders.ETAG);
+        if (response.status() != HttpStatus.OK.value() || etag == null || response.body() == null) {
+            if (cached != null) {
+                remove(request.url());
+            }
+            return response;
+        }
+        byte[] body;
+        try (InputStream stream = response.body().asInputStream()) {
+            body = Util.toByteArray(stream);
+        }
+        put(request.url(), new CachedResponse(etag, response.headers(), body));
+        return response.toBuilder().body(body).build();
+    }
+
+    private static String firstHeader(Response response, String name) {
+        Collection<String> values = response.headers().get(name);
+        return values == null || values.isEmpty() ? null : values.iterator().next();
+    }
+
+    private CachedResponse get(String url) {
+        lock.lock();
+        try {
+            return cache.get(url);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(String url, CachedResponse response) {
+        lock.lock();
+        try {
+            cache.put(url, response);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(String url) {
+        lock.lock();
+        try {
+            cache.remove(url);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Сохраненный ответ: ETag, заголовки и тело.
+     */
+    private record CachedResponse(String etag, Map<String, Collection<String>> headers, byte[] body) {
+    }
+}
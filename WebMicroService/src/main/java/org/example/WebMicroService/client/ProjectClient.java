@@ -1,12 +1,15 @@
 package org.example.WebMicroService.client;
 
 
+import org.example.WebMicroService.model.KeysetPage;
+import org.example.WebMicroService.model.MultiGetResult;
 import org.example.WebMicroService.model.Project;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Collection;
 import java.util.List;
 
 @Component
@@ -16,14 +19,24 @@ public interface ProjectClient {
     ResponseEntity<Project> addProject(@RequestBody Project project);
 
     @GetMapping("/search")
-    ResponseEntity<List<Project>> searchProject(@RequestParam("query") String query);
+    ResponseEntity<List<Project>> searchProject(@RequestParam("query") String query,
+                                                @RequestParam(value = "limit", required = false) Integer limit,
+                                                @RequestParam(value = "offset", required = false) Integer offset);
 
     @GetMapping("/get_all")
     ResponseEntity<List<Project>> getAllProjects();
 
+    @GetMapping("/get_page")
+    ResponseEntity<KeysetPage<Project>> getProjectsPage(@RequestParam("sort") String sort,
+                                                        @RequestParam(value = "cursor", required = false) String cursor,
+                                                        @RequestParam(value = "size", required = false) Integer size);
+
     @GetMapping("/find/{id}")
     ResponseEntity<Project> findProjectById(@PathVariable("id") Long id);
 
+    @GetMapping("/find_many")
+    ResponseEntity<MultiGetResult<Project>> findProjectsByIds(@RequestParam("ids") Collection<Long> ids);
+
     @PostMapping("/edit/{id}")
     ResponseEntity<Project> updateProjectById(@PathVariable("id") Long id, @RequestBody Project project);
 
@@ -1,6 +1,8 @@
 package org.example.WebMicroService.client;
 
 
+import org.example.WebMicroService.model.KeysetPage;
+import org.example.WebMicroService.model.MultiGetResult;
 import org.example.WebMicroService.model.UserAdd;
 import org.example.WebMicroService.model.UserDTO;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -8,6 +10,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Collection;
 import java.util.List;
 
 @Component
@@ -20,12 +23,24 @@ public interface UserClient {
     @GetMapping("/search")
     ResponseEntity<List<UserDTO>> searchUser(@RequestParam("query") String query);
 
+    @GetMapping("/autocomplete")
+    ResponseEntity<List<UserDTO>> autocompleteUsers(@RequestParam("prefix") String prefix,
+                                                    @RequestParam(value = "limit", required = false) Integer limit);
+
     @GetMapping("/get_all")
     ResponseEntity<List<UserDTO>> getAllUsers();
 
+    @GetMapping("/get_page")
+    ResponseEntity<KeysetPage<UserDTO>> getUsersPage(@RequestParam("sort") String sort,
+                                                     @RequestParam(value = "cursor", required = false) String cursor,
+                                                     @RequestParam(value = "size", required = false) Integer size);
+
     @GetMapping("/find/{id}")
     ResponseEntity<UserDTO> findUserById(@PathVariable("id") Long id);
 
+    @GetMapping("/find_many")
+    ResponseEntity<MultiGetResult<UserDTO>> findUsersByIds(@RequestParam("ids") Collection<Long> ids);
+
     @PostMapping("/edit/{id}")
     ResponseEntity<UserDTO> updateUserById(@RequestBody UserAdd user, @PathVariable("id") Long id);
 
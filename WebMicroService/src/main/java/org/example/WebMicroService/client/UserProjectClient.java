@@ -1,6 +1,7 @@
 package org.example.WebMicroService.client;
 
 
+import org.example.WebMicroService.model.KeysetPage;
 import org.example.WebMicroService.model.Project;
 import org.example.WebMicroService.model.UserDTO;
 import org.example.WebMicroService.model.UserProjectRequest;
@@ -18,9 +19,19 @@ public interface UserProjectClient {
     @GetMapping("/users_in_project")
     ResponseEntity<List<UserDTO>> getUsersInProject(@RequestParam("projectId") Long projectId);
 
+    @GetMapping("/users_in_project/page")
+    ResponseEntity<KeysetPage<UserDTO>> getUsersInProjectPage(@RequestParam("projectId") Long projectId,
+                                                              @RequestParam(value = "cursor", required = false) String cursor,
+                                                              @RequestParam(value = "size", required = false) Integer size);
+
     @GetMapping("/user_projects")
     ResponseEntity<List<Project>> getProjectsByUserId(@RequestParam("userId") Long userId);
 
+    @GetMapping("/user_projects/page")
+    ResponseEntity<KeysetPage<Project>> getProjectsPageByUserId(@RequestParam("userId") Long userId,
+                                                                @RequestParam(value = "cursor", required = false) String cursor,
+                                                                @RequestParam(value = "size", required = false) Integer size);
+
     @PostMapping("/add_users_to_project")
     ResponseEntity<String> addUsersToProject(@RequestBody UserProjectRequest request);
 
@@ -30,4 +41,9 @@ public interface UserProjectClient {
 
     @GetMapping("/users_not_in_project/{id}")
     ResponseEntity<List<UserDTO>> getUsersNotIProject(@PathVariable("id") Long projectId);
+
+    @GetMapping("/users_not_in_project/{id}/page")
+    ResponseEntity<KeysetPage<UserDTO>> getUsersNotInProjectPage(@PathVariable("id") Long projectId,
+                                                                 @RequestParam(value = "cursor", required = false) String cursor,
+                                                                 @RequestParam(value = "size", required = false) Integer size);
 }
@@ -102,8 +102,10 @@ public class ProjectController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<?> search(@RequestParam("query") String query, Model model) {
-        return ResponseEntity.ok(projectService.searchProjectByQuery(query));
+    public ResponseEntity<?> search(@RequestParam("query") String query,
+                                    @RequestParam(value = "limit", required = false) Integer limit,
+                                    @RequestParam(value = "offset", required = false) Integer offset) {
+        return ResponseEntity.ok(projectService.searchProjectByQuery(query, limit, offset));
     }
 
     @GetMapping("/get_all")
@@ -111,6 +113,13 @@ public class ProjectController {
         return ResponseEntity.ok(projectService.getAllProjects());
     }
 
+    @GetMapping("/get_page")
+    public ResponseEntity<?> getProjectsPage(@RequestParam(value = "sort", defaultValue = "created_date") String sort,
+                                             @RequestParam(value = "cursor", required = false) String cursor,
+                                             @RequestParam(value = "size", required = false) Integer size) {
+        return ResponseEntity.ok(projectService.getProjectsPage(sort, cursor, size));
+    }
+
     /**
      * Проверяет, является ли проект недействительным. Проект считается недействительным, если:
      * 1. Проект равен null.
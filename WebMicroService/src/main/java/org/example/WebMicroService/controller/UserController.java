@@ -79,12 +79,25 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping("/autocomplete")
+    public ResponseEntity<?> autocompleteUsers(@RequestParam("prefix") String prefix,
+                                               @RequestParam(value = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(userService.autocompleteUsers(prefix, limit));
+    }
+
     @GetMapping("/get_all")
     public ResponseEntity<?> getAllUsers() {
         List<UserDTO> users = userService.getAllUsers();
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping("/get_page")
+    public ResponseEntity<?> getUsersPage(@RequestParam(value = "sort", defaultValue = "user_name") String sort,
+                                          @RequestParam(value = "cursor", required = false) String cursor,
+                                          @RequestParam(value = "size", required = false) Integer size) {
+        return ResponseEntity.ok(userService.getUsersPage(sort, cursor, size));
+    }
+
     /**
      * Метод обрабатывает GET-запрос на отображение формы редактирования пользователя.
      *
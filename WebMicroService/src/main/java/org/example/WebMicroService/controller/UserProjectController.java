@@ -1,18 +1,26 @@
 package org.example.WebMicroService.controller;
 
 
+import feign.FeignException;
+import org.example.WebMicroService.model.MultiGetResult;
 import org.example.WebMicroService.model.Project;
 import org.example.WebMicroService.model.UserDTO;
 import org.example.WebMicroService.model.UserProjectRequest;
+import org.example.WebMicroService.service.ProjectChangeStreamService;
 import org.example.WebMicroService.service.ProjectService;
 import org.example.WebMicroService.service.UserProjectService;
 import org.example.WebMicroService.service.UserService;
 import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 
 /**
@@ -27,6 +35,8 @@ public class UserProjectController {
     private final UserProjectService userProjectService;
     private final UserService userService;
     private final ProjectService projectService;
+    private final ProjectChangeStreamService projectChangeStreamService;
+    private final ThreadPoolTaskExecutor lookupExecutor;
 
     /**
      * Метод обрабатывает GET-запрос на получение пользователей по идентификатору проекта
@@ -46,6 +56,21 @@ public class UserProjectController {
         return "redirect:/projects/project_managment";
     }
 
+    /**
+     * Метод обрабатывает GET-запрос на подписку страниц проекта на изменения участников (Server-Sent Events).
+     * Страницы участников и добавления/удаления участников обновляют таблицы по событиям без перезагрузки.
+     *
+     * @param projectId   идентификатор проекта
+     * @param lastEventId идентификатор последнего полученного события, браузер передает его при переподключении
+     * @return поток событий
+     */
+    @GetMapping(path = "/project/{id}/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamProjectChanges(@PathVariable("id") Long projectId,
+                                           @RequestHeader(value = "Last-Event-ID", required = false)
+                                           String lastEventId) {
+        return projectChangeStreamService.subscribe(projectId, lastEventId);
+    }
+
     /**
      * Метод обрабатывает GET-запрос на получение проектов по идентификатору пользователя
      *
@@ -55,15 +80,48 @@ public class UserProjectController {
      */
     @GetMapping("/user/{id}/projects")
     public String getProjectsByUserId(@PathVariable("id") Long userId, Model model) {
-        List<Project> projects = userProjectService.getProjectsByUserId(userId);
-        if (projects != null) {
-            model.addAttribute("userName", userService.getUserById(userId).getUserName());
+        // Пользователь запрашивается через find_many параллельно с проектами: страница ждет один запрос
+        // к UserProjectService, а не два последовательных. Отсутствующий пользователь возвращается в списке
+        // missing, а запрос проектов отвечает 404
+        Future<MultiGetResult<UserDTO>> users =
+                lookupExecutor.submit(() -> userService.getUsersByIds(List.of(userId)));
+        List<Project> projects;
+        try {
+            projects = userProjectService.getProjectsByUserId(userId);
+        } catch (FeignException.NotFound e) {
+            projects = null;
+        } catch (RuntimeException e) {
+            users.cancel(true);
+            throw e;
+        }
+        MultiGetResult<UserDTO> found = await(users);
+        if (found != null && !found.getFound().isEmpty() && projects != null) {
+            model.addAttribute("userName", found.getFound().get(0).getUserName());
             model.addAttribute("projects", projects);
             return "/users/user_projects";
         }
         return "redirect:/user_managment";
     }
 
+    /**
+     * Ожидает результат запроса, выполняемого в пуле lookupExecutor. Ошибка запроса выбрасывается
+     * без обертки, как при вызове в потоке запроса страницы.
+     */
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while waiting for UserProjectService", e);
+        }
+    }
+
     /**
      * Метод обрабатывает GET-запрос и возвращает форму для добавления пользователей к проекту
      *
@@ -73,10 +131,12 @@ public class UserProjectController {
      */
     @GetMapping("/add_user_to_project/{id}")
     public String addUserToProject(@PathVariable("id") Long projectId, Model model) {
-        List<UserDTO> users = userProjectService.getUsersNotInProject(projectId);
+        // Проект запрашивается один раз: и для проверки существования, и для названия
+        Project project = projectService.findProjectById(projectId);
+        List<UserDTO> users = project != null ? userProjectService.getUsersNotInProject(projectId) : null;
         if (users != null) {
             model.addAttribute("projectId", projectId);
-            model.addAttribute("projectName", projectService.findProjectById(projectId).getName());
+            model.addAttribute("projectName", project.getName());
             model.addAttribute("users", users);
             model.addAttribute("message", "Добавить выбранных пользователей");
             model.addAttribute("action", "add");
@@ -113,10 +173,11 @@ public class UserProjectController {
      */
     @GetMapping("/remove_users_from_project/{id}")
     public String removeUserFromProject(@PathVariable("id") Long projectId, Model model) {
-        List<UserDTO> users = userProjectService.getUsersByProjectId(projectId);
+        Project project = projectService.findProjectById(projectId);
+        List<UserDTO> users = project != null ? userProjectService.getUsersByProjectId(projectId) : null;
         if (users != null) {
             model.addAttribute("projectId", projectId);
-            model.addAttribute("projectName", projectService.findProjectById(projectId).getName());
+            model.addAttribute("projectName", project.getName());
             model.addAttribute("users", users);
             model.addAttribute("message", "Удалить выбранных пользователей");
             model.addAttribute("action", "remove");
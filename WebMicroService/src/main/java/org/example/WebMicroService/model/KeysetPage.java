@@ -0,0 +1,38 @@
+package org.example.WebMicroService.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Страница результатов, полученная от UserProjectService при курсорной (keyset) пагинации.
+ *
+ * @param <T> тип записей на странице
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPage<T> {
+
+    /**
+     * Записи текущей страницы.
+     */
+    private List<T> items;
+
+    /**
+     * Токен курсора для следующей страницы или null, если страница последняя.
+     */
+    private String nextCursor;
+
+    /**
+     * Размер страницы.
+     */
+    private int size;
+
+    /**
+     * Поле сортировки.
+     */
+    private String sort;
+}
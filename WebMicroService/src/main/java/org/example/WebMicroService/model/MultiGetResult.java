@@ -0,0 +1,28 @@
+package org.example.WebMicroService.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Результат получения нескольких записей по списку идентификаторов из UserProjectService.
+ *
+ * @param <T> тип записей
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiGetResult<T> {
+
+    /**
+     * Найденные записи в порядке запрошенных идентификаторов, без повторов.
+     */
+    private List<T> found;
+
+    /**
+     * Запрошенные идентификаторы, для которых записи не найдены.
+     */
+    private List<Long> missing;
+}
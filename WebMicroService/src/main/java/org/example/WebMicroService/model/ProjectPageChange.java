@@ -0,0 +1,45 @@
+package org.example.WebMicroService.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Изменение, отправляемое браузеру страниц участников проекта.
+ * Содержит данные пользователя, чтобы страница обновила строку таблицы без запроса к серверу.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectPageChange {
+
+    /**
+     * Тип сущности: USER, PROJECT или MEMBERSHIP.
+     */
+    private String entityType;
+
+    /**
+     * Тип изменения: UPSERT или DELETE.
+     */
+    private String changeType;
+
+    /**
+     * Идентификатор проекта для изменений проекта и связей.
+     */
+    private Long projectId;
+
+    /**
+     * Идентификатор пользователя для изменений пользователя и связей.
+     */
+    private Long userId;
+
+    /**
+     * Данные пользователя или null, если пользователь удален.
+     */
+    private UserDTO user;
+
+    /**
+     * Признак участия пользователя в проекте страницы; для изменений проекта - null.
+     */
+    private Boolean member;
+}
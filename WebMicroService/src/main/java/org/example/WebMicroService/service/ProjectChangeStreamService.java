@@ -0,0 +1,209 @@
+package org.example.WebMicroService.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import feign.FeignException;
+import org.example.WebMicroService.client.ChangeStreamClient;
+import org.example.WebMicroService.model.ProjectPageChange;
+import org.example.WebMicroService.model.UserDTO;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Передача изменений проекта в браузер для страниц участников проекта и добавления/удаления участников.
+ *
+ * На каждое подключение браузера открывается поток изменений UserProjectService с фильтром по проекту.
+ * События дополняются данными пользователя и признаком участия в проекте и отправляются браузеру
+ * с той же позицией изменения в качестве идентификатора события, поэтому при переподключении браузер
+ * продолжает с последнего полученного изменения.
+ *
+ * Участники проекта загружаются один раз при подключении и поддерживаются по изменениям связей из того же
+ * потока, поэтому признак участия не требует запросов к UserProjectService. Данные пользователя запрашиваются
+ * один раз на изменение для всех подключений: кэш по позиции изменения. Если UserProjectService не ответил
+ * на запрос данных, браузеру отправляется событие reset, и страница загружается заново, а не обновляется
+ * по неполным данным.
+ *
+ * Запись браузеру выполняется в потоке чтения: медленный браузер задерживает чтение, буфер подписчика
+ * в UserProjectService переполняется, и подписка отключается. Когда поток UserProjectService заканчивается,
+ * соединение с браузером закрывается и браузер переподключается.
+ */
+@Service
+public class ProjectChangeStreamService {
+
+    /**
+     * Количество последних изменений, для которых хранятся данные пользователя.
+     */
+    private static final int CHANGE_USERS_CACHE_SIZE = 1000;
+
+    /**
+     * Время хранения данных пользователя изменения: за это время изменение получают все подключения.
+     */
+    private static final Duration CHANGE_USERS_TTL = Duration.ofMinutes(1);
+
+    private final ChangeStreamClient changeStreamClient;
+    private final UserService userService;
+    private final UserProjectService userProjectService;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService relays;
+    /**
+     * Данные пользователей по позиции изменения; пустое значение - пользователь удален.
+     */
+    private final Cache<String, Optional<UserDTO>> changeUsers = Caffeine.newBuilder()
+            .maximumSize(CHANGE_USERS_CACHE_SIZE)
+            .expireAfterWrite(CHANGE_USERS_TTL)
+            .build();
+
+    public ProjectChangeStreamService(ChangeStreamClient changeStreamClient, UserService userService,
+                                      UserProjectService userProjectService, ObjectMapper objectMapper) {
+        this.changeStreamClient = changeStreamClient;
+        this.userService = userService;
+        this.userProjectService = userProjectService;
+        this.objectMapper = objectMapper;
+        AtomicInteger threadNumber = new AtomicInteger();
+        // Поток на подключение: чтение потока изменений блокируется до следующего события
+        this.relays = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "project-change-relay-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Подписывает браузер на изменения проекта.
+     *
+     * @param projectId   идентификатор проекта
+     * @param lastEventId идентификатор последнего полученного браузером события (заголовок Last-Event-ID) или null
+     * @return поток событий для браузера
+     */
+    public SseEmitter subscribe(Long projectId, String lastEventId) {
+        // Без таймаута: соединение закрывается вместе с потоком UserProjectService
+        SseEmitter emitter = new SseEmitter(0L);
+        relays.execute(() -> relay(emitter, projectId, lastEventId));
+        return emitter;
+    }
+
+    private void relay(SseEmitter emitter, Long projectId, String lastEventId) {
+        try {
+            Set<Long> members = loadMembers(projectId);
+            changeStreamClient.stream(projectId, lastEventId, new ChangeStreamClient.EventHandler() {
+                @Override
+                public void onEvent(ChangeStreamClient.Event event) throws IOException {
+                    if ("change".equals(event.name())) {
+                        emitter.send(SseEmitter.event()
+                                .id(event.id())
+                                .name("change")
+                                .data(toPageChange(projectId, members, event.id(),
+                                        objectMapper.readTree(event.data()))));
+                    } else {
+                        emitter.send(SseEmitter.event().name(event.name()).data(event.data()));
+                    }
+                }
+
+                @Override
+                public void onComment(String comment) throws IOException {
+                    // Пульс передается браузеру: так обнаруживается закрытая вкладка
+                    emitter.send(SseEmitter.event().comment(comment));
+                }
+            });
+            emitter.complete();
+        } catch (FeignException e) {
+            // Данные участников или пользователя недоступны: страница загружается заново
+            try {
+                emitter.send(SseEmitter.event().name("reset")
+                        .data("Project changes are not available, reload the page"));
+            } catch (IOException | IllegalStateException ignored) {
+                // Браузер уже отключился
+            }
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // UserProjectService недоступен или браузер отключился; браузер переподключится сам
+            emitter.complete();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        }
+    }
+
+    /**
+     * Загружает идентификаторы участников проекта; далее они обновляются по изменениям связей.
+     * Пропущенные изменения, отправляемые при переподключении, могут быть старше загруженного состава,
+     * но применяются в порядке ленты, поэтому состав сходится к текущему.
+     */
+    private Set<Long> loadMembers(Long projectId) {
+        Set<Long> members = new HashSet<>();
+        List<UserDTO> users = userProjectService.getUsersByProjectId(projectId);
+        if (users != null) {
+            users.forEach(user -> members.add(user.getId()));
+        }
+        return members;
+    }
+
+    /**
+     * Дополняет изменение ленты данными пользователя и признаком участия в проекте.
+     *
+     * @param members участники проекта подключения, обновляются по изменению
+     * @param eventId позиция изменения в ленте
+     * @throws FeignException если UserProjectService не вернул данные пользователя
+     */
+    private ProjectPageChange toPageChange(Long projectId, Set<Long> members, String eventId, JsonNode change) {
+        String entityType = change.path("entityType").asText();
+        String changeType = change.path("changeType").asText();
+        Long entityId = change.path("entityId").asLong();
+        boolean upsert = "UPSERT".equals(changeType);
+        ProjectPageChange pageChange = new ProjectPageChange(entityType, changeType, null, null, null, null);
+        switch (entityType) {
+            case "PROJECT" -> pageChange.setProjectId(entityId);
+            case "MEMBERSHIP" -> {
+                Long userId = change.path("relatedId").asLong();
+                if (projectId.equals(entityId)) {
+                    if (upsert) {
+                        members.add(userId);
+                    } else {
+                        members.remove(userId);
+                    }
+                }
+                pageChange.setProjectId(entityId);
+                pageChange.setUserId(userId);
+                pageChange.setUser(findUser(eventId, userId));
+                pageChange.setMember(upsert);
+            }
+            case "USER" -> {
+                pageChange.setUserId(entityId);
+                if (upsert) {
+                    pageChange.setUser(findUser(eventId, entityId));
+                    pageChange.setMember(members.contains(entityId));
+                } else {
+                    members.remove(entityId);
+                    pageChange.setMember(false);
+                }
+            }
+            default -> {
+                // Неизвестный тип передается без данных пользователя
+            }
+        }
+        return pageChange;
+    }
+
+    /**
+     * Получает данные пользователя изменения: первое подключение запрашивает их у UserProjectService,
+     * остальные получают из кэша.
+     *
+     * @return пользователь или null, если он удален после изменения (страница получит удаление следующим событием)
+     */
+    private UserDTO findUser(String eventId, Long userId) {
+        return changeUsers.get(eventId + ":" + userId,
+                key -> Optional.ofNullable(userService.getUserById(userId))).orElse(null);
+    }
+}
@@ -1,12 +1,16 @@
 package org.example.WebMicroService.service;
 
+import org.example.WebMicroService.model.KeysetPage;
+import org.example.WebMicroService.model.MultiGetResult;
 import org.example.WebMicroService.model.Project;
 
+import feign.FeignException;
 import lombok.AllArgsConstructor;
 import org.example.WebMicroService.client.ProjectClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -38,19 +42,56 @@ public class ProjectService {
         return response.getBody();
     }
 
+    /**
+     * Метод для получения страницы проектов с курсорной пагинацией
+     *
+     * @param sort   поле сортировки: id, name или created_date
+     * @param cursor токен курсора из предыдущей страницы или null для первой страницы
+     * @param size   размер страницы или null для размера по умолчанию
+     * @return страница проектов
+     */
+    public KeysetPage<Project> getProjectsPage(String sort, String cursor, Integer size) {
+        ResponseEntity<KeysetPage<Project>> response = projectClient.getProjectsPage(sort, cursor, size);
+        return response.getBody();
+    }
+
     /**
      * Метод для поиска проекта по идентификатору
      *
      * @param projectId идентификатор проекта
-     * @return проект или выбрасывает исключение, если не найден
+     * @return проект или null, если проект не найден (UserProjectService отвечает 404)
      */
     public Project findProjectById(Long projectId) {
-        ResponseEntity<Project> response = projectClient.findProjectById(projectId);
+        try {
+            ResponseEntity<Project> response = projectClient.findProjectById(projectId);
+            return response.getBody();
+        } catch (FeignException.NotFound e) {
+            return null;
+        }
+    }
+
+    /**
+     * Метод для получения нескольких проектов по идентификаторам одним запросом к UserProjectService
+     *
+     * @param projectIds идентификаторы проектов
+     * @return найденные проекты в порядке идентификаторов и идентификаторы, для которых проекты не найдены
+     */
+    public MultiGetResult<Project> findProjectsByIds(Collection<Long> projectIds) {
+        ResponseEntity<MultiGetResult<Project>> response = projectClient.findProjectsByIds(projectIds);
         return response.getBody();
     }
 
-    public List<Project> searchProjectByQuery(String searchString) {
-        ResponseEntity<List<Project>> response = projectClient.searchProject(searchString);
+    /**
+     * Метод для поиска проектов по названию и описанию.
+     * Поиск выполняется по полнотекстовому индексу UserProjectService, результаты упорядочены по релевантности.
+     *
+     * @param searchString строка поиска
+     * @param limit        максимальное количество результатов или null для значения по умолчанию
+     * @param offset       количество пропускаемых результатов или null
+     * @return найденные проекты
+     */
+    public List<Project> searchProjectByQuery(String searchString, Integer limit, Integer offset) {
+        ResponseEntity<List<Project>> response = projectClient.searchProject(searchString, limit, offset);
         return response.getBody();
     }
 
@@ -1,6 +1,7 @@
 package org.example.WebMicroService.service;
 
 import org.example.WebMicroService.client.UserProjectClient;
+import org.example.WebMicroService.model.KeysetPage;
 import org.example.WebMicroService.model.Project;
 import org.example.WebMicroService.model.UserDTO;
 import lombok.AllArgsConstructor;
@@ -37,6 +38,19 @@ public class UserProjectService {
         return response.getBody();
     }
 
+    /**
+     * Метод, возвращающий страницу пользователей, связанных с определенным проектом
+     *
+     * @param projectId идентификатор проекта
+     * @param cursor    токен курсора из предыдущей страницы или null для первой страницы
+     * @param size      размер страницы или null для размера по умолчанию
+     * @return страница пользователей
+     */
+    public KeysetPage<UserDTO> getUsersPageByProjectId(Long projectId, String cursor, Integer size) {
+        ResponseEntity<KeysetPage<UserDTO>> response = userProjectClient.getUsersInProjectPage(projectId, cursor, size);
+        return response.getBody();
+    }
+
     /**
      * Метод, возвращающий список проектов, связанных с определенным пользователем
      *
@@ -49,19 +63,44 @@ public class UserProjectService {
     }
 
     /**
-     * Метод, возвращающий список пользователей, не входящих в проект
+     * Метод, возвращающий страницу проектов, связанных с определенным пользователем
+     *
+     * @param userId идентификатор пользователя
+     * @param cursor токен курсора из предыдущей страницы или null для первой страницы
+     * @param size   размер страницы или null для размера по умолчанию
+     * @return страница проектов
+     */
+    public KeysetPage<Project> getProjectsPageByUserId(Long userId, String cursor, Integer size) {
+        ResponseEntity<KeysetPage<Project>> response = userProjectClient.getProjectsPageByUserId(userId, cursor, size);
+        return response.getBody();
+    }
+
+    /**
+     * Метод, возвращающий список пользователей, не входящих в проект.
+     * Существование проекта проверяет вызывающий код, которому проект нужен и для отображения.
      *
      * @param projectId идентификатор проекта
      * @return список пользователей, не входящих в проект
      */
     public List<UserDTO> getUsersNotInProject(Long projectId) {
-        if (!projectValidation(projectId)){
-            return null;
-        }
         ResponseEntity<List<UserDTO>> response = userProjectClient.getUsersNotIProject(projectId);
         return response.getBody();
     }
 
+    /**
+     * Метод, возвращающий страницу пользователей, не входящих в проект
+     *
+     * @param projectId идентификатор проекта
+     * @param cursor    токен курсора из предыдущей страницы или null для первой страницы
+     * @param size      размер страницы или null для размера по умолчанию
+     * @return страница пользователей, не входящих в проект
+     */
+    public KeysetPage<UserDTO> getUsersNotInProjectPage(Long projectId, String cursor, Integer size) {
+        ResponseEntity<KeysetPage<UserDTO>> response =
+                userProjectClient.getUsersNotInProjectPage(projectId, cursor, size);
+        return response.getBody();
+    }
+
     /**
      * Метод, добавляющий пользователя к проекту
      *
@@ -1,13 +1,17 @@
 package org.example.WebMicroService.service;
 
 
+import feign.FeignException;
 import lombok.AllArgsConstructor;
 import org.example.WebMicroService.client.UserClient;
+import org.example.WebMicroService.model.KeysetPage;
+import org.example.WebMicroService.model.MultiGetResult;
 import org.example.WebMicroService.model.UserAdd;
 import org.example.WebMicroService.model.UserDTO;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 
 
@@ -46,6 +50,18 @@ public class UserService {
         return response.getBody();
     }
 
+    /**
+     * Получает подсказки автодополнения по началу имени или адреса электронной почты пользователя.
+     *
+     * @param prefix начало имени, слова имени или адреса электронной почты
+     * @param limit  максимальное количество подсказок или null для значения по умолчанию
+     * @return подсказки с идентификатором, именем и адресом электронной почты пользователя
+     */
+    public List<UserDTO> autocompleteUsers(String prefix, Integer limit) {
+        ResponseEntity<List<UserDTO>> response = userClient.autocompleteUsers(prefix, limit);
+        return response.getBody();
+    }
+
     /**
      * Получает список всех пользователей в системе.
      *
@@ -56,14 +72,42 @@ public class UserService {
         return response.getBody();
     }
 
+    /**
+     * Получает страницу пользователей с курсорной пагинацией.
+     *
+     * @param sort   поле сортировки: id или user_name
+     * @param cursor токен курсора из предыдущей страницы или null для первой страницы
+     * @param size   размер страницы или null для размера по умолчанию
+     * @return страница пользователей
+     */
+    public KeysetPage<UserDTO> getUsersPage(String sort, String cursor, Integer size) {
+        ResponseEntity<KeysetPage<UserDTO>> response = userClient.getUsersPage(sort, cursor, size);
+        return response.getBody();
+    }
+
     /**
      * Получает пользователя по его идентификатору.
      *
      * @param userId идентификатор пользователя
-     * @return объект пользователя или null, если пользователь не найден
+     * @return объект пользователя или null, если пользователь не найден (UserProjectService отвечает 404)
      */
     public UserDTO getUserById(Long userId) {
-        ResponseEntity<UserDTO> response = userClient.findUserById(userId);
+        try {
+            ResponseEntity<UserDTO> response = userClient.findUserById(userId);
+            return response.getBody();
+        } catch (FeignException.NotFound e) {
+            return null;
+        }
+    }
+
+    /**
+     * Получает нескольких пользователей по идентификаторам одним запросом к UserProjectService.
+     *
+     * @param userIds идентификаторы пользователей
+     * @return найденные пользователи в порядке идентификаторов и идентификаторы, для которых пользователи не найдены
+     */
+    public MultiGetResult<UserDTO> getUsersByIds(Collection<Long> userIds) {
+        ResponseEntity<MultiGetResult<UserDTO>> response = userClient.findUsersByIds(userIds);
         return response.getBody();
     }
 
@@ -0,0 +1,82 @@
+/**
+ * Обновление таблиц пользователей на страницах проекта по изменениям с сервера (Server-Sent Events).
+ *
+ * Браузер сам переподключается к /project/{id}/changes и передает идентификатор последнего события,
+ * поэтому изменения во время переподключения не теряются. Событие reset означает, что пропущенные
+ * изменения недоступны, и страница загружается заново.
+ */
+
+const ROLE_LABELS = {
+    'ADMIN': 'Администратор',
+    'ROLE_ADMIN': 'Администратор',
+    'PROJECT_MANAGER': 'Руководитель проекта',
+    'ROLE_MANAGER': 'Руководитель проекта',
+    'PROJECT_ADMIN': 'Администратор проекта',
+    'USER': 'Пользователь',
+    'ROLE_USER': 'Пользователь'
+};
+
+/**
+ * Возвращает название роли пользователя.
+ */
+function roleLabel(role) {
+    return ROLE_LABELS[role] || '';
+}
+
+/**
+ * Создает ячейку таблицы с текстом.
+ */
+function textCell(text) {
+    const cell = document.createElement('td');
+    cell.textContent = text == null ? '' : text;
+    return cell;
+}
+
+/**
+ * Подписывает таблицу пользователей на изменения проекта.
+ *
+ * @param projectId   идентификатор проекта
+ * @param tbody       тело таблицы, строки которой помечены атрибутом data-user-id
+ * @param showMembers true - таблица участников проекта, false - таблица пользователей вне проекта
+ * @param renderCells функция, возвращающая ячейки строки для пользователя
+ */
+function bindProjectTable(projectId, tbody, showMembers, renderCells) {
+    const source = new EventSource('/project/' + projectId + '/changes');
+    source.addEventListener('change', event => {
+        const change = JSON.parse(event.data);
+        if (change.entityType === 'PROJECT') {
+            if (change.projectId === projectId && change.changeType === 'DELETE') {
+                source.close();
+                document.getElementById('project-deleted').hidden = false;
+            }
+            return;
+        }
+        if (change.member === null || (change.entityType === 'MEMBERSHIP' && change.projectId !== projectId)) {
+            return;
+        }
+        const row = tbody.querySelector('tr[data-user-id="' + change.userId + '"]');
+        if (change.user && change.member === showMembers) {
+            const updated = document.createElement('tr');
+            updated.dataset.userId = change.userId;
+            renderCells(change.user).forEach(cell => updated.appendChild(cell));
+            if (row) {
+                // Отметка выбора сохраняется при обновлении данных пользователя
+                const checked = row.querySelector('input[type=checkbox]:checked');
+                const checkbox = updated.querySelector('input[type=checkbox]');
+                if (checked && checkbox) {
+                    checkbox.checked = true;
+                }
+                row.replaceWith(updated);
+            } else {
+                tbody.appendChild(updated);
+            }
+        } else if (row) {
+            row.remove();
+        }
+    });
+    source.addEventListener('reset', () => {
+        source.close();
+        location.reload();
+    });
+    return source;
+}